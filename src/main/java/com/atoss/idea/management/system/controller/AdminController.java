@@ -0,0 +1,83 @@
+package com.atoss.idea.management.system.controller;
+
+import com.atoss.idea.management.system.security.RouteMatcher;
+import com.atoss.idea.management.system.utils.CounterReconciliationJob;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Maintenance operations; the routes are not listed in the public or private routes,
+ * so only admins can call them
+ */
+@RestController
+@Log4j2
+@RequestMapping("/aims/api/v1/admin")
+public class AdminController {
+
+    private final CounterReconciliationJob counterReconciliationJob;
+
+    private final RouteMatcher routeMatcher;
+
+    private final StatisticsRollupJob statisticsRollupJob;
+
+    /**
+     * Constructor for the Admin Controller
+     *
+     * @param counterReconciliationJob used for recomputing the stored comments, replies, likes and reports counters
+     * @param routeMatcher             used for reading the number of requests of each route
+     * @param statisticsRollupJob      used for computing again the daily statistics
+     */
+    public AdminController(CounterReconciliationJob counterReconciliationJob,
+                           RouteMatcher routeMatcher,
+                           StatisticsRollupJob statisticsRollupJob) {
+        this.counterReconciliationJob = counterReconciliationJob;
+        this.routeMatcher = routeMatcher;
+        this.statisticsRollupJob = statisticsRollupJob;
+    }
+
+    /**
+     * Recomputes the counters stored on the ideas and comments from the related rows
+     *
+     * @return a message with the number of corrected ideas and comments
+     */
+    @PostMapping("/counters/reconcile")
+    public ResponseEntity<String> reconcileCounters() {
+        if (log.isInfoEnabled()) {
+            log.info("Received request to reconcile the counters");
+        }
+        int corrected = counterReconciliationJob.reconcile();
+        return new ResponseEntity<>("Corrected the counters of " + corrected + " ideas and comments", HttpStatus.OK);
+    }
+
+    /**
+     * Computes again the daily statistics of every day from the ideas and comments
+     *
+     * @return a message with the number of days with statistics
+     */
+    @PostMapping("/statistics/rollup")
+    public ResponseEntity<String> rollupStatistics() {
+        if (log.isInfoEnabled()) {
+            log.info("Received request to compute again the daily statistics");
+        }
+        int days = statisticsRollupJob.rollupAllDays();
+        return new ResponseEntity<>("Computed the statistics of " + days + " days", HttpStatus.OK);
+    }
+
+    /**
+     * Returns the number of requests of each configured route since the start of the application
+     *
+     * @return the hits by route pattern, the most used routes first
+     */
+    @GetMapping("/routes/hits")
+    public ResponseEntity<Map<String, Long>> getRouteHits() {
+        return new ResponseEntity<>(routeMatcher.getHits(), HttpStatus.OK);
+    }
+}
@@ -1,14 +1,21 @@
 package com.atoss.idea.management.system.controller;
 
 import java.util.List;
-import com.atoss.idea.management.system.repository.dto.AvatarDTO;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import com.atoss.idea.management.system.service.AvatarService;
+import com.atoss.idea.management.system.service.BlobStorageService;
+import com.atoss.idea.management.system.utils.ContentResponses;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @Log4j2
@@ -17,32 +24,35 @@ public class AvatarController {
 
     private final AvatarService avatarService;
 
+    private final BlobStorageService blobStorageService;
+
     /**
      * Constructor for creating an instance of the AvatarController.
      *
      * @param avatarService The AvatarService used by the controller to handle avatar-related operations.
+     * @param blobStorageService The storage of the avatar images.
      *
      * @see AvatarController
      * @see AvatarService
      */
-    public AvatarController(AvatarService avatarService) {
+    public AvatarController(AvatarService avatarService, BlobStorageService blobStorageService) {
         this.avatarService = avatarService;
+        this.blobStorageService = blobStorageService;
     }
 
     /**
      * Retrieves a list of all avatars and returns them as a ResponseEntity with HTTP status 200 (OK).
      *
-     * This controller method calls the `getAllAvatars()` method of the AvatarService to fetch a list of all avatars.
-     * It then wraps the list in a ResponseEntity and sets the HTTP status code to 200 (OK).
+     * Only the metadata of the avatars is listed; their images are fetched by id from `/content`.
      *
-     * @return A ResponseEntity containing a list of AvatarDTO objects representing all avatars in the system.
+     * @return A ResponseEntity containing the metadata of all avatars in the system.
      */
     @GetMapping("/all")
-    public ResponseEntity<List<AvatarDTO>> getAllAvatars() {
+    public ResponseEntity<List<FileMetadataDTO>> getAllAvatars() {
         if (log.isInfoEnabled()) {
             log.info("Received request to retrieved all avatars");
         }
-        List<AvatarDTO> avatars = avatarService.getAllAvatars();
+        List<FileMetadataDTO> avatars = avatarService.getAllAvatars();
         if (log.isInfoEnabled()) {
             log.info("Retrieved all avatars successfully");
         }
@@ -50,4 +60,36 @@ public class AvatarController {
         return new ResponseEntity<>(avatars, HttpStatus.OK);
     }
 
+    /**
+     * Sends the image of an avatar, streamed from the storage without loading it in memory.
+     *
+     * @param id             The id of the avatar.
+     * @param requestHeaders The Range and If-None-Match headers.
+     * @return The image of the avatar, or the part of it which was asked for, or 304 if the client already has it.
+     */
+    @GetMapping("/content")
+    public ResponseEntity<StreamingResponseBody> getAvatarContent(@RequestParam Long id,
+                                                                  @RequestHeader HttpHeaders requestHeaders) {
+        if (log.isInfoEnabled()) {
+            log.info("Received request to get the image of an avatar");
+        }
+        return ContentResponses.byId(blobStorageService, avatarService.getAvatarMetadata(id), false, requestHeaders);
+    }
+
+    /**
+     * Sends the image of an avatar by its hash, the immutable URL of the image.
+     *
+     * @param contentHash    The SHA-256 of the image, as listed with the avatars.
+     * @param requestHeaders The Range and If-None-Match headers.
+     * @return The image of the avatar, or the part of it which was asked for, or 304 if the client already has it.
+     */
+    @GetMapping("/content/{contentHash}")
+    public ResponseEntity<StreamingResponseBody> getAvatarContentByHash(@PathVariable String contentHash,
+                                                                        @RequestHeader HttpHeaders requestHeaders) {
+        if (log.isInfoEnabled()) {
+            log.info("Received request to get the image of an avatar by its hash");
+        }
+        return ContentResponses.byHash(blobStorageService, contentHash,
+                () -> avatarService.getAvatarMetadataByContentHash(contentHash), requestHeaders);
+    }
 }
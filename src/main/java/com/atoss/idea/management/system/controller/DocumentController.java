@@ -2,13 +2,17 @@ package com.atoss.idea.management.system.controller;
 
 import com.atoss.idea.management.system.exception.DocumentNotFoundException;
 import com.atoss.idea.management.system.repository.dto.DocumentDTO;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.DocumentService;
+import com.atoss.idea.management.system.utils.ContentResponses;
 import jakarta.transaction.Transactional;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -20,14 +24,18 @@ import java.util.List;
 public class DocumentController {
     private final DocumentService documentService;
 
+    private final BlobStorageService blobStorageService;
+
     /**
      * Constructor
      *
      * @param documentService Dependency injection through constructor
+     * @param blobStorageService storage of the document contents
      */
     @Autowired
-    public DocumentController(DocumentService documentService) {
+    public DocumentController(DocumentService documentService, BlobStorageService blobStorageService) {
         this.documentService = documentService;
+        this.blobStorageService = blobStorageService;
     }
 
     //    /**
@@ -56,30 +64,28 @@ public class DocumentController {
 
 
     /**
-     * Gets a document from the database by the provided document id
+     * Downloads a document by the provided document id, streamed from the storage without loading it in memory
      *
      * @param id it is for getting the document by id.
-     * @return it returns a response entity with the selected document by the id of the document.
+     * @param requestHeaders the Range header, to download only a part of the document, and If-None-Match
+     * @return it returns the content of the document, or the part of it which was asked for,
+     *         or 304 if the client already has it.
      * @throws DocumentNotFoundException if the document we want to get doesn't exist into the database
      *                                   it will throw an exception
      */
     @GetMapping("/get")
-    public ResponseEntity<byte[]> getDocument(@RequestParam Long id) throws DocumentNotFoundException {
+    public ResponseEntity<StreamingResponseBody> getDocument(@RequestParam Long id,
+                                                             @RequestHeader HttpHeaders requestHeaders)
+            throws DocumentNotFoundException {
         if (log.isInfoEnabled()) {
             log.info("Received request to get the document");
         }
 
-        DocumentDTO document = documentService.getDocument(id);
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-        headers.setContentDisposition(ContentDisposition.builder("attachment")
-                .filename(document.getFileName())
-                .build());
+        FileMetadataDTO document = documentService.getDocumentMetadata(id);
         if (log.isInfoEnabled()) {
-            log.info("Successfully retrieved document with file name: {}", document.getFileName());
+            log.info("Streaming document with file name: {}", document.getFileName());
         }
-        byte[] fileContent = document.getDocument();
-        return new ResponseEntity<>(fileContent, headers, HttpStatus.OK);
+        return ContentResponses.byId(blobStorageService, document, true, requestHeaders);
     }
 
 
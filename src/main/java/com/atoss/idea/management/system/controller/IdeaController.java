@@ -11,6 +11,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,6 +20,7 @@ import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -196,6 +198,8 @@ public class IdeaController {
      * @param rating           rating to filter the ideas
      * @param subscribed       subscribed filter
      * @param userId           current userId
+     * @param cursorCreationDate optional keyset cursor, the creation date of the last idea already shown
+     * @param cursorId           optional keyset cursor, the id of the last idea already shown
      * @return a Response Entity containing an IdeaPage DTO ( the total number of ideas in all the pages +
      */
     @Transactional
@@ -214,7 +218,9 @@ public class IdeaController {
             @RequestParam(required = false) String rating,
             @RequestParam(required = true) String sortDirection,
             @RequestParam(required = false) Boolean subscribed,
-            @RequestParam(required = false) Long userId) {
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date cursorCreationDate,
+            @RequestParam(required = false) Long cursorId) {
         log.info("Received request to filter all ideas by given parameters");
 
         List<String> categories = new ArrayList<>();
@@ -247,7 +253,9 @@ public class IdeaController {
                 rating,
                 pageableAsc,
                 subscribed,
-                userId),
+                userId,
+                cursorCreationDate,
+                cursorId),
                 HttpStatus.OK
         );
     }
@@ -1,15 +1,22 @@
 package com.atoss.idea.management.system.controller;
 
 import com.atoss.idea.management.system.exception.ImageNotFoundException;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import com.atoss.idea.management.system.repository.dto.ImageDTO;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.ImageService;
+import com.atoss.idea.management.system.utils.ContentResponses;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 
 import java.io.IOException;
@@ -22,14 +29,18 @@ import java.util.List;
 public class ImageController {
     private final ImageService imageService;
 
+    private final BlobStorageService blobStorageService;
+
     /**
      * Constructor
      *
      * @param imageService Dependency injection through constructor
+     * @param blobStorageService storage of the image contents
      */
     @Autowired
-     public ImageController(ImageService imageService) {
+     public ImageController(ImageService imageService, BlobStorageService blobStorageService) {
         this.imageService = imageService;
+        this.blobStorageService = blobStorageService;
     }
 
     /**
@@ -46,12 +57,12 @@ public class ImageController {
     }
 
     /**
-     * Gets all the images from the database.
+     * Gets all the images from the database, without their contents, which are fetched from /content by id.
      *
-     * @return it returns a response entity with all the images from the database.
+     * @return it returns a response entity with the metadata of all the images from the database.
      */
     @GetMapping
-    public ResponseEntity<List<ImageDTO>> getAllImages() {
+    public ResponseEntity<List<FileMetadataDTO>> getAllImages() {
         log.info("Received request to get all images");
         return new ResponseEntity<>(imageService.getAllImage(), HttpStatus.OK);
     }
@@ -60,26 +71,84 @@ public class ImageController {
      * Gets a image from the database by the provided image id
      *
      * @param id it is for getting the image by id.
-     * @return it returns a response entity with the selected image by the id of the image.
+     * @param request the request, for its If-None-Match header
+     * @return it returns a response entity with the selected image by the id of the image,
+     *         or 304 if the client already has it.
      * @throws ImageNotFoundException if the image we want to get doesn't exist into the database
      *                                it will throw an exception
      */
     @GetMapping("/get")
-    public ResponseEntity<ImageDTO> getImage(@RequestParam Long id) throws ImageNotFoundException {
+    public ResponseEntity<ImageDTO> getImage(@RequestParam Long id, WebRequest request) throws ImageNotFoundException {
         log.info("Received request to get an image");
-        return new ResponseEntity<>(imageService.getImage(id), HttpStatus.OK);
+        return revalidated(imageService.getImage(id), request);
+    }
+
+    /**
+     * Sends the content of an image, streamed from the storage without loading it in memory
+     *
+     * @param id the id of the image
+     * @param requestHeaders the Range and If-None-Match headers
+     * @return the content of the image, or the part of it which was asked for, or 304 if the client already has it
+     * @throws ImageNotFoundException if the image doesn't exist
+     */
+    @GetMapping("/content")
+    public ResponseEntity<StreamingResponseBody> getImageContent(@RequestParam Long id,
+                                                                 @RequestHeader HttpHeaders requestHeaders)
+            throws ImageNotFoundException {
+        log.info("Received request to get the content of an image");
+        return ContentResponses.byId(blobStorageService, imageService.getImageMetadata(id), false, requestHeaders);
+    }
+
+    /**
+     * Sends the content of an image by its hash, the immutable URL of the image
+     *
+     * @param contentHash the SHA-256 of the content, as listed with the images
+     * @param requestHeaders the Range and If-None-Match headers
+     * @return the content of the image, or the part of it which was asked for, or 304 if the client already has it
+     * @throws ImageNotFoundException if no image has this content
+     */
+    @GetMapping("/content/{contentHash}")
+    public ResponseEntity<StreamingResponseBody> getImageContentByHash(@PathVariable String contentHash,
+                                                                       @RequestHeader HttpHeaders requestHeaders)
+            throws ImageNotFoundException {
+        log.info("Received request to get the content of an image by its hash");
+        return ContentResponses.byHash(blobStorageService, contentHash,
+                () -> imageService.getImageMetadataByContentHash(contentHash), requestHeaders);
     }
 
     /**
      *  Gets an image by an idea id
      *
      * @param id the id of the idea
-     * @return it returns a response entity with the image.
+     * @param request the request, for its If-None-Match header
+     * @return it returns a response entity with the image, or 304 if the client already has it.
      */
     @GetMapping("/getByIdea")
-    public ResponseEntity<ImageDTO> getImageByIdeaId(@RequestParam Long id) {
+    public ResponseEntity<ImageDTO> getImageByIdeaId(@RequestParam Long id, WebRequest request) {
         log.info("Received request to get an image");
-        return new ResponseEntity<>(imageService.getImageByIdeaId(id), HttpStatus.OK);
+        return revalidated(imageService.getImageByIdeaId(id), request);
+    }
+
+    /**
+     * Answers 304 when the client already has the image, else sends it with its content hash as ETag;
+     * the client revalidates every time, since the image of an idea can be replaced
+     *
+     * @param image the image
+     * @param request the request, for its If-None-Match header
+     * @return the image, or null when the 304 was set on the request
+     */
+    private static ResponseEntity<ImageDTO> revalidated(ImageDTO image, WebRequest request) {
+        if (image == null || image.getContentHash() == null) {
+            return new ResponseEntity<>(image, HttpStatus.OK);
+        }
+        String eTag = ContentResponses.eTag(image.getContentHash());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(image);
     }
 
 }
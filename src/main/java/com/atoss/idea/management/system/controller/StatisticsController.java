@@ -3,6 +3,7 @@ package com.atoss.idea.management.system.controller;
 import com.atoss.idea.management.system.repository.CommentRepository;
 import com.atoss.idea.management.system.repository.IdeaRepository;
 import com.atoss.idea.management.system.repository.dto.StatisticsDTO;
+import com.atoss.idea.management.system.repository.dto.StatisticsSeriesDTO;
 import com.atoss.idea.management.system.repository.entity.Idea;
 import com.atoss.idea.management.system.service.StatisticsService;
 import com.atoss.idea.management.system.service.implementation.IdeaServiceImpl;
@@ -96,6 +97,46 @@ public class StatisticsController {
 
     }
 
+    /**
+     * Returns the numbers of ideas by status, comments and replies created in the selected time interval,
+     * counted from the ideas and comments instead of the daily statistics
+     *
+     * @param selectedDateFrom date from which we select
+     * @param selectedDateTo data up to selection
+     * @return statisticsDTO without the most commented ideas and most liked comments
+     */
+    @GetMapping("/filteredCounts")
+    public ResponseEntity<StatisticsDTO> getFilteredCounts(
+            @RequestParam(required = false) String selectedDateFrom,
+            @RequestParam(required = false) String selectedDateTo) {
+
+        if (log.isInfoEnabled()) {
+            log.info("Received request to count ideas, comments and replies from {} to {}", selectedDateFrom, selectedDateTo);
+        }
+
+        return new ResponseEntity<>(statisticsService.getSelectionCounts(selectedDateFrom, selectedDateTo), HttpStatus.OK);
+    }
+
+    /**
+     * Returns the statistics of the selected time interval by day, week or month, so the trends
+     * are drawn with one request instead of one "/filteredStats" request per bucket
+     *
+     * @param selectedDateFrom date from which we select
+     * @param selectedDateTo data up to selection
+     * @param granularity day, week or month
+     * @return the series of statistics, one value per bucket
+     */
+    @GetMapping("/series")
+    public ResponseEntity<StatisticsSeriesDTO> getSeries(@RequestParam String selectedDateFrom,
+                                                         @RequestParam String selectedDateTo,
+                                                         @RequestParam(defaultValue = "day") String granularity) {
+        if (log.isInfoEnabled()) {
+            log.info("Received request for the statistics series by {} from {} to {}", granularity, selectedDateFrom, selectedDateTo);
+        }
+
+        return new ResponseEntity<>(statisticsService.getStatisticsSeries(selectedDateFrom, selectedDateTo, granularity), HttpStatus.OK);
+    }
+
     /**
      * Testing endpoint
      *
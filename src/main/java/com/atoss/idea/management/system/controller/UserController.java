@@ -4,16 +4,19 @@ import com.atoss.idea.management.system.exception.*;
 import com.atoss.idea.management.system.repository.dto.*;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.UserService;
+import com.atoss.idea.management.system.utils.ContentResponses;
 import jakarta.transaction.Transactional;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import com.atoss.idea.management.system.exception.UserNotFoundException;
 
 @RestController
@@ -398,13 +401,28 @@ public class UserController {
     /**
      * Retrieves the avatar of a user by their username.
      *
+     * The hash of the avatar is its ETag, so a client which already has the avatar gets a 304.
+     *
      * @param username the username of the user whose avatar is to be retrieved.
-     * @return a ResponseEntity containing the ImageDTO of the user's avatar and an HTTP status of OK.
+     * @param request  the request, for its {@code If-None-Match} header
+     * @return a ResponseEntity containing the ImageDTO of the user's avatar and an HTTP status of OK,
+     *         or null when the response is a 304.
      */
     @GetMapping("/get-avatar-by-username")
-    public ResponseEntity<ImageDTO> getAvatarByUsername(@RequestParam(name = "username") String username) {
+    public ResponseEntity<ImageDTO> getAvatarByUsername(@RequestParam(name = "username") String username, WebRequest request) {
         try {
-            return new ResponseEntity<>(userService.getAvatarByUsername(username), HttpStatus.OK);
+            ImageDTO image = userService.getAvatarByUsername(username);
+            if (image.getContentHash() == null) {
+                return new ResponseEntity<>(image, HttpStatus.OK);
+            }
+            String eTag = ContentResponses.eTag(image.getContentHash());
+            if (request.checkNotModified(eTag)) {
+                return null;
+            }
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(image);
         } catch (AvatarNotFoundException e) {
             return new ResponseEntity<>(HttpStatus.OK);
         }
@@ -0,0 +1,14 @@
+package com.atoss.idea.management.system.exception;
+
+public class BlobStorageException extends RuntimeException {
+
+    /**
+     * Custom exception class to indicate that the content of a file could not be stored or read
+     *
+     * @param message The error message explaining the reason for the exception
+     * @param cause   The I/O error, if any
+     */
+    public BlobStorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,14 @@
+package com.atoss.idea.management.system.exception;
+
+public class LoginUnavailableException extends RuntimeException {
+
+    /**
+     * Custom exception class to indicate that a login could not be authenticated in time,
+     * because too many logins are waiting.
+     *
+     * @param message The error message explaining the reason for the exception
+     */
+    public LoginUnavailableException(String message) {
+        super(message);
+    }
+}
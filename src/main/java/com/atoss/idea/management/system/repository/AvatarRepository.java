@@ -1,10 +1,45 @@
 package com.atoss.idea.management.system.repository;
 
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import com.atoss.idea.management.system.repository.entity.Avatar;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface AvatarRepository extends JpaRepository<Avatar, Long> {
 
+    /**
+     * Finds what is needed to send the content of an avatar
+     *
+     * @param id the id of the avatar
+     * @return the metadata of the avatar, or empty if it does not exist
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.FileMetadataDTO("
+            + "a.id, a.fileName, a.fileType, a.size, a.contentHash) FROM Avatar a WHERE a.id = :id")
+    Optional<FileMetadataDTO> findMetadataById(@Param("id") Long id);
+
+    /**
+     * Lists the avatars without their contents, for the pickers
+     *
+     * @return the id, file name, type, size and content hash of every avatar
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.FileMetadataDTO("
+            + "a.id, a.fileName, a.fileType, a.size, a.contentHash) FROM Avatar a ORDER BY a.id")
+    List<FileMetadataDTO> findAllMetadata();
+
+    /**
+     * Finds what is needed to send a content by its hash; several avatars may share the same content
+     *
+     * @param contentHash the SHA-256 of the content
+     * @return the metadata of the avatars with this content
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.FileMetadataDTO("
+            + "a.id, a.fileName, a.fileType, a.size, a.contentHash) FROM Avatar a "
+            + "WHERE a.contentHash = :contentHash ORDER BY a.id")
+    List<FileMetadataDTO> findMetadataByContentHash(@Param("contentHash") String contentHash);
 }
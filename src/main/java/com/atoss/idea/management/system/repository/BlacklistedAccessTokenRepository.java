@@ -1,18 +1,36 @@
 package com.atoss.idea.management.system.repository;
 
 import com.atoss.idea.management.system.repository.entity.BlacklistedAccessToken;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 
 public interface BlacklistedAccessTokenRepository extends JpaRepository<BlacklistedAccessToken, Long> {
 
     /**
-     * Deletes all blacklisted tokens older than a specified date.
+     * Deletes all blacklisted tokens which expired before a specified date, with one statement.
+     *
      * @param date The date until all blacklisted tokens will be removed
+     * @return the number of deleted tokens
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BlacklistedAccessToken b WHERE b.expiry < :date")
+    int deleteExpired(@Param("date") Date date);
+
+    /**
+     * Retrieves the blacklisted tokens which have not expired yet.
+     *
+     * @param date The current date
+     * @return the blacklisted tokens
      */
-    void deleteAllByExpiryLessThan(Date date);
+    List<BlacklistedAccessToken> findByExpiryGreaterThan(Date date);
 
     /**
      * Retrieves a BlacklistedAccessToken entry from the database based on a token.
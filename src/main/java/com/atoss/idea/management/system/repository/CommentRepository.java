@@ -1,5 +1,6 @@
 package com.atoss.idea.management.system.repository;
 
+import com.atoss.idea.management.system.repository.dto.ReportedCommentDTO;
 import com.atoss.idea.management.system.repository.entity.Comment;
 import com.atoss.idea.management.system.repository.entity.ReviewStatus;
 import jakarta.transaction.Transactional;
@@ -12,7 +13,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 //import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
@@ -22,11 +25,12 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      *
      * @param commentId the unique identifier of the comment for which reports should be deleted
      * @param userId    the unique identifier of the user associated with the reports to be deleted
+     * @return the number of deleted reports
      */
     @Transactional
     @Modifying
     @Query(value = "DELETE FROM reports WHERE user_id = :userId AND comment_id = :commentId", nativeQuery = true)
-    void deleteReport(Long commentId, Long userId);
+    int deleteReport(Long commentId, Long userId);
 
 
     /**
@@ -160,21 +164,22 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      *
      * @param commentId the ID of the comment from which the like is to be deleted.
      * @param userId    the ID of the user who liked the comment.
+     * @return the number of deleted likes.
      */
 
     @Modifying
     @Query(value = "DELETE FROM likes WHERE user_id = :userId AND comment_id = :commentId", nativeQuery = true)
-    void deleteLikes(@Param("commentId") Long commentId, @Param("userId") Long userId);
+    int deleteLikes(@Param("commentId") Long commentId, @Param("userId") Long userId);
 
 
     /**
-     * Counts the number of likes for a given comment.
+     * Reads the stored number of likes of a given comment.
      *
-     * @param commentId the ID of the comment for which likes are to be counted.
-     * @return the number of likes for the comment.
+     * @param commentId the ID of the comment.
+     * @return the number of likes for the comment, empty if the comment does not exist.
      */
-    @Query("SELECT COUNT(l) FROM User u JOIN u.likedComments l WHERE l.id = :commentId")
-    int countLikesByCommentId(@Param("commentId") Long commentId);
+    @Query("SELECT c.likesCount FROM Comment c WHERE c.id = :commentId")
+    Optional<Integer> findLikesCountById(@Param("commentId") Long commentId);
 
     /**
      * Counts the number of reports.
@@ -215,13 +220,22 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     boolean existsReportByCommentIdAndUserId(@Param("commentId") Long commentId, @Param("userId") Long userId);
 
     /**
-     * Counts the number of reports for a specific comment.
+     * Reads the creation date of a comment or reply.
+     *
+     * @param commentId the ID of the comment
+     * @return the creation date, empty if the comment does not exist
+     */
+    @Query("SELECT c.creationDate FROM Comment c WHERE c.id = :commentId")
+    Optional<Date> findCreationDateById(@Param("commentId") Long commentId);
+
+    /**
+     * Reads the stored number of reports of a specific comment.
      *
      * @param commentId the ID of the comment
-     * @return the count of reports for the specified comment
+     * @return the count of reports for the specified comment, empty if the comment does not exist
      */
-    @Query("SELECT COUNT(l) FROM User u JOIN u.reportedComments l WHERE l.id = :commentId")
-    int countReportsByCommentId(@Param("commentId") Long commentId);
+    @Query("SELECT c.reportsCount FROM Comment c WHERE c.id = :commentId")
+    Optional<Integer> findReportsCountById(@Param("commentId") Long commentId);
 
 
     /**
@@ -234,12 +248,18 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     void deleteRepliesForComment(Long commentId);
 
     /**
-     * Retrieves the IDs of comments that have been reported by five or more users.
+     * Retrieves the moderation queue: the comments reported more than five times, the most reported first,
+     * with their text, review status and author. The filter and the order match the partial index
+     * idx_comment_reported created in import.sql, so a page is read without going through every comment.
      *
-     * @return a list of comment IDs that have five or more reports
+     * @param pageable the page to retrieve, without sort
+     * @return a page of the reported comments
      */
-    @Query("SELECT c.id FROM Comment c JOIN c.listOfUsers u GROUP BY c.id HAVING COUNT(u) > 5")
-    List<Long> moreThenFiveReports();
+    @Query(value = "SELECT new com.atoss.idea.management.system.repository.dto.ReportedCommentDTO("
+            + "c.id, c.commentText, c.renderedCommentText, c.reportsCount, c.reviewStatus, u.username) "
+            + "FROM Comment c JOIN c.user u WHERE c.reportsCount > 5 ORDER BY c.reportsCount DESC, c.id DESC",
+            countQuery = "SELECT COUNT(c) FROM Comment c WHERE c.reportsCount > 5")
+    Page<ReportedCommentDTO> findReported(Pageable pageable);
 
     /**
      * Deletes likes associated with a specific comment.
@@ -254,10 +274,11 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      * Deletes reports associated with a specific comment.
      *
      * @param commentId the ID of the comment
+     * @return the number of deleted reports
      */
     @Modifying
     @Query(value = "DELETE FROM reports where comment_id = :commentId", nativeQuery = true)
-    void deleteReportsByCommentId(Long commentId);
+    int deleteReportsByCommentId(Long commentId);
 
     /**
      * Finds the top 5 comments with the most likes.
@@ -266,11 +287,9 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
      */
     @Query(value = "SELECT c.* FROM comment c "
             +
-            "JOIN likes l ON c.comment_id = l.comment_id "
+            "WHERE c.likes_count > 0 "
             +
-            "GROUP BY c.comment_id "
-            +
-            "ORDER BY COUNT(l.user_id) DESC "
+            "ORDER BY c.likes_count DESC "
             +
             "LIMIT 5", nativeQuery = true)
     List<Comment> findTop5CommentsByLikes();
@@ -293,4 +312,81 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     @Query(value = "SELECT review_status FROM comment  WHERE comment_id = :commentId", nativeQuery = true)
     ReviewStatus getReviewStatusByCommentId(Long commentId);
 
+    /**
+     * Searches in the Database a batch of comments and replies whose HTML was not stored yet
+     *
+     * @param pageable the size of the batch
+     * @return the comments without rendered HTML
+     */
+    List<Comment> findByRenderedCommentTextIsNull(Pageable pageable);
+
+    /**
+     * Stores the rendered HTML of a comment or reply, without touching any other column. The comment is only
+     * updated while it has no HTML, so the HTML stored by an edit made in the meantime is not replaced
+     *
+     * @param commentId the id of the comment
+     * @param renderedCommentText the HTML of the comment text
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Comment c SET c.renderedCommentText = :renderedCommentText "
+            + "WHERE c.id = :commentId AND c.renderedCommentText IS NULL")
+    void updateRenderedHtml(@Param("commentId") Long commentId,
+                            @Param("renderedCommentText") String renderedCommentText);
+
+    /**
+     * Adds the given value to the number of likes of a comment, in the database,
+     * so concurrent likes are not lost. The number never goes below zero.
+     *
+     * @param commentId the ID of the comment
+     * @param delta     1 for a new like, -1 for a removed like
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Comment c SET c.likesCount = c.likesCount + :delta WHERE c.id = :commentId AND c.likesCount + :delta >= 0")
+    void addToLikesCount(@Param("commentId") Long commentId, @Param("delta") int delta);
+
+    /**
+     * Adds the given value to the number of reports of a comment, in the database.
+     * The number never goes below zero.
+     *
+     * @param commentId the ID of the comment
+     * @param delta     the number of added reports, negative for removed reports
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Comment c SET c.reportsCount = c.reportsCount + :delta WHERE c.id = :commentId AND c.reportsCount + :delta >= 0")
+    void addToReportsCount(@Param("commentId") Long commentId, @Param("delta") int delta);
+
+    /**
+     * Adds the given value to the number of replies of a comment, in the database.
+     * The number never goes below zero.
+     *
+     * @param commentId the ID of the comment
+     * @param delta     1 for a new reply, -1 for a deleted reply
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Comment c SET c.repliesCount = c.repliesCount + :delta WHERE c.id = :commentId AND c.repliesCount + :delta >= 0")
+    void addToRepliesCount(@Param("commentId") Long commentId, @Param("delta") int delta);
+
+    /**
+     * Recomputes the number of replies, likes and reports of every comment from the related rows,
+     * and stores them for the comments whose numbers drifted
+     *
+     * @return the number of corrected comments
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE comment c SET replies_count = counts.replies, likes_count = counts.likes, reports_count = counts.reports "
+            + "FROM (SELECT cm.comment_id, "
+            + "(SELECT COUNT(*) FROM comment r WHERE r.parent_id = cm.comment_id) AS replies, "
+            + "(SELECT COUNT(*) FROM likes l WHERE l.comment_id = cm.comment_id) AS likes, "
+            + "(SELECT COUNT(*) FROM reports rp WHERE rp.comment_id = cm.comment_id) AS reports "
+            + "FROM comment cm) counts "
+            + "WHERE counts.comment_id = c.comment_id "
+            + "AND (c.replies_count <> counts.replies OR c.likes_count <> counts.likes OR c.reports_count <> counts.reports)",
+            nativeQuery = true)
+    int reconcileCounters();
+
 }
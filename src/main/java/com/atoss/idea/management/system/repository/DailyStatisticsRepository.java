@@ -0,0 +1,143 @@
+package com.atoss.idea.management.system.repository;
+
+import com.atoss.idea.management.system.repository.dto.StatisticsBucketView;
+import com.atoss.idea.management.system.repository.dto.StatisticsCountsView;
+import com.atoss.idea.management.system.repository.dto.StatisticsTotalsDTO;
+import com.atoss.idea.management.system.repository.entity.DailyStatistics;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyStatisticsRepository extends JpaRepository<DailyStatistics, LocalDate> {
+
+    /**
+     * Sums the statistics of every day
+     *
+     * @return the totals since the beginning of the app, zero if there is no statistics yet
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.StatisticsTotalsDTO("
+            + "COALESCE(SUM(d.openIdeas), 0L), COALESCE(SUM(d.draftIdeas), 0L), COALESCE(SUM(d.implementedIdeas), 0L), "
+            + "COALESCE(SUM(d.comments), 0L), COALESCE(SUM(d.replies), 0L), "
+            + "COALESCE(SUM(d.likes), 0L), COALESCE(SUM(d.reports), 0L), COALESCE(SUM(d.ratings), 0L)) "
+            + "FROM DailyStatistics d")
+    StatisticsTotalsDTO sumAll();
+
+    /**
+     * Sums the statistics of the days between two days
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     * @return the totals of the days, zero if there is no statistics for them
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.StatisticsTotalsDTO("
+            + "COALESCE(SUM(d.openIdeas), 0L), COALESCE(SUM(d.draftIdeas), 0L), COALESCE(SUM(d.implementedIdeas), 0L), "
+            + "COALESCE(SUM(d.comments), 0L), COALESCE(SUM(d.replies), 0L), "
+            + "COALESCE(SUM(d.likes), 0L), COALESCE(SUM(d.reports), 0L), COALESCE(SUM(d.ratings), 0L)) "
+            + "FROM DailyStatistics d WHERE d.day BETWEEN :from AND :to")
+    StatisticsTotalsDTO sumBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Sums the statistics of the days between two days by day, week or month, with one grouped query
+     *
+     * @param unit the length of the buckets: day, week or month; the weeks start on monday
+     * @param from the first day, included
+     * @param to   the last day, included
+     * @return the sums of the buckets with statistics, the first bucket first
+     */
+    @Query(value = "SELECT CAST(date_trunc(CAST(:unit AS text), d.day) AS date) AS \"bucket\", "
+            + "SUM(d.open_ideas) AS \"openIdeas\", SUM(d.draft_ideas) AS \"draftIdeas\", "
+            + "SUM(d.implemented_ideas) AS \"implementedIdeas\", SUM(d.comments) AS \"comments\", "
+            + "SUM(d.replies) AS \"replies\", SUM(d.ratings) AS \"ratings\", SUM(d.likes) AS \"likes\" "
+            + "FROM daily_statistics d WHERE d.day BETWEEN :from AND :to "
+            + "GROUP BY 1 ORDER BY 1",
+            nativeQuery = true)
+    List<StatisticsBucketView> sumByBucket(@Param("unit") String unit, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Counts the ideas by status, the comments and the replies created between two days, straight from
+     * the ideas and comments, in one round trip. Each table is scanned once through its creation date
+     * index, which also holds the status or the parent, so no row is read.
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     * @return the numbers of ideas, comments and replies of the days
+     */
+    @Query(value = "SELECT ideas.open_ideas AS \"openIdeas\", ideas.draft_ideas AS \"draftIdeas\", "
+            + "ideas.implemented_ideas AS \"implementedIdeas\", "
+            + "comments.comments AS \"comments\", comments.replies AS \"replies\" "
+            + "FROM (SELECT COUNT(*) FILTER (WHERE i.status = 0) AS open_ideas, "
+            + "COUNT(*) FILTER (WHERE i.status = 1) AS draft_ideas, "
+            + "COUNT(*) FILTER (WHERE i.status = 2) AS implemented_ideas "
+            + "FROM idea i WHERE i.date >= :from AND i.date < CAST(:to AS date) + 1) ideas "
+            + "CROSS JOIN (SELECT COUNT(*) FILTER (WHERE c.parent_id IS NULL) AS comments, "
+            + "COUNT(*) FILTER (WHERE c.parent_id IS NOT NULL) AS replies "
+            + "FROM comment c WHERE c.creation_date >= :from AND c.creation_date < CAST(:to AS date) + 1) comments",
+            nativeQuery = true)
+    StatisticsCountsView countBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Deletes the statistics of the days between two days, before they are computed again
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     * @return the number of deleted days
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DailyStatistics d WHERE d.day BETWEEN :from AND :to")
+    int deleteBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Computes the statistics of the days between two days from the ideas and comments, with one
+     * grouped query. The ideas are counted on the day they were created, by their current status, with
+     * the ratings they received; the comments and replies on the day they were written, with their
+     * likes and reports. The days must have been deleted before.
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     * @return the number of days with statistics
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO daily_statistics "
+            + "(day, open_ideas, draft_ideas, implemented_ideas, comments, replies, likes, reports, ratings) "
+            + "SELECT facts.day, SUM(facts.open_ideas), SUM(facts.draft_ideas), SUM(facts.implemented_ideas), "
+            + "SUM(facts.comments), SUM(facts.replies), SUM(facts.likes), SUM(facts.reports), SUM(facts.ratings) "
+            + "FROM ("
+            + "SELECT CAST(i.date AS date) AS day, "
+            + "CASE WHEN i.status = 0 THEN 1 ELSE 0 END AS open_ideas, "
+            + "CASE WHEN i.status = 1 THEN 1 ELSE 0 END AS draft_ideas, "
+            + "CASE WHEN i.status = 2 THEN 1 ELSE 0 END AS implemented_ideas, "
+            + "0 AS comments, 0 AS replies, 0 AS likes, 0 AS reports, i.rating_count AS ratings "
+            + "FROM idea i WHERE i.date >= :from AND i.date < CAST(:to AS date) + 1 "
+            + "UNION ALL "
+            + "SELECT CAST(c.creation_date AS date), 0, 0, 0, "
+            + "CASE WHEN c.parent_id IS NULL THEN 1 ELSE 0 END, "
+            + "CASE WHEN c.parent_id IS NULL THEN 0 ELSE 1 END, "
+            + "c.likes_count, c.reports_count, 0 "
+            + "FROM comment c WHERE c.creation_date >= :from AND c.creation_date < CAST(:to AS date) + 1"
+            + ") facts GROUP BY facts.day",
+            nativeQuery = true)
+    int insertBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Computes the statistics of the days between two days again, in one transaction,
+     * so the days are never read half computed
+     *
+     * @param from the first day, included
+     * @param to   the last day, included
+     * @return the number of days with statistics
+     */
+    @Transactional
+    default int rebuildBetween(LocalDate from, LocalDate to) {
+        deleteBetween(from, to);
+        return insertBetween(from, to);
+    }
+}
@@ -1,7 +1,11 @@
 package com.atoss.idea.management.system.repository;
 
+import com.atoss.idea.management.system.repository.dto.DocumentDTO;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import com.atoss.idea.management.system.repository.entity.Document;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +21,17 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
      */
     List<Document> findDocumentsByIdeaId(Long ideaId);
 
+    /**
+     * Lists the documents attached to the given idea without their contents, for the attachment list
+     *
+     * @param ideaId id of the idea to which the documents are attached
+     * @return the metadata of the documents, with the ids of their idea and user
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.DocumentDTO("
+            + "d.id, d.fileName, d.fileType, d.size, d.contentHash, d.idea.id, d.user.id) "
+            + "FROM Document d WHERE d.idea.id = :ideaId ORDER BY d.id")
+    List<DocumentDTO> findMetadataByIdeaId(@Param("ideaId") Long ideaId);
+
     /**
      * Retrieves the documents attached to the given idea
      *
@@ -71,4 +86,14 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
      */
     Document findDocumentById(Long id);
 
+    /**
+     * Retrieves what is needed to download a document, without its idea and user
+     *
+     * @param id the id of the document
+     * @return the metadata of the document, or empty if it does not exist
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.FileMetadataDTO("
+            + "d.id, d.fileName, d.fileType, d.size, d.contentHash) FROM Document d WHERE d.id = :id")
+    Optional<FileMetadataDTO> findMetadataById(@Param("id") Long id);
+
 }
@@ -2,14 +2,18 @@ package com.atoss.idea.management.system.repository;
 
 import com.atoss.idea.management.system.repository.entity.Idea;
 import com.atoss.idea.management.system.repository.entity.Status;
+import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -26,9 +30,33 @@ public interface IdeaRepository extends JpaRepository<Idea, Long> {
      * @return returns from the DB all the ideas who belong to a user with a
      *         given username, paged
      */
-    @Query("SELECT i FROM Idea i JOIN i.user u WHERE u.username = :username")
+    @Query(value = "SELECT i FROM Idea i JOIN FETCH i.user u LEFT JOIN FETCH u.avatar LEFT JOIN FETCH i.image "
+            + "WHERE u.username = :username",
+            countQuery = "SELECT COUNT(i) FROM Idea i JOIN i.user u WHERE u.username = :username")
     Page<Idea> findAllByUserUsername(@Param("username") String username, Pageable pageable);
 
+    /**
+     * Checks in the Database if the user with the given username has at least one idea,
+     * without loading the ideas of the user
+     *
+     * @param username the username of the User
+     * @return true if the user has at least one idea, false otherwise
+     */
+    boolean existsByUserUsername(String username);
+
+    /**
+     * Retrieves a page of ideas for the ideas feed, together with their author and image,
+     * so that mapping a page to DTOs does not trigger one extra query per row
+     *
+     * @param pageable it contains all the necessary information about the
+     *                 requested page, such as page size, page number,
+     *                 sort category and sort direction
+     * @return a page of ideas with the user and image already loaded
+     */
+    @Query(value = "SELECT i FROM Idea i JOIN FETCH i.user u LEFT JOIN FETCH u.avatar LEFT JOIN FETCH i.image",
+            countQuery = "SELECT COUNT(i) FROM Idea i")
+    Page<Idea> findFeedPage(Pageable pageable);
+
     /**
      * Counts in the Database the number of idea who have a specific status
      *
@@ -62,6 +90,36 @@ public interface IdeaRepository extends JpaRepository<Idea, Long> {
     List<Long> countStatusByDate(@Param("selectedDateFrom") String selectedDateFrom,
                            @Param("selectedDateTo") String selectedDateTo);
 
+    /**
+     * Retrieves the ideas with the most comments, together with their author and image, by the number
+     * of comments stored on the ideas; the ideas without comments are left out
+     *
+     * @param excluded the status of the ideas which are left out
+     * @param pageable the number of ideas
+     * @return the most commented ideas, the most commented first
+     */
+    @Query("SELECT i FROM Idea i JOIN FETCH i.user LEFT JOIN FETCH i.image "
+            + "WHERE i.status <> :excluded AND i.commentsCount > 0 ORDER BY i.commentsCount DESC, i.id")
+    List<Idea> findMostCommented(@Param("excluded") Status excluded, Pageable pageable);
+
+    /**
+     * Retrieves the ideas created in a time interval with the most comments, together with their author
+     * and image, by the number of comments stored on the ideas; the ideas without comments are left out
+     *
+     * @param excluded the status of the ideas which are left out
+     * @param from     the start of the interval, included
+     * @param to       the end of the interval, excluded
+     * @param pageable the number of ideas
+     * @return the most commented ideas, the most commented first
+     */
+    @Query("SELECT i FROM Idea i JOIN FETCH i.user LEFT JOIN FETCH i.image "
+            + "WHERE i.status <> :excluded AND i.commentsCount > 0 AND i.creationDate >= :from AND i.creationDate < :to "
+            + "ORDER BY i.commentsCount DESC, i.id")
+    List<Idea> findMostCommentedCreatedBetween(@Param("excluded") Status excluded,
+                                               @Param("from") Date from,
+                                               @Param("to") Date to,
+                                               Pageable pageable);
+
     /**
      * returns all ideas in order to be further processed
      *  Use-cases : if we want te get more detailed  info about statistics generated from a certain given time interval
@@ -101,4 +159,122 @@ public interface IdeaRepository extends JpaRepository<Idea, Long> {
      */
     @Query("SELECT i FROM Idea i JOIN i.commentList c JOIN c.replies r WHERE r.id = :replyId")
     Optional<Idea> findIdeaByReplyId(@Param("replyId") Long replyId);
+
+    /**
+     * Reads the creation date of an idea
+     *
+     * @param ideaId the id of the idea
+     * @return the creation date, empty if the idea does not exist
+     */
+    @Query("SELECT i.creationDate FROM Idea i WHERE i.id = :ideaId")
+    Optional<Date> findCreationDateById(@Param("ideaId") Long ideaId);
+
+    /**
+     * Reads the creation dates of the comments of an idea and of their replies
+     *
+     * @param ideaId the id of the idea
+     * @return the creation dates of the comments and replies
+     */
+    @Query("SELECT c.creationDate FROM Comment c LEFT JOIN c.parent p WHERE c.idea.id = :ideaId OR p.idea.id = :ideaId")
+    List<Date> findCommentCreationDatesById(@Param("ideaId") Long ideaId);
+
+    /**
+     * Searches in the Database a batch of ideas whose HTML was not stored yet
+     *
+     * @param pageable the size of the batch
+     * @return the ideas without rendered HTML
+     */
+    List<Idea> findByRenderedTextIsNull(Pageable pageable);
+
+    /**
+     * Stores the rendered HTML of an idea, without touching any other column. The idea is only updated
+     * while it has no HTML, so the HTML stored by an edit made in the meantime is not replaced
+     *
+     * @param ideaId the id of the idea
+     * @param renderedTitle the HTML of the title
+     * @param renderedText the HTML of the text
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Idea i SET i.renderedTitle = :renderedTitle, i.renderedText = :renderedText "
+            + "WHERE i.id = :ideaId AND i.renderedText IS NULL")
+    void updateRenderedHtml(@Param("ideaId") Long ideaId,
+                            @Param("renderedTitle") String renderedTitle,
+                            @Param("renderedText") String renderedText);
+
+    /**
+     * Adds the given value to the number of comments of an idea, in the database,
+     * so concurrent comments are not lost. The number never goes below zero.
+     *
+     * @param ideaId the id of the idea
+     * @param delta  1 for a new comment, -1 for a deleted comment
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Idea i SET i.commentsCount = i.commentsCount + :delta WHERE i.id = :ideaId AND i.commentsCount + :delta >= 0")
+    void addToCommentsCount(@Param("ideaId") Long ideaId, @Param("delta") int delta);
+
+    /**
+     * Recomputes the number of top level comments of every idea and stores it
+     * for the ideas whose number drifted
+     *
+     * @return the number of corrected ideas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE idea i SET comments_count = counts.comments "
+            + "FROM (SELECT ii.idea_id, (SELECT COUNT(*) FROM comment c WHERE c.idea_id = ii.idea_id) AS comments FROM idea ii) counts "
+            + "WHERE counts.idea_id = i.idea_id AND i.comments_count <> counts.comments",
+            nativeQuery = true)
+    int reconcileCommentsCount();
+
+    /**
+     * Adds a new rating, or the difference between the new and the old value of a replaced rating,
+     * to the rating totals of an idea and recomputes the average, in a single statement so
+     * concurrent ratings are not lost
+     *
+     * @param ideaId      the id of the idea
+     * @param ratingDelta the value of a new rating, or the new value minus the old value of a replaced rating
+     * @param countDelta  1 for a new rating, 0 for a replaced rating
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Idea i SET i.ratingSum = i.ratingSum + :ratingDelta, i.ratingCount = i.ratingCount + :countDelta, "
+            + "i.ratingAvg = (i.ratingSum + :ratingDelta) / (i.ratingCount + :countDelta) WHERE i.id = :ideaId")
+    void addToRatingTotals(@Param("ideaId") Long ideaId,
+                           @Param("ratingDelta") double ratingDelta,
+                           @Param("countDelta") int countDelta);
+
+    /**
+     * Reads the stored number of ratings of an idea
+     *
+     * @param ideaId the id of the idea
+     * @return the number of ratings, empty if the idea does not exist
+     */
+    @Query("SELECT i.ratingCount FROM Idea i WHERE i.id = :ideaId")
+    Optional<Integer> findRatingCountById(@Param("ideaId") Long ideaId);
+
+    /**
+     * Returns the stored number of ratings of every rated idea
+     *
+     * @return a list of objects with idea ID and the count of ratings
+     */
+    @Query(value = "SELECT i.idea_id AS ideaId, i.rating_count AS ratingCount FROM idea i WHERE i.rating_count > 0", nativeQuery = true)
+    List<Map<Long, Object>> countRatingsForEachIdea();
+
+    /**
+     * Recomputes the rating totals and the average of every idea from the ratings
+     * and stores them for the ideas whose totals drifted
+     *
+     * @return the number of corrected ideas
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE idea i SET rating_sum = totals.rating_sum, rating_count = totals.rating_count, "
+            + "rating_avg = CASE WHEN totals.rating_count > 0 THEN totals.rating_sum / totals.rating_count END "
+            + "FROM (SELECT ii.idea_id, COALESCE(SUM(r.rating), 0) AS rating_sum, COUNT(r.rating_id) AS rating_count "
+            + "FROM idea ii LEFT JOIN rating r ON r.idea_id = ii.idea_id GROUP BY ii.idea_id) totals "
+            + "WHERE totals.idea_id = i.idea_id AND (i.rating_sum <> totals.rating_sum OR i.rating_count <> totals.rating_count)",
+            nativeQuery = true)
+    int reconcileRatingTotals();
 }
@@ -1,9 +1,15 @@
 package com.atoss.idea.management.system.repository;
 
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import com.atoss.idea.management.system.repository.entity.Image;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface ImageRepository extends JpaRepository<Image, Long> {
 
@@ -30,4 +36,34 @@ public interface ImageRepository extends JpaRepository<Image, Long> {
      * @return the image associated to the idea
      */
     Image findByIdeaId(Long id);
-}
\ No newline at end of file
+
+    /**
+     * Finds what is needed to send the content of an image
+     *
+     * @param id the id of the image
+     * @return the metadata of the image, or empty if it does not exist
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.FileMetadataDTO("
+            + "i.id, i.fileName, i.fileType, i.size, i.contentHash) FROM Image i WHERE i.id = :id")
+    Optional<FileMetadataDTO> findMetadataById(@Param("id") Long id);
+
+    /**
+     * Lists the images without their contents, for the pickers
+     *
+     * @return the id, file name, type, size and content hash of every image
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.FileMetadataDTO("
+            + "i.id, i.fileName, i.fileType, i.size, i.contentHash) FROM Image i ORDER BY i.id")
+    List<FileMetadataDTO> findAllMetadata();
+
+    /**
+     * Finds what is needed to send a content by its hash; several images may share the same content
+     *
+     * @param contentHash the SHA-256 of the content
+     * @return the metadata of the images with this content
+     */
+    @Query("SELECT new com.atoss.idea.management.system.repository.dto.FileMetadataDTO("
+            + "i.id, i.fileName, i.fileType, i.size, i.contentHash) FROM Image i "
+            + "WHERE i.contentHash = :contentHash ORDER BY i.id")
+    List<FileMetadataDTO> findMetadataByContentHash(@Param("contentHash") String contentHash);
+}
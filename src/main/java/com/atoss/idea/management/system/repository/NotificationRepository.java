@@ -0,0 +1,83 @@
+package com.atoss.idea.management.system.repository;
+
+import com.atoss.idea.management.system.repository.entity.Notification;
+import com.atoss.idea.management.system.repository.entity.NotificationStatus;
+import jakarta.transaction.Transactional;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface NotificationRepository extends JpaRepository<Notification, Long> {
+
+    /**
+     * Finds the notifications with one of the given statuses whose next attempt is due
+     *
+     * @param statuses the statuses of the notifications
+     * @param now      the current date
+     * @param pageable the maximum number of notifications to return
+     * @return the due notifications, the oldest first
+     */
+    List<Notification> findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(Collection<NotificationStatus> statuses,
+                                                                               Date now,
+                                                                               Pageable pageable);
+
+    /**
+     * Claims a due notification for a worker, until the given date. Only one caller can claim
+     * the same notification, the others get 0.
+     *
+     * @param id            the id of the notification
+     * @param statuses      the statuses a notification can be claimed from
+     * @param claimedStatus the status of a claimed notification
+     * @param now           the current date
+     * @param claimUntil    the date after which the notification is due again if it was not sent
+     * @return 1 if the notification was claimed, 0 otherwise
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :claimedStatus, n.nextAttemptAt = :claimUntil "
+            + "WHERE n.id = :id AND n.status IN :statuses AND n.nextAttemptAt <= :now")
+    int claim(@Param("id") Long id,
+              @Param("statuses") Collection<NotificationStatus> statuses,
+              @Param("claimedStatus") NotificationStatus claimedStatus,
+              @Param("now") Date now,
+              @Param("claimUntil") Date claimUntil);
+
+    /**
+     * Stores an attempt to send a notification
+     *
+     * @param id            the id of the notification
+     * @param status        SENT, PENDING to retry at the given date, or FAILED to give up
+     * @param nextAttemptAt the date of the next attempt
+     * @param sentAt        the date the notification was sent, null if it was not
+     * @param lastError     the reason of the failure, null if it was sent
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.nextAttemptAt = :nextAttemptAt, n.sentAt = :sentAt, "
+            + "n.lastError = :lastError, n.attempts = n.attempts + 1 WHERE n.id = :id")
+    void saveAttempt(@Param("id") Long id,
+                     @Param("status") NotificationStatus status,
+                     @Param("nextAttemptAt") Date nextAttemptAt,
+                     @Param("sentAt") Date sentAt,
+                     @Param("lastError") String lastError);
+
+    /**
+     * Deletes the notifications with the given status created before the given date
+     *
+     * @param status    the status of the notifications
+     * @param createdAt the date before which the notifications are deleted
+     * @return the number of deleted notifications
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.status = :status AND n.createdAt < :createdAt")
+    int deleteByStatusCreatedBefore(@Param("status") NotificationStatus status, @Param("createdAt") Date createdAt);
+}
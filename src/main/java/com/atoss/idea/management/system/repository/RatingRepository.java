@@ -1,12 +1,14 @@
 package com.atoss.idea.management.system.repository;
 
 import com.atoss.idea.management.system.repository.entity.Rating;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 
@@ -47,12 +49,16 @@ public interface RatingRepository extends JpaRepository<Rating, Long> {
     Long countByIdeaId(Long ideaId);
 
     /**
-     * Returns a list of objects where each object contains the idea ID and the count of ratings for that idea.
+     * Returns the idea rating of the user id and idea id, and locks it until the end of the transaction,
+     * so two changes of the same rating are applied one after the other
      *
-     * @return a list of objects with idea ID and the count of ratings
+     * @param ideaId the id of the idea
+     * @param userId the id of the user
+     * @return the rating of that specific idea of that specific user
      */
-    @Query(value = "SELECT r.idea_id AS ideaId, COUNT(r) AS ratingCount FROM Rating r GROUP BY r.idea_id", nativeQuery = true)
-    List<Map<Long, Object>> countRatingsForEachIdea();
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rating r WHERE r.idea.id = :ideaId AND r.user.id = :userId")
+    Optional<Rating> findForUpdateByIdeaIdAndUserId(@Param("ideaId") Long ideaId, @Param("userId") Long userId);
 
 }
 
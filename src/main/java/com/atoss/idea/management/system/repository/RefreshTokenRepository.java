@@ -1,29 +1,92 @@
 package com.atoss.idea.management.system.repository;
 
 import com.atoss.idea.management.system.repository.entity.RefreshToken;
+import jakarta.transaction.Transactional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
 
     /**
-     * Retrieves a RefreshToken entity from the database based on the token value.
-     * If a match is found, it returns the RefreshToken wrapped in an Optional. Otherwise, it returns an empty Optional.
+     * Retrieves a RefreshToken entity together with its user, with one statement, based on the hash of the token value.
      *
-     * @param token The token to search for.
-     * @return An Optional containing the RrefreshToken entity if a match is found,
+     * @param tokenHash The SHA-256 of the token to search for.
+     * @return An Optional containing the RefreshToken entity if a match is found,
      *         or an empty Optional if no match is found.
      */
-    Optional<RefreshToken> findByToken(String token);
+    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user WHERE rt.tokenHash = :tokenHash")
+    Optional<RefreshToken> findWithUserByTokenHash(@Param("tokenHash") String tokenHash);
 
     /**
-     * Retrieves a RefreshToken entity from the database based on the username of the user associated with the token.
-     * If a match is found, it returns the RefreshToken wrapped in an Optional. Otherwise, it returns an empty Optional.
+     * Replaces the value and the expiry date of a refresh token, if the token was not rotated or deleted
+     * since it was read.
      *
-     * @param username The username of the user associated with the token.
-     * @return An Optional containing the RrefreshToken entity if a match is found,
-     *         or an empty Optional if no match is found.
+     * @param id           The id of the refresh token.
+     * @param tokenHash    The SHA-256 of the current token value.
+     * @param newTokenHash The SHA-256 of the new token value.
+     * @param expiryDate   The new expiry date.
+     * @return 1 if the token was rotated, 0 if it was already used
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.tokenHash = :newTokenHash, rt.expiryDate = :expiryDate"
+            + " WHERE rt.id = :id AND rt.tokenHash = :tokenHash")
+    int rotate(@Param("id") Long id,
+               @Param("tokenHash") String tokenHash,
+               @Param("newTokenHash") String newTokenHash,
+               @Param("expiryDate") Instant expiryDate);
+
+    /**
+     * Deletes a refresh token based on the hash of its value.
+     *
+     * @param tokenHash The SHA-256 of the token to delete.
+     * @return the number of deleted tokens
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Deletes an expired refresh token in a transaction of its own, so the delete is kept when the
+     * transaction of the caller is rolled back, as it is when a refresh is rejected for the expired token.
+     *
+     * @param id The id of the refresh token.
+     * @return the number of deleted tokens
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.id = :id")
+    int deleteExpiredById(@Param("id") Long id);
+
+    /**
+     * Deletes the refresh tokens of a user except the ones which expire last, so a user keeps a bounded
+     * number of sessions.
+     *
+     * @param userId The id of the user.
+     * @param keep   How many refresh tokens the user keeps.
+     * @return the number of deleted tokens
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM refresh_token WHERE user_id = :userId AND id NOT IN"
+            + " (SELECT id FROM refresh_token WHERE user_id = :userId ORDER BY expiry_date DESC LIMIT :keep)",
+            nativeQuery = true)
+    int deleteOldestOfUser(@Param("userId") Long userId, @Param("keep") int keep);
+
+    /**
+     * Deletes all refresh tokens which expired before a specified date, with one statement.
+     *
+     * @param date The date until all refresh tokens will be removed
+     * @return the number of deleted tokens
      */
-    Optional<RefreshToken> findByUser_Username(String username);
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RefreshToken rt WHERE rt.expiryDate < :date")
+    int deleteExpired(@Param("date") Instant date);
 }
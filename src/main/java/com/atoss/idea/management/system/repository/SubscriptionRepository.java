@@ -1,8 +1,10 @@
 package com.atoss.idea.management.system.repository;
 
 import com.atoss.idea.management.system.repository.entity.Subscription;
+import com.atoss.idea.management.system.repository.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -28,6 +30,15 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     @Query(value = "SELECT user_id FROM Subscription WHERE idea_id = :ideaId", nativeQuery = true)
     List<Long> findUserIdByIdeaId(Long ideaId);
 
+    /**
+     * searches in the database for the users which have subscribed to the given idea, in one query
+     *
+     * @param ideaId the given idea id
+     * @return the users who are subscribed to the idea with the given id
+     */
+    @Query("SELECT s.user FROM Subscription s WHERE s.idea.id = :ideaId")
+    List<User> findSubscribedUsersByIdeaId(@Param("ideaId") Long ideaId);
+
     /**
      * Finds a subscription by idea ID and user ID.
      *
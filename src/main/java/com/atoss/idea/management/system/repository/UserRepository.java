@@ -1,11 +1,13 @@
 package com.atoss.idea.management.system.repository;
 
-import com.atoss.idea.management.system.repository.entity.RefreshToken;
+import com.atoss.idea.management.system.repository.dto.ImageDTO;
 import com.atoss.idea.management.system.repository.entity.Role;
 import com.atoss.idea.management.system.repository.entity.User;
+import jakarta.transaction.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -37,6 +39,18 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Retrieves the custom avatar of a user, without loading the user.
+     *
+     * The list is empty if there is no user with the username, and holds a null element if the user
+     * has no custom avatar.
+     *
+     * @param username The username of the user.
+     * @return A list with the custom avatar of the user, or an empty list if no user is found.
+     */
+    @Query("SELECT u.image FROM User u WHERE u.username = :username")
+    List<ImageDTO> findImageByUsername(@Param("username") String username);
+
     /**
      * Retrieves a list of User entities from the database based on the role.
      *
@@ -72,13 +86,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Page<User> findByUsernameStartsWithOrderByIsActiveAscIdAsc(String username, Pageable pageable);
 
     /**
-     * Retrieves a User entity from the database based on the refresh token.
-     * This method searches for a User entity in the database that matches the provided refresh token.
-     * If a match is found, it returns the User wrapped in an Optional. Otherwise, it returns an empty Optional.
+     * Replaces the password hash of a user, with one statement.
      *
-     * @param refreshToken The email address to search for.
-     * @return An Optional containing the User entity if a match is found, or an empty Optional if no match is found.
+     * @param username The username of the user.
+     * @param password The new password hash.
+     * @return the number of updated users
      */
-    @Query("SELECT u FROM User u JOIN u.refreshTokens rt WHERE rt = :refreshToken")
-    Optional<User> findUserByRefreshToken(@Param("refreshToken") RefreshToken refreshToken);
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.username = :username")
+    int updatePassword(@Param("username") String username, @Param("password") String password);
 }
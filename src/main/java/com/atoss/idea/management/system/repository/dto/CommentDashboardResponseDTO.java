@@ -1,5 +1,6 @@
 package com.atoss.idea.management.system.repository.dto;
 
+import com.atoss.idea.management.system.repository.entity.ReviewStatus;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,4 +12,6 @@ public class CommentDashboardResponseDTO {
     private Long id;
     private String content;
     private int nrReports;
+    private ReviewStatus reviewStatus;
+    private String author;
 }
@@ -1,29 +1,44 @@
 package com.atoss.idea.management.system.repository.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
-
-import java.util.Base64;
-
+import lombok.NoArgsConstructor;
 
 
 @Data
+@NoArgsConstructor
 public class DocumentDTO {
 
     private Long id;
+
+    // only received with a new document, the stored content is downloaded from /documents/get
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private byte[] document;
     private String fileName;
     private String fileType;
+    private Long size;
+    private String contentHash;
     private Long ideaId;
     private Long userId;
 
-
     /**
-     * Method is used to convert the byte array document data to a Base64 encoded string.
+     * Constructor for the listings, which are read without the content
      *
-     * @return convert byte array to a Base64 encoded string
+     * @param id          the id of the document
+     * @param fileName    the name of the file
+     * @param fileType    the file format of the file
+     * @param size        the size of the content in bytes
+     * @param contentHash the SHA-256 of the content
+     * @param ideaId      the id of the idea to which the document is attached
+     * @param userId      the id of the user who attached the document
      */
-    public String getBase64Document() {
-        return Base64.getEncoder().encodeToString(document);
+    public DocumentDTO(Long id, String fileName, String fileType, Long size, String contentHash, Long ideaId, Long userId) {
+        this.id = id;
+        this.fileName = fileName;
+        this.fileType = fileType;
+        this.size = size;
+        this.contentHash = contentHash;
+        this.ideaId = ideaId;
+        this.userId = userId;
     }
-
 }
@@ -0,0 +1,20 @@
+package com.atoss.idea.management.system.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What is needed to send the content of a document, an image or an avatar, read without the content
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileMetadataDTO {
+
+    private Long id;
+    private String fileName;
+    private String fileType;
+    private Long size;
+    private String contentHash;
+}
@@ -13,6 +13,8 @@ public class ImageDTO {
     private byte[] image;
     private String fileName;
     private String fileType;
+    private Long size;
+    private String contentHash;
 
 
     /**
@@ -21,7 +23,7 @@ public class ImageDTO {
      * @return convert byte array to a Base64 encoded string
      */
     public String getBase64Image() {
-        return Base64.getEncoder().encodeToString(image);
+        return image == null ? null : Base64.getEncoder().encodeToString(image);
     }
 
 }
@@ -0,0 +1,21 @@
+package com.atoss.idea.management.system.repository.dto;
+
+import com.atoss.idea.management.system.repository.entity.ReviewStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A row of the moderation queue, read with its author by one query
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReportedCommentDTO {
+    private Long id;
+    private String commentText;
+    private String renderedCommentText;
+    private int reportsCount;
+    private ReviewStatus reviewStatus;
+    private String author;
+}
@@ -0,0 +1,65 @@
+package com.atoss.idea.management.system.repository.dto;
+
+import java.time.LocalDate;
+
+/**
+ * The sums of the daily statistics of one day, week or month, summed by one native query
+ */
+public interface StatisticsBucketView {
+
+    /**
+     * Returns the first day of the bucket
+     *
+     * @return the first day of the day, week or month
+     */
+    LocalDate getBucket();
+
+    /**
+     * Returns the number of open ideas
+     *
+     * @return the number of open ideas
+     */
+    Long getOpenIdeas();
+
+    /**
+     * Returns the number of draft ideas
+     *
+     * @return the number of draft ideas
+     */
+    Long getDraftIdeas();
+
+    /**
+     * Returns the number of implemented ideas
+     *
+     * @return the number of implemented ideas
+     */
+    Long getImplementedIdeas();
+
+    /**
+     * Returns the number of top level comments
+     *
+     * @return the number of top level comments
+     */
+    Long getComments();
+
+    /**
+     * Returns the number of replies
+     *
+     * @return the number of replies
+     */
+    Long getReplies();
+
+    /**
+     * Returns the number of ratings
+     *
+     * @return the number of ratings
+     */
+    Long getRatings();
+
+    /**
+     * Returns the number of likes
+     *
+     * @return the number of likes
+     */
+    Long getLikes();
+}
@@ -0,0 +1,43 @@
+package com.atoss.idea.management.system.repository.dto;
+
+/**
+ * The numbers of ideas by status, comments and replies created in a range of days,
+ * counted by one native query
+ */
+public interface StatisticsCountsView {
+
+    /**
+     * Returns the number of open ideas
+     *
+     * @return the number of open ideas
+     */
+    Long getOpenIdeas();
+
+    /**
+     * Returns the number of draft ideas
+     *
+     * @return the number of draft ideas
+     */
+    Long getDraftIdeas();
+
+    /**
+     * Returns the number of implemented ideas
+     *
+     * @return the number of implemented ideas
+     */
+    Long getImplementedIdeas();
+
+    /**
+     * Returns the number of top level comments
+     *
+     * @return the number of top level comments
+     */
+    Long getComments();
+
+    /**
+     * Returns the number of replies
+     *
+     * @return the number of replies
+     */
+    Long getReplies();
+}
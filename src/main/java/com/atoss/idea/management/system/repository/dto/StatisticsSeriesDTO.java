@@ -0,0 +1,33 @@
+package com.atoss.idea.management.system.repository.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The statistics of a range of days, by day, week or month. The values are kept by column,
+ * the n-th value of every list belonging to the n-th bucket, so the names are not repeated for every bucket.
+ */
+@Data
+public class StatisticsSeriesDTO {
+
+    private String granularity;
+
+    private List<LocalDate> buckets = new ArrayList<>();
+
+    private List<Long> openIdeas = new ArrayList<>();
+
+    private List<Long> draftIdeas = new ArrayList<>();
+
+    private List<Long> implementedIdeas = new ArrayList<>();
+
+    private List<Long> comments = new ArrayList<>();
+
+    private List<Long> replies = new ArrayList<>();
+
+    private List<Long> ratings = new ArrayList<>();
+
+    private List<Long> likes = new ArrayList<>();
+}
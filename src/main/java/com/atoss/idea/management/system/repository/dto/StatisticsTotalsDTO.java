@@ -0,0 +1,23 @@
+package com.atoss.idea.management.system.repository.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The sums of the daily statistics over a range of days
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsTotalsDTO {
+
+    private Long openIdeas;
+    private Long draftIdeas;
+    private Long implementedIdeas;
+    private Long comments;
+    private Long replies;
+    private Long likes;
+    private Long reports;
+    private Long ratings;
+}
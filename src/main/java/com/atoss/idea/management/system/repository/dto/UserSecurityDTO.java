@@ -12,4 +12,5 @@ public class UserSecurityDTO {
     private String fullName;
     private String avatarId;
     private Boolean isFirstLogin;
+    private Boolean isActive;
 }
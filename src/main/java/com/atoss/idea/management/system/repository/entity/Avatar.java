@@ -4,6 +4,7 @@ import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import jakarta.persistence.Column;
 import jakarta.persistence.GenerationType;
@@ -18,7 +19,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "avatar")
+@Table(name = "avatar", indexes = @Index(name = "idx_avatar_content_hash", columnList = "content_hash"))
 public class Avatar {
 
     @Id
@@ -26,8 +27,11 @@ public class Avatar {
     @Column(name = "avatar_id")
     private Long id;
 
-    @Column(name = "data", length = 2000)
-    private byte[] data;
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "file_size")
+    private Long size;
 
     @OneToMany(mappedBy = "avatar")
     @JsonManagedReference(value = "users-avatar")
@@ -36,16 +40,21 @@ public class Avatar {
     @Column(name = "file_name")
     private String fileName;
 
+    @Column(name = "file_type")
+    private String fileType;
+
     /**
-     * Constructs a new Avatar instance with the specified file name and data.
-     *
-     * This constructor initializes an Avatar object with the provided file name and binary data.
+     * Constructs a new Avatar instance with the specified file name and stored content.
      *
-     * @param fileName The name of the avatar file.
-     * @param data     The binary data representing the avatar image.
+     * @param fileName    The name of the avatar file.
+     * @param fileType    The media type of the avatar image.
+     * @param contentHash The SHA-256 of the stored content of the avatar image.
+     * @param size        The size of the content in bytes.
      */
-    public Avatar(String fileName, byte[] data) {
+    public Avatar(String fileName, String fileType, String contentHash, Long size) {
         this.fileName = fileName;
-        this.data = data;
+        this.fileType = fileType;
+        this.contentHash = contentHash;
+        this.size = size;
     }
 }
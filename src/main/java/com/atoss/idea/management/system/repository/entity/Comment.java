@@ -19,7 +19,7 @@ import java.util.List;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
-@Table(name = "comment")
+@Table(name = "comment", indexes = @Index(name = "idx_comment_creation_date_parent", columnList = "creation_date, parent_id"))
 public class Comment {
 
     @Id
@@ -48,9 +48,24 @@ public class Comment {
     @Column(name = "comment_text", length = 2000)
     private String commentText;
 
+    // HTML of the comment text, rendered once when the comment is written
+    @Column(name = "rendered_comment_text", columnDefinition = "TEXT")
+    private String renderedCommentText;
+
     @Column(name = "creation_date")
     private Date creationDate;
 
+    // kept up to date on write, so reading them does not load or count the related rows;
+    // only changed by the atomic updates of the repository, never by saving a loaded comment
+    @Column(name = "replies_count", nullable = false, updatable = false)
+    private int repliesCount;
+
+    @Column(name = "likes_count", nullable = false, updatable = false)
+    private int likesCount;
+
+    @Column(name = "reports_count", nullable = false, updatable = false)
+    private int reportsCount;
+
     @Enumerated(EnumType.STRING)
     @Column(name = "review_status")
     private ReviewStatus reviewStatus = ReviewStatus.NOT_REVIEWED;
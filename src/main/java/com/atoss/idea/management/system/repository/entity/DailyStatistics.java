@@ -0,0 +1,50 @@
+package com.atoss.idea.management.system.repository.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * The statistics of one day: the ideas created that day by their current status, the comments and
+ * replies written that day, and the likes, reports and ratings they have received. The rows are
+ * rebuilt from the ideas and comments, so the dashboard sums a few rows instead of counting every row.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "daily_statistics")
+public class DailyStatistics {
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(name = "open_ideas", nullable = false)
+    private long openIdeas;
+
+    @Column(name = "draft_ideas", nullable = false)
+    private long draftIdeas;
+
+    @Column(name = "implemented_ideas", nullable = false)
+    private long implementedIdeas;
+
+    @Column(name = "comments", nullable = false)
+    private long comments;
+
+    @Column(name = "replies", nullable = false)
+    private long replies;
+
+    @Column(name = "likes", nullable = false)
+    private long likes;
+
+    @Column(name = "reports", nullable = false)
+    private long reports;
+
+    @Column(name = "ratings", nullable = false)
+    private long ratings;
+}
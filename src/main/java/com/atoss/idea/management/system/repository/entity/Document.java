@@ -16,8 +16,11 @@ public class Document {
     @Column(name = "document_id")
     private Long id;
 
-    @Column(name = "document", length = 5000)
-    private byte[] document;
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "file_size")
+    private Long size;
 
     @Column(name = "file_name")
     private String fileName;
@@ -40,11 +43,13 @@ public class Document {
      *
      * @param fileName the name of the file.
      * @param fileType the file format of the file.
-     * @param document the byte array of the document data.
+     * @param contentHash the SHA-256 of the stored content of the document.
+     * @param size the size of the content in bytes.
      */
-    public Document(String fileName, String fileType, byte[] document) {
+    public Document(String fileName, String fileType, String contentHash, Long size) {
         this.fileName = fileName;
         this.fileType = fileType;
-        this.document = document;
+        this.contentHash = contentHash;
+        this.size = size;
     }
 }
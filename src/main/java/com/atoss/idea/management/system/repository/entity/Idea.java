@@ -7,11 +7,12 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "idea")
+@Table(name = "idea", indexes = @Index(name = "idx_idea_date_status", columnList = "date, status"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,12 +32,31 @@ public class Idea {
     @Column(name = "text", length = 2000)
     private String text;
 
+    // HTML of the title and text, rendered once when the idea is written
+    @Column(name = "rendered_title", columnDefinition = "TEXT")
+    private String renderedTitle;
+
+    @Column(name = "rendered_text", columnDefinition = "TEXT")
+    private String renderedText;
+
     @Column(name = "date")
     private Date creationDate;
 
-    @Column(name = "ratingAvg")
+    // number of top level comments, kept up to date on write so the feed does not load the comments;
+    // the counters are only changed by the atomic updates of the repository, never by saving a loaded idea
+    @Column(name = "comments_count", nullable = false, updatable = false)
+    private int commentsCount;
+
+    @Column(name = "ratingAvg", updatable = false)
     private Double ratingAvg;
 
+    // sum and number of the ratings, so the average is updated without reading every rating
+    @Column(name = "rating_sum", nullable = false, updatable = false)
+    private double ratingSum;
+
+    @Column(name = "rating_count", nullable = false, updatable = false)
+    private int ratingCount;
+
     @ManyToOne(cascade = CascadeType.PERSIST, fetch = FetchType.LAZY)
     @JoinColumn(name = "image_id", referencedColumnName = "image_id")
     @JsonManagedReference(value = "idea-image")
@@ -49,6 +69,7 @@ public class Idea {
             inverseJoinColumns = { @JoinColumn(name = "category_id") }
     )
     @JsonIgnoreProperties("ideaList")
+    @BatchSize(size = 50)
     private List<Category> categoryList;
 
     @JsonIgnoreProperties("ideas")
@@ -70,6 +91,7 @@ public class Idea {
 
     @OneToMany(mappedBy = "idea", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
+    @BatchSize(size = 50)
     private List<Document> documentList;
 
     @Override
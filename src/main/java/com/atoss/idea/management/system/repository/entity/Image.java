@@ -13,7 +13,7 @@ import java.util.List;
 
 @Data
 @Entity
-@Table(name = "image")
+@Table(name = "image", indexes = @Index(name = "idx_image_content_hash", columnList = "content_hash"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -25,8 +25,11 @@ public class Image {
     @Column(name = "image_id")
     private Long id;
 
-    @Column(name = "photo", length = 1000)
-    private byte[] image;
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "file_size")
+    private Long size;
 
     @OneToMany(mappedBy = "image")
     @JsonBackReference(value = "idea-image")
@@ -39,11 +42,13 @@ public class Image {
      *
      * @param fileName the name of the file.
      * @param fileType the file format of the file.
-     * @param image the byte array of the image data.
+     * @param contentHash the SHA-256 of the stored content of the image.
+     * @param size the size of the content in bytes.
      */
-    public Image(String fileName, String fileType, byte[] image) {
+    public Image(String fileName, String fileType, String contentHash, Long size) {
         this.fileName = fileName;
         this.fileType = fileType;
-        this.image = image;
+        this.contentHash = contentHash;
+        this.size = size;
     }
 }
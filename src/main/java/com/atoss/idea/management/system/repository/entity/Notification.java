@@ -0,0 +1,64 @@
+package com.atoss.idea.management.system.repository.entity;
+
+import com.atoss.idea.management.system.utils.NotificationModelConverter;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * An email waiting in the outbox. It is saved in the same transaction as the change it
+ * notifies about, and sent later by the notification dispatcher, one row per recipient.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@Table(name = "notification", indexes = @Index(name = "idx_notification_status_next_attempt", columnList = "status, next_attempt_at"))
+public class Notification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "notification_id")
+    private Long id;
+
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "template_name", nullable = false)
+    private String templateName;
+
+    // the email rendered once for all the recipients, with placeholders for the recipient values;
+    // null if the template is rendered when the notification is sent
+    @Column(name = "body", columnDefinition = "TEXT")
+    private String body;
+
+    // the values the template is rendered with, or only the recipient values if the body is rendered,
+    // captured when the notification is created
+    @Convert(converter = NotificationModelConverter.class)
+    @Column(name = "model", columnDefinition = "TEXT")
+    private Map<String, Object> model;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private NotificationStatus status = NotificationStatus.PENDING;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Date nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    @Column(name = "sent_at")
+    private Date sentAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+}
@@ -0,0 +1,8 @@
+package com.atoss.idea.management.system.repository.entity;
+
+public enum NotificationStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
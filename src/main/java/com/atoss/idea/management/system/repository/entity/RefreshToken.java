@@ -1,27 +1,29 @@
 package com.atoss.idea.management.system.repository.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
-import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.PreRemove;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.time.Instant;
 
 @Data
 @Entity
-@Table(name = "refresh_token")
+@Table(name = "refresh_token", indexes = @Index(name = "idx_refresh_token_user_id", columnList = "user_id"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -30,15 +32,24 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.AUTO)
     @Column(name = "id")
     private Long id;
+
+    // the SHA-256 of the token; the token itself is only sent to the client
+    @Column(name = "token_hash", unique = true, nullable = false, length = 64)
+    private String tokenHash;
+
+    // the token, only known right after it was created or rotated
+    @Transient
     private String token;
+
     private Instant expiryDate;
 
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
     @JsonBackReference
-    @ManyToOne(fetch = FetchType.LAZY, cascade = CascadeType.MERGE)
-    @JoinColumn(name = "user_id", referencedColumnName = "user_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", referencedColumnName = "user_id", insertable = false, updatable = false)
     private User user;
-
-    @PreRemove void preRemove() {
-        user.getRefreshTokens().remove(this);
-    }
 }
@@ -103,7 +103,8 @@ public class User {
     @JsonManagedReference
     private List<Document> documentList;
 
-    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.MERGE)
+    // the refresh tokens are written through their repository, only deleted together with the user
+    @OneToMany(mappedBy = "user", fetch = FetchType.LAZY, cascade = CascadeType.REMOVE)
     @JsonManagedReference
     private List<RefreshToken> refreshTokens = new ArrayList<>();
 
@@ -1,6 +1,7 @@
 package com.atoss.idea.management.system.security;
 
 import com.atoss.idea.management.system.exception.EmailAlreadyExistException;
+import com.atoss.idea.management.system.exception.LoginUnavailableException;
 import com.atoss.idea.management.system.exception.UsernameAlreadyExistException;
 import com.atoss.idea.management.system.repository.UserRepository;
 import com.atoss.idea.management.system.repository.dto.UserResponseDTO;
@@ -19,6 +20,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
@@ -36,6 +38,12 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @Log4j2
@@ -47,6 +55,8 @@ public class AuthController {
     private final JwtService jwtService;
     private final UserService userService;
     private final SessionService sessionService;
+    private final Executor loginExecutor;
+    private final long loginTimeoutMs;
 
     /**
      * Constructor for the AuthController class.
@@ -56,6 +66,8 @@ public class AuthController {
      * @param refreshTokenService   The RefreshTokenService used for handling refresh tokens.
      * @param jwtService            The JwtService used for generating and verifying tokens.
      * @param sessionService        The SessionService used for managing the user's session.
+     * @param loginExecutor         The holder of the executor which authenticates the logins, bounding the password hashing.
+     * @param loginTimeoutMs        How long a login waits for the executor before it is rejected.
      * @see AuthenticationManager
      * @see UserRepository
      * @see AuthController
@@ -66,12 +78,16 @@ public class AuthController {
             UserService userService,
             RefreshTokenService refreshTokenService,
             JwtService jwtService,
-            SessionService sessionService) {
+            SessionService sessionService,
+            LoginExecutor loginExecutor,
+            @Value("${aims.app.login.timeoutMs:10000}") long loginTimeoutMs) {
         this.authenticationManager = authenticationManager;
         this.refreshTokenService = refreshTokenService;
         this.jwtService = jwtService;
         this.userService = userService;
         this.sessionService = sessionService;
+        this.loginExecutor = loginExecutor.getExecutor();
+        this.loginTimeoutMs = loginTimeoutMs;
     }
 
     /**
@@ -94,6 +110,7 @@ public class AuthController {
      *         If the authentication fails, the method throw AuthenticationException,
      *
      * @throws AuthenticationException
+     * @throws LoginUnavailableException if too many logins are waiting to be authenticated
      *
      * @see LoginRequest
      * @see AuthenticationManager
@@ -109,7 +126,7 @@ public class AuthController {
             @RequestBody LoginRequest loginRequest,
             HttpServletRequest request,
             HttpServletResponse response) {
-        Authentication authentication = authenticationManager.authenticate(
+        Authentication authentication = authenticate(
                 new UsernamePasswordAuthenticationToken(loginRequest.getUsernameOrEmail(),
                        loginRequest.getPassword()));
 
@@ -119,8 +136,9 @@ public class AuthController {
 
         if (authentication.isAuthenticated()) {
 
-            String accessToken = jwtService.generateToken(authentication.getName());
-            RefreshToken refreshToken = refreshTokenService.createRefreshToken(authentication.getName());
+            UserSecurityDTO userData = userService.getUserByUsername(authentication.getName(), UserSecurityDTO.class);
+            String accessToken = jwtService.generateToken(userData);
+            RefreshToken refreshToken = refreshTokenService.createRefreshToken(userData.getId());
 
             ResponseCookie cookie = sessionService.createTokenCookie(
                     sessionService.extractSessionHeader(request),
@@ -134,8 +152,6 @@ public class AuthController {
                     refreshTokenService.getTokenConfig());
             response.addHeader(HttpHeaders.SET_COOKIE, cookieRefresh.toString());
 
-            UserSecurityDTO userData = userService.getUserByUsername(authentication.getName(), UserSecurityDTO.class);
-
             if (log.isInfoEnabled()) {
                 log.info("Login successfully");
             }
@@ -156,6 +172,46 @@ public class AuthController {
         }
     }
 
+    /**
+     * Authenticates a login on the login executor, so at most as many passwords as the executor has threads
+     * are hashed at the same time
+     *
+     * @param authenticationRequest the credentials of the login
+     * @return the authenticated user
+     * @throws AuthenticationException if the credentials are not valid
+     * @throws LoginUnavailableException if the executor is full or the login waited too long
+     */
+    private Authentication authenticate(UsernamePasswordAuthenticationToken authenticationRequest) {
+        CompletableFuture<Authentication> authentication;
+        try {
+            authentication = CompletableFuture.supplyAsync(
+                    () -> authenticationManager.authenticate(authenticationRequest), loginExecutor);
+        } catch (RejectedExecutionException e) {
+            if (log.isWarnEnabled()) {
+                log.warn("Login rejected, too many logins are waiting");
+            }
+            throw new LoginUnavailableException("Too many logins, please try again later");
+        }
+
+        try {
+            return authentication.get(loginTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            authentication.cancel(false);
+            if (log.isWarnEnabled()) {
+                log.warn("Login timed out after {} ms", loginTimeoutMs);
+            }
+            throw new LoginUnavailableException("Too many logins, please try again later");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LoginUnavailableException("Login interrupted");
+        }
+    }
+
     /**
      ** Registers a new user in the system based on the provided signup request.
      *
@@ -1,7 +1,9 @@
 package com.atoss.idea.management.system.security;
 
 import com.atoss.idea.management.system.exception.RefreshTokenExpiredException;
+import com.atoss.idea.management.system.security.response.UserDetailsImpl;
 import com.atoss.idea.management.system.security.token.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -9,32 +11,25 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Arrays;
 
-@Component
 @RequiredArgsConstructor
 @Log4j2
 public class AuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
 
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsServiceImpl userDetailsService;
 
     private final SessionService sessionService;
 
-    @Value("${aims.app.publicRoutes}")
-    private String[] publicRoutes;
+    private final RouteMatcher routeMatcher;
 
     /**
      * Performs filtering on the incoming HTTP request and response to set user information as a cookie.
@@ -55,22 +50,25 @@ public class AuthFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        RouteMatcher.Route route = routeMatcher.match(request);
+        route.hit();
+
         try {
             sessionService.extractToken(request, jwtService.getTokenConfig())
                     .ifPresent(
                             token -> {
-                                if (Arrays.stream(publicRoutes)
-                                        .map(route -> route.replaceAll("\\*", ""))
-                                        .anyMatch(route -> request.getRequestURI().contains(route))) {
+                                if (route.isPublic()) {
                                     return;
                                 }
 
-
-                                String username = jwtService.extractUsername(token);
+                                // the signature is verified once, the checks below only read the claims
+                                Claims claims = jwtService.verifyToken(token);
+                                String username = claims.getSubject();
 
                                 if (username != null) {
-                                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                                    if (jwtService.validateToken(token, userDetails)) {
+                                    // built from the claims, the user is only read from the database after a change
+                                    UserDetailsImpl userDetails = userDetailsService.loadUserByClaims(claims);
+                                    if (userDetails.isActive() && jwtService.validateToken(token, claims, userDetails)) {
                                         UsernamePasswordAuthenticationToken authenticationToken =
                                                 new UsernamePasswordAuthenticationToken(
                                                         userDetails,
@@ -87,10 +85,13 @@ public class AuthFilter extends OncePerRequestFilter {
             filterChain.doFilter(request, response);
 
         } catch (io.jsonwebtoken.ExpiredJwtException e) {
-            log.info("Tried authenticating with access token expired at {}", e.getClaims().getExpiration());
+            if (log.isDebugEnabled()) {
+                log.debug("Tried authenticating with access token expired at {}", e.getClaims().getExpiration());
+            }
         } catch (RefreshTokenExpiredException e) {
-            log.info("Tried authenticating with refresh token expired at {}", e.getRefreshToken().getExpiryDate());
+            if (log.isDebugEnabled()) {
+                log.debug("Tried authenticating with refresh token expired at {}", e.getRefreshToken().getExpiryDate());
+            }
         }
     }
-
 }
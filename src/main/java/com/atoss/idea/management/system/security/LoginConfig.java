@@ -0,0 +1,115 @@
+package com.atoss.idea.management.system.security;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The password hashing of the logins.
+ * <p>
+ * The passwords are encoded by a {@link DelegatingPasswordEncoder}: a stored hash starts with the id of
+ * its encoder, and the hashes stored without id are BCrypt hashes. The BCrypt cost is set by
+ * {@code aims.app.bcrypt.strength}; after a successful login, a hash with another encoder or another
+ * cost is replaced by a hash with the current one, so the cost can be raised or lowered without resetting
+ * the passwords.
+ * <p>
+ * The logins are authenticated on a bounded executor, so a burst of logins uses at most
+ * {@code aims.app.login.threads} cores for hashing and the other requests keep the rest.
+ */
+@Log4j2
+@Configuration
+public class LoginConfig {
+
+    public static final String BCRYPT = "bcrypt";
+
+    /**
+     * Creates the password encoder of the application
+     *
+     * @param strength the BCrypt cost of the new hashes
+     * @return the password encoder
+     */
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${aims.app.bcrypt.strength:10}") int strength) {
+        return createPasswordEncoder(strength);
+    }
+
+    /**
+     * Creates the executor which authenticates the logins, inside a holder so it is not an {@code Executor} bean
+     *
+     * @param threads       how many logins are hashed at the same time; 0 for half of the cores
+     * @param queueCapacity how many logins wait for a thread before the new ones are rejected
+     * @return the holder of the executor
+     */
+    @Bean(destroyMethod = "shutdown")
+    public LoginExecutor loginExecutor(@Value("${aims.app.login.threads:0}") int threads,
+                                            @Value("${aims.app.login.queueCapacity:200}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadNumber = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "login-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        if (log.isInfoEnabled()) {
+            log.info("Logins are hashed by {} threads", poolSize);
+        }
+
+        return new LoginExecutor(executor);
+    }
+
+    /**
+     * Creates a password encoder which encodes with BCrypt of the given cost and matches any known hash
+     *
+     * @param strength the BCrypt cost of the new hashes
+     * @return the password encoder
+     */
+    public static PasswordEncoder createPasswordEncoder(int strength) {
+        BCryptPasswordEncoder bcrypt = new CostBCryptPasswordEncoder(strength);
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(BCRYPT, Map.of(BCRYPT, bcrypt));
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return passwordEncoder;
+    }
+
+    /**
+     * A BCrypt encoder which also asks for a new hash when the stored cost is higher than the current one
+     */
+    private static final class CostBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+        // the cost is written after the version, as in $2a$10$
+        private static final int COST_START = 4;
+
+        private static final int COST_END = 6;
+
+        private final int strength;
+
+        private CostBCryptPasswordEncoder(int strength) {
+            super(strength);
+            this.strength = strength;
+        }
+
+        @Override
+        public boolean upgradeEncoding(String encodedPassword) {
+            if (encodedPassword == null || encodedPassword.length() <= COST_END) {
+                return false;
+            }
+            try {
+                return Integer.parseInt(encodedPassword.substring(COST_START, COST_END)) != strength;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+    }
+}
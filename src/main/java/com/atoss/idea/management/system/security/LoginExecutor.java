@@ -0,0 +1,36 @@
+package com.atoss.idea.management.system.security;
+
+import lombok.Getter;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Holds the executor which authenticates the logins.
+ * <p>
+ * The executor is not a bean itself: Spring Boot only creates its applicationTaskExecutor when the context
+ * has no {@link Executor} bean, and without it the asynchronous MVC requests would start a new thread each.
+ */
+@Getter
+public class LoginExecutor {
+
+    private final Executor executor;
+
+    /**
+     * Constructor
+     *
+     * @param executor the executor which authenticates the logins
+     */
+    public LoginExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Stops the executor, when it is a pool, once the logins it already accepted are authenticated
+     */
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.atoss.idea.management.system.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Classifies the request paths by the public and private routes of the configuration.
+ * <p>
+ * The routes are compiled once into a trie of path segments, so classifying a request walks the
+ * segments of its path without splitting it or compiling patterns. A route is an exact path or a path
+ * with {@code *} (one segment) and a trailing {@code **} (any remaining segments). When several routes
+ * match a path, the first one wins in the order of the security rules: the public routes, the private
+ * routes and at last {@code /**}, which is only allowed for admins.
+ * <p>
+ * Each route counts the requests it matched, so the routes which dominate the traffic can be seen.
+ */
+@Log4j2
+@Component
+public class RouteMatcher {
+
+    public static final String ANY_ROUTE = "/**";
+
+    private static final String ANY_SEGMENT = "*";
+
+    private static final String ANY_SEGMENTS = "**";
+
+    private final Node root = new Node(null);
+
+    private final List<Route> routes = new ArrayList<>();
+
+    /**
+     * Compiles the routes of the configuration
+     *
+     * @param publicRoutes  the routes which do not need authentication
+     * @param privateRoutes the routes which any authenticated user can access
+     */
+    public RouteMatcher(@Value("${aims.app.publicRoutes}") String[] publicRoutes,
+                        @Value("${aims.app.privateRoutes}") String[] privateRoutes) {
+        for (String route : publicRoutes) {
+            add(route, Access.PUBLIC);
+        }
+        for (String route : privateRoutes) {
+            add(route, Access.PRIVATE);
+        }
+        add(ANY_ROUTE, Access.ADMIN);
+
+        if (log.isInfoEnabled()) {
+            log.info("Compiled {} public and {} private routes", publicRoutes.length, privateRoutes.length);
+        }
+    }
+
+    /**
+     * Finds the route of a request, by the path of the request inside the application
+     *
+     * @param request the request
+     * @return the first matching route; every path matches at least {@value #ANY_ROUTE}
+     */
+    public Route match(HttpServletRequest request) {
+        String contextPath = request.getContextPath();
+        return match(request.getRequestURI(), contextPath == null ? 0 : contextPath.length());
+    }
+
+    /**
+     * Finds the route of a path
+     *
+     * @param path the path, starting with {@code /}
+     * @return the first matching route; every path matches at least {@value #ANY_ROUTE}
+     */
+    public Route match(String path) {
+        return match(path, 0);
+    }
+
+    private Route match(String path, int from) {
+        int start = from < path.length() && path.charAt(from) == '/' ? from + 1 : from;
+        return match(root, path, start, null);
+    }
+
+    private static Route match(Node node, String path, int start, Route best) {
+        best = first(best, node.rest);
+        int length = path.length();
+        if (start >= length) {
+            return first(best, node.exact);
+        }
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = length;
+        }
+        int next = end < length ? end + 1 : length;
+        int segmentLength = end - start;
+        for (Node child : node.children) {
+            if (child.segment.length() == segmentLength && path.regionMatches(start, child.segment, 0, segmentLength)) {
+                best = match(child, path, next, best);
+            }
+        }
+        if (node.anySegment != null && segmentLength > 0) {
+            best = match(node.anySegment, path, next, best);
+        }
+        return best;
+    }
+
+    private static Route first(Route best, Route candidate) {
+        if (candidate == null) {
+            return best;
+        }
+        return best == null || candidate.order < best.order ? candidate : best;
+    }
+
+    /**
+     * Returns the number of requests each route matched, the most used routes first
+     *
+     * @return the hits by route
+     */
+    public Map<String, Long> getHits() {
+        Map<String, Long> hits = new LinkedHashMap<>();
+        routes.stream()
+                .sorted(Comparator.comparingLong(Route::getHits).reversed())
+                .forEach(route -> hits.put(route.getPattern(), route.getHits()));
+        return hits;
+    }
+
+    private void add(String pattern, Access access) {
+        String[] segments = pattern.startsWith("/")
+                ? pattern.substring(1).split("/", -1)
+                : pattern.split("/", -1);
+        Node node = root;
+        int last = segments.length - 1;
+        for (int i = 0; i < last; i++) {
+            node = node.child(segments[i]);
+        }
+        boolean isRest = ANY_SEGMENTS.equals(segments[last]);
+        if (!isRest) {
+            node = node.child(segments[last]);
+        }
+        // a route configured again never matches, the first one wins, so it is not counted either
+        if ((isRest ? node.rest : node.exact) != null) {
+            if (log.isDebugEnabled()) {
+                log.debug("Route {} is already configured, the {} route is ignored", pattern, access);
+            }
+            return;
+        }
+        Route route = new Route(pattern, access, routes.size());
+        if (isRest) {
+            node.rest = route;
+        } else {
+            node.exact = route;
+        }
+        routes.add(route);
+    }
+
+    /**
+     * Who can access a route
+     */
+    public enum Access {
+        PUBLIC,
+        PRIVATE,
+        ADMIN
+    }
+
+    /**
+     * A configured route and the number of requests it matched
+     */
+    public static final class Route {
+
+        private final String pattern;
+
+        private final Access access;
+
+        private final int order;
+
+        private final LongAdder hits = new LongAdder();
+
+        private Route(String pattern, Access access, int order) {
+            this.pattern = pattern;
+            this.access = access;
+            this.order = order;
+        }
+
+        /**
+         * Gets the pattern of the route
+         *
+         * @return the pattern as configured
+         */
+        public String getPattern() {
+            return pattern;
+        }
+
+        /**
+         * Gets who can access the route
+         *
+         * @return the access of the route
+         */
+        public Access getAccess() {
+            return access;
+        }
+
+        /**
+         * Checks if the route does not need authentication
+         *
+         * @return true for a public route
+         */
+        public boolean isPublic() {
+            return access == Access.PUBLIC;
+        }
+
+        /**
+         * Gets the number of requests the route matched
+         *
+         * @return the hits since the start of the application
+         */
+        public long getHits() {
+            return hits.sum();
+        }
+
+        /**
+         * Counts a request of the route
+         */
+        public void hit() {
+            hits.increment();
+        }
+    }
+
+    private static final class Node {
+
+        private final String segment;
+
+        private Node[] children = new Node[0];
+
+        private Node anySegment;
+
+        // the route which ends at this node
+        private Route exact;
+
+        // the route which ends at this node with **
+        private Route rest;
+
+        private Node(String segment) {
+            this.segment = segment;
+        }
+
+        private Node child(String segment) {
+            if (ANY_SEGMENT.equals(segment)) {
+                if (anySegment == null) {
+                    anySegment = new Node(segment);
+                }
+                return anySegment;
+            }
+            for (Node child : children) {
+                if (child.segment.equals(segment)) {
+                    return child;
+                }
+            }
+            Node child = new Node(segment);
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+            return child;
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.atoss.idea.management.system.security;
 
 
 import com.atoss.idea.management.system.security.token.TokenConfig;
+import com.atoss.idea.management.system.utils.LogRedaction;
+import com.atoss.idea.management.system.utils.LogSampler;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
@@ -17,6 +19,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class SessionService {
 
+    private final LogSampler logSampler;
+
     @Value("${aims.app.sessionIdHeader}")
     private String sessionIDHeader;
 
@@ -49,14 +53,9 @@ public class SessionService {
 
         Optional<String> token = getTokenFromCookies(request.getCookies(), tokenIdentifier);
 
-        if (token.isPresent()) {
-            if (log.isInfoEnabled()) {
-                log.info("Token successfully extracted, token identifier: {}", tokenIdentifier);
-            }
-        } else {
-            if (log.isWarnEnabled()) {
-                log.warn("Token not found, token identifier: {}", tokenIdentifier);
-            }
+        // called for every request, so only a sample of the requests is logged
+        if (log.isDebugEnabled() && logSampler.sample()) {
+            log.debug("Token {} for token type: {}", token.isPresent() ? "extracted" : "not found", tokenConfig.getType());
         }
 
         return token;
@@ -65,23 +64,20 @@ public class SessionService {
     private Optional<String> getTokenFromCookies(Cookie[] cookies, String identifier) {
 
         if (cookies == null) {
-            if (log.isWarnEnabled()) {
-                log.warn("No cookies found for identifier: {}", identifier);
+            if (log.isTraceEnabled()) {
+                log.trace("No cookies found");
             }
             return Optional.empty();
         }
 
         for (Cookie cookie : cookies) {
             if (cookie.getName().equals(identifier)) {
-                if (log.isInfoEnabled()) {
-                    log.info("Token found in cookie with identifier: {}", identifier);
-                }
                 return Optional.of(cookie.getValue());
             }
         }
 
-        if (log.isWarnEnabled()) {
-            log.warn("Token not found in cookies for identifier: {}", identifier);
+        if (log.isTraceEnabled()) {
+            log.trace("Token not found in {} cookies", cookies.length);
         }
 
         return Optional.empty();
@@ -97,13 +93,13 @@ public class SessionService {
         String identifier;
         if (sessionId != null) {
             identifier = type + sessionId;
-            if (log.isDebugEnabled()) {
-                log.debug("Generated identifier with sessionId: {} -> {}", sessionId, identifier);
+            if (log.isTraceEnabled()) {
+                log.trace("Generated identifier with sessionId: {}", LogRedaction.secret(sessionId));
             }
         } else {
             identifier = type;
-            if (log.isDebugEnabled()) {
-                log.debug("Generated identifier without sessionId -> {}", identifier);
+            if (log.isTraceEnabled()) {
+                log.trace("Generated identifier without sessionId -> {}", identifier);
             }
         }
         return identifier;
@@ -119,8 +115,8 @@ public class SessionService {
 
         String sessionHeaderValue = request.getHeader(sessionIDHeader);
 
-        if (log.isDebugEnabled()) {
-            log.debug("Extracted session header value: {} for header: {}", sessionHeaderValue, sessionIDHeader);
+        if (log.isTraceEnabled()) {
+            log.trace("Extracted session header value: {} for header: {}", LogRedaction.secret(sessionHeaderValue), sessionIDHeader);
         }
 
         return sessionHeaderValue;
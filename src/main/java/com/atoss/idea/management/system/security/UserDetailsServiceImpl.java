@@ -3,26 +3,49 @@ package com.atoss.idea.management.system.security;
 import com.atoss.idea.management.system.repository.UserRepository;
 import com.atoss.idea.management.system.security.response.UserDetailsImpl;
 import com.atoss.idea.management.system.repository.entity.User;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.concurrent.TimeUnit;
+
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
+    // when the role or the active flag of a user last changed, kept as long as an access token lives
+    private final Cache<String, Long> userChanges;
+
+    // the users read from the database because their access token was issued before a change
+    private final Cache<String, UserDetailsImpl> changedUsers;
+
     /**
      * Constructor for the UserDetailsServiceImpl class.
      *
-     * @param userRepository The UserRepository used for accessing user-related data and operations.
+     * @param userRepository      The UserRepository used for accessing user-related data and operations.
+     * @param accessTokenExpiryMs How long an access token lives, so how long its claims can be stale.
+     * @param userDetailsCacheMs  How long the user details read from the database are reused.
      *
      * @see UserRepository
      */
-    public UserDetailsServiceImpl(UserRepository userRepository) {
+    public UserDetailsServiceImpl(UserRepository userRepository,
+                                  @Value("${aims.app.jwt.accessTokenExpiryMs}") long accessTokenExpiryMs,
+                                  @Value("${aims.app.userDetailsCacheMs:30000}") long userDetailsCacheMs) {
         this.userRepository = userRepository;
+        this.userChanges = CacheBuilder.newBuilder()
+                .expireAfterWrite(accessTokenExpiryMs, TimeUnit.MILLISECONDS)
+                .build();
+        this.changedUsers = CacheBuilder.newBuilder()
+                .expireAfterWrite(userDetailsCacheMs, TimeUnit.MILLISECONDS)
+                .build();
     }
 
     /**
@@ -45,4 +68,64 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return UserDetailsImpl.build(user);
     }
+
+    /**
+     * Builds the user details of an authenticated request from the claims of its access token, so
+     * the request does not read the user from the database. Only the users whose role or active flag
+     * changed after the token was issued are read from the database, and those are reused for a short time.
+     *
+     * @param claims The verified claims of the access token.
+     *
+     * @return A UserDetailsImpl object of the user the token was issued for.
+     * @throws UsernameNotFoundException If the user must be read and is not found in the database.
+     *
+     * @see UserDetailsImpl#fromClaims(Claims)
+     */
+    public UserDetailsImpl loadUserByClaims(Claims claims) throws UsernameNotFoundException {
+        String username = claims.getSubject();
+        Long changedAt = userChanges.getIfPresent(username);
+        // the issue date of a token is stored in seconds, so a token issued in the second of a change is read again
+        boolean isStale = changedAt != null && claims.getIssuedAt().getTime() <= changedAt;
+        UserDetailsImpl userDetails = isStale ? null : UserDetailsImpl.fromClaims(claims);
+        if (userDetails != null) {
+            return userDetails;
+        }
+        userDetails = changedUsers.getIfPresent(username);
+        if (userDetails == null) {
+            userDetails = (UserDetailsImpl) loadUserByUsername(username);
+            changedUsers.put(username, userDetails);
+        }
+        return userDetails;
+    }
+
+    /**
+     * Makes the requests of a user read the user from the database until the user logs in again, after
+     * a change which is not yet in the claims of the user's access token (such as a new role or a deactivation).
+     *
+     * @param username The username of the changed user.
+     */
+    public void invalidateUser(String username) {
+        userChanges.put(username, System.currentTimeMillis());
+        changedUsers.invalidate(username);
+    }
+
+    /**
+     * Replaces the password hash of a user after a successful login, when the hash was encoded
+     * with an outdated encoder or cost.
+     *
+     * @param user        The authenticated user.
+     * @param newPassword The password encoded with the current encoder.
+     *
+     * @return The user details with the new password hash.
+     *
+     * @see LoginConfig
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        if (user instanceof UserDetailsImpl userDetails) {
+            userDetails.setPassword(newPassword);
+        }
+        return user;
+    }
 }
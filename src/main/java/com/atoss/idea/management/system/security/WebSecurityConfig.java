@@ -3,7 +3,6 @@ package com.atoss.idea.management.system.security;
 import com.atoss.idea.management.system.repository.entity.Role;
 import com.atoss.idea.management.system.security.token.JwtService;
 import lombok.AllArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,8 +13,6 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -25,7 +22,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @EnableWebSecurity
 @AllArgsConstructor
 public class WebSecurityConfig implements WebMvcConfigurer {
-    private final UserDetailsService userDetailsService;
+    private final UserDetailsServiceImpl userDetailsService;
 
     private final AuthEntryPoint unauthorizedHandler;
 
@@ -33,24 +30,9 @@ public class WebSecurityConfig implements WebMvcConfigurer {
 
     private final SessionService sessionService;
 
-    @Value("${aims.app.publicRoutes}")
-    private String[] publicRoutes;
+    private final RouteMatcher routeMatcher;
 
-    @Value("${aims.app.privateRoutes}")
-    private String[] privateRoutes;
-
-
-    /**
-     * Creates a BCryptPasswordEncoder bean for encoding passwords.
-     *
-     * @return A BCryptPasswordEncoder object for password encoding.
-     * @see PasswordEncoder
-     * @see BCryptPasswordEncoder
-     */
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
+    private final PasswordEncoder passwordEncoder;
 
     /**
      * Creates an AuthTokenFilter bean for filtering and validating JWT authentication tokens.
@@ -60,21 +42,24 @@ public class WebSecurityConfig implements WebMvcConfigurer {
      */
     @Bean
     public AuthFilter authenticationJwtTokenFilter() {
-        return new AuthFilter(jwtService, userDetailsService, sessionService);
+        return new AuthFilter(jwtService, userDetailsService, sessionService, routeMatcher);
     }
 
     /**
      * Creates a DaoAuthenticationProvider bean for custom authentication using UserDetailsServiceImpl.
+     * After a successful authentication, a password hash with an outdated encoding is replaced.
      *
      * @return A DaoAuthenticationProvider object for custom authentication using UserDetailsServiceImpl.
      * @see DaoAuthenticationProvider
      * @see UserDetailsServiceImpl
+     * @see LoginConfig
      */
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -108,13 +93,13 @@ public class WebSecurityConfig implements WebMvcConfigurer {
         http
                 .csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(req ->
-                        req.requestMatchers(publicRoutes)
+                        req.requestMatchers(request -> routeMatcher.match(request).isPublic())
                                 .permitAll()
-                                .requestMatchers(HttpMethod.OPTIONS, "/**")
+                                .requestMatchers(HttpMethod.OPTIONS, RouteMatcher.ANY_ROUTE)
                                 .permitAll()
-                                .requestMatchers(privateRoutes)
+                                .requestMatchers(request -> routeMatcher.match(request).getAccess() == RouteMatcher.Access.PRIVATE)
                                 .hasAnyRole(Role.STANDARD.name(), Role.ADMIN.name())
-                                .requestMatchers("/**")
+                                .requestMatchers(RouteMatcher.ANY_ROUTE)
                                 .hasRole(Role.ADMIN.name())
                                 .anyRequest()
                                 .authenticated()
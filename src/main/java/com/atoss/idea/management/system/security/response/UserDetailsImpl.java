@@ -2,6 +2,7 @@ package com.atoss.idea.management.system.security.response;
 
 import com.atoss.idea.management.system.repository.entity.Role;
 import com.atoss.idea.management.system.repository.entity.User;
+import io.jsonwebtoken.Claims;
 import lombok.Data;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -25,6 +26,9 @@ public class UserDetailsImpl implements UserDetails {
 
     private Collection<? extends GrantedAuthority> authorities;
 
+    // false for a deactivated account, whose requests are not authenticated
+    private boolean active = true;
+
     /**
      * Constructor for the UserRegisterDTO class.
      *
@@ -63,11 +67,37 @@ public class UserDetailsImpl implements UserDetails {
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.name()))
                 .collect(Collectors.toList());
 
-        return new UserDetailsImpl(user.getId(),
+        UserDetailsImpl userDetails = new UserDetailsImpl(user.getId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
                 authorities);
+        userDetails.setActive(!Boolean.FALSE.equals(user.getIsActive()));
+        return userDetails;
+    }
+
+    /**
+     * Static method to build a UserDetailsImpl object from the verified claims of an access token,
+     * without reading the user from the database. The password is not part of the claims.
+     *
+     * @param claims The claims of the access token, whose signature was verified.
+     *
+     * @return A UserDetailsImpl object, or null if the token was issued without the role claim.
+     *
+     * @see Claims
+     */
+    public static UserDetailsImpl fromClaims(Claims claims) {
+        String role = claims.get("role", String.class);
+        if (role == null) {
+            return null;
+        }
+        UserDetailsImpl userDetails = new UserDetailsImpl(claims.get("id", Long.class),
+                claims.getSubject(),
+                claims.get("email", String.class),
+                null,
+                List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+        userDetails.setActive(!Boolean.FALSE.equals(claims.get("isActive", Boolean.class)));
+        return userDetails;
     }
 
     @Override
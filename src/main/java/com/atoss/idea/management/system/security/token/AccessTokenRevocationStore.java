@@ -0,0 +1,137 @@
+package com.atoss.idea.management.system.security.token;
+
+import com.atoss.idea.management.system.repository.BlacklistedAccessTokenRepository;
+import com.atoss.idea.management.system.repository.entity.BlacklistedAccessToken;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Keeps the revoked (logged out) access tokens in memory, so checking a token on every request
+ * does not query the database.
+ * <p>
+ * A revocation is saved in the blacklisted_access_token table and kept in memory until the token expires;
+ * after that the token is rejected by its expiration anyway. The table is loaded at startup, and loaded
+ * again regularly, together with the eviction of the expired revocations, to pick up the rows saved by
+ * other instances of the application. Every unexpired row is read each time: the ids come from a pooled
+ * sequence, so a row committed later can have a lower id than one already loaded, and only the revocations
+ * of tokens which have not expired are in the table anyway.
+ */
+@Log4j2
+@Component
+public class AccessTokenRevocationStore {
+
+    private final BlacklistedAccessTokenRepository blacklistedAccessTokenRepository;
+
+    // the expiry date of each revoked token
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // the same revocations ordered by expiry, so the expired ones are evicted without scanning the others
+    private final NavigableSet<Revocation> revocationsByExpiry = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(Revocation::expiry).thenComparing(Revocation::token));
+
+    /**
+     * Constructor
+     *
+     * @param blacklistedAccessTokenRepository for saving and loading the revoked tokens
+     */
+    public AccessTokenRevocationStore(BlacklistedAccessTokenRepository blacklistedAccessTokenRepository) {
+        this.blacklistedAccessTokenRepository = blacklistedAccessTokenRepository;
+    }
+
+    /**
+     * Loads the tokens which were revoked and have not expired yet
+     */
+    @PostConstruct
+    public void load() {
+        int loaded = loadRevocations();
+        if (log.isInfoEnabled()) {
+            log.info("Loaded {} revoked access tokens", loaded);
+        }
+    }
+
+    /**
+     * Checks if an access token was revoked; the check only reads memory
+     *
+     * @param token the access token
+     * @return true if the token was revoked
+     */
+    public boolean isRevoked(String token) {
+        return revokedTokens.containsKey(token);
+    }
+
+    /**
+     * Revokes an access token until its expiry date
+     *
+     * @param token  the access token
+     * @param expiry the expiry date of the token
+     */
+    public void revoke(String token, Date expiry) {
+        BlacklistedAccessToken blacklistedAccessToken = new BlacklistedAccessToken();
+        blacklistedAccessToken.setToken(token);
+        blacklistedAccessToken.setExpiry(expiry);
+        blacklistedAccessTokenRepository.save(blacklistedAccessToken);
+        add(token, expiry.getTime());
+    }
+
+    /**
+     * Evicts the expired revocations from memory and from the database, and loads the revocations
+     * saved by other instances of the application
+     */
+    @Scheduled(initialDelayString = "${aims.app.revocation.evictDelayMs:60000}",
+            fixedDelayString = "${aims.app.revocation.evictDelayMs:60000}")
+    public void evictExpired() {
+        try {
+            long now = System.currentTimeMillis();
+            int evicted = 0;
+            Iterator<Revocation> oldestFirst = revocationsByExpiry.iterator();
+            while (oldestFirst.hasNext()) {
+                Revocation revocation = oldestFirst.next();
+                if (revocation.expiry() > now) {
+                    break;
+                }
+                oldestFirst.remove();
+                revokedTokens.remove(revocation.token(), revocation.expiry());
+                evicted++;
+            }
+            int deleted = blacklistedAccessTokenRepository.deleteExpired(new Date(now));
+            loadRevocations();
+            if (log.isDebugEnabled()) {
+                log.debug("Evicted {} revoked tokens from memory and deleted {} from the database", evicted, deleted);
+            }
+        } catch (Exception e) {
+            if (log.isErrorEnabled()) {
+                log.error("Error occurred while evicting expired tokens: {}", e.getMessage());
+            }
+        }
+    }
+
+    private int loadRevocations() {
+        List<BlacklistedAccessToken> revocations = blacklistedAccessTokenRepository.findByExpiryGreaterThan(new Date());
+        for (BlacklistedAccessToken revocation : revocations) {
+            add(revocation.getToken(), revocation.getExpiry().getTime());
+        }
+        return revocations.size();
+    }
+
+    private void add(String token, long expiry) {
+        Long previousExpiry = revokedTokens.put(token, expiry);
+        if (previousExpiry != null && previousExpiry != expiry) {
+            revocationsByExpiry.remove(new Revocation(previousExpiry, token));
+        }
+        revocationsByExpiry.add(new Revocation(expiry, token));
+    }
+
+    private record Revocation(long expiry, String token) {
+    }
+}
@@ -1,30 +1,36 @@
 package com.atoss.idea.management.system.security.token;
 
-import com.atoss.idea.management.system.repository.BlacklistedAccessTokenRepository;
 import com.atoss.idea.management.system.repository.dto.UserSecurityDTO;
-import com.atoss.idea.management.system.repository.entity.BlacklistedAccessToken;
 import com.atoss.idea.management.system.service.UserService;
+import com.atoss.idea.management.system.utils.LogRedaction;
+import com.atoss.idea.management.system.utils.LogSampler;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
@@ -34,16 +40,41 @@ import java.util.function.Function;
 @RequiredArgsConstructor
 public class JwtService {
 
+    public static final long MAX_VERIFIED_TOKENS = 10_000;
+
     @Value("${aims.app.jwt.secret}")
     private String secret;
 
     private final ObjectMapper objectMapper;
     private final UserService userService;
-    private final BlacklistedAccessTokenRepository blacklistedAccessTokenRepository;
+    private final AccessTokenRevocationStore revocationStore;
+    private final LogSampler logSampler;
 
     @Getter
     private final AccessTokenConfig tokenConfig;
 
+    private Key signKey;
+
+    private JwtParser jwtParser;
+
+    // the claims of the tokens whose signature was already verified, by the hash of the token
+    private Cache<String, Claims> verifiedTokens;
+
+    /**
+     * Decodes the signing key and builds the parser once; both are immutable and thread-safe
+     */
+    @PostConstruct
+    public void init() {
+        signKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signKey)
+                .build();
+        verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(MAX_VERIFIED_TOKENS)
+                .expireAfterWrite(tokenConfig.getExpiryMs(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
     /**
      * Extracts of any claim for JWT token
      *
@@ -55,8 +86,8 @@ public class JwtService {
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
         Claims claims = extractAllClaims(token);
 
-        if (log.isInfoEnabled()) {
-            log.info("Successfully extracted claims from token");
+        if (log.isTraceEnabled()) {
+            log.trace("Successfully extracted claims from token");
         }
 
         return claimsResolver.apply(claims);
@@ -71,8 +102,8 @@ public class JwtService {
     public String extractUsername(String token) {
         String username = extractClaim(token, Claims::getSubject);
 
-        if (log.isInfoEnabled()) {
-            log.info("Extracted username from token: {}", username);
+        if (log.isDebugEnabled()) {
+            log.debug("Extracted username from token: {}", username);
         }
 
         return username;
@@ -87,8 +118,8 @@ public class JwtService {
     public Date extractExpiration(String token) {
         Date expiration = extractClaim(token, Claims::getExpiration);
 
-        if (log.isInfoEnabled()) {
-            log.info("Extracted expiration date from token: {}", expiration);
+        if (log.isDebugEnabled()) {
+            log.debug("Extracted expiration date from token: {}", expiration);
         }
 
         return expiration;
@@ -101,20 +132,37 @@ public class JwtService {
      * @return Return claims from JWT token.
      */
     private Claims extractAllClaims(String token) {
-        Claims claims = Jwts
-                .parserBuilder()
-                .setSigningKey(getSignKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = verifyToken(token);
 
-        if (log.isInfoEnabled()) {
-            log.info("Claims extracted successfully: {}", claims);
+        if (log.isTraceEnabled()) {
+            log.trace("Claims extracted successfully: {}", LogRedaction.claims(claims));
         }
 
         return claims;
     }
 
+    /**
+     * Verifies the signature and the expiration of a JWT token and returns its claims.
+     * The signature of a token is verified once, its claims are then kept until the token expires.
+     *
+     * @param token The JWT Token to verify
+     * @return Return claims from JWT token.
+     * @throws ExpiredJwtException if the token is expired
+     * @throws io.jsonwebtoken.JwtException if the token is malformed or its signature is invalid
+     */
+    public Claims verifyToken(String token) {
+        String tokenHash = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+        Claims claims = verifiedTokens.getIfPresent(tokenHash);
+        if (claims != null && claims.getExpiration().after(new Date())) {
+            return claims;
+        }
+        // an expired token is parsed again, so the caller gets the same ExpiredJwtException as for a new token
+        verifiedTokens.invalidate(tokenHash);
+        claims = jwtParser.parseClaimsJws(token).getBody();
+        verifiedTokens.put(tokenHash, claims);
+        return claims;
+    }
+
     /**
      * Validates the JWT token
      *
@@ -123,19 +171,31 @@ public class JwtService {
      * @return Return true if the token is valid and false otherwise
      */
     public Boolean validateToken(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
-        if (log.isDebugEnabled()) {
-            log.debug("Validating token for username: {}", username);
-        }
+        return validateToken(token, verifyToken(token), userDetails);
+    }
+
+    /**
+     * Validates the JWT token whose claims were already verified
+     *
+     * @param token       The JWT Token to validate
+     * @param claims      The claims returned by {@link #verifyToken(String)} for the token
+     * @param userDetails The user details
+     * @return Return true if the token is valid and false otherwise
+     */
+    public Boolean validateToken(String token, Claims claims, UserDetails userDetails) {
+        String username = claims.getSubject();
         boolean isUsernameValid = username.equals(userDetails.getUsername());
-        boolean isTokenExpired = isTokenExpired(token);
+        boolean isTokenExpired = claims.getExpiration().before(new Date());
         boolean isTokenBlacklisted = isTokenBlacklisted(token);
+        boolean isValid = isUsernameValid && !isTokenExpired && !isTokenBlacklisted;
 
-        if (log.isInfoEnabled()) {
-            log.info("Token validation results: {}", isUsernameValid && !isTokenExpired && !isTokenBlacklisted);
+        // called for every authenticated request, so only a sample of the requests is logged
+        if (log.isDebugEnabled() && (!isValid || logSampler.sample())) {
+            log.debug("Token {} of username {} validation results: {} (blacklisted: {})",
+                    LogRedaction.secret(token), username, isValid, isTokenBlacklisted);
         }
 
-        return isUsernameValid && !isTokenExpired && !isTokenBlacklisted;
+        return isValid;
     }
 
     /**
@@ -145,50 +205,32 @@ public class JwtService {
      * @return Return generated Jwt token
      */
     public String generateToken(String username) {
-        Map<String, Object> claims = objectMapper.convertValue(
-                userService.getUserByUsername(username, UserSecurityDTO.class),
-                HashMap.class);
-
-        String token = createToken(claims, username);
-
-        if (log.isInfoEnabled()) {
-            log.info("Token generated successfully: {}", token);
-        }
-
-        return token;
+        return generateToken(userService.getUserByUsername(username, UserSecurityDTO.class));
     }
 
     /**
-     * Checks if the JWT token is expired
+     * Generates a JWT token for an user which was already read
      *
-     * @param token The Jwt token for checking
-     * @return Return true if the token is expired and false otherwise
+     * @param user The user for which to generate the token, its fields become the claims of the token
+     * @return Return generated Jwt token
      */
+    public String generateToken(UserSecurityDTO user) {
+        Map<String, Object> claims = objectMapper.convertValue(user, HashMap.class);
 
-    private Boolean isTokenExpired(String token) {
-
-        Date expirationDate = extractExpiration(token);
-
-        if (log.isDebugEnabled()) {
-            log.debug("Token expiration date: {}", expirationDate);
-            log.debug("Current date: {}", new Date());
-        }
-
-        boolean isExpired = expirationDate.before(new Date());
+        String token = createToken(claims, user.getUsername());
 
         if (log.isInfoEnabled()) {
-            log.info("Token is expired: {}", isExpired);
+            log.info("Token {} generated successfully for username: {}", LogRedaction.secret(token), user.getUsername());
         }
 
-        return isExpired;
-
+        return token;
     }
 
     private Boolean isTokenBlacklisted(String token) {
-        boolean isBlacklisted = blacklistedAccessTokenRepository.findByToken(token).isPresent();
+        boolean isBlacklisted = revocationStore.isRevoked(token);
 
-        if (log.isInfoEnabled()) {
-            log.info("Token is blacklisted: {}", isBlacklisted);
+        if (log.isTraceEnabled()) {
+            log.trace("Token is blacklisted: {}", isBlacklisted);
         }
 
         return isBlacklisted;
@@ -207,79 +249,36 @@ public class JwtService {
                 .setSubject(username)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + tokenConfig.getExpiryMs()))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256)
+                .signWith(signKey, SignatureAlgorithm.HS256)
                 .compact();
 
-        if (log.isInfoEnabled()) {
-            log.info("Created token: {}", token);
+        if (log.isTraceEnabled()) {
+            log.trace("Created token: {}", LogRedaction.secret(token));
         }
 
         return token;
     }
 
-    /**
-     * Recovers the signing key used for jwt token
-     * This method decodes the key from base64
-     *
-     * @return Return the signing key used for jwt operations
-     */
-    private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secret);
-        Key key = Keys.hmacShaKeyFor(keyBytes);
-
-        if (log.isInfoEnabled()) {
-            log.info("Generated hmac key using BASE64 decoded key bytes.");
-        }
-
-        return key;
-    }
-
-
     /**
      * Invalidates an access token by blacklisting it.
      *
      * @param token The token to be blacklisted.
-     * @see BlacklistedAccessToken
-     * @see BlacklistedAccessTokenRepository
+     * @see AccessTokenRevocationStore
      */
     public void invalidateToken(String token) {
-        BlacklistedAccessToken blacklistedAccessToken = new BlacklistedAccessToken();
-        blacklistedAccessToken.setToken(token);
-
+        Date expiry;
         try {
-            blacklistedAccessToken.setExpiry(extractExpiration(token));
+            expiry = extractExpiration(token);
             if (log.isInfoEnabled()) {
-                log.info("Token invalidated. Expiration set to {}.", blacklistedAccessToken.getExpiry());
+                log.info("Token invalidated. Expiration set to {}.", expiry);
             }
         } catch (ExpiredJwtException e) {
-            blacklistedAccessToken.setExpiry(e.getClaims().getExpiration());
+            expiry = e.getClaims().getExpiration();
             if (log.isWarnEnabled()) {
-                log.warn("Token has expired and was invalidated. Expiration from exception: {}.", blacklistedAccessToken.getExpiry());
-            }
-        }
-
-        blacklistedAccessTokenRepository.save(blacklistedAccessToken);
-    }
-
-    /**
-     * Regularly deletes the blacklisted tokens from the database.
-     *
-     * @see BlacklistedAccessToken
-     * @see Scheduled
-     */
-    @Scheduled(cron = "0 0 12 * * ?")
-    private void deleteExpiredTokens() {
-
-        try {
-            blacklistedAccessTokenRepository.deleteAllByExpiryLessThan(new Date());
-            if (log.isInfoEnabled()) {
-                log.info("Deleted expired tokens");
-            }
-        } catch (Exception e) {
-            if (log.isErrorEnabled()) {
-                log.error("Error occurred while deleting expired tokens: {}", e.getMessage());
+                log.warn("Token has expired and was invalidated. Expiration from exception: {}.", expiry);
             }
         }
 
+        revocationStore.revoke(token, expiry);
     }
 }
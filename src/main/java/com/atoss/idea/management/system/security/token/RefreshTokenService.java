@@ -2,28 +2,39 @@ package com.atoss.idea.management.system.security.token;
 
 import com.atoss.idea.management.system.exception.InvalidRefreshTokenException;
 import com.atoss.idea.management.system.exception.RefreshTokenExpiredException;
-import com.atoss.idea.management.system.exception.UserNotFoundException;
 import com.atoss.idea.management.system.repository.RefreshTokenRepository;
-import com.atoss.idea.management.system.repository.UserRepository;
 import com.atoss.idea.management.system.repository.dto.UserSecurityDTO;
 import com.atoss.idea.management.system.repository.entity.RefreshToken;
-import com.atoss.idea.management.system.repository.entity.User;
 import com.atoss.idea.management.system.security.SessionService;
 import com.atoss.idea.management.system.security.response.AuthResponse;
+import com.atoss.idea.management.system.utils.LogRedaction;
+import com.google.common.hash.Hashing;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.transaction.Transactional;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Date;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Creates, rotates and invalidates the refresh tokens.
+ * <p>
+ * Only the SHA-256 of a token is stored, next to the id of its user, so a token is found by an index
+ * lookup and a stolen database does not contain usable tokens. Refreshing reads the token with its user
+ * and rotates it with one conditional UPDATE, however many sessions the user has. A user keeps at most
+ * {@code aims.app.jwt.maxRefreshTokensPerUser} tokens and the expired tokens are deleted regularly.
+ */
 @Service
 @Log4j2
 @RequiredArgsConstructor
@@ -31,7 +42,7 @@ public class RefreshTokenService {
 
     private final RefreshTokenRepository refreshTokenRepository;
 
-    private final UserRepository userRepository;
+    private final ModelMapper modelMapper;
 
     private final JwtService jwtService;
     private final SessionService sessionService;
@@ -39,54 +50,49 @@ public class RefreshTokenService {
     @Getter
     private final RefreshTokenConfig tokenConfig;
 
+    @Value("${aims.app.jwt.maxRefreshTokensPerUser:10}")
+    private int maxRefreshTokensPerUser;
+
     /**
-     * Creates a new refresh token for the specified username
+     * Creates a new refresh token for the specified user, and deletes the oldest tokens of the user
+     * above the allowed number of sessions
      *
-     * @param username The username for which the refresh token is to be created.
-     * @return the newly created {@link RefreshToken} instance.
-     * @throws UserNotFoundException If no user is found with the given username.
+     * @param userId The id of the user for which the refresh token is to be created.
+     * @return the newly created {@link RefreshToken} instance, with its token value.
      */
-
     @Transactional
-    public RefreshToken createRefreshToken(String username) {
-
+    public RefreshToken createRefreshToken(Long userId) {
+        String token = UUID.randomUUID().toString();
         RefreshToken refreshToken = RefreshToken.builder()
-                .user(userRepository
-                        .findByUsername(username)
-                        .orElseThrow(() -> {
-                            if (log.isErrorEnabled()) {
-                                log.error("User not found during refresh token creation: {}", username);
-                            }
-                            return new UserNotFoundException("User not found");
-                        }))
-                .token(UUID.randomUUID().toString())
+                .userId(userId)
+                .tokenHash(hash(token))
                 .expiryDate(Instant.now().plusMillis(tokenConfig.getExpiryMs()))
                 .build();
 
-        User user = refreshToken.getUser();
-        user.getRefreshTokens().add(refreshToken);
-
         RefreshToken savedToken = refreshTokenRepository.save(refreshToken);
-        userRepository.save(user);
+        savedToken.setToken(token);
+
+        int deleted = refreshTokenRepository.deleteOldestOfUser(userId, maxRefreshTokensPerUser);
 
         if (log.isInfoEnabled()) {
-            log.info("Created and saved new refresh token: {}", savedToken.getToken());
+            log.info("Created and saved new refresh token: {}, deleted {} old tokens of the user",
+                    LogRedaction.secret(token), deleted);
         }
 
         return savedToken;
     }
 
     /**
-     * Finds a refresh token by its token value.
+     * Finds a refresh token, together with its user, by its token value.
      *
      * @param token The token value of the refresh token to be found
      * @return Return a {@link Optional} containing the found {@link RefreshToken} if present, otherwise {@link Optional#empty()}
      */
     public Optional<RefreshToken> findByToken(String token) {
-        if (log.isInfoEnabled()) {
-            log.info("Searching for refresh token");
+        if (log.isDebugEnabled()) {
+            log.debug("Searching for refresh token");
         }
-        return refreshTokenRepository.findByToken(token);
+        return refreshTokenRepository.findWithUserByTokenHash(hash(token));
     }
 
     /**
@@ -101,24 +107,25 @@ public class RefreshTokenService {
             if (log.isWarnEnabled()) {
                 log.warn("Refresh token has expired, expiry date: {}", token.getExpiryDate());
             }
-            refreshTokenRepository.delete(token);
+            refreshTokenRepository.deleteExpiredById(token.getId());
             throw new RefreshTokenExpiredException(token, "Expired refresh token");
         }
-        if (log.isInfoEnabled()) {
-            log.info("Refresh token is still valid.");
+        if (log.isDebugEnabled()) {
+            log.debug("Refresh token is still valid.");
         }
         return token;
     }
 
     /**
-     * Refreshes the authentication token by issuing a new access token and refresh token
+     * Refreshes the authentication token by issuing a new access token and rotating the refresh token
      *
      * @param request  Request the {@link HttpServletRequest} containing the current refresh token in cookies
      * @param response The {@link HttpServletResponse} to which new cookies will be added
      * @return Return an {@link AuthResponse} containing the new access token expiration date
-     * @throws InvalidRefreshTokenException if the refresh token is invalid
+     * @throws InvalidRefreshTokenException if the refresh token is invalid or was already used
      * @throws RefreshTokenExpiredException if the refresh token has expired
      */
+    @Transactional
     public AuthResponse refreshAuthToken(HttpServletRequest request, HttpServletResponse response) {
 
         Optional<String> token = sessionService.extractToken(request, tokenConfig);
@@ -130,44 +137,32 @@ public class RefreshTokenService {
             throw new InvalidRefreshTokenException("Invalid refresh token");
         }
 
-        RefreshToken refreshToken = refreshTokenRepository.findByToken(token.get())
+        String tokenHash = hash(token.get());
+        RefreshToken refreshToken = refreshTokenRepository.findWithUserByTokenHash(tokenHash)
                 .orElseThrow(() -> {
                     if (log.isErrorEnabled()) {
-                        log.error("Token not found in repository {}", token.get());
+                        log.error("Token not found in repository {}", LogRedaction.secret(token.get()));
                     }
                     return new InvalidRefreshTokenException("Invalid refresh token");
                 });
 
-        if (log.isInfoEnabled()) {
-            log.info("Found refresh token: {}", refreshToken.getToken());
-        }
         verifyExpiration(refreshToken);
 
-        Optional<User> userOptional = userRepository.findUserByRefreshToken(refreshToken);
-
-        User user;
-        if (userOptional.isPresent()) {
-            user = userOptional.get();
-            if (log.isInfoEnabled()) {
-                log.info("User found: {}", user.getUsername());
-            }
-        } else {
+        String newToken = UUID.randomUUID().toString();
+        Instant newExpiryDate = Instant.now().plusMillis(tokenConfig.getExpiryMs());
+        // a token refreshed concurrently with the same value is rotated only once
+        if (refreshTokenRepository.rotate(refreshToken.getId(), tokenHash, hash(newToken), newExpiryDate) == 0) {
             if (log.isErrorEnabled()) {
-                log.error("User not found for refresh token: {}", refreshToken.getToken());
+                log.error("Refresh token {} was already rotated", LogRedaction.secret(token.get()));
             }
-            throw new UserNotFoundException("User not found " + refreshToken.getUser().getUsername());
+            throw new InvalidRefreshTokenException("Invalid refresh token");
         }
 
-        String username = user.getUsername();
-
-        refreshTokenRepository.delete(refreshToken);
-
         if (log.isDebugEnabled()) {
-            log.debug("Deleted old refresh token: {}", refreshToken.getToken());
+            log.debug("Rotated refresh token {} to {}", LogRedaction.secret(token.get()), LogRedaction.secret(newToken));
         }
 
-        String newAccessToken = jwtService.generateToken(username);
-        RefreshToken newRefreshToken = createRefreshToken(username);
+        String newAccessToken = jwtService.generateToken(modelMapper.map(refreshToken.getUser(), UserSecurityDTO.class));
 
         response.addHeader(HttpHeaders.SET_COOKIE, sessionService
                 .createTokenCookie(
@@ -179,13 +174,13 @@ public class RefreshTokenService {
         response.addHeader(HttpHeaders.SET_COOKIE, sessionService
                 .createTokenCookie(
                         sessionService.extractSessionHeader(request),
-                        newRefreshToken.getToken(),
+                        newToken,
                         tokenConfig)
                 .toString());
 
         AuthResponse authResponse = new AuthResponse(
                 jwtService.extractExpiration(newAccessToken),
-                Date.from(newRefreshToken.getExpiryDate()),
+                Date.from(newExpiryDate),
                 new UserSecurityDTO());
 
         if (log.isInfoEnabled()) {
@@ -203,13 +198,34 @@ public class RefreshTokenService {
     public void invalidateToken(String token) {
 
         if (log.isInfoEnabled()) {
-            log.info("Trying to invalidate refresh token {}...", token);
+            log.info("Trying to invalidate refresh token {}...", LogRedaction.secret(token));
         }
 
-        refreshTokenRepository.findByToken(token).ifPresent(refreshTokenRepository::delete);
+        refreshTokenRepository.deleteByTokenHash(hash(token));
         if (log.isInfoEnabled()) {
-            log.info("Refresh token {} invalidated successfully", token);
+            log.info("Refresh token {} invalidated successfully", LogRedaction.secret(token));
+        }
+    }
+
+    /**
+     * Deletes the expired refresh tokens; an expired token is otherwise only deleted when it is used
+     */
+    @Scheduled(initialDelayString = "${aims.app.jwt.refreshTokenSweepDelayMs:3600000}",
+            fixedDelayString = "${aims.app.jwt.refreshTokenSweepDelayMs:3600000}")
+    public void deleteExpiredTokens() {
+        try {
+            int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+            if (log.isInfoEnabled()) {
+                log.info("Deleted {} expired refresh tokens", deleted);
+            }
+        } catch (Exception e) {
+            if (log.isErrorEnabled()) {
+                log.error("Error occurred while deleting expired refresh tokens: {}", e.getMessage());
+            }
         }
     }
 
+    private static String hash(String token) {
+        return Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+    }
 }
@@ -1,16 +1,33 @@
 package com.atoss.idea.management.system.service;
 
-import com.atoss.idea.management.system.repository.dto.AvatarDTO;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import java.util.List;
 
 public interface AvatarService {
     /**
-     * Retrieves a list of all avatars and maps them to a list of AvatarDTO objects.
+     * Retrieves a list of all avatars, without their images.
      *
-     * This method fetches all avatars from the AvatarRepository and uses the ModelMapper to convert each Avatar entity
-     * to an AvatarDTO object. The resulting list of AvatarDTO objects is then returned.
+     * The images are fetched by the id of the avatar from the content endpoint.
      *
-     * @return A list of AvatarDTO objects representing all avatars in the system.
+     * @return A list of the metadata of all avatars in the system.
      */
-    List<AvatarDTO> getAllAvatars();
+    List<FileMetadataDTO> getAllAvatars();
+
+    /**
+     * Gets what is needed to send the content of an avatar, without the content
+     *
+     * @param id the id of the avatar
+     * @return the file name, type, size and content hash of the avatar
+     * @throws com.atoss.idea.management.system.exception.AvatarNotFoundException if the avatar doesn't exist
+     */
+    FileMetadataDTO getAvatarMetadata(Long id);
+
+    /**
+     * Gets what is needed to send an avatar image by its hash
+     *
+     * @param contentHash the SHA-256 of the image
+     * @return the file name, type, size and content hash of an avatar with this image
+     * @throws com.atoss.idea.management.system.exception.AvatarNotFoundException if no avatar has this image
+     */
+    FileMetadataDTO getAvatarMetadataByContentHash(String contentHash);
 }
@@ -0,0 +1,63 @@
+package com.atoss.idea.management.system.service;
+
+import com.atoss.idea.management.system.exception.BlobStorageException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Stores the content of the documents, images and avatars outside of the database.
+ * <p>
+ * A content is addressed by its SHA-256, so the same file uploaded twice is stored once and the
+ * entities only keep the hash and the size of their content.
+ */
+public interface BlobStorageService {
+
+    /**
+     * Stores a content which is already in memory
+     *
+     * @param content the bytes of the content
+     * @return the SHA-256 of the content, as 64 lowercase hex characters
+     * @throws BlobStorageException if the content could not be written
+     */
+    String store(byte[] content);
+
+    /**
+     * Stores a content by copying the stream, without holding the content in memory
+     *
+     * @param content the stream of the content, which is not closed
+     * @return the SHA-256 of the content, as 64 lowercase hex characters
+     * @throws IOException if the stream could not be read or the content could not be written
+     */
+    String store(InputStream content) throws IOException;
+
+    /**
+     * Reads a whole content; only for small contents which are sent inline
+     *
+     * @param contentHash the SHA-256 of the content
+     * @return the bytes of the content, which may be shared and must not be modified
+     * @throws BlobStorageException if the content does not exist or could not be read
+     */
+    byte[] read(String contentHash);
+
+    /**
+     * Gets the size of a content
+     *
+     * @param contentHash the SHA-256 of the content
+     * @return the size in bytes
+     * @throws BlobStorageException if the content does not exist
+     */
+    long size(String contentHash);
+
+    /**
+     * Copies a part of a content to a stream, through a fixed buffer, whatever the size of the content
+     *
+     * @param contentHash  the SHA-256 of the content
+     * @param position     the first byte to copy
+     * @param count        the number of bytes to copy
+     * @param outputStream the stream the bytes are written to, which is not closed
+     * @throws IOException if the content could not be read or the stream could not be written
+     */
+    void transferTo(String contentHash, long position, long count, OutputStream outputStream) throws IOException;
+}
@@ -2,6 +2,7 @@ package com.atoss.idea.management.system.service;
 
 import com.atoss.idea.management.system.exception.DocumentNotFoundException;
 import com.atoss.idea.management.system.repository.dto.DocumentDTO;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 
 import java.util.List;
 
@@ -28,12 +29,21 @@ public interface DocumentService {
      */
     DocumentDTO getDocument(Long id) throws DocumentNotFoundException;
 
+    /**
+     * Gets what is needed to download a document, without its content
+     *
+     * @param id the id of the document
+     * @return the file name, type, size and content hash of the document
+     * @throws DocumentNotFoundException if the document doesn't exist
+     */
+    FileMetadataDTO getDocumentMetadata(Long id) throws DocumentNotFoundException;
+
 
     /**
-     *  Gets a document by an idea id
+     *  Gets the documents of an idea, without their contents
      *
      * @param ideaId the id of the idea
-     * @return it returns the document.
+     * @return it returns the metadata of the documents, which are downloaded by their id.
      */
     List<DocumentDTO> getDocumentsByIdeaId(Long ideaId);
 
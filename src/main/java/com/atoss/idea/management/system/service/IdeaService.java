@@ -13,6 +13,7 @@ import org.springframework.data.domain.Pageable;
 
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -102,6 +103,9 @@ public interface IdeaService {
      * @param pageable         it contains all the necessary information about the
      *                         requested page, such as page size, page number,
      *                         sort category and sort direction
+     * @param cursorCreationDate optional keyset cursor, the creation date of the last idea of the previous page;
+     *                           when given together with cursorId the page number is ignored
+     * @param cursorId           optional keyset cursor, the id of the last idea of the previous page
      * @return an IdeaPageDTO containing filtered ideas based on the given criteria
      */
     Page<IdeaResponseDTO> filterIdeasByAll(String title,
@@ -116,7 +120,9 @@ public interface IdeaService {
                                            String rating,
                                            Pageable pageable,
                                            Boolean subscribed,
-                                           Long userId);
+                                           Long userId,
+                                           Date cursorCreationDate,
+                                           Long cursorId);
 
     /**
      * Function used to return a list of ideas by their id
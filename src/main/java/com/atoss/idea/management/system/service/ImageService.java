@@ -1,6 +1,7 @@
 package com.atoss.idea.management.system.service;
 
 import com.atoss.idea.management.system.exception.ImageNotFoundException;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import com.atoss.idea.management.system.repository.dto.ImageDTO;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
@@ -28,11 +29,29 @@ public interface ImageService {
     ImageDTO getImage(Long id) throws ImageNotFoundException;
 
     /**
-     * Gets all the images from the database.
+     * Gets what is needed to send the content of an image, without the content
      *
-     * @return it returns a list of images.
+     * @param id the id of the image
+     * @return the file name, type, size and content hash of the image
+     * @throws ImageNotFoundException if the image doesn't exist
+     */
+    FileMetadataDTO getImageMetadata(Long id) throws ImageNotFoundException;
+
+    /**
+     * Gets what is needed to send a content of the images by its hash
+     *
+     * @param contentHash the SHA-256 of the content
+     * @return the file name, type, size and content hash of an image with this content
+     * @throws ImageNotFoundException if no image has this content
+     */
+    FileMetadataDTO getImageMetadataByContentHash(String contentHash) throws ImageNotFoundException;
+
+    /**
+     * Gets all the images from the database, without their contents.
+     *
+     * @return it returns the metadata of the images, whose contents are fetched by their id.
      * */
-    List<ImageDTO> getAllImage();
+    List<FileMetadataDTO> getAllImage();
 
     /**
      *  Gets an image by an idea id
@@ -96,10 +96,10 @@ public interface SendEmailService {
      * Sends an email to notify the subscribed users of a certain idea that its rating average has changed
      *
      *
-     * @param username The username of the user which is subscribed to the idea
+     * @param users  the users which are subscribed to the idea
      * @param ideaId the id of the idea whose rating average has changed
      */
-    void sendEmailRatingChanged(String username, Long ideaId);
+    void sendEmailRatingChanged(List<User> users, Long ideaId);
 
 
     /**
@@ -1,6 +1,7 @@
 package com.atoss.idea.management.system.service;
 
 import com.atoss.idea.management.system.repository.dto.StatisticsDTO;
+import com.atoss.idea.management.system.repository.dto.StatisticsSeriesDTO;
 
 public interface StatisticsService {
 
@@ -16,22 +17,14 @@ public interface StatisticsService {
 
 
     /**
-     * Returns the number of all replies between selected dates
+     * Returns the numbers of ideas by status, comments and replies created between selected dates,
+     * counted from the ideas and comments with one query
      *
      * @param selectedDateFrom the date from
      * @param selectedDateTo the date to
-     * @return the number of all replies between selected dates
+     * @return the numbers and percentages of ideas, comments and replies between selected dates
      */
-    Long getSelectionRepliesNumber(String selectedDateFrom, String selectedDateTo);
-
-    /**
-     * Returns the number of all comments between selected dates
-     *
-     * @param selectedDateFrom the date from
-     * @param selectedDateTo the date to
-     * @return the number of all comments between selected dates
-     */
-    Long getSelectionCommentNumber(String selectedDateFrom, String selectedDateTo);
+    StatisticsDTO getSelectionCounts(String selectedDateFrom, String selectedDateTo);
 
     /**
      * used to retrieve stats based on given date interval
@@ -45,4 +38,17 @@ public interface StatisticsService {
     StatisticsDTO getStatisticsByDate(String selectedDateFrom,
                                       String selectedDateTo);
 
+    /**
+     * Returns the statistics of the selected time interval by day, week or month, summed from the
+     * daily statistics with one query. Every bucket of the interval is returned, the buckets
+     * without statistics with zeros.
+     * Usage: in the "/series" controller, for drawing the trends of CustomStatistics with one request
+     *
+     * @param selectedDateFrom the date from
+     * @param selectedDateTo the date to
+     * @param granularity day, week or month; the weeks start on monday
+     * @return the numbers of ideas by status, comments, replies, ratings and likes of every bucket
+     */
+    StatisticsSeriesDTO getStatisticsSeries(String selectedDateFrom, String selectedDateTo, String granularity);
+
 }
@@ -1,14 +1,14 @@
 package com.atoss.idea.management.system.service.implementation;
 
+import com.atoss.idea.management.system.exception.AvatarNotFoundException;
 import com.atoss.idea.management.system.repository.AvatarRepository;
 import com.atoss.idea.management.system.repository.UserRepository;
-import com.atoss.idea.management.system.repository.dto.AvatarDTO;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import com.atoss.idea.management.system.service.AvatarService;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.List;
 
 @Service
@@ -40,12 +40,33 @@ public class AvatarServiceImpl implements AvatarService {
     }
 
     @Override
-    public List<AvatarDTO> getAllAvatars() {
-        List<AvatarDTO> avatars = Arrays.asList(modelMapper.map(avatarRepository.findAll(), AvatarDTO[].class));
+    public List<FileMetadataDTO> getAllAvatars() {
+        List<FileMetadataDTO> avatars = avatarRepository.findAllMetadata();
         if (log.isInfoEnabled()) {
             log.info("Successfully retrieved {} avatars from the database.", avatars.size());
         }
         return avatars;
     }
 
+    @Override
+    public FileMetadataDTO getAvatarMetadata(Long id) {
+        return avatarRepository.findMetadataById(id).orElseThrow(() -> {
+            if (log.isErrorEnabled()) {
+                log.error("Avatar not found with id: {}", id);
+            }
+            return new AvatarNotFoundException("Avatar not found!");
+        });
+    }
+
+    @Override
+    public FileMetadataDTO getAvatarMetadataByContentHash(String contentHash) {
+        return avatarRepository.findMetadataByContentHash(contentHash).stream()
+                .findFirst()
+                .orElseThrow(() -> {
+                    if (log.isErrorEnabled()) {
+                        log.error("Avatar not found with content hash: {}", contentHash);
+                    }
+                    return new AvatarNotFoundException("Avatar not found!");
+                });
+    }
 }
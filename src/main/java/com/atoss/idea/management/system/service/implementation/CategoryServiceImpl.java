@@ -70,9 +70,9 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public List<CategoryDTO> getAllCategory() {
 
-        if (categoryRepository.findAll().size() > 0) {
+        List<Category> categories = categoryRepository.findAll();
 
-            List<Category> categories = categoryRepository.findAll();
+        if (!categories.isEmpty()) {
 
             if (log.isInfoEnabled()) {
                 log.info("Successfully retrieved {} categories.", categories.size());
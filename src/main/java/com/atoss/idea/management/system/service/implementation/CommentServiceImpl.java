@@ -13,21 +13,18 @@ import com.atoss.idea.management.system.repository.entity.Idea;
 import com.atoss.idea.management.system.repository.entity.ReviewStatus;
 import com.atoss.idea.management.system.repository.entity.User;
 import com.atoss.idea.management.system.service.CommentService;
+import com.atoss.idea.management.system.utils.ProfanityFilter;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
 import jakarta.transaction.Transactional;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.net.URL;
-import java.net.URLDecoder;
-import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -38,8 +35,6 @@ import java.util.stream.Collectors;
 @Log4j2
 @Service
 public class CommentServiceImpl implements CommentService {
-    ClassLoader classLoader = getClass().getClassLoader();
-    private List<String> badWords = new ArrayList<>();
     private final CommentRepository commentRepository;
     private final IdeaRepository ideaRepository;
     private final UserRepository userRepository;
@@ -50,6 +45,10 @@ public class CommentServiceImpl implements CommentService {
 
     private final SubscriptionRepository subscriptionRepository;
 
+    private final ProfanityFilter profanityFilter;
+
+    private final StatisticsRollupJob statisticsRollupJob;
+
     /**
      * CONSTRUCTOR
      *
@@ -60,10 +59,13 @@ public class CommentServiceImpl implements CommentService {
      * @param htmlService            for handling HTML content and processing
      * @param sendEmailService       for handling email content and processing
      * @param subscriptionRepository for accessing CRUD repository methods for Subscription Entity
+     * @param profanityFilter        for masking the bad words in comments and replies
+     * @param statisticsRollupJob    for computing again the statistics of the days of the changed comments
      */
     public CommentServiceImpl(CommentRepository commentRepository, IdeaRepository ideaRepository,
                               UserRepository userRepository, ModelMapper modelMapper, HtmlServiceImpl htmlService,
-                              SendEmailServiceImpl sendEmailService, SubscriptionRepository subscriptionRepository) {
+                              SendEmailServiceImpl sendEmailService, SubscriptionRepository subscriptionRepository,
+                              ProfanityFilter profanityFilter, StatisticsRollupJob statisticsRollupJob) {
         this.commentRepository = commentRepository;
         this.ideaRepository = ideaRepository;
         this.userRepository = userRepository;
@@ -71,6 +73,8 @@ public class CommentServiceImpl implements CommentService {
         this.htmlService = htmlService;
         this.sendEmailService = sendEmailService;
         this.subscriptionRepository = subscriptionRepository;
+        this.profanityFilter = profanityFilter;
+        this.statisticsRollupJob = statisticsRollupJob;
     }
 
     /**
@@ -168,63 +172,12 @@ public class CommentServiceImpl implements CommentService {
         }
     }
 
-    /**
-     * Replaces bad word from a String. A bad word is any word found in a certain file stored in the project.
-     *
-     * @param text the string we want to format
-     * @return filteredText the updated text
-     */
-    private String filterBadWords(String text) {
-        if (log.isInfoEnabled()) {
-            log.info("Filtering bad words from text");
-        }
-        for (String word : badWords) {
-            String pattern = "\\b" + word + "\\b";
-            text = text.replaceAll("(?i)" + pattern, "*".repeat(word.length()));
-        }
-        if (log.isInfoEnabled()) {
-            log.info("Filtered text");
-        }
-        return text;
-    }
-
-    /**
-     * Opens and reads String values containing bad words from a certain file path
-     *
-     * @param path the path to the file
-     * @throws IOException when the path for the input file is not found
-     */
-    private void readBadWordsFromFile(String path) {
-        if (log.isInfoEnabled()) {
-            log.info("Reading bad words from file");
-        }
-        try {
-            FileReader fileReader = new FileReader(path);
-            BufferedReader bufferedReader = new BufferedReader(fileReader);
-            String line;
-
-            while ((line = bufferedReader.readLine()) != null) {
-                String word = line.trim();
-
-                badWords.add(word);
-            }
-            if (log.isInfoEnabled()) {
-                log.info("Successfully read bad words from file");
-            }
-            bufferedReader.close();
-        } catch (IOException e) {
-            if (log.isErrorEnabled()) {
-                log.error("Error reading bad words from file ERROR: {}", e.getMessage());
-            }
-        }
-    }
-
     /**
      * Adds a new comment to an idea.
      *
      * @param requestCommentDTO the DTO containing information about the comment to be added
      * @return a {@link ResponseCommentDTO} representing the added comment
-     * @throws UnsupportedEncodingException if an error occurs while decoding the bad words file path
+     * @throws UnsupportedEncodingException declared by the CommentService contract
      * @throws UserNotFoundException        if the user specified in the DTO does not exist
      * @throws IdeaNotFoundException        if the idea specified in the DTO does not exist
      */
@@ -248,17 +201,6 @@ public class CommentServiceImpl implements CommentService {
         });
 
         Comment newComment = new Comment();
-        String wordsFilePath = "textTerms/badWords.txt";
-        URL resourceUrl = classLoader.getResource(wordsFilePath);
-
-        if (resourceUrl != null) {
-            String filePath = URLDecoder.decode(resourceUrl.getFile(), "UTF-8");
-            readBadWordsFromFile(filePath);
-        } else {
-            if (log.isWarnEnabled()) {
-                log.warn("Bad words file not found");
-            }
-        }
 
         java.util.Date creationDate = new java.util.Date();
 
@@ -269,26 +211,22 @@ public class CommentServiceImpl implements CommentService {
         newComment.setCommentText(htmlContent);
         newComment.setCreationDate(creationDate);
 
-        String filteredCommentText = filterBadWords(newComment.getCommentText());
+        String filteredCommentText = profanityFilter.filter(newComment.getCommentText());
         newComment.setCommentText(filteredCommentText);
+        newComment.setRenderedCommentText(htmlService.markdownToHtml(filteredCommentText));
 
         if (log.isDebugEnabled()) {
             log.debug("Saving comment to repository with content: {}", newComment.getCommentText());
         }
         commentRepository.save(newComment);
+        ideaRepository.addToCommentsCount(idea.getId(), 1);
+        statisticsRollupJob.markChanged(creationDate);
 
         ResponseCommentDTO responseCommentDTO = modelMapper.map(newComment, ResponseCommentDTO.class);
         responseCommentDTO.setUsername(user.getUsername());
 
 
-        List<Long> subscribedUsersIds = subscriptionRepository.findUserIdByIdeaId(requestCommentDTO.getIdeaId());
-
-        List<User> subscribedUsers = new ArrayList<>();
-
-
-        for (Long userId : subscribedUsersIds) {
-            subscribedUsers.add(userRepository.findById(userId).get());
-        }
+        List<User> subscribedUsers = subscriptionRepository.findSubscribedUsersByIdeaId(requestCommentDTO.getIdeaId());
 
         if (!subscribedUsers.isEmpty()) {
             if (log.isInfoEnabled()) {
@@ -339,13 +277,16 @@ public class CommentServiceImpl implements CommentService {
         String htmlContent = htmlService.markdownToHtml(requestCommentReplyDTO.getCommentText());
         newReply.setCommentText(htmlContent);
         newReply.setCreationDate(creationDate);
-        String filteredCommentText = filterBadWords(newReply.getCommentText());
+        String filteredCommentText = profanityFilter.filter(newReply.getCommentText());
         newReply.setCommentText(filteredCommentText);
+        newReply.setRenderedCommentText(htmlService.markdownToHtml(filteredCommentText));
 
         if (log.isDebugEnabled()) {
             log.debug("Saving reply to repository with content: {}", newReply.getCommentText());
         }
         commentRepository.save(newReply);
+        commentRepository.addToRepliesCount(requestCommentReplyDTO.getParentId(), 1);
+        statisticsRollupJob.markChanged(creationDate);
 
         ResponseCommentReplyDTO responseCommentReplyDTO = modelMapper.map(newReply, ResponseCommentReplyDTO.class);
         responseCommentReplyDTO.setUsername(user.getUsername());
@@ -390,13 +331,13 @@ public class CommentServiceImpl implements CommentService {
 
 
                     Long id = pagedReply.getId();
-                    if (getReportsCountForComment(id) > 5) {
+                    if (pagedReply.getReportsCount() > 5) {
                         responseCommentReplyDTO.setCommentText("This reply is under review");
                         if (log.isInfoEnabled()) {
                             log.info("Reply is under review", id);
                         }
                     } else {
-                        String htmlContent = htmlService.markdownToHtml(pagedReply.getCommentText());
+                        String htmlContent = htmlService.storedOrMarkdownToHtml(pagedReply.getRenderedCommentText(), pagedReply.getCommentText());
                         responseCommentReplyDTO.setCommentText(htmlContent);
                     }
 
@@ -442,7 +383,7 @@ public class CommentServiceImpl implements CommentService {
                 .stream()
                 .map(pagedComment -> {
                     String username = pagedComment.getUser().getUsername();
-                    boolean hasReplies = pagedComment.getReplies().size() > 0;
+                    boolean hasReplies = pagedComment.getRepliesCount() > 0;
                     String time = getTimeForComment(pagedComment.getId());
 
                     ResponseCommentDTO responseCommentDTO = modelMapper.map(pagedComment, ResponseCommentDTO.class);
@@ -450,12 +391,12 @@ public class CommentServiceImpl implements CommentService {
                     responseCommentDTO.setUsername(username);
                     responseCommentDTO.setElapsedTime(time);
                     responseCommentDTO.setHasReplies(hasReplies);
-                    String htmlContent = htmlService.markdownToHtml(pagedComment.getCommentText());
+                    String htmlContent = htmlService.storedOrMarkdownToHtml(pagedComment.getRenderedCommentText(), pagedComment.getCommentText());
                     responseCommentDTO.setCommentText(htmlContent);
 
                     Long id = pagedComment.getId();
 
-                    if (getReportsCountForComment(id) > 5) {
+                    if (pagedComment.getReportsCount() > 5) {
                         responseCommentDTO.setCommentText("This comment is under review");
                         if (log.isInfoEnabled()) {
                             log.info("Comment is under review");
@@ -559,6 +500,8 @@ public class CommentServiceImpl implements CommentService {
 
             userRepository.save(user);
             commentRepository.save(comment);
+            commentRepository.addToLikesCount(commentId, 1);
+            statisticsRollupJob.markChanged(comment.getCreationDate());
         } else {
             if (log.isDebugEnabled()) {
                 log.debug("User with id: {} tried to like their own comment with id: {}", userId, commentId);
@@ -573,6 +516,7 @@ public class CommentServiceImpl implements CommentService {
      * @param commentId the ID of the comment to be deleted
      * @throws CommentNotFoundException if the comment with the specified ID does not exist
      */
+    @Transactional
     @Override
     public void deleteComment(Long commentId) {
         if (log.isInfoEnabled()) {
@@ -597,14 +541,7 @@ public class CommentServiceImpl implements CommentService {
 
         if (comment.getIdea() != null) {
             Long ideaId = comment.getIdea().getId();
-            List<Long> subscribedUsersIds = subscriptionRepository.findUserIdByIdeaId(ideaId);
-
-            List<User> subscribedUsers = new ArrayList<>();
-
-
-            for (Long userId : subscribedUsersIds) {
-                subscribedUsers.add(userRepository.findById(userId).get());
-            }
+            List<User> subscribedUsers = subscriptionRepository.findSubscribedUsersByIdeaId(ideaId);
 
             if (!subscribedUsers.isEmpty()) {
                 sendEmailService.sendEmailDeletedComment(subscribedUsers, commentId, comment.getCommentText());
@@ -613,6 +550,12 @@ public class CommentServiceImpl implements CommentService {
                 }
             }
         }
+        if (comment.getIdea() != null) {
+            ideaRepository.addToCommentsCount(comment.getIdea().getId(), -1);
+        } else if (comment.getParent() != null) {
+            commentRepository.addToRepliesCount(comment.getParent().getId(), -1);
+        }
+        statisticsRollupJob.markChanged(comment.getCreationDate());
         commentRepository.deleteById(commentId);
     }
 
@@ -662,7 +605,7 @@ public class CommentServiceImpl implements CommentService {
             log.debug("Retrieving likes count for comment with id: {}", commentId);
         }
 
-        return commentRepository.countLikesByCommentId(commentId);
+        return commentRepository.findLikesCountById(commentId).orElse(0);
     }
 
     /**
@@ -697,7 +640,11 @@ public class CommentServiceImpl implements CommentService {
             throw new UserNotFoundException("User not found!");
         }
 
-        commentRepository.deleteLikes(commentId, userId);
+        int deletedLikes = commentRepository.deleteLikes(commentId, userId);
+        if (deletedLikes > 0) {
+            commentRepository.addToLikesCount(commentId, -deletedLikes);
+            commentRepository.findCreationDateById(commentId).ifPresent(statisticsRollupJob::markChanged);
+        }
     }
 
     /**
@@ -733,7 +680,11 @@ public class CommentServiceImpl implements CommentService {
             throw new UserNotFoundException("User with id " + userId + " does not exist");
         }
 
-        commentRepository.deleteReport(commentId, userId);
+        int deletedReports = commentRepository.deleteReport(commentId, userId);
+        if (deletedReports > 0) {
+            commentRepository.addToReportsCount(commentId, -deletedReports);
+            commentRepository.findCreationDateById(commentId).ifPresent(statisticsRollupJob::markChanged);
+        }
     }
 
     @Override
@@ -748,6 +699,8 @@ public class CommentServiceImpl implements CommentService {
         Optional<Comment> comment = commentRepository.findById(commentId);
         if (comment.isPresent()) {
             comment.get().setCommentText("This comment was deleted by admin for it's offensive content");
+            // the stored HTML is what every page shows, so it must not keep the offensive text
+            comment.get().setRenderedCommentText(htmlService.markdownToHtml(comment.get().getCommentText()));
             commentRepository.save(comment.get());
 
             if (log.isInfoEnabled()) {
@@ -817,6 +770,7 @@ public class CommentServiceImpl implements CommentService {
         for (Comment reply : replies) {
             commentRepository.deleteReportsByCommentId(reply.getId());
             commentRepository.deleteLikesForComment(reply.getId());
+            statisticsRollupJob.markChanged(reply.getCreationDate());
         }
 
         commentRepository.deleteRepliesForComment(commentId);
@@ -846,7 +800,11 @@ public class CommentServiceImpl implements CommentService {
             throw new CommentNotFoundException();
         }
 
-        commentRepository.deleteReportsByCommentId(commentId);
+        int deletedReports = commentRepository.deleteReportsByCommentId(commentId);
+        if (deletedReports > 0) {
+            commentRepository.addToReportsCount(commentId, -deletedReports);
+            commentRepository.findCreationDateById(commentId).ifPresent(statisticsRollupJob::markChanged);
+        }
         if (log.isInfoEnabled()) {
             log.info("Successfully deleted reports for the comment");
         }
@@ -879,13 +837,13 @@ public class CommentServiceImpl implements CommentService {
             log.debug("Retrieving the number of reports for the comment with id: {}", commentId);
         }
 
-        if (!commentRepository.existsById(commentId)) {
-            if (log.isErrorEnabled()) {
-                log.error("Comment not found with id: {}", commentId);
-            }
-            throw new CommentNotFoundException();
-        }
-        return commentRepository.countReportsByCommentId(commentId);
+        return commentRepository.findReportsCountById(commentId)
+                .orElseThrow(() -> {
+                    if (log.isErrorEnabled()) {
+                        log.error("Comment not found with id: {}", commentId);
+                    }
+                    return new CommentNotFoundException();
+                });
     }
 
     @Transactional
@@ -894,29 +852,22 @@ public class CommentServiceImpl implements CommentService {
         if (log.isInfoEnabled()) {
             log.info("Getting all the comments sorted by reports number");
         }
-        List<Long> commentsIds = commentRepository.moreThenFiveReports();
-        int total = commentsIds.size();
+        // the query orders the queue by the number of reports, so the sort of the request is not used
+        Page<ReportedCommentDTO> reportedComments = commentRepository.findReported(
+                PageRequest.of(pageable.getPageNumber(), pageable.getPageSize()));
 
-        List<CommentDashboardResponseDTO> contents = new ArrayList<>();
-
-        for (Long id : commentsIds) {
-            Comment comment = commentRepository.findById(id)
-                    .orElseThrow(() -> {
-                        if (log.isErrorEnabled()) {
-                            log.error("Comment not found");
-                        }
-                        return new CommentNotFoundException();
-                    });
+        Page<CommentDashboardResponseDTO> contents = reportedComments.map(comment -> {
             CommentDashboardResponseDTO commentDashboardResponseDTO = new CommentDashboardResponseDTO();
             commentDashboardResponseDTO.setId(comment.getId());
-            String htmlContent = htmlService.markdownToHtml(comment.getCommentText());
+            String htmlContent = htmlService.storedOrMarkdownToHtml(comment.getRenderedCommentText(), comment.getCommentText());
             commentDashboardResponseDTO.setContent(htmlContent);
-            commentDashboardResponseDTO.setNrReports(commentRepository.countReportsByCommentId(id));
-            contents.add(commentDashboardResponseDTO);
-        }
-        contents.sort((c1, c2) -> Integer.compare(c2.getNrReports(), c1.getNrReports()));
+            commentDashboardResponseDTO.setNrReports(comment.getReportsCount());
+            commentDashboardResponseDTO.setReviewStatus(comment.getReviewStatus());
+            commentDashboardResponseDTO.setAuthor(comment.getAuthor());
+            return commentDashboardResponseDTO;
+        });
 
-        return new CommentPageDTO(total, new PageImpl<>(contents, pageable, contents.size()));
+        return new CommentPageDTO((int) reportedComments.getTotalElements(), contents);
     }
 
 
@@ -977,6 +928,8 @@ public class CommentServiceImpl implements CommentService {
 
             userRepository.save(user);
             commentRepository.save(comment);
+            commentRepository.addToReportsCount(commentId, 1);
+            statisticsRollupJob.markChanged(comment.getCreationDate());
         } else {
             if (log.isWarnEnabled()) {
                 log.warn("User can't report his own comment");
@@ -6,6 +6,7 @@ import com.atoss.idea.management.system.repository.IdeaRepository;
 import com.atoss.idea.management.system.repository.SubscriptionRepository;
 import com.atoss.idea.management.system.repository.UserRepository;
 import com.atoss.idea.management.system.repository.dto.DocumentDTO;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import com.atoss.idea.management.system.repository.entity.Document;
 import com.atoss.idea.management.system.service.DocumentService;
 import jakarta.transaction.Transactional;
@@ -104,38 +105,26 @@ public class DocumentServiceImpl implements DocumentService {
     @Transactional
     @Override
     public DocumentDTO getDocument(Long id) throws DocumentNotFoundException {
-        if (documentRepository.findById(id).isPresent()) {
-
-            Document document = documentRepository.findById(id).get();
-            if (log.isInfoEnabled()) {
-                log.info("Document successfully retrieved");
-            }
-            return modelMapper.map(document, DocumentDTO.class);
-        } else {
-            if (log.isErrorEnabled()) {
-                log.error("Document does not exist");
-            }
-            throw new DocumentNotFoundException("Document does not exist");
+        Document document = documentRepository.findById(id).orElseThrow(() -> documentNotFound(id));
+        if (log.isInfoEnabled()) {
+            log.info("Document successfully retrieved");
         }
+        return modelMapper.map(document, DocumentDTO.class);
+    }
+
+    @Override
+    public FileMetadataDTO getDocumentMetadata(Long id) throws DocumentNotFoundException {
+        return documentRepository.findMetadataById(id).orElseThrow(() -> documentNotFound(id));
     }
 
 
     @Override
     public List<DocumentDTO> getDocumentsByIdeaId(Long ideaId) {
-        List<Document> documents = documentRepository.findDocumentsByIdeaId(ideaId);
+        List<DocumentDTO> documentDTOs = documentRepository.findMetadataByIdeaId(ideaId);
 
-        if (documents.isEmpty() && log.isWarnEnabled()) {
+        if (documentDTOs.isEmpty() && log.isWarnEnabled()) {
             log.warn("No documents found for idea");
         }
-
-        List<DocumentDTO> documentDTOs = documents.stream()
-                .map(document -> {
-                    DocumentDTO responseDTO = modelMapper.map(document, DocumentDTO.class);
-                    responseDTO.setIdeaId(document.getIdea().getId());
-                    responseDTO.setUserId(document.getUser().getId());
-                    return responseDTO;
-                })
-                .toList();
         if (log.isInfoEnabled()) {
             log.info("Retrieved {} documents", documentDTOs.size());
         }
@@ -157,4 +146,11 @@ public class DocumentServiceImpl implements DocumentService {
             }
         }
     }
-}
\ No newline at end of file
+
+    private static DocumentNotFoundException documentNotFound(Long id) {
+        if (log.isErrorEnabled()) {
+            log.error("Document with id {} does not exist", id);
+        }
+        return new DocumentNotFoundException("Document does not exist");
+    }
+}
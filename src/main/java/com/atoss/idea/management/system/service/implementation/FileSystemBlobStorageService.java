@@ -0,0 +1,172 @@
+package com.atoss.idea.management.system.service.implementation;
+
+import com.atoss.idea.management.system.exception.BlobStorageException;
+import com.atoss.idea.management.system.service.BlobStorageService;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingInputStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+/**
+ * Stores the contents as files under {@code aims.app.storage.root}, in {@code ab/cd/abcd...} by their
+ * SHA-256. A content is first written to a temporary file while it is hashed, then moved to its place,
+ * so a file under its hash is always complete. The downloads are copied with
+ * {@link FileChannel#transferTo}, so they do not go through the heap.
+ * <p>
+ * The small contents which are read whole, the images and avatars sent inline, are kept in an LRU cache
+ * bounded by their total size ({@code aims.app.storage.cacheMaxBytes}). A content never changes under
+ * its hash, so the cache never has to be invalidated.
+ */
+@Service
+@Log4j2
+public class FileSystemBlobStorageService implements BlobStorageService {
+
+    private static final Pattern CONTENT_HASH = Pattern.compile("[0-9a-f]{64}");
+
+    private final Path root;
+
+    private final Path temporary;
+
+    private final Cache<String, byte[]> contents;
+
+    /**
+     * Constructor
+     *
+     * @param root          the directory of the contents, created if it does not exist
+     * @param cacheMaxBytes the total size of the contents kept in memory
+     * @throws IOException if the directory could not be created
+     */
+    public FileSystemBlobStorageService(@Value("${aims.app.storage.root:data/blobs}") String root,
+                                        @Value("${aims.app.storage.cacheMaxBytes:33554432}") long cacheMaxBytes) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath();
+        this.temporary = Files.createDirectories(this.root.resolve("tmp"));
+        this.contents = CacheBuilder.newBuilder()
+                .maximumWeight(cacheMaxBytes)
+                .<String, byte[]>weigher((contentHash, content) -> content.length)
+                .build();
+        if (log.isInfoEnabled()) {
+            log.info("Storing the file contents in {}", this.root);
+        }
+    }
+
+    @Override
+    public String store(byte[] content) {
+        try {
+            return store(new ByteArrayInputStream(content));
+        } catch (IOException e) {
+            throw new BlobStorageException("The content could not be stored", e);
+        }
+    }
+
+    @Override
+    public String store(InputStream content) throws IOException {
+        Path file = Files.createTempFile(temporary, "upload", null);
+        try {
+            HashingInputStream hashingStream = new HashingInputStream(Hashing.sha256(), content);
+            long size = Files.copy(hashingStream, file, StandardCopyOption.REPLACE_EXISTING);
+            String contentHash = hashingStream.hash().toString();
+            Path target = path(contentHash);
+            if (Files.exists(target)) {
+                if (log.isDebugEnabled()) {
+                    log.debug("Content {} of {} bytes is already stored", contentHash, size);
+                }
+                return contentHash;
+            }
+            Files.createDirectories(target.getParent());
+            move(file, target);
+            if (log.isInfoEnabled()) {
+                log.info("Stored content {} of {} bytes", contentHash, size);
+            }
+            return contentHash;
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Override
+    public byte[] read(String contentHash) {
+        byte[] content = contents.getIfPresent(contentHash);
+        if (content != null) {
+            return content;
+        }
+        try {
+            content = Files.readAllBytes(path(contentHash));
+        } catch (IOException e) {
+            throw notReadable(contentHash, e);
+        }
+        contents.put(contentHash, content);
+        return content;
+    }
+
+    @Override
+    public long size(String contentHash) {
+        try {
+            return Files.size(path(contentHash));
+        } catch (IOException e) {
+            throw notReadable(contentHash, e);
+        }
+    }
+
+    @Override
+    public void transferTo(String contentHash, long position, long count, OutputStream outputStream) throws IOException {
+        try (FileChannel channel = FileChannel.open(path(contentHash), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long transferred = 0;
+            while (transferred < count) {
+                long written = channel.transferTo(position + transferred, count - transferred, target);
+                if (written <= 0) {
+                    break;
+                }
+                transferred += written;
+            }
+        }
+    }
+
+    private Path path(String contentHash) {
+        if (contentHash == null || !CONTENT_HASH.matcher(contentHash).matches()) {
+            throw new BlobStorageException("Invalid content hash " + contentHash, null);
+        }
+        return root.resolve(contentHash.substring(0, 2)).resolve(contentHash.substring(2, 4)).resolve(contentHash);
+    }
+
+    private static void move(Path file, Path target) throws IOException {
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (FileAlreadyExistsException e) {
+            // the same content was stored concurrently
+            if (log.isDebugEnabled()) {
+                log.debug("Content {} was stored concurrently", target.getFileName());
+            }
+        }
+    }
+
+    private static BlobStorageException notReadable(String contentHash, IOException e) {
+        if (log.isErrorEnabled()) {
+            log.error("Content {} could not be read: {}", contentHash, e.getMessage());
+        }
+        String message = e instanceof NoSuchFileException ? "Content not found" : "The content could not be read";
+        return new BlobStorageException(message, e);
+    }
+}
@@ -1,35 +1,105 @@
 package com.atoss.idea.management.system.service.implementation;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import org.commonmark.node.Image;
 import org.commonmark.node.Node;
 import org.commonmark.parser.Parser;
+import org.commonmark.renderer.html.AttributeProvider;
 import org.commonmark.renderer.html.HtmlRenderer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
 @Service
 public class HtmlServiceImpl {
 
+    public static final long MAX_CACHED_DOCUMENTS = 10_000;
+
+    private static final String IMAGE_STYLE = "width:5vw; height:auto;";
+
+    // commonmark parsers and renderers are immutable and thread-safe, so one instance serves every request
+    private static final Parser PARSER = Parser.builder().build();
+
+    private static final HtmlRenderer RENDERER = HtmlRenderer.builder()
+            .attributeProviderFactory(context -> new ImageStyleAttributeProvider())
+            .build();
+
+    private final Cache<String, String> renderedHtmlCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_DOCUMENTS)
+            .build();
+
     /**
      * Converts a Markdown string to an HTML string.
      *
      * <p>This method parses the provided Markdown content, converts it to an HTML
-     * representation, and then removes any leading or trailing paragraph tags.</p>
+     * representation, and then removes any leading or trailing paragraph tags.
+     * The result is cached by the hash of the Markdown content, so a text that did
+     * not change since the last call is not parsed again.</p>
      *
      * @param markdown the Markdown string to be converted; must not be null
      * @return the converted HTML string without leading or trailing paragraph tags
      * @throws IllegalArgumentException if the provided markdown string is null
      */
     public String markdownToHtml(String markdown) {
+        if (markdown == null) {
+            throw new IllegalArgumentException("The markdown content can not be null");
+        }
+        String contentHash = Hashing.sha256().hashString(markdown, StandardCharsets.UTF_8).toString();
+        String html = renderedHtmlCache.getIfPresent(contentHash);
+        if (html == null) {
+            html = render(markdown);
+            renderedHtmlCache.put(contentHash, html);
+        }
+        return html;
+    }
 
-        Parser parser = Parser.builder().build();
-        Node document = parser.parse(markdown);
-        HtmlRenderer renderer = HtmlRenderer.builder().build();
+    /**
+     * Returns the HTML stored next to the Markdown when the row was written, and only renders
+     * the Markdown for rows which were not rendered yet (saved before the column existed and
+     * not reached by the backfill job)
+     *
+     * @param storedHtml the HTML stored in the database, can be null
+     * @param markdown the Markdown string the HTML was rendered from
+     * @return the stored HTML, or the converted Markdown if nothing is stored
+     */
+    public String storedOrMarkdownToHtml(String storedHtml, String markdown) {
+        return storedHtml != null ? storedHtml : markdownToHtml(markdown);
+    }
 
-        String html = renderer.render(document);
+    /**
+     * Renders the Markdown string without looking into the cache
+     *
+     * @param markdown the Markdown string to be converted
+     * @return the converted HTML string without leading or trailing paragraph tags
+     */
+    String render(String markdown) {
+        Node document = PARSER.parse(markdown);
+        String html = RENDERER.render(document);
 
-        html = html.replaceAll("<img", "<img style=\"width:5vw; height:auto;\"");
+        // same as removing "^<p>|</p>$": a single leading <p> and a trailing </p>, optionally followed by the last line break
+        int start = html.startsWith("<p>") ? "<p>".length() : 0;
+        int end = html.endsWith("\n") ? html.length() - 1 : html.length();
+        if (end - "</p>".length() >= start && html.startsWith("</p>", end - "</p>".length())) {
+            html = html.substring(start, end - "</p>".length()) + html.substring(end);
+        } else {
+            html = html.substring(start);
+        }
+        return html.trim();
+    }
 
-        html = html.replaceAll("^<p>|</p>$", "").trim();
+    /**
+     * Adds the inline style used by the front end to every rendered image
+     */
+    private static final class ImageStyleAttributeProvider implements AttributeProvider {
 
-        return html;
+        @Override
+        public void setAttributes(Node node, String tagName, Map<String, String> attributes) {
+            if (node instanceof Image) {
+                attributes.put("style", IMAGE_STYLE);
+            }
+        }
     }
 }
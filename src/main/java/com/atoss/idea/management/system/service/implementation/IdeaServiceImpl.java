@@ -7,11 +7,15 @@ import com.atoss.idea.management.system.exception.FieldValidationException;
 import com.atoss.idea.management.system.repository.*;
 import com.atoss.idea.management.system.repository.dto.*;
 import com.atoss.idea.management.system.repository.entity.*;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.IdeaService;
 import com.atoss.idea.management.system.service.SendEmailService;
+import com.atoss.idea.management.system.utils.ProfanityFilter;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.persistence.TypedQuery;
+import jakarta.transaction.Transactional;
 import jakarta.persistence.criteria.*;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
@@ -19,12 +23,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.net.URL;
-import java.net.URLDecoder;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -32,13 +32,9 @@ import java.util.*;
 @Service
 @Log4j2
 public class IdeaServiceImpl implements IdeaService {
-    ClassLoader classLoader = getClass().getClassLoader();
-
     @PersistenceContext
     private EntityManager entityManager;
 
-    private List<String> badWords = new ArrayList<>();
-
     private final IdeaRepository ideaRepository;
 
     private final ImageRepository imageRepository;
@@ -63,6 +59,12 @@ public class IdeaServiceImpl implements IdeaService {
 
     private final DocumentRepository documentRepository;
 
+    private final ProfanityFilter profanityFilter;
+
+    private final BlobStorageService blobStorageService;
+
+    private final StatisticsRollupJob statisticsRollupJob;
+
 
     /**
      * Constructor for the Idea Service Implementation
@@ -79,6 +81,9 @@ public class IdeaServiceImpl implements IdeaService {
      * @param documentService        service for documents
      * @param htmlService            for handling HTML content and processing
      * @param documentRepository     document repo
+     * @param profanityFilter        for masking the bad words in ideas
+     * @param blobStorageService     storage of the contents of the images and documents
+     * @param statisticsRollupJob    for computing again the statistics of the days of the changed ideas
      */
     public IdeaServiceImpl(IdeaRepository ideaRepository,
                            ImageRepository imageRepository, UserRepository userRepository,
@@ -90,7 +95,10 @@ public class IdeaServiceImpl implements IdeaService {
                            SubscriptionRepository subscriptionRepository,
                            DocumentServiceImpl documentService,
                            HtmlServiceImpl htmlService,
-                           DocumentRepository documentRepository) {
+                           DocumentRepository documentRepository,
+                           ProfanityFilter profanityFilter,
+                           BlobStorageService blobStorageService,
+                           StatisticsRollupJob statisticsRollupJob) {
         this.ratingRepository = ratingRepository;
         this.ideaRepository = ideaRepository;
         this.imageRepository = imageRepository;
@@ -103,35 +111,47 @@ public class IdeaServiceImpl implements IdeaService {
         this.documentService = documentService;
         this.htmlService = htmlService;
         this.documentRepository = documentRepository;
+        this.profanityFilter = profanityFilter;
+        this.blobStorageService = blobStorageService;
+        this.statisticsRollupJob = statisticsRollupJob;
     }
 
-    private String filterBadWords(String text) {
-        for (String word : badWords) {
-            String pattern = "\\b" + word + "\\b";
-            text = text.replaceAll("(?i)" + pattern, "*".repeat(word.length()));
-        }
-        return text;
+    /**
+     * Maps a page of ideas to their response DTOs. The number of comments is the counter
+     * stored on the idea, so the mapping does not issue any query per row as long as
+     * the ideas were loaded together with their user.
+     *
+     * @param ideas    the ideas to be mapped
+     * @param username the username of the owner when all ideas belong to the same user,
+     *                 or null to take it from each idea
+     * @return the list of IdeaResponseDTO in the same order as the given ideas
+     */
+    private List<IdeaResponseDTO> mapIdeasToResponseDTOs(List<Idea> ideas, String username) {
+        return ideas.stream()
+                .map(idea -> {
+                    IdeaResponseDTO responseDTO = modelMapper.map(idea, IdeaResponseDTO.class);
+                    responseDTO.setUsername(username != null ? username : idea.getUser().getUsername());
+                    responseDTO.setText(htmlService.storedOrMarkdownToHtml(idea.getRenderedText(), idea.getText()));
+                    responseDTO.setTitle(htmlService.storedOrMarkdownToHtml(idea.getRenderedTitle(), idea.getTitle()));
+                    responseDTO.setElapsedTime(commentServiceImpl.getElapsedTime(idea.getCreationDate()));
+                    responseDTO.setCommentsNumber(idea.getCommentsCount());
+                    return responseDTO;
+                })
+                .toList();
     }
 
-    private void readBadWordsFromFile(String path) {
-        try {
-            log.info("Reading bad words from file");
-            FileReader fileReader = new FileReader(path);
-            BufferedReader bufferedReader = new BufferedReader(fileReader);
-            String line;
-
-            while ((line = bufferedReader.readLine()) != null) {
-                String word = line.trim();
-
-                badWords.add(word);
-            }
-
-            bufferedReader.close();
-        } catch (IOException e) {
-            // e.printStackTrace();
-            if (log.isErrorEnabled()) {
-                log.error("An error occured when reading bad words from file");
-            }
+    /**
+     * Stores the HTML of the idea title and text next to their Markdown,
+     * so the ideas are not rendered again every time they are read
+     *
+     * @param idea the idea with the final (filtered) title and text
+     */
+    private void renderIdea(Idea idea) {
+        if (idea.getTitle() != null) {
+            idea.setRenderedTitle(htmlService.markdownToHtml(idea.getTitle()));
+        }
+        if (idea.getText() != null) {
+            idea.setRenderedText(htmlService.markdownToHtml(idea.getText()));
         }
     }
 
@@ -152,19 +172,14 @@ public class IdeaServiceImpl implements IdeaService {
             throw new FieldValidationException("Please enter a valid text for the idea.");
         }
         Idea savedIdea = new Idea();
-        String wordsFilePath = "textTerms/badWords.txt";
-        URL resourceUrl = classLoader.getResource(wordsFilePath);
-        if (resourceUrl != null) {
-            String filePath = URLDecoder.decode(resourceUrl.getFile(), "UTF-8");
-            readBadWordsFromFile(filePath);
-        }
         User user = userRepository.findByUsername(username).orElseThrow(() -> new UserNotFoundException("No user found by this username."));
         savedIdea.setUser(user);
         savedIdea.setStatus(idea.getStatus());
-        String filteredIdeaText = filterBadWords(idea.getText());
+        String filteredIdeaText = profanityFilter.filter(idea.getText());
         savedIdea.setText(filteredIdeaText);
-        String filteredIdeaTitle = filterBadWords(idea.getTitle());
+        String filteredIdeaTitle = profanityFilter.filter(idea.getTitle());
         savedIdea.setTitle(filteredIdeaTitle);
+        renderIdea(savedIdea);
         savedIdea.setCategoryList(new ArrayList<>());
         savedIdea.setCreationDate(new Date());
 
@@ -172,8 +187,7 @@ public class IdeaServiceImpl implements IdeaService {
             Image existingImage = imageRepository.findImageByFileName(idea.getImage().getFileName());
 
             if (existingImage == null) {
-                Image newImage = modelMapper.map(idea.getImage(), Image.class);
-                savedIdea.setImage(newImage);
+                savedIdea.setImage(newImage(idea.getImage()));
             } else {
                 savedIdea.setImage(existingImage);
             }
@@ -193,6 +207,7 @@ public class IdeaServiceImpl implements IdeaService {
 
         user.getIdeas().add(savedIdea);
         ideaRepository.save(savedIdea);
+        statisticsRollupJob.markChanged(savedIdea.getCreationDate());
         IdeaResponseDTO responseDTO = modelMapper.map(savedIdea, IdeaResponseDTO.class);
         responseDTO.setUsername(username);
 
@@ -200,7 +215,7 @@ public class IdeaServiceImpl implements IdeaService {
             for (DocumentDTO documentDTO : idea.getDocuments()) {
                 Document existingDocument = documentRepository.findDocumentById(documentDTO.getId());
                 if (existingDocument == null) {
-                    Document newDocument = modelMapper.map(documentDTO, Document.class);
+                    Document newDocument = newDocument(documentDTO);
                     if (savedIdea.getDocumentList() == null) {
                         savedIdea.setDocumentList(new ArrayList<>());
                         newDocument.setUser(user);
@@ -227,20 +242,8 @@ public class IdeaServiceImpl implements IdeaService {
     public IdeaResponseDTO getIdeaById(Long id) throws FieldValidationException {
         log.info("Return an idea by id");
 
-        if (ideaRepository.findById(id).isPresent()) {
-            Idea idea = ideaRepository.findById(id).get();
-            IdeaResponseDTO responseDTO = modelMapper.map(idea, IdeaResponseDTO.class);
-            responseDTO.setUsername(ideaRepository.findById(id).get().getUser().getUsername());
-            String htmlContent = htmlService.markdownToHtml(ideaRepository.findById(id).get().getText());
-            responseDTO.setText(htmlContent);
-            String htmlContent2 = htmlService.markdownToHtml(ideaRepository.findById(id).get().getTitle());
-            responseDTO.setTitle(htmlContent2);
-            responseDTO.setElapsedTime(commentServiceImpl.getElapsedTime(idea.getCreationDate()));
-            responseDTO.setCommentsNumber(idea.getCommentList().size());
-            return responseDTO;
-        } else {
-            throw new IdeaNotFoundException("Idea doesn't exist.");
-        }
+        Idea idea = ideaRepository.findById(id).orElseThrow(() -> new IdeaNotFoundException("Idea doesn't exist."));
+        return mapIdeasToResponseDTOs(List.of(idea), null).get(0);
     }
 
     @Override
@@ -252,30 +255,23 @@ public class IdeaServiceImpl implements IdeaService {
             IdeaResponseDTO responseDTO = modelMapper.map(idea, IdeaResponseDTO.class);
             responseDTO.setUsername(ideaRepository.findById(id).get().getUser().getUsername());
             responseDTO.setElapsedTime(commentServiceImpl.getElapsedTime(idea.getCreationDate()));
-            responseDTO.setCommentsNumber(idea.getCommentList().size());
+            responseDTO.setCommentsNumber(idea.getCommentsCount());
             return responseDTO;
         } else {
             throw new IdeaNotFoundException("Idea doesn't exist.");
         }
     }
 
+    @Transactional
     @Override
     public IdeaResponseDTO updateIdeaById(Long id, IdeaUpdateDTO ideaUpdateDTO) throws UnsupportedEncodingException {
         log.info("Update idea by id");
-        String wordsFilePath = "textTerms/badWords.txt";
-        URL resourceUrl = classLoader.getResource(wordsFilePath);
-        if (resourceUrl != null) {
-            String filePath = URLDecoder.decode(resourceUrl.getFile(), "UTF-8");
-            readBadWordsFromFile(filePath);
-        }
 
         if (ideaRepository.findById(id).isPresent()) {
 
             Idea idea = ideaRepository.findById(id).get();
 
-            List<Long> subscribedUsersIds = subscriptionRepository.findUserIdByIdeaId(id);
-
-            List<User> subscribedUsers = new ArrayList<>();
+            List<User> subscribedUsers = subscriptionRepository.findSubscribedUsersByIdeaId(id);
 
             boolean diffText = false;
 
@@ -283,11 +279,6 @@ public class IdeaServiceImpl implements IdeaService {
             String oldTitle = idea.getTitle();
             String oldDocs = "";
 
-            for (Long userId : subscribedUsersIds) {
-                log.info("User subsbscribed succesfully to an idea");
-                subscribedUsers.add(userRepository.findById(userId).get());
-            }
-
             String newDocs = "";
             for (DocumentDTO doc : ideaUpdateDTO.getDocuments()) {
                 newDocs = newDocs + "\n" + doc.getFileName();
@@ -307,17 +298,17 @@ public class IdeaServiceImpl implements IdeaService {
                     diffText = true;
                 }
                 idea.setText(ideaUpdateDTO.getText());
-                String filteredCommentText = filterBadWords(idea.getText());
+                String filteredCommentText = profanityFilter.filter(idea.getText());
                 idea.setText(filteredCommentText);
             }
             if (ideaUpdateDTO.getStatus() != null) {
                 idea.setStatus(ideaUpdateDTO.getStatus());
+                statisticsRollupJob.markChanged(idea.getCreationDate());
             }
             if (ideaUpdateDTO.getImage() != null) {
                 Image existingImage = imageRepository.findImageByFileName(ideaUpdateDTO.getImage().getFileName());
                 if (existingImage == null) {
-                    Image newImage = modelMapper.map(ideaUpdateDTO.getImage(), Image.class);
-                    idea.setImage(newImage);
+                    idea.setImage(newImage(ideaUpdateDTO.getImage()));
                 } else {
                     idea.setImage(existingImage);
                 }
@@ -329,6 +320,7 @@ public class IdeaServiceImpl implements IdeaService {
                 }
                 idea.setTitle(ideaUpdateDTO.getTitle());
             }
+            renderIdea(idea);
 
 
             if (ideaUpdateDTO.getCategoryList() != null) {
@@ -361,7 +353,7 @@ public class IdeaServiceImpl implements IdeaService {
                 for (DocumentDTO documentDTO : ideaUpdateDTO.getDocuments()) {
                     Document existingDocument = documentRepository.findDocumentById(documentDTO.getId());
                     if (existingDocument == null) {
-                        Document newDocument = modelMapper.map(documentDTO, Document.class);
+                        Document newDocument = newDocument(documentDTO);
                         if (idea.getDocumentList() == null) {
                             idea.setDocumentList(new ArrayList<>());
                             newDocument.setIdea(idea);
@@ -390,7 +382,7 @@ public class IdeaServiceImpl implements IdeaService {
             IdeaResponseDTO responseDTO = modelMapper.map(ideaRepository.save(idea), IdeaResponseDTO.class);
             responseDTO.setUsername(ideaRepository.findById(id).get().getUser().getUsername());
             responseDTO.setElapsedTime(commentServiceImpl.getElapsedTime(idea.getCreationDate()));
-            responseDTO.setCommentsNumber(idea.getCommentList().size());
+            responseDTO.setCommentsNumber(idea.getCommentsCount());
             return responseDTO;
         } else {
             throw new IdeaNotFoundException("Idea doesn't exist.");
@@ -400,6 +392,9 @@ public class IdeaServiceImpl implements IdeaService {
     @Override
     public void deleteIdeaById(Long id) {
         if (ideaRepository.existsById(id)) {
+            // the comments and replies of the idea are deleted with it
+            ideaRepository.findCommentCreationDatesById(id).forEach(statisticsRollupJob::markChanged);
+            ideaRepository.findCreationDateById(id).ifPresent(statisticsRollupJob::markChanged);
             log.info("Idea succesfully deleted by id");
             ideaRepository.deleteById(id);
         } else {
@@ -410,23 +405,11 @@ public class IdeaServiceImpl implements IdeaService {
     @Override
     public Page<IdeaResponseDTO> getAllIdeas(Pageable pageable) {
         log.info("Return all ideas");
-        if (ideaRepository.findAll().size() <= 0) {
+        Page<Idea> ideas = ideaRepository.findFeedPage(pageable);
+        if (ideas.getTotalElements() <= 0) {
             throw new FieldValidationException("No ideas found.");
         }
-        Page<Idea> ideas = ideaRepository.findAll(pageable);
-        List<IdeaResponseDTO> ideaResponseDTOs = ideas.stream()
-                .map(idea -> {
-                    IdeaResponseDTO responseDTO = modelMapper.map(idea, IdeaResponseDTO.class);
-                    responseDTO.setUsername(idea.getUser().getUsername());
-                    String htmlContent = htmlService.markdownToHtml(ideaRepository.findById(idea.getId()).get().getText());
-                    responseDTO.setText(htmlContent);
-                    String htmlContent2 = htmlService.markdownToHtml(ideaRepository.findById(idea.getId()).get().getTitle());
-                    responseDTO.setTitle(htmlContent2);
-                    responseDTO.setElapsedTime(commentServiceImpl.getElapsedTime(idea.getCreationDate()));
-                    responseDTO.setCommentsNumber(idea.getCommentList().size());
-                    return responseDTO;
-                })
-                .toList();
+        List<IdeaResponseDTO> ideaResponseDTOs = mapIdeasToResponseDTOs(ideas.getContent(), null);
         return new PageImpl<>(ideaResponseDTOs, pageable, ideas.getTotalElements());
     }
 
@@ -437,23 +420,11 @@ public class IdeaServiceImpl implements IdeaService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("User doesn't exist."));
 
-        if (user.getIdeas() == null || user.getIdeas().isEmpty()) {
+        if (!ideaRepository.existsByUserUsername(username)) {
             throw new FieldValidationException("No ideas found.");
         }
-        List<IdeaResponseDTO> ideaResponseDTOs = ideaRepository.findAllByUserUsername(username, pageable)
-                .stream()
-                .map(idea -> {
-                    IdeaResponseDTO responseDTO = modelMapper.map(idea, IdeaResponseDTO.class);
-                    responseDTO.setUsername(user.getUsername());
-                    String htmlContent = htmlService.markdownToHtml(ideaRepository.findById(idea.getId()).get().getText());
-                    responseDTO.setText(htmlContent);
-                    String htmlContent2 = htmlService.markdownToHtml(ideaRepository.findById(idea.getId()).get().getTitle());
-                    responseDTO.setTitle(htmlContent2);
-                    responseDTO.setElapsedTime(commentServiceImpl.getElapsedTime(idea.getCreationDate()));
-                    responseDTO.setCommentsNumber(idea.getCommentList().size());
-                    return responseDTO;
-                })
-                .toList();
+        List<IdeaResponseDTO> ideaResponseDTOs = mapIdeasToResponseDTOs(
+                ideaRepository.findAllByUserUsername(username, pageable).getContent(), user.getUsername());
         return new PageImpl<>(ideaResponseDTOs, pageable, ideaResponseDTOs.size());
     }
 
@@ -470,12 +441,109 @@ public class IdeaServiceImpl implements IdeaService {
                                                   String ratingAvg,
                                                   Pageable pageable,
                                                   Boolean subscribed,
-                                                  Long userId) {
+                                                  Long userId,
+                                                  Date cursorCreationDate,
+                                                  Long cursorId) {
         log.info("Filter ideas by criterias");
         CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Idea> countRoot = countQuery.from(Idea.class);
+        countQuery.select(cb.countDistinct(countRoot));
+        countQuery.where(buildFilterPredicates(cb, countQuery, countRoot, title, text, statuses, categories, users,
+                selectedDateFrom, selectedDateTo, username, ratingAvg, subscribed, userId).toArray(new Predicate[0]));
+        long totalSize = entityManager.createQuery(countQuery).getSingleResult();
+
+        if (totalSize == 0) {
+            throw new FieldValidationException("No ideas found.");
+        }
+
         CriteriaQuery<Idea> criteriaQuery = cb.createQuery(Idea.class);
         Root<Idea> root = criteriaQuery.from(Idea.class);
+        root.fetch("user");
+        criteriaQuery.select(root).distinct(true);
+
+        List<Predicate> predicatesList = buildFilterPredicates(cb, criteriaQuery, root, title, text, statuses, categories, users,
+                selectedDateFrom, selectedDateTo, username, ratingAvg, subscribed, userId);
+        boolean ascending = Objects.equals(sortDirection, "ASC");
+        boolean keyset = cursorCreationDate != null && cursorId != null;
+        if (keyset) {
+            // keyset mode: continue right after the last idea of the previous page instead of skipping rows with OFFSET
+            Path<Date> creationDate = root.get("creationDate");
+            Path<Long> id = root.get("id");
+            if (ascending) {
+                predicatesList.add(cb.or(cb.greaterThan(creationDate, cursorCreationDate),
+                        cb.and(cb.equal(creationDate, cursorCreationDate), cb.greaterThan(id, cursorId))));
+            } else {
+                predicatesList.add(cb.or(cb.lessThan(creationDate, cursorCreationDate),
+                        cb.and(cb.equal(creationDate, cursorCreationDate), cb.lessThan(id, cursorId))));
+            }
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (ascending) {
+            orders.add(cb.asc(root.get("creationDate")));
+            orders.add(cb.asc(root.get("id")));
+        } else {
+            orders.add(cb.desc(root.get("creationDate")));
+            orders.add(cb.desc(root.get("id")));
+        }
+        criteriaQuery.orderBy(orders);
+        criteriaQuery.where(predicatesList.toArray(new Predicate[0]));
+        TypedQuery<Idea> query = entityManager.createQuery(criteriaQuery);
+
+        if (pageable != null) {
+            if (!keyset) {
+                query.setFirstResult(pageable.getPageNumber() * pageable.getPageSize());
+            }
+            query.setMaxResults(pageable.getPageSize());
+
+            List<Idea> pagedIdeas = query.getResultList();
+
+            List<IdeaResponseDTO> allIdeasDTO = mapIdeasToResponseDTOs(pagedIdeas, null);
 
+            return new PageImpl<>(allIdeasDTO, pageable, totalSize);
+        }
+        List<Idea> allIdeas = query.getResultList();
+        List<IdeaResponseDTO> allIdeasUnpaged = mapIdeasToResponseDTOs(allIdeas, null);
+
+        return new PageImpl<>(allIdeasUnpaged, Pageable.unpaged(), totalSize);
+    }
+
+    /**
+     * Builds the filtering conditions of filterIdeasByAll for the given query root, so the
+     * count query and the page query always select exactly the same ideas
+     *
+     * @param cb               the criteria builder
+     * @param criteriaQuery    the query the predicates are built for, used for the subscription subquery
+     * @param root             the Idea root of the query
+     * @param title            the ideas matching the specified title criteria
+     * @param text             the ideas matching the specified text criteria
+     * @param statuses         the ideas matching the specified statuses
+     * @param categories       the ideas matching the specified categories
+     * @param users            the ideas matching the specified users
+     * @param selectedDateFrom the ideas matching the specified selected date from
+     * @param selectedDateTo   the ideas matching the specified selected date to
+     * @param username         if not null, only ideas belonging to the specified username
+     * @param ratingAvg        the rating to select
+     * @param subscribed       subscribed status
+     * @param userId           current userId
+     * @return the list of predicates
+     */
+    private List<Predicate> buildFilterPredicates(CriteriaBuilder cb,
+                                                  AbstractQuery<?> criteriaQuery,
+                                                  Root<Idea> root,
+                                                  String title,
+                                                  String text,
+                                                  List<Status> statuses,
+                                                  List<String> categories,
+                                                  List<String> users,
+                                                  String selectedDateFrom,
+                                                  String selectedDateTo,
+                                                  String username,
+                                                  String ratingAvg,
+                                                  Boolean subscribed,
+                                                  Long userId) {
         List<Predicate> predicatesList = new ArrayList<>();
         if (username == null) {
             List<Integer> allIdeasStatuses = new ArrayList<>();
@@ -530,54 +598,7 @@ public class IdeaServiceImpl implements IdeaService {
 
 
         predicatesList.addAll(filterByDate(selectedDateFrom, selectedDateTo, root, cb, "creationDate"));
-        List<Order> orders = new ArrayList<>();
-        if (Objects.equals(sortDirection, "ASC")) {
-            orders.add(cb.asc(root.get("creationDate")));
-        } else {
-            orders.add(cb.desc(root.get("creationDate")));
-        }
-        criteriaQuery.orderBy(orders);
-        criteriaQuery.where(predicatesList.toArray(new Predicate[0]));
-        TypedQuery<Idea> query = entityManager.createQuery(criteriaQuery);
-        int totalSize = query.getResultList().size();
-
-        if (totalSize == 0) {
-            throw new FieldValidationException("No ideas found.");
-        }
-        if (pageable != null) {
-            query.setFirstResult(pageable.getPageNumber() * pageable.getPageSize());
-            query.setMaxResults(pageable.getPageSize());
-
-            List<Idea> pagedIdeas = query.getResultList();
-
-            List<IdeaResponseDTO> allIdeasDTO = pagedIdeas.stream().map(idea -> {
-                IdeaResponseDTO ideaResponseDTO = modelMapper.map(idea, IdeaResponseDTO.class);
-                ideaResponseDTO.setUsername(idea.getUser().getUsername());
-                String htmlContent = htmlService.markdownToHtml(ideaRepository.findById(idea.getId()).get().getText());
-                ideaResponseDTO.setText(htmlContent);
-                String htmlContent2 = htmlService.markdownToHtml(ideaRepository.findById(idea.getId()).get().getTitle());
-                ideaResponseDTO.setTitle(htmlContent2);
-                ideaResponseDTO.setElapsedTime(commentServiceImpl.getElapsedTime(idea.getCreationDate()));
-                ideaResponseDTO.setCommentsNumber(idea.getCommentList().size());
-                return ideaResponseDTO;
-            }).toList();
-
-            return new PageImpl<>(allIdeasDTO, pageable, totalSize);
-        }
-        List<Idea> allIdeas = query.getResultList();
-        List<IdeaResponseDTO> allIdeasUnpaged = allIdeas.stream().map(idea -> {
-            IdeaResponseDTO ideaResponseDTO = modelMapper.map(idea, IdeaResponseDTO.class);
-            ideaResponseDTO.setUsername(idea.getUser().getUsername());
-            String htmlContent = htmlService.markdownToHtml(ideaRepository.findById(idea.getId()).get().getText());
-            ideaResponseDTO.setText(htmlContent);
-            String htmlContent2 = htmlService.markdownToHtml(ideaRepository.findById(idea.getId()).get().getTitle());
-            ideaResponseDTO.setTitle(htmlContent2);
-            ideaResponseDTO.setElapsedTime(commentServiceImpl.getElapsedTime(idea.getCreationDate()));
-            ideaResponseDTO.setCommentsNumber(idea.getCommentList().size());
-            return ideaResponseDTO;
-        }).toList();
-
-        return new PageImpl<>(allIdeasUnpaged, Pageable.unpaged(), totalSize);
+        return predicatesList;
     }
 
     @Override
@@ -640,23 +661,31 @@ public class IdeaServiceImpl implements IdeaService {
     }
 
 
+    @Transactional
     @Override
     public Rating addOrUpdateRating(Long ideaId, Long userId, Double ratingValue) {
         log.info("Add or update a rating");
         Idea idea = ideaRepository.findById(ideaId).orElseThrow(() -> new IdeaNotFoundException("Idea doesn't exist."));
         User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User doesn't exist."));
-        Rating rating = ratingRepository.findByIdeaIdAndUserId(ideaId, userId).orElse(new Rating());
+        Optional<Rating> existingRating = ratingRepository.findForUpdateByIdeaIdAndUserId(ideaId, userId);
+        Rating rating = existingRating.orElse(new Rating());
         Double oldRating = 0.0;
         if (idea.getRatingAvg() != null) {
             oldRating = idea.getRatingAvg();
         }
+        // a replaced rating only swaps its old value for the new one in the totals
+        double ratingDelta = existingRating.isPresent() ? ratingValue - rating.getRating() : ratingValue;
+        int countDelta = existingRating.isPresent() ? 0 : 1;
         rating.setIdea(idea);
         rating.setUser(user);
         rating.setRating(ratingValue);
         log.info("Rating succesfully saved");
         Rating ratingRepositorySave = ratingRepository.save(rating);
-        idea.setRatingAvg(getAverage(ideaId));
-        Double newRating = idea.getRatingAvg();
+        ideaRepository.addToRatingTotals(ideaId, ratingDelta, countDelta);
+        if (countDelta > 0) {
+            statisticsRollupJob.markChanged(idea.getCreationDate());
+        }
+        Double newRating = getAverage(ideaId);
 
         if (newRating != oldRating && oldRating != 0) {
             sendEmailForRating(idea.getId());
@@ -667,14 +696,8 @@ public class IdeaServiceImpl implements IdeaService {
     @Override
     public Double getAverage(Long ideaId) {
         log.info("Return average rating");
-        List<Rating> ratings = ratingRepository.findByIdeaId(ideaId);
-        Double sum = 0D;
-        Double count = 0D;
-        for (Rating rate : ratings) {
-            sum += rate.getRating();
-            count++;
-        }
-        return sum / count;
+        Idea idea = ideaRepository.findById(ideaId).orElseThrow(() -> new IdeaNotFoundException("Idea doesn't exist."));
+        return idea.getRatingSum() / idea.getRatingCount();
     }
 
     @Override
@@ -688,10 +711,9 @@ public class IdeaServiceImpl implements IdeaService {
     @Override
     public void sendEmailForRating(Long ideaId) {
         log.info("Send email for rating");
-        List<Long> userIds = subscriptionRepository.findUserIdByIdeaId(ideaId);
-        for (Long userId : userIds) {
-            User user = userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User doesn't exist."));
-            sendEmailService.sendEmailRatingChanged(user.getUsername(), ideaId);
+        List<User> subscribedUsers = subscriptionRepository.findSubscribedUsersByIdeaId(ideaId);
+        if (!subscribedUsers.isEmpty()) {
+            sendEmailService.sendEmailRatingChanged(subscribedUsers, ideaId);
         }
     }
 
@@ -770,29 +792,49 @@ public class IdeaServiceImpl implements IdeaService {
             idea = ideaRepository.findIdeaByReplyId(commentId);
         }
 
-        return idea.map(i -> {
-            IdeaResponseDTO responseDTO = modelMapper.map(i, IdeaResponseDTO.class);
-            responseDTO.setUsername(i.getUser().getUsername());
-            String htmlContent = htmlService.markdownToHtml(ideaRepository.findById(i.getId()).get().getText());
-            responseDTO.setText(htmlContent);
-            String htmlContent2 = htmlService.markdownToHtml(ideaRepository.findById(i.getId()).get().getTitle());
-            responseDTO.setTitle(htmlContent2);
-            responseDTO.setElapsedTime(commentServiceImpl.getElapsedTime(i.getCreationDate()));
-            responseDTO.setCommentsNumber(i.getCommentList().size());
-            return responseDTO;
-        }).orElseThrow(() -> new IdeaNotFoundException("Idea not found for the given comment/reply ID"));
+        return idea.map(i -> mapIdeasToResponseDTOs(List.of(i), null).get(0))
+                .orElseThrow(() -> new IdeaNotFoundException("Idea not found for the given comment/reply ID"));
     }
 
     @Override
     public Long getNumberOfRatingsForIdea(Long ideaId) {
         log.info("Return the number of ratings for an idea");
-        return ratingRepository.countByIdeaId(ideaId);
+        return ideaRepository.findRatingCountById(ideaId).map(Long::valueOf).orElse(0L);
     }
 
     @Override
     public List<Map<Long, Object>> getRatingsCountForEachIdea() {
         log.info("Return the number of ratings for each idea");
-        return ratingRepository.countRatingsForEachIdea();
+        return ideaRepository.countRatingsForEachIdea();
+    }
+
+    /**
+     * Creates an image from the uploaded one, with its content moved to the storage
+     *
+     * @param imageDTO the uploaded image, with its content
+     * @return the image to be saved, which only keeps the hash and the size of the content
+     */
+    private Image newImage(ImageDTO imageDTO) {
+        Image image = modelMapper.map(imageDTO, Image.class);
+        if (imageDTO.getImage() != null) {
+            image.setContentHash(blobStorageService.store(imageDTO.getImage()));
+            image.setSize((long) imageDTO.getImage().length);
+        }
+        return image;
     }
 
-}
\ No newline at end of file
+    /**
+     * Creates a document from the uploaded one, with its content moved to the storage
+     *
+     * @param documentDTO the uploaded document, with its content
+     * @return the document to be saved, which only keeps the hash and the size of the content
+     */
+    private Document newDocument(DocumentDTO documentDTO) {
+        Document document = modelMapper.map(documentDTO, Document.class);
+        if (documentDTO.getDocument() != null) {
+            document.setContentHash(blobStorageService.store(documentDTO.getDocument()));
+            document.setSize((long) documentDTO.getDocument().length);
+        }
+        return document;
+    }
+}
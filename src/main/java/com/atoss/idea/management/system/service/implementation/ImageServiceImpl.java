@@ -2,8 +2,10 @@ package com.atoss.idea.management.system.service.implementation;
 
 import com.atoss.idea.management.system.exception.ImageNotFoundException;
 import com.atoss.idea.management.system.repository.ImageRepository;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
 import com.atoss.idea.management.system.repository.dto.ImageDTO;
 import com.atoss.idea.management.system.repository.entity.Image;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.ImageService;
 import jakarta.transaction.Transactional;
 import lombok.extern.log4j.Log4j2;
@@ -12,7 +14,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.InputStream;
 import java.util.List;
 import java.util.Objects;
 
@@ -21,22 +23,29 @@ import java.util.Objects;
 public class ImageServiceImpl implements ImageService {
     private final ImageRepository imageRepository;
     private final ModelMapper modelMapper;
+    private final BlobStorageService blobStorageService;
 
     /**
      * Constructor
      *
      * @param imageRepository accessing CRUD Repository for Image Entity
      * @param modelMapper mapping Entity-DTO relationship
+     * @param blobStorageService storage of the image contents
      */
-    public  ImageServiceImpl(ImageRepository imageRepository, ModelMapper modelMapper) {
+    public  ImageServiceImpl(ImageRepository imageRepository, ModelMapper modelMapper, BlobStorageService blobStorageService) {
         this.imageRepository = imageRepository;
         this.modelMapper = modelMapper;
+        this.blobStorageService = blobStorageService;
     }
 
     @Override
     public ImageDTO addImage(MultipartFile file) throws IOException {
         String fileName = StringUtils.cleanPath(Objects.requireNonNull(file.getOriginalFilename()));
-        Image image = new Image(fileName, file.getContentType(), file.getBytes());
+        String contentHash;
+        try (InputStream content = file.getInputStream()) {
+            contentHash = blobStorageService.store(content);
+        }
+        Image image = new Image(fileName, file.getContentType(), contentHash, file.getSize());
         log.info("Image succesfully added");
         return modelMapper.map(imageRepository.save(image), ImageDTO.class);
     }
@@ -44,18 +53,27 @@ public class ImageServiceImpl implements ImageService {
     @Transactional
     @Override
     public ImageDTO getImage(Long id) throws ImageNotFoundException {
-        if (imageRepository.findById(id).isPresent()) {
-            log.info("Image succesfully retrieved by id");
-            return modelMapper.map(imageRepository.findById(id).get(), ImageDTO.class);
-        } else {
-            throw new ImageNotFoundException();
-        }
+        Image image = imageRepository.findById(id).orElseThrow(ImageNotFoundException::new);
+        log.info("Image succesfully retrieved by id");
+        return modelMapper.map(image, ImageDTO.class);
+    }
+
+    @Override
+    public FileMetadataDTO getImageMetadata(Long id) throws ImageNotFoundException {
+        return imageRepository.findMetadataById(id).orElseThrow(ImageNotFoundException::new);
+    }
+
+    @Override
+    public FileMetadataDTO getImageMetadataByContentHash(String contentHash) throws ImageNotFoundException {
+        return imageRepository.findMetadataByContentHash(contentHash).stream()
+                .findFirst()
+                .orElseThrow(ImageNotFoundException::new);
     }
 
     @Override
-    public List<ImageDTO> getAllImage() {
+    public List<FileMetadataDTO> getAllImage() {
         log.info("All images are retrieved");
-        return Arrays.asList(modelMapper.map(imageRepository.findAll(), ImageDTO[].class));
+        return imageRepository.findAllMetadata();
     }
 
     @Override
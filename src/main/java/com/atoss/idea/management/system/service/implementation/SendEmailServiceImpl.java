@@ -6,10 +6,13 @@ import com.atoss.idea.management.system.exception.IdeaNotFoundException;
 import com.atoss.idea.management.system.repository.*;
 import com.atoss.idea.management.system.repository.entity.*;
 import com.atoss.idea.management.system.service.SendEmailService;
+import com.atoss.idea.management.system.utils.EmailModelBuilder;
+import com.atoss.idea.management.system.utils.EmailTemplateRegistry;
 import com.atoss.idea.management.system.utils.PasswordGenerator;
+import com.atoss.idea.management.system.utils.RecipientTemplate;
 import freemarker.template.Configuration;
-import freemarker.template.Template;
 import freemarker.template.TemplateException;
+import jakarta.annotation.PostConstruct;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.extern.log4j.Log4j2;
@@ -18,7 +21,6 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.security.crypto.bcrypt.BCrypt;
 import org.springframework.stereotype.Service;
-import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -31,6 +33,8 @@ import java.util.*;
 @Log4j2
 public class SendEmailServiceImpl implements SendEmailService {
 
+    private static final String USERNAME_ADMIN = "usernameAdmin";
+
     SimpleDateFormat formatter = new SimpleDateFormat("dd/MM/yyyy HH:mm:ss");
     private final UserRepository userRepository;
     private final AvatarRepository avatarRepository;
@@ -40,10 +44,12 @@ public class SendEmailServiceImpl implements SendEmailService {
     private final IdeaRepository ideaRepository;
     private final JavaMailSender emailSender;
 
-    private final Configuration configuration;
+    private final EmailTemplateRegistry templateRegistry;
 
     private final CommentRepository commentRepository;
 
+    private final NotificationRepository notificationRepository;
+
     @Value("${spring.mail.username}")
     private String adminEmail;
 
@@ -65,6 +71,7 @@ public class SendEmailServiceImpl implements SendEmailService {
      * @param ideaRepository         The repository for the Idea Entity
      * @param subscriptionRepository The repository for the Subscription Entity
      * @param commentRepository      The commentRepository instance for accessing comment data.
+     * @param notificationRepository The repository where the subscription emails wait to be sent.
      */
     public SendEmailServiceImpl(UserRepository userRepository,
                                 AvatarRepository avatarRepository,
@@ -72,14 +79,34 @@ public class SendEmailServiceImpl implements SendEmailService {
                                 Configuration configuration,
                                 SubscriptionRepository subscriptionRepository,
                                 IdeaRepository ideaRepository,
-                                CommentRepository commentRepository) {
+                                CommentRepository commentRepository,
+                                NotificationRepository notificationRepository) {
         this.userRepository = userRepository;
         this.avatarRepository = avatarRepository;
         this.emailSender = emailSender;
-        this.configuration = configuration;
+        this.templateRegistry = new EmailTemplateRegistry(configuration);
         this.subscriptionRepository = subscriptionRepository;
         this.ideaRepository = ideaRepository;
         this.commentRepository = commentRepository;
+        this.notificationRepository = notificationRepository;
+    }
+
+    /**
+     * Loads the email templates at startup, so the first emails do not wait for them to be parsed
+     */
+    @PostConstruct
+    public void loadTemplates() {
+        try {
+            int loaded = templateRegistry.loadAll();
+            if (log.isInfoEnabled()) {
+                log.info("Loaded {} email templates", loaded);
+            }
+        } catch (IOException exception) {
+            // the templates which could not be loaded are loaded again by the first email using them
+            if (log.isErrorEnabled()) {
+                log.error("Failed to load the email templates, error: {}", exception.getMessage());
+            }
+        }
     }
 
     @Override
@@ -91,7 +118,7 @@ public class SendEmailServiceImpl implements SendEmailService {
         User user = getUserByUsername(username);
         String password = PasswordGenerator.generatePassayPassword(15);
         String subject = "Account Activation for " + companyName + " app";
-        sendEmailUtils("welcome-template.ftl", username, password, subject);
+        sendEmailUtils("welcome-template.ftl", user, password, subject);
         if (log.isInfoEnabled()) {
             log.info("Approval email sent to user with username: {}", username);
         }
@@ -112,7 +139,7 @@ public class SendEmailServiceImpl implements SendEmailService {
 
     @Override
     public void sendDeclineEmailToUser(String username) {
-        sendEmailUtils("registration-reject-template.ftl", username, "", "Registration Request - Rejected");
+        sendEmailUtils("registration-reject-template.ftl", getUserByUsername(username), "", "Registration Request - Rejected");
         if (log.isInfoEnabled()) {
             log.info("Decline email successfully sent to user with username: {}", username);
         }
@@ -130,32 +157,25 @@ public class SendEmailServiceImpl implements SendEmailService {
      * @param newDocs   the names of the documents attached to the idea after it was updated
      */
     public void sendEmailUpdatedIdea(List<User> usernames, Long ideaId, String oldText, String oldTitle, String oldDocs, String newDocs) {
-        Idea idea = ideaRepository.findById(ideaId).get();
+        Idea idea = getIdeaById(ideaId);
+        Map<String, Object> model = new EmailModelBuilder(companyName)
+                .with("newTitle", idea.getTitle())
+                .with("newText", idea.getText())
+                .with("oldText", oldText)
+                .with("oldTitle", oldTitle)
+                .with("oldDocs", oldDocs.isEmpty() ? "No documents were attached" : oldDocs)
+                .with("newDocs", newDocs.isEmpty() ? "No documents were attached" : newDocs)
+                .build();
+        queueNotifications(usernames, "text-change-subscription-template.ftl", "AIMS Updated Idea", model);
         if (log.isInfoEnabled()) {
-            log.info("Retrieved idea with id: {} for updating subscribers", idea.getTitle());
-        }
-        for (User user : usernames) {
-            String username = user.getUsername();
-
-            sendEmailIdeaSubscription("text-change-subscription-template.ftl",
-                    username,
-                    oldTitle,
-                    oldText,
-                    oldDocs,
-                    newDocs,
-                    ideaId,
-                    "AIMS Updated Idea");
-            if (log.isInfoEnabled()) {
-                log.info("Successfully sent update idea email to user with username: {}", username);
-            }
-
+            log.info("Queued {} update idea emails for the idea with id: {}", usernames.size(), ideaId);
         }
     }
 
     @Override
     public boolean sendDeactivateEmailToUser(String username) {
         User user = getUserByUsername(username);
-        sendEmailUtils("account-deactivation-template.ftl", username, "", "Account Deactivation Notice");
+        sendEmailUtils("account-deactivation-template.ftl", user, "", "Account Deactivation Notice");
         // Set the isActive to false
         user.setIsActive(false);
         userRepository.save(user);
@@ -169,7 +189,7 @@ public class SendEmailServiceImpl implements SendEmailService {
     public boolean sendActivateEmailToUser(String username) {
         User user = getUserByUsername(username);
         String password = PasswordGenerator.generatePassayPassword(15);
-        sendEmailUtils("account-reactivation-template.ftl", username, password, "Account Reactivation Notice - Welcome Back!");
+        sendEmailUtils("account-reactivation-template.ftl", user, password, "Account Reactivation Notice - Welcome Back!");
         // Set the isActive to true and change password
         user.setIsActive(true);
         user.setPassword(BCrypt.hashpw(password, bcryptSalt));
@@ -185,7 +205,7 @@ public class SendEmailServiceImpl implements SendEmailService {
 
     @Override
     public void sendEmailToUser(String username) {
-        sendEmailUtils("login-request-user-template.ftl", username, "", "Login Request Received");
+        sendEmailUtils("login-request-user-template.ftl", getUserByUsername(username), "", "Login Request Received");
         if (log.isInfoEnabled()) {
             log.info("Login request email sent successfully to user: {}", username);
         }
@@ -197,28 +217,124 @@ public class SendEmailServiceImpl implements SendEmailService {
         if (log.isInfoEnabled()) {
             log.info("Found {} admins to notify about the login request for user: {}", adminList.size(), username);
         }
-        adminList.forEach(admin -> sendEmailUtilsToAdmins("login-request-admin-template.ftl", username, admin, "Alert: Login Request Received"));
-        if (log.isInfoEnabled()) {
-            log.info("Sent login request alert to admins");
+        if (adminList.isEmpty()) {
+            return;
+        }
+        User user = getUserByUsername(username);
+        Map<String, Object> model = new EmailModelBuilder(companyName)
+                .with("usernameUser", username)
+                .with("emailUser", user.getEmail())
+                .withDate()
+                .build();
+        try {
+            // rendered once, only the admin's username differs between the emails
+            RecipientTemplate email = RecipientTemplate.parse(
+                    templateRegistry.renderForRecipients("login-request-admin-template.ftl", model, USERNAME_ADMIN));
+            for (User admin : adminList) {
+                sendEmail(admin.getEmail(), "Alert: Login Request Received", email.fill(Map.of(USERNAME_ADMIN, admin.getUsername())));
+            }
+            if (log.isInfoEnabled()) {
+                log.info("Sent login request alert to admins");
+            }
+        } catch (IOException | TemplateException exception) {
+            if (log.isErrorEnabled()) {
+                log.error("Failed to send email to admin, error: {}", exception.getMessage());
+            }
         }
     }
 
     @Override
     public void sendEmailForgotPassword(String username, String otp) {
-        sendEmailUtils("password-reset-template.ftl", username, otp, "Password Reset Request");
+        sendEmailUtils("password-reset-template.ftl", getUserByUsername(username), otp, "Password Reset Request");
         if (log.isInfoEnabled()) {
             log.info("Password reset email sent successfully to user: {}", username);
         }
     }
 
     @Override
-    public void sendEmailRatingChanged(String username, Long ideaId) {
-        sendEmailRatingChangedService("star-rating-changes-template.ftl", username, "Rating changed", ideaId);
+    public void sendEmailRatingChanged(List<User> users, Long ideaId) {
+        Idea idea = ideaRepository.findById(ideaId).orElseThrow(() -> new IdeaNotFoundException("Idea not found"));
+        BigDecimal rating = new BigDecimal(idea.getRatingAvg().floatValue()).setScale(2, RoundingMode.HALF_UP);
+        Map<String, Object> model = new EmailModelBuilder(companyName)
+                .withDate()
+                .with("ideaTitle", idea.getTitle())
+                .with("newRating", rating.floatValue())
+                .build();
+        queueNotifications(users, "star-rating-changes-template.ftl", "Rating changed", model);
         if (log.isInfoEnabled()) {
-            log.info("Rating change notification email sent successfully to user: {}", username);
+            log.info("Queued {} rating change emails for the idea with id: {}", users.size(), ideaId);
         }
     }
 
+    /**
+     * Renders and sends an email of the outbox. Unlike the other emails, a failure is not only
+     * logged but thrown, so the notification dispatcher can retry it.
+     *
+     * @param notification the email to send
+     * @throws IOException       if the template can not be read
+     * @throws TemplateException if the template can not be rendered
+     */
+    public void sendNotification(Notification notification) throws IOException, TemplateException {
+        String htmlTemplate = notification.getBody() != null
+                ? RecipientTemplate.parse(notification.getBody()).fill(notification.getModel())
+                : templateRegistry.render(notification.getTemplateName(), notification.getModel());
+        sendEmail(notification.getRecipientEmail(), notification.getSubject(), htmlTemplate);
+    }
+
+    /**
+     * Saves one email per recipient in the outbox, to be sent by the notification dispatcher.
+     * The template is rendered once for all the recipients, each email only stores the recipient's values.
+     *
+     * @param recipients   the users who receive the email
+     * @param templateName the name of the email template file
+     * @param subject      the subject of the email
+     * @param sharedModel  the values of the template which are the same for every recipient
+     */
+    private void queueNotifications(List<User> recipients, String templateName, String subject, Map<String, Object> sharedModel) {
+        String body = null;
+        try {
+            body = templateRegistry.renderForRecipients(templateName, sharedModel, EmailModelBuilder.USERNAME, EmailModelBuilder.EMAIL);
+        } catch (IOException | TemplateException exception) {
+            // the template is rendered for every recipient when the emails are sent, where a failure is retried
+            if (log.isWarnEnabled()) {
+                log.warn("Failed to render the template: {} error: {}", templateName, exception.getMessage());
+            }
+        }
+        List<Notification> notifications = new ArrayList<>(recipients.size());
+        for (User user : recipients) {
+            Map<String, Object> model = EmailModelBuilder.recipient(user);
+            if (body == null) {
+                model.putAll(sharedModel);
+            }
+            notifications.add(createNotification(user, templateName, subject, body, model));
+        }
+        notificationRepository.saveAll(notifications);
+    }
+
+    /**
+     * Creates an email for the outbox, to be sent by the notification dispatcher
+     *
+     * @param recipient    the user who receives the email
+     * @param templateName the name of the email template file
+     * @param subject      the subject of the email
+     * @param body         the email rendered with placeholders for the recipient values, or null
+     * @param model        the values the body or the template is rendered with
+     * @return the notification, not saved yet
+     */
+    private Notification createNotification(User recipient, String templateName, String subject, String body, Map<String, Object> model) {
+        Date now = new Date();
+        Notification notification = new Notification();
+        notification.setRecipientEmail(recipient.getEmail());
+        notification.setTemplateName(templateName);
+        notification.setSubject(subject);
+        notification.setBody(body);
+        notification.setModel(model);
+        notification.setStatus(NotificationStatus.PENDING);
+        notification.setCreatedAt(now);
+        notification.setNextAttemptAt(now);
+        return notification;
+    }
+
     /**
      * Retrieves a user from the repository based on the provided username.
      * <p>
@@ -252,23 +368,19 @@ public class SendEmailServiceImpl implements SendEmailService {
      * and subject. It retrieves user-specific details, processes the template, and sends the email.
      *
      * @param fileName The name of the email template file to use.
-     * @param username The username of the user for whom the email is intended.
+     * @param user     The user for whom the email is intended.
      * @param password The password to include in the email content.
      * @param subject  The subject of the email.
      */
-    private void sendEmailUtils(String fileName, String username, String password, String subject) {
-        User user = getUserByUsername(username);
+    private void sendEmailUtils(String fileName, User user, String password, String subject) {
         String emailTo = user.getEmail();
-        Map<String, Object> mapUser = new HashMap<>();
-        mapUser.put("username", username);
-        mapUser.put("email", user.getEmail());
-        mapUser.put("companyName", companyName);
-        mapUser.put("password", password);
-        mapUser.put("date", new Date().toString());
-        mapUser.put("imageUrl", "./welcome.jpg");
+        Map<String, Object> mapUser = new EmailModelBuilder(companyName)
+                .withRecipient(user)
+                .with("password", password)
+                .withDate()
+                .build();
         try {
-            Template template = configuration.getTemplate(fileName);
-            String htmlTemplate = FreeMarkerTemplateUtils.processTemplateIntoString(template, mapUser);
+            String htmlTemplate = templateRegistry.render(fileName, mapUser);
             sendEmail(emailTo, subject, htmlTemplate);
 
             if (log.isInfoEnabled()) {
@@ -282,71 +394,6 @@ public class SendEmailServiceImpl implements SendEmailService {
         }
     }
 
-    private void sendEmailRatingChangedService(String fileName, String username, String subject, Long ideaId) {
-        User user = getUserByUsername(username);
-        Idea idea = ideaRepository.findById(ideaId).orElseThrow(() -> new IdeaNotFoundException("Idea not found"));
-        String emailTo = user.getEmail();
-        Map<String, Object> mapUser = new HashMap<>();
-        mapUser.put("username", username);
-        mapUser.put("email", user.getEmail());
-        mapUser.put("companyName", companyName);
-        mapUser.put("date", new Date().toString());
-        mapUser.put("imageUrl", "./welcome.jpg");
-        mapUser.put("ideaTitle", idea.getTitle());
-        BigDecimal rating = new BigDecimal(idea.getRatingAvg().floatValue()).setScale(2, RoundingMode.HALF_UP);
-        mapUser.put("newRating", rating.floatValue());
-        try {
-            Template template = configuration.getTemplate(fileName);
-            String htmlTemplate = FreeMarkerTemplateUtils.processTemplateIntoString(template, mapUser);
-            sendEmail(emailTo, subject, htmlTemplate);
-
-            if (log.isInfoEnabled()) {
-                log.info("Email sent successfully to: {}", emailTo);
-            }
-
-        } catch (IOException | TemplateException exception) {
-            if (log.isErrorEnabled()) {
-                log.error("Failed to send email to: {} error: {}", emailTo, exception.getMessage());
-            }
-        }
-    }
-
-    /**
-     * Sends an email to administrators using email template utilities.
-     * <p>
-     * This method generates and sends an email to administrators using the provided email template file,
-     * user information, admin details, and subject. It retrieves user-specific and admin-specific details,
-     * processes the template, and sends the email to administrators.
-     *
-     * @param fileName     The name of the email template file to use.
-     * @param usernameUser The username of the user for whom the email is intended.
-     * @param admin        The User object representing the administrator to whom the email is sent.
-     * @param subject      The subject of the email.
-     */
-    private void sendEmailUtilsToAdmins(String fileName, String usernameUser, User admin, String subject) {
-        User user = getUserByUsername(usernameUser);
-        String emailTo = user.getEmail();
-        Map<String, Object> mapUser = new HashMap<>();
-        mapUser.put("usernameUser", usernameUser);
-        mapUser.put("emailUser", user.getEmail());
-        mapUser.put("usernameAdmin", admin.getUsername());
-        mapUser.put("companyName", companyName);
-        mapUser.put("date", new Date().toString());
-        try {
-            Template template = configuration.getTemplate(fileName);
-            String htmlTemplate = FreeMarkerTemplateUtils.processTemplateIntoString(template, mapUser);
-            sendEmail(admin.getEmail(), subject, htmlTemplate);
-            if (log.isInfoEnabled()) {
-                log.info("Email sent successfully to admin");
-            }
-        } catch (IOException | TemplateException exception) {
-            if (log.isErrorEnabled()) {
-                log.error("Failed to send email to admin, error: {}", exception.getMessage());
-            }
-
-        }
-    }
-
     /**
      * Sends an email to the provided recipient email address with the given subject and text content.
      * <p>
@@ -384,56 +431,6 @@ public class SendEmailServiceImpl implements SendEmailService {
         }
     }
 
-    private void sendEmailIdeaSubscription(String fileName,
-                                           String username,
-                                           String oldTitle,
-                                           String oldText,
-                                           String oldDocs,
-                                           String newDocs,
-                                           Long ideaId,
-                                           String subject) {
-        User user = getUserByUsername(username);
-        String emailTo = user.getEmail();
-        Idea idea = getIdeaById(ideaId);
-
-        Map<String, Object> mapUser = new HashMap<>();
-        mapUser.put("username", username);
-        mapUser.put("email", user.getEmail());
-        mapUser.put("companyName", companyName);
-        mapUser.put("newTitle", idea.getTitle());
-        mapUser.put("newText", idea.getText());
-        mapUser.put("oldText", oldText);
-        mapUser.put("oldTitle", oldTitle);
-        if (oldDocs.isEmpty()) {
-            mapUser.put("oldDocs", "No documents were attached");
-        } else {
-            mapUser.put("oldDocs", oldDocs);
-        }
-
-        if (newDocs.isEmpty()) {
-            mapUser.put("newDocs", "No documents were attached");
-        } else {
-            mapUser.put("newDocs", newDocs);
-        }
-
-        mapUser.put("imageUrl", "./welcome.jpg");
-
-        try {
-            Template template = configuration.getTemplate(fileName);
-            String htmlTemplate = FreeMarkerTemplateUtils.processTemplateIntoString(template, mapUser);
-            sendEmail(emailTo, subject, htmlTemplate);
-
-            if (log.isInfoEnabled()) {
-                log.info("Idea subscription email sent successfully to: {}", emailTo);
-            }
-
-        } catch (IOException | TemplateException exception) {
-            if (log.isErrorEnabled()) {
-                log.error("Failed to send idea subscription email to: {} error: {}", username, exception.getMessage());
-            }
-        }
-    }
-
     /**
      * Retrieves an idea from the repository based on the provided id
      * <p>
@@ -468,16 +465,7 @@ public class SendEmailServiceImpl implements SendEmailService {
      */
     @Override
     public void sendEmailDeletedComment(List<User> usernames, Long commentId, String comment) {
-        for (User user : usernames) {
-            if (log.isDebugEnabled()) {
-                log.debug("Sending deleted comment notification to user: {}", user.getUsername());
-            }
-            sendEmailChangedComment("comment-delete-subscription-template.ftl",
-                    user.getUsername(),
-                    comment,
-                    commentId,
-                    "Deleted comment on subscribed idea.");
-        }
+        queueChangedCommentEmails("comment-delete-subscription-template.ftl", usernames, commentId, "Deleted comment on subscribed idea.");
     }
 
     /**
@@ -490,15 +478,26 @@ public class SendEmailServiceImpl implements SendEmailService {
      */
     @Override
     public void sendEmailAddedComment(List<User> usernames, Long commentId, String comment) {
-        for (User user : usernames) {
-            if (log.isDebugEnabled()) {
-                log.debug("Sending added comment notification to user: {}", user.getUsername());
-            }
-            sendEmailChangedComment("comment-added-subscription-template.ftl",
-                    user.getUsername(),
-                    comment,
-                    commentId,
-                    "Added comment on subscribed idea.");
+        queueChangedCommentEmails("comment-added-subscription-template.ftl", usernames, commentId, "Added comment on subscribed idea.");
+    }
+
+    /**
+     * Queues one email per subscribed user about an added or deleted comment. The comment is read once,
+     * when the email is queued, so the email of a deleted comment can still be sent after the deletion.
+     *
+     * @param fileName  the name of the email template file
+     * @param usernames the users who are subscribed to the idea
+     * @param commentId the id of the comment
+     * @param subject   the subject of the emails
+     */
+    private void queueChangedCommentEmails(String fileName, List<User> usernames, Long commentId, String subject) {
+        Comment comment = getCommentById(commentId);
+        Map<String, Object> model = new EmailModelBuilder(companyName)
+                .with("newComment", comment.getCommentText())
+                .build();
+        queueNotifications(usernames, fileName, subject, model);
+        if (log.isInfoEnabled()) {
+            log.info("Queued {} emails about the comment with id: {}", usernames.size(), commentId);
         }
     }
 
@@ -523,15 +522,12 @@ public class SendEmailServiceImpl implements SendEmailService {
         String emailTo = user.getEmail();
         Comment comment = getCommentById(commentId);
 
-        Map<String, Object> mapComment = new HashMap<>();
-        mapComment.put("username", username);
-        mapComment.put("email", user.getEmail());
-        mapComment.put("companyName", companyName);
-        mapComment.put("newComment", comment.getCommentText());
-        mapComment.put("imageUrl", "./welcome.jpg");
+        Map<String, Object> mapComment = new EmailModelBuilder(companyName)
+                .withRecipient(user)
+                .with("newComment", comment.getCommentText())
+                .build();
         try {
-            Template template = configuration.getTemplate(fileName);
-            String htmlTemplate = FreeMarkerTemplateUtils.processTemplateIntoString(template, mapComment);
+            String htmlTemplate = templateRegistry.render(fileName, mapComment);
             sendEmail(emailTo, subject, htmlTemplate);
             if (log.isInfoEnabled()) {
                 log.info("Email sent successfully to {} regarding the change in comment with text: {}", emailTo, comment.getCommentText());
@@ -1,47 +1,68 @@
 package com.atoss.idea.management.system.service.implementation;
 
 
-import com.atoss.idea.management.system.exception.IdeaNotFoundException;
+import com.atoss.idea.management.system.exception.FieldValidationException;
 import com.atoss.idea.management.system.repository.CommentRepository;
+import com.atoss.idea.management.system.repository.DailyStatisticsRepository;
 import com.atoss.idea.management.system.repository.IdeaRepository;
 import com.atoss.idea.management.system.repository.UserRepository;
 import com.atoss.idea.management.system.repository.dto.CommentStatisticsDTO;
 import com.atoss.idea.management.system.repository.dto.IdeaResponseDTO;
+import com.atoss.idea.management.system.repository.dto.StatisticsBucketView;
+import com.atoss.idea.management.system.repository.dto.StatisticsCountsView;
 import com.atoss.idea.management.system.repository.dto.StatisticsDTO;
+import com.atoss.idea.management.system.repository.dto.StatisticsSeriesDTO;
+import com.atoss.idea.management.system.repository.dto.StatisticsTotalsDTO;
 import com.atoss.idea.management.system.repository.entity.Comment;
 import com.atoss.idea.management.system.repository.entity.Idea;
 import com.atoss.idea.management.system.repository.entity.Status;
 import com.atoss.idea.management.system.service.CommentService;
-import com.atoss.idea.management.system.service.IdeaService;
 import com.atoss.idea.management.system.service.StatisticsService;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @Log4j2
 public class StatisticsServiceImpl implements StatisticsService {
 
-    @PersistenceContext
-    // used to interact with the database (an instance of the JPA)
-    private EntityManager entityManager;
+    private static final Pageable TOP_FIVE = PageRequest.of(0, 5);
 
-    private final ModelMapper modelMapper;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("yyyy-M-d");
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(1970, 1, 1);
+
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    // ten years by day
+    private static final int MAX_SERIES_BUCKETS = 3660;
 
-    private final IdeaService ideaService;
+    private static final int SNAPSHOTS_MAX_SIZE = 1_000;
+
+    // the new users do not change the data version, so the snapshots are computed again at least this often
+    private static final int SNAPSHOTS_EXPIRY_MINUTES = 1;
+
+    private final ModelMapper modelMapper;
 
     private final IdeaRepository ideaRepository;
 
@@ -53,150 +74,87 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     private final HtmlServiceImpl htmlService;
 
+    private final DailyStatisticsRepository dailyStatisticsRepository;
+
+    private final StatisticsRollupJob statisticsRollupJob;
+
+    private final Cache<String, Object> snapshots = CacheBuilder.newBuilder()
+            .maximumSize(SNAPSHOTS_MAX_SIZE)
+            .expireAfterWrite(SNAPSHOTS_EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build();
 
     /**
      * Constructor
      *
      * @param modelMapper ==
-     * @param ideaService ==
      * @param ideaRepository ==
      * @param commentService ==
      * @param userRepository ==
      * @param commentRepository ==
      * @param htmlService ==
+     * @param dailyStatisticsRepository for summing the statistics of the days
+     * @param statisticsRollupJob for the data version the snapshots of the statistics are computed for
      */
     public StatisticsServiceImpl(ModelMapper modelMapper,
-                                 IdeaService ideaService,
                                  IdeaRepository ideaRepository,
                                  CommentServiceImpl commentService,
                                  UserRepository userRepository,
                                  CommentRepository commentRepository,
-                                 HtmlServiceImpl htmlService) {
+                                 HtmlServiceImpl htmlService,
+                                 DailyStatisticsRepository dailyStatisticsRepository,
+                                 StatisticsRollupJob statisticsRollupJob) {
         this.modelMapper = modelMapper;
-        this.ideaService = ideaService;
         this.ideaRepository = ideaRepository;
         this.commentService = commentService;
         this.userRepository = userRepository;
         this.commentRepository = commentRepository;
         this.htmlService = htmlService;
+        this.dailyStatisticsRepository = dailyStatisticsRepository;
+        this.statisticsRollupJob = statisticsRollupJob;
     }
 
     @Override
-    public Long getSelectionRepliesNumber(String selectedDateFrom, String selectedDateTo) {
-        if (log.isDebugEnabled()) {
-            log.debug("Counting selected replies between {} - {}", selectedDateFrom, selectedDateTo);
-        }
-
-        if (log.isInfoEnabled()) {
-            log.info("Started counting replies");
-        }
-
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        LocalDate date = LocalDate.parse(selectedDateTo, formatter);
-        LocalDate updatedDate = date.plusDays(1);
-        String selectedDateToAux = updatedDate.format(formatter);
-
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Comment> criteriaQuery = cb.createQuery(Comment.class);
-        Root<Comment> root = criteriaQuery.from(Comment.class);
-
-        List<Predicate> predicatesList = new ArrayList<>();
-
-        predicatesList.addAll(ideaService.filterByDate(selectedDateFrom, selectedDateToAux, root, cb, "creationDate"));
-        predicatesList.add(cb.isNotNull(root.get("parent")));
-
-        criteriaQuery.where(predicatesList.toArray(new Predicate[0]));
-        TypedQuery<Comment> repliesQuery = entityManager.createQuery(criteriaQuery);
-
-        Long allReplies = (long) repliesQuery.getResultList().size();
-
-        return allReplies;
+    public StatisticsDTO getSelectionCounts(String selectedDateFrom, String selectedDateTo) {
+        return snapshot("counts|" + selectedDateFrom + "|" + selectedDateTo,
+                () -> computeSelectionCounts(selectedDateFrom, selectedDateTo));
     }
 
-    @Override
-    public Long getSelectionCommentNumber(String selectedDateFrom, String selectedDateTo) {
+    private StatisticsDTO computeSelectionCounts(String selectedDateFrom, String selectedDateTo) {
         if (log.isDebugEnabled()) {
-            log.debug("Counting selected comments between {} - {}", selectedDateFrom, selectedDateTo);
-        }
-
-        if (log.isInfoEnabled()) {
-            log.info("Started counting comments");
+            log.debug("Counting selected ideas, comments and replies between {} - {}", selectedDateFrom, selectedDateTo);
         }
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        LocalDate date = LocalDate.parse(selectedDateTo, formatter);
-        LocalDate updatedDate = date.plusDays(1);
-        String selectedDateToAux = updatedDate.format(formatter);
-
-        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-        CriteriaQuery<Comment> criteriaQuery = cb.createQuery(Comment.class);
-
-        //represents the entity from which the query starts (Comment)
-        Root<Comment> root = criteriaQuery.from(Comment.class);
-
-        // conditions used to filter the data
-        List<Predicate> predicatesList = new ArrayList<>();
-
-        // used to incorporate multiple filtering conditions into the predicatesList
-        predicatesList.addAll(ideaService.filterByDate(selectedDateFrom, selectedDateToAux, root, cb, "creationDate"));
-        predicatesList.add(cb.isNull(root.get("parent")));
-
-        criteriaQuery.where(predicatesList.toArray(new Predicate[0]));
-
-        //a JPA query that returns typed results (a list of Comment)
-        TypedQuery<Comment> commentsQuery = entityManager.createQuery(criteriaQuery);
-
-        Long allComments = (long) commentsQuery.getResultList().size();
+        LocalDate from = parseDay(selectedDateFrom, FIRST_DAY);
+        LocalDate to = parseDay(selectedDateTo, LAST_DAY);
 
-        return allComments;
+        StatisticsCountsView counts = dailyStatisticsRepository.countBetween(from, to);
+        return fromTotals(new StatisticsTotalsDTO(counts.getOpenIdeas(), counts.getDraftIdeas(), counts.getImplementedIdeas(),
+                counts.getComments(), counts.getReplies(), 0L, 0L, 0L));
     }
 
-
     /**
-     * we use this function to retrieve the most commented ideas in order to
-     * do statistics on them and to send them to be displayed
+     * Maps the most commented ideas, loaded together with their author, to be displayed
      *
-     * @param mostCommentedIdeasIds list of idea id
+     * @param mostCommentedIdeas the ideas, the most commented first
      * @return list of most commented ideas
      */
-    public List<IdeaResponseDTO> getMostCommentedIdeas(List<Long> mostCommentedIdeasIds) {
+    private List<IdeaResponseDTO> getMostCommentedIdeas(List<Idea> mostCommentedIdeas) {
         if (log.isInfoEnabled()) {
             log.info("Getting most commented ideas");
         }
 
-        List<IdeaResponseDTO> sortedIdeas = mostCommentedIdeasIds.stream()
-                .map(idea_id -> {
+        List<IdeaResponseDTO> sortedIdeas = mostCommentedIdeas.stream()
+                .map(idea -> {
                     if (log.isDebugEnabled()) {
-                        log.debug("Processing idea with id: {}", idea_id);
+                        log.debug("Processing idea with id: {}", idea.getId());
                     }
 
-                    Idea idea = ideaRepository.findById(idea_id).orElseThrow(() -> {
-                        if (log.isErrorEnabled()) {
-                            log.error("Idea not found with id: {}", idea_id);
-                        }
-                        return new IdeaNotFoundException("Idea not found");
-                    });
-
                     IdeaResponseDTO ideaResponseDTO = modelMapper.map(idea, IdeaResponseDTO.class);
-
-                    if (log.isInfoEnabled()) {
-                        log.info("Converting idea title from markdown to HTML");
-                    }
-                    String htmlContent1 = htmlService.markdownToHtml(idea.getTitle());
-                    ideaResponseDTO.setTitle(htmlContent1);
+                    ideaResponseDTO.setTitle(htmlService.storedOrMarkdownToHtml(idea.getRenderedTitle(), idea.getTitle()));
                     ideaResponseDTO.setUsername(idea.getUser().getUsername());
-
-                    if (log.isInfoEnabled()) {
-                        log.info("Converting idea text from markdown to HTML");
-                    }
-                    String htmlContent2 = htmlService.markdownToHtml(idea.getText());
-                    ideaResponseDTO.setText(htmlContent2);
+                    ideaResponseDTO.setText(htmlService.storedOrMarkdownToHtml(idea.getRenderedText(), idea.getText()));
                     ideaResponseDTO.setElapsedTime(commentService.getElapsedTime(idea.getCreationDate()));
-                    ideaResponseDTO.setCommentsNumber(idea.getCommentList().size());
-
-                    if (log.isDebugEnabled()) {
-                        log.debug("Finished processing idea with id: {}", idea_id);
-                    }
+                    ideaResponseDTO.setCommentsNumber(idea.getCommentsCount());
                     return ideaResponseDTO;
                 })
                 .toList();
@@ -209,6 +167,10 @@ public class StatisticsServiceImpl implements StatisticsService {
 
     @Override
     public StatisticsDTO getGeneralStatistics() {
+        return snapshot("stats", this::computeGeneralStatistics);
+    }
+
+    private StatisticsDTO computeGeneralStatistics() {
         if (log.isInfoEnabled()) {
             log.info("Retrieving general statistics");
         }
@@ -217,52 +179,19 @@ public class StatisticsServiceImpl implements StatisticsService {
         if (log.isInfoEnabled()) {
             log.info("Total number of users: {}", nrOfUsers);
         }
-        Long nrOfIdeas = ideaRepository.count();
-        if (log.isInfoEnabled()) {
-            log.info("Total number of ideas: {}", nrOfIdeas);
-        }
-        Long implIdeas = ideaRepository.countByStatus(Status.IMPLEMENTED);
-        if (log.isInfoEnabled()) {
-            log.info("Total number of implemented ideas: {}", implIdeas);
-        }
-        Long draftedIdeas = ideaRepository.countByStatus(Status.DRAFT);
-        if (log.isInfoEnabled()) {
-            log.info("Total number of draft ideas: {}", draftedIdeas);
-        }
-
-        double ideasPerUser = Math.round((double) nrOfIdeas / (double) nrOfUsers * 100.00) / 100.00;
-
-        StatisticsDTO statisticsDTO = new StatisticsDTO();
-
-        statisticsDTO.setIdeasPerUser(ideasPerUser);
-        statisticsDTO.setDraftIdeas(draftedIdeas);
-
-        Long openIdeas = nrOfIdeas - implIdeas - draftedIdeas;
-        statisticsDTO.setOpenIdeas(openIdeas);
-
-        Long nrOfComments = commentRepository.countComments();
-        if (log.isInfoEnabled()) {
-            log.info("Total number of comments: {}", nrOfComments);
-        }
-        statisticsDTO.setTotalNrOfComments(nrOfComments);
 
-        Long nrOfReplies = commentRepository.countReplies();
+        StatisticsTotalsDTO totals = dailyStatisticsRepository.sumAll();
+        StatisticsDTO statisticsDTO = fromTotals(totals);
         if (log.isInfoEnabled()) {
-            log.info("Total number of replies: {}", nrOfReplies);
+            log.info("Total number of ideas: {}, comments: {}, replies: {}",
+                    statisticsDTO.getNrOfIdeas(), totals.getComments(), totals.getReplies());
         }
-        statisticsDTO.setTotalNrOfReplies(nrOfReplies);
-
-        double draftPercentage = ((double) draftedIdeas / (double) nrOfIdeas * 100);
-        double openPercentage = ((double) openIdeas / (double) nrOfIdeas * 100);
-        double implPercentage = ((double) implIdeas / (double) nrOfIdeas * 100);
 
-        // we calculate difference in case the sum is not 100%
-        double totalP = (int) draftPercentage + (int) openPercentage + (int) implPercentage;
-        double diff = 100.00 - totalP;
-        draftPercentage = draftPercentage + diff;
-
-        List<IdeaResponseDTO> mostCommentedIdeas = getMostCommentedIdeas(commentRepository.mostCommentedIdeas());
+        double ideasPerUser = Math.round((double) statisticsDTO.getNrOfIdeas() / (double) nrOfUsers * 100.00) / 100.00;
+        statisticsDTO.setIdeasPerUser(ideasPerUser);
+        statisticsDTO.setNrOfUsers(nrOfUsers);
 
+        statisticsDTO.setMostCommentedIdeas(getMostCommentedIdeas(ideaRepository.findMostCommented(Status.DRAFT, TOP_FIVE)));
 
         List<Comment> topComments = commentRepository.findTop5CommentsByLikes();
         List<CommentStatisticsDTO> commentStatisticsDTOList = topComments.stream()
@@ -272,9 +201,9 @@ public class StatisticsServiceImpl implements StatisticsService {
                     }
                     CommentStatisticsDTO dto = new CommentStatisticsDTO();
                     dto.setCommentId(comment.getId());
-                    String htmlContent = htmlService.markdownToHtml(comment.getCommentText());
+                    String htmlContent = htmlService.storedOrMarkdownToHtml(comment.getRenderedCommentText(), comment.getCommentText());
                     dto.setCommentText(htmlContent);
-                    dto.setNrLikes(commentRepository.countLikesByCommentId(comment.getId()));
+                    dto.setNrLikes(comment.getLikesCount());
 
                     if (log.isDebugEnabled()) {
                         log.debug("Processed top comment with id: {}", comment.getId());
@@ -282,14 +211,6 @@ public class StatisticsServiceImpl implements StatisticsService {
                     return dto;
                 })
                 .collect(Collectors.toList());
-
-        statisticsDTO.setMostCommentedIdeas(mostCommentedIdeas);
-        statisticsDTO.setNrOfUsers(nrOfUsers);
-        statisticsDTO.setNrOfIdeas(nrOfIdeas);
-        statisticsDTO.setImplementedIdeas(implIdeas);
-        statisticsDTO.setImplP(implPercentage);
-        statisticsDTO.setDraftP(draftPercentage);
-        statisticsDTO.setOpenP(openPercentage);
         statisticsDTO.setMostLikedComments(commentStatisticsDTOList);
 
         return statisticsDTO;
@@ -298,113 +219,149 @@ public class StatisticsServiceImpl implements StatisticsService {
     @Override
     public StatisticsDTO getStatisticsByDate(String selectedDateFrom,
                                              String selectedDateTo) {
+        return snapshot("filteredStats|" + selectedDateFrom + "|" + selectedDateTo,
+                () -> computeStatisticsByDate(selectedDateFrom, selectedDateTo));
+    }
+
+    private StatisticsDTO computeStatisticsByDate(String selectedDateFrom, String selectedDateTo) {
         if (log.isInfoEnabled()) {
             log.info("Retrieving filtered statistics by date from {} to {}", selectedDateFrom, selectedDateTo);
         }
-        // This code checks if the penultimate character of the string is '-' and if the last character is a digit.
-        // This is because the date may be transmitted in the format "2024-08-5" and needs to be standardized to "2024-08-05"
-        // when filtering statistics. The condition ensures that a '0' is added before the last digit if it's preceded by a '-'.
-        // This helps maintain consistency in date formatting for statistical analysis.
-        if (selectedDateTo.length() > 1 && selectedDateTo.charAt(selectedDateTo.length() - 2) == '-') {
-            if (Character.isDigit(selectedDateTo.charAt(selectedDateTo.length() - 1))) {
-                selectedDateTo = selectedDateTo.substring(0, selectedDateTo.length() - 1)
-                        + '0'
-                        + selectedDateTo.charAt(selectedDateTo.length() - 1);
-            }
-        }
+        LocalDate from = parseDay(selectedDateFrom, FIRST_DAY);
+        LocalDate to = parseDay(selectedDateTo, LAST_DAY);
 
+        StatisticsDTO filteredStatisticsDTO = fromTotals(dailyStatisticsRepository.sumBetween(from, to));
 
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        LocalDate date = LocalDate.parse(selectedDateTo, formatter);
-        LocalDate updatedDate = date.plusDays(1);
-        String selectedDateToAux = updatedDate.format(formatter);
-
-
-        System.out.println(selectedDateToAux);
-        StatisticsDTO filteredStatisticsDTO = new StatisticsDTO();
+        filteredStatisticsDTO.setMostCommentedIdeas(getMostCommentedIdeas(ideaRepository.findMostCommentedCreatedBetween(
+                Status.DRAFT, startOf(from), startOf(to.plusDays(1)), TOP_FIVE)));
 
+        return filteredStatisticsDTO;
+    }
 
+    @Override
+    public StatisticsSeriesDTO getStatisticsSeries(String selectedDateFrom, String selectedDateTo, String granularity) {
+        return snapshot("series|" + selectedDateFrom + "|" + selectedDateTo + "|" + granularity,
+                () -> computeStatisticsSeries(selectedDateFrom, selectedDateTo, granularity));
+    }
 
-        Long noOfReplies;
-        try {
-            noOfReplies = getSelectionRepliesNumber(selectedDateFrom, selectedDateToAux);
-        } catch (Exception e) {
-            noOfReplies = 0L;
-            if (log.isWarnEnabled()) {
-                log.warn("No replies found for the selected date");
-            }
+    private StatisticsSeriesDTO computeStatisticsSeries(String selectedDateFrom, String selectedDateTo, String granularity) {
+        if (log.isInfoEnabled()) {
+            log.info("Retrieving statistics series by {} from {} to {}", granularity, selectedDateFrom, selectedDateTo);
         }
-        filteredStatisticsDTO.setTotalNrOfReplies(noOfReplies);
-
-        Long noOfComments;
-        try {
-            noOfComments = getSelectionCommentNumber(selectedDateFrom, selectedDateToAux);
-        } catch (Exception e) {
-            noOfComments = 0L;
-            if (log.isWarnEnabled()) {
-                log.warn("No comments found for the selected date");
-            }
+        if (selectedDateFrom == null || selectedDateTo == null) {
+            throw new FieldValidationException("Please select the dates of the statistics.");
         }
-        filteredStatisticsDTO.setTotalNrOfComments(noOfComments);
-
-        List<Long> listOfStatusesCount = ideaRepository.countStatusByDate(selectedDateFrom,
-                selectedDateToAux);
-
-        Long openIdeasCount;
-        Long draftIdeasCount;
-        Long implIdeasCount;
-
-        try {
-            openIdeasCount = listOfStatusesCount.get(0);
-        } catch (Exception e) {
-            openIdeasCount = 0L;
-            if (log.isWarnEnabled()) {
-                log.warn("No open ideas found for the selected date");
-            }
+        LocalDate from = parseDay(selectedDateFrom, FIRST_DAY);
+        LocalDate to = parseDay(selectedDateTo, LAST_DAY);
+        if (to.isBefore(from)) {
+            throw new FieldValidationException("Please select a date to after the date from.");
         }
 
-        try {
-            draftIdeasCount = listOfStatusesCount.get(1);
-        } catch (Exception e) {
-            draftIdeasCount = 0L;
-            if (log.isWarnEnabled()) {
-                log.warn("No draft ideas found for the selected date");
+        String unit = granularity == null ? "day" : granularity.toLowerCase();
+        LocalDate firstBucket = switch (unit) {
+            case "day" -> from;
+            case "week" -> from.with(DayOfWeek.MONDAY);
+            case "month" -> from.withDayOfMonth(1);
+            default -> throw new FieldValidationException("Please select day, week or month for the statistics.");
+        };
+
+        Map<LocalDate, StatisticsBucketView> sums = dailyStatisticsRepository.sumByBucket(unit, from, to).stream()
+                .collect(Collectors.toMap(StatisticsBucketView::getBucket, Function.identity()));
+
+        StatisticsSeriesDTO series = new StatisticsSeriesDTO();
+        series.setGranularity(unit);
+        for (LocalDate bucket = firstBucket; !bucket.isAfter(to); bucket = nextBucket(bucket, unit)) {
+            if (series.getBuckets().size() == MAX_SERIES_BUCKETS) {
+                throw new FieldValidationException("Please select a shorter interval or a longer granularity.");
             }
+            StatisticsBucketView sum = sums.get(bucket);
+            series.getBuckets().add(bucket);
+            series.getOpenIdeas().add(sum == null ? 0L : sum.getOpenIdeas());
+            series.getDraftIdeas().add(sum == null ? 0L : sum.getDraftIdeas());
+            series.getImplementedIdeas().add(sum == null ? 0L : sum.getImplementedIdeas());
+            series.getComments().add(sum == null ? 0L : sum.getComments());
+            series.getReplies().add(sum == null ? 0L : sum.getReplies());
+            series.getRatings().add(sum == null ? 0L : sum.getRatings());
+            series.getLikes().add(sum == null ? 0L : sum.getLikes());
         }
+        return series;
+    }
 
+    /**
+     * Returns the snapshot of the statistics computed for the current data version, computing it if there
+     * is none yet. The writes change the data version, so the snapshots computed before are not used again.
+     * Only one thread computes a missing snapshot, the others asking for it wait for its result.
+     *
+     * @param key the endpoint and its parameters
+     * @param computation computes the statistics from the database
+     * @param <T> the type of the statistics
+     * @return the statistics of the current data version
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T snapshot(String key, Supplier<T> computation) {
         try {
-            implIdeasCount = listOfStatusesCount.get(2);
-        } catch (Exception e) {
-            implIdeasCount = 0L;
-            if (log.isWarnEnabled()) {
-                log.warn("No implemented ideas found for the selected date");
-            }
+            return (T) snapshots.get(key + "|" + statisticsRollupJob.getDataVersion(), computation::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw new IllegalStateException(e.getCause());
         }
+    }
 
-        Long totalIdeasCount = openIdeasCount + draftIdeasCount + implIdeasCount;
+    private static LocalDate nextBucket(LocalDate bucket, String unit) {
+        return switch (unit) {
+            case "week" -> bucket.plusWeeks(1);
+            case "month" -> bucket.plusMonths(1);
+            default -> bucket.plusDays(1);
+        };
+    }
+
+    /**
+     * Fills the numbers of ideas, comments and replies and the percentages of the ideas by status
+     *
+     * @param totals the sums of the daily statistics
+     * @return the statistics with the numbers and percentages
+     */
+    private static StatisticsDTO fromTotals(StatisticsTotalsDTO totals) {
+        Long openIdeas = totals.getOpenIdeas();
+        Long draftIdeas = totals.getDraftIdeas();
+        Long implIdeas = totals.getImplementedIdeas();
+        Long nrOfIdeas = openIdeas + draftIdeas + implIdeas;
+
+        double draftPercentage = ((double) draftIdeas / (double) nrOfIdeas * 100);
+        double openPercentage = ((double) openIdeas / (double) nrOfIdeas * 100);
+        double implPercentage = ((double) implIdeas / (double) nrOfIdeas * 100);
 
-        double draftPercentage = ((double) draftIdeasCount / (double) totalIdeasCount * 100);
-        double openPercentage = ((double) openIdeasCount / (double) totalIdeasCount * 100);
-        double implPercentage = ((double) implIdeasCount / (double) totalIdeasCount * 100);
+        // we calculate difference in case the sum is not 100%
         double totalP = (int) draftPercentage + (int) openPercentage + (int) implPercentage;
         double diff = 100.00 - totalP;
         draftPercentage = draftPercentage + diff;
 
-        List<IdeaResponseDTO> mostCommentedIdeas = getMostCommentedIdeas(
-                commentRepository.mostCommentedIdeasIdsByDate(selectedDateFrom, selectedDateToAux));
+        StatisticsDTO statisticsDTO = new StatisticsDTO();
+        statisticsDTO.setNrOfIdeas(nrOfIdeas);
+        statisticsDTO.setOpenIdeas(openIdeas);
+        statisticsDTO.setDraftIdeas(draftIdeas);
+        statisticsDTO.setImplementedIdeas(implIdeas);
+        statisticsDTO.setOpenP(openPercentage);
+        statisticsDTO.setDraftP(draftPercentage);
+        statisticsDTO.setImplP(implPercentage);
+        statisticsDTO.setTotalNrOfComments(totals.getComments());
+        statisticsDTO.setTotalNrOfReplies(totals.getReplies());
+        return statisticsDTO;
+    }
 
-        filteredStatisticsDTO.setImplP(implPercentage);
-        filteredStatisticsDTO.setOpenP(openPercentage);
-        filteredStatisticsDTO.setDraftP(draftPercentage);
-        filteredStatisticsDTO.setNrOfIdeas(totalIdeasCount);
-        filteredStatisticsDTO.setDraftIdeas(draftIdeasCount);
-        filteredStatisticsDTO.setOpenIdeas(openIdeasCount);
-        filteredStatisticsDTO.setImplementedIdeas(implIdeasCount);
-        filteredStatisticsDTO.setTotalNrOfComments(noOfComments);
-        filteredStatisticsDTO.setTotalNrOfReplies(noOfReplies);
-        filteredStatisticsDTO.setMostCommentedIdeas(mostCommentedIdeas);
+    /**
+     * Parses a selected day, which may come without its leading zeros, such as "2024-08-5"
+     *
+     * @param day the selected day, or null if none was selected
+     * @param otherwise the day to use if none was selected
+     * @return the selected day
+     */
+    private static LocalDate parseDay(String day, LocalDate otherwise) {
+        return day == null ? otherwise : LocalDate.parse(day, DAY_FORMAT);
+    }
 
-        return filteredStatisticsDTO;
+    private static Date startOf(LocalDate day) {
+        return Date.from(day.atStartOfDay(ZoneId.systemDefault()).toInstant());
     }
 
 }
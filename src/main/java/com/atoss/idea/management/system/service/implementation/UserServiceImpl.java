@@ -24,9 +24,13 @@ import com.atoss.idea.management.system.repository.entity.Avatar;
 import com.atoss.idea.management.system.repository.entity.OTP;
 import com.atoss.idea.management.system.repository.entity.Role;
 import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.UserService;
 import com.atoss.idea.management.system.utils.PasswordGenerator;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import lombok.extern.log4j.Log4j2;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
@@ -36,16 +40,21 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
-import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 @Log4j2
 @Service
 public class UserServiceImpl implements UserService {
 
+    private static final long USER_IMAGES_MAX_SIZE = 10_000;
+
+    private static final long USER_IMAGES_EXPIRY_MINUTES = 10;
+
     private final UserRepository userRepository;
 
     private final ModelMapper modelMapper;
@@ -54,6 +63,18 @@ public class UserServiceImpl implements UserService {
 
     private final AvatarRepository avatarRepository;
 
+    private final UserDetailsServiceImpl userDetailsService;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final BlobStorageService blobStorageService;
+
+    // the custom avatar of each username, without its bytes, which are cached by the blob store
+    private final Cache<String, Optional<ImageDTO>> userImages = CacheBuilder.newBuilder()
+            .maximumSize(USER_IMAGES_MAX_SIZE)
+            .expireAfterWrite(USER_IMAGES_EXPIRY_MINUTES, TimeUnit.MINUTES)
+            .build();
+
     @Value("${aims.app.bcrypt.salt}")
     private String bcryptSalt;
 
@@ -67,15 +88,24 @@ public class UserServiceImpl implements UserService {
      * @param modelMapper      for mapping entity-dto relationships
      * @param sendEmailService service used for sending emails
      * @param avatarRepository for accessing CRUD repository methods for Avatar Entity
+     * @param userDetailsService for reloading the principal of a user whose role or status changed
+     * @param passwordEncoder  for checking and encoding the passwords
+     * @param blobStorageService where the custom avatars are stored
      */
     public UserServiceImpl(UserRepository userRepository,
                            ModelMapper modelMapper,
                            SendEmailService sendEmailService,
-                           AvatarRepository avatarRepository) {
+                           AvatarRepository avatarRepository,
+                           UserDetailsServiceImpl userDetailsService,
+                           PasswordEncoder passwordEncoder,
+                           BlobStorageService blobStorageService) {
         this.userRepository = userRepository;
         this.modelMapper = modelMapper;
         this.sendEmailService = sendEmailService;
         this.avatarRepository = avatarRepository;
+        this.userDetailsService = userDetailsService;
+        this.passwordEncoder = passwordEncoder;
+        this.blobStorageService = blobStorageService;
     }
 
     @Override
@@ -163,7 +193,7 @@ public class UserServiceImpl implements UserService {
             }
         }
         if (userUpdateDTO.getUpdatedImage()) {
-            user.setImage(userUpdateDTO.getImage());
+            user.setImage(storedImage(userUpdateDTO.getImage()));
             if (log.isInfoEnabled()) {
                 log.info("Updated user image");
             }
@@ -175,6 +205,12 @@ public class UserServiceImpl implements UserService {
             }
         }
         userRepository.save(user);
+        userImages.invalidate(username);
+        userImages.invalidate(user.getUsername());
+        if (!username.equals(user.getUsername())) {
+            // the access tokens issued for the old username are no longer trusted and no user is found under that name
+            userDetailsService.invalidateUser(username);
+        }
 
         if (log.isInfoEnabled()) {
             log.info("User with username '{}' successfully updated", username);
@@ -199,6 +235,7 @@ public class UserServiceImpl implements UserService {
             user.setRole(Role.ADMIN);
         }
         userRepository.save(user);
+        userDetailsService.invalidateUser(username);
 
         if (log.isInfoEnabled()) {
             log.info("Updated role for user with username: {}", username);
@@ -227,9 +264,9 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserPageDTO getAllUsersForAdmin(Pageable pageable) {
         UserPageDTO userPageDTO = new UserPageDTO();
-        int totalUsers = userRepository.findAll().size();
-        userPageDTO.setTotal(totalUsers);
-        List<UserAdminDashboardResponseDTO> result = userRepository.findAll(pageable)
+        Page<User> users = userRepository.findAll(pageable);
+        userPageDTO.setTotal((int) users.getTotalElements());
+        List<UserAdminDashboardResponseDTO> result = users
                 .stream()
                 .map(user -> modelMapper.map(user, UserAdminDashboardResponseDTO.class))
                 .toList();
@@ -260,9 +297,9 @@ public class UserServiceImpl implements UserService {
             String username
     ) {
         UserPageDTO userPageDTO = new UserPageDTO();
-        userPageDTO.setTotal(userRepository.findByUsernameStartsWithOrderByIsActiveAscIdAsc(username, Pageable.unpaged()).getContent().size());
-        List<UserAdminDashboardResponseDTO> result = userRepository
-                .findByUsernameStartsWithOrderByIsActiveAscIdAsc(username, pageable)
+        Page<User> users = userRepository.findByUsernameStartsWithOrderByIsActiveAscIdAsc(username, pageable);
+        userPageDTO.setTotal((int) users.getTotalElements());
+        List<UserAdminDashboardResponseDTO> result = users
                 .stream()
                 .map(user -> modelMapper.map(user, UserAdminDashboardResponseDTO.class))
                 .toList();
@@ -297,21 +334,19 @@ public class UserServiceImpl implements UserService {
             }
             return new UserNotFoundException("User not found!");
         });
-        if (!user.getIsFirstLogin() && !BCrypt.checkpw(changePasswordDTO.getOldPassword(), user.getPassword())) {
+        if (!user.getIsFirstLogin() && !passwordEncoder.matches(changePasswordDTO.getOldPassword(), user.getPassword())) {
             if (log.isErrorEnabled()) {
                 log.error("Incorrect old password for user with username: {}", username);
             }
             throw new IncorrectPasswordException("The old password is incorrect!");
         }
-        if (user.getIsFirstLogin() && BCrypt.checkpw(changePasswordDTO.getNewPassword(), user.getPassword())) {
+        if (user.getIsFirstLogin() && passwordEncoder.matches(changePasswordDTO.getNewPassword(), user.getPassword())) {
             if (log.isErrorEnabled()) {
                 log.error("This password has already been used! {}", username);
             }
             throw new IncorrectPasswordException("This password has already been used!");
         }
-        String salt = BCrypt.gensalt();
-        String hashFrontendNewPassword = BCrypt.hashpw(changePasswordDTO.getNewPassword(), salt);
-        user.setPassword(hashFrontendNewPassword);
+        user.setPassword(passwordEncoder.encode(changePasswordDTO.getNewPassword()));
         user.setIsFirstLogin(false);
         userRepository.save(user);
 
@@ -466,6 +501,8 @@ public class UserServiceImpl implements UserService {
             return false;
         }
         userRepository.delete(user);
+        userDetailsService.invalidateUser(username);
+        userImages.invalidate(username);
 
         if (log.isInfoEnabled()) {
             log.info("User with username: {} has been deleted successfully", username);
@@ -484,6 +521,7 @@ public class UserServiceImpl implements UserService {
         });
         if (user.getIsActive()) {
             if (sendEmailService.sendDeactivateEmailToUser(username)) {
+                userDetailsService.invalidateUser(username);
                 if (log.isInfoEnabled()) {
                     log.info("Deactivation email successfully sent to user with username: {}", username);
                 }
@@ -510,6 +548,7 @@ public class UserServiceImpl implements UserService {
         });
         if (!user.getIsActive()) {
             if (sendEmailService.sendActivateEmailToUser(username)) {
+                userDetailsService.invalidateUser(username);
                 if (log.isInfoEnabled()) {
                     log.info("Activation email successfully sent to user with username: {}", username);
                 }
@@ -565,11 +604,38 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public ImageDTO getAvatarByUsername(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UserNotFoundException("User not found!"));
-        if (user.getImage() == null) {
-            throw new AvatarNotFoundException("Avatar not found!");
+        Optional<ImageDTO> image = userImages.getIfPresent(username);
+        if (image == null) {
+            List<ImageDTO> images = userRepository.findImageByUsername(username);
+            if (images.isEmpty()) {
+                throw new UserNotFoundException("User not found!");
+            }
+            image = Optional.ofNullable(images.get(0));
+            userImages.put(username, image);
+        }
+        return withContent(image.orElseThrow(() -> new AvatarNotFoundException("Avatar not found!")));
+    }
+
+    private ImageDTO storedImage(ImageDTO image) {
+        if (image != null && image.getImage() != null) {
+            image.setContentHash(blobStorageService.store(image.getImage()));
+            image.setSize((long) image.getImage().length);
+            image.setImage(null);
         }
-        return user.getImage();
+        return image;
+    }
+
+    private ImageDTO withContent(ImageDTO image) {
+        if (image.getImage() != null || image.getContentHash() == null) {
+            return image;
+        }
+        ImageDTO content = new ImageDTO();
+        content.setId(image.getId());
+        content.setFileName(image.getFileName());
+        content.setFileType(image.getFileType());
+        content.setSize(image.getSize());
+        content.setContentHash(image.getContentHash());
+        content.setImage(blobStorageService.read(image.getContentHash()));
+        return content;
     }
 }
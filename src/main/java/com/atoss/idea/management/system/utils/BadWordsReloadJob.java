@@ -0,0 +1,76 @@
+package com.atoss.idea.management.system.utils;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+/**
+ * Keeps the bad words filter in sync with a word list kept outside the application.
+ * <p>
+ * When a file is configured, it replaces the list packaged with the application and is read again
+ * whenever its modification time changes, so the list can be edited without a restart. Without a
+ * configured file the packaged list stays in use and the job does nothing.
+ */
+@Log4j2
+@Component
+public class BadWordsReloadJob {
+
+    private final ProfanityFilter profanityFilter;
+
+    private final Path wordsFile;
+
+    private FileTime lastModified;
+
+    /**
+     * Constructor
+     *
+     * @param profanityFilter the filter receiving the new word list
+     * @param wordsFile       the file with one bad word or expression per line, empty for the packaged list
+     */
+    public BadWordsReloadJob(ProfanityFilter profanityFilter, @Value("${aims.app.badWords.file:}") String wordsFile) {
+        this.profanityFilter = profanityFilter;
+        this.wordsFile = wordsFile == null || wordsFile.isBlank() ? null : Path.of(wordsFile);
+    }
+
+    /**
+     * Reloads the word list if the file changed since it was last read
+     *
+     * @return true if the filter was reloaded
+     * @throws IOException if the file can not be read
+     */
+    public synchronized boolean reloadIfChanged() throws IOException {
+        if (wordsFile == null || !Files.isRegularFile(wordsFile)) {
+            return false;
+        }
+        FileTime modified = Files.getLastModifiedTime(wordsFile);
+        if (modified.equals(lastModified)) {
+            return false;
+        }
+        List<String> words = Files.readAllLines(wordsFile, StandardCharsets.UTF_8);
+        profanityFilter.reload(words);
+        lastModified = modified;
+        return true;
+    }
+
+    /**
+     * Checks the word list file in the background
+     */
+    @Scheduled(fixedDelayString = "${aims.app.badWords.reloadDelayMs:60000}")
+    public void scheduledReload() {
+        try {
+            reloadIfChanged();
+        } catch (Exception e) {
+            if (log.isErrorEnabled()) {
+                log.error("Error occurred while reloading the bad words from {}: {}", wordsFile, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.atoss.idea.management.system.utils;
+
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
+import com.atoss.idea.management.system.service.BlobStorageService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Builds the responses which stream a stored content, the whole content or the byte range the client asked for.
+ * <p>
+ * Only one range is served: a request for several ranges gets the whole content, as HTTP allows, and an
+ * invalid {@code Range} header is ignored.
+ * <p>
+ * The SHA-256 of a content is its strong ETag, so a client which already has the content gets a 304.
+ * A content addressed by its hash never changes and is cached by the browsers and proxies for a year;
+ * a content addressed by an id is kept privately for an hour.
+ * <p>
+ * The type of a content comes from the client which uploaded it, so only an image is shown in the page with its
+ * type; any other content is downloaded as {@code application/octet-stream}, so an uploaded HTML page is never
+ * rendered on the origin of the application. Every content is also sandboxed and may not load anything.
+ */
+public final class ContentResponses {
+
+    private static final String BYTES = "bytes";
+
+    private static final String ANY = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+
+    private static final String IMAGE = "image";
+
+    private static final String CONTENT_SECURITY_POLICY = "Content-Security-Policy";
+
+    private static final String SANDBOX = "sandbox; default-src 'none'";
+
+    private static final CacheControl BY_ID = CacheControl.maxAge(Duration.ofHours(1)).cachePrivate();
+
+    private static final String BY_HASH = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().getHeaderValue() + ", immutable";
+
+    private ContentResponses() {
+    }
+
+    /**
+     * Streams a content found by the id of its document, image or avatar
+     *
+     * @param blobStorageService where the content is stored
+     * @param file               the metadata of the content
+     * @param attachment         true to download the content as a file, false to show it in the page if it is an image
+     * @param requestHeaders     the headers of the request, for {@code Range} and {@code If-None-Match}
+     * @return 200 with the content, 206 with the range, 304 if the client has the content
+     *         or 416 if the range is outside the content
+     */
+    public static ResponseEntity<StreamingResponseBody> byId(BlobStorageService blobStorageService,
+                                                             FileMetadataDTO file,
+                                                             boolean attachment,
+                                                             HttpHeaders requestHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(BY_ID);
+        return ContentResponses.<RuntimeException>of(blobStorageService, file.getContentHash(), () -> file, attachment,
+                headers, requestHeaders);
+    }
+
+    /**
+     * Streams a content found by its hash, as immutable. A client which sends the hash back gets a 304
+     * without the metadata being read.
+     *
+     * @param blobStorageService where the content is stored
+     * @param contentHash        the SHA-256 of the content
+     * @param file               reads the metadata of the content, only if the content is sent
+     * @param requestHeaders     the headers of the request, for {@code Range} and {@code If-None-Match}
+     * @param <E>                the exception thrown if there is no metadata for the hash
+     * @return 200 with the content, 206 with the range, 304 if the client has the content
+     *         or 416 if the range is outside the content
+     * @throws E if there is no metadata for the hash
+     */
+    public static <E extends Exception> ResponseEntity<StreamingResponseBody> byHash(BlobStorageService blobStorageService,
+                                                                                     String contentHash,
+                                                                                     MetadataLoader<E> file,
+                                                                                     HttpHeaders requestHeaders) throws E {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(BY_HASH);
+        return of(blobStorageService, contentHash, file, false, headers, requestHeaders);
+    }
+
+    /**
+     * Gets the strong ETag of a content
+     *
+     * @param contentHash the SHA-256 of the content
+     * @return the quoted hash
+     */
+    public static String eTag(String contentHash) {
+        return "\"" + contentHash + "\"";
+    }
+
+    /**
+     * Checks if the client already has a content, by the ETags of {@code If-None-Match}
+     *
+     * @param contentHash    the SHA-256 of the content
+     * @param requestHeaders the headers of the request
+     * @return true if the content should not be sent again
+     */
+    public static boolean isNotModified(String contentHash, HttpHeaders requestHeaders) {
+        if (contentHash == null) {
+            return false;
+        }
+        String eTag = eTag(contentHash);
+        for (String ifNoneMatch : requestHeaders.getIfNoneMatch()) {
+            String candidate = ifNoneMatch.startsWith(WEAK_PREFIX) ? ifNoneMatch.substring(WEAK_PREFIX.length()) : ifNoneMatch;
+            if (ANY.equals(candidate) || eTag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <E extends Exception> ResponseEntity<StreamingResponseBody> of(BlobStorageService blobStorageService,
+                                                                                  String contentHash,
+                                                                                  MetadataLoader<E> metadata,
+                                                                                  boolean attachment,
+                                                                                  HttpHeaders headers,
+                                                                                  HttpHeaders requestHeaders) throws E {
+        if (contentHash != null) {
+            headers.setETag(eTag(contentHash));
+        }
+        if (isNotModified(contentHash, requestHeaders)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        FileMetadataDTO file = metadata.load();
+        long size = file.getSize() != null ? file.getSize() : blobStorageService.size(contentHash);
+        headers.set(HttpHeaders.ACCEPT_RANGES, BYTES);
+        headers.set(CONTENT_SECURITY_POLICY, SANDBOX);
+        MediaType contentType = contentType(file);
+        boolean isImage = IMAGE.equals(contentType.getType());
+        headers.setContentType(isImage ? contentType : MediaType.APPLICATION_OCTET_STREAM);
+        if (attachment || !isImage) {
+            ContentDisposition.Builder disposition = ContentDisposition.attachment();
+            if (file.getFileName() != null) {
+                disposition.filename(file.getFileName());
+            }
+            headers.setContentDisposition(disposition.build());
+        }
+
+        HttpRange byteRange = parse(requestHeaders.getFirst(HttpHeaders.RANGE));
+        if (byteRange == null) {
+            headers.setContentLength(size);
+            return new ResponseEntity<>(body(blobStorageService, contentHash, 0, size), headers, HttpStatus.OK);
+        }
+
+        long start = byteRange.getRangeStart(size);
+        if (start >= size) {
+            headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " */" + size);
+            return new ResponseEntity<>(headers, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        }
+        long end = byteRange.getRangeEnd(size);
+        headers.set(HttpHeaders.CONTENT_RANGE, BYTES + " " + start + "-" + end + "/" + size);
+        headers.setContentLength(end - start + 1);
+        return new ResponseEntity<>(body(blobStorageService, contentHash, start, end - start + 1),
+                headers, HttpStatus.PARTIAL_CONTENT);
+    }
+
+    private static StreamingResponseBody body(BlobStorageService blobStorageService, String contentHash, long position, long count) {
+        return outputStream -> blobStorageService.transferTo(contentHash, position, count, outputStream);
+    }
+
+    private static HttpRange parse(String range) {
+        if (range == null) {
+            return null;
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static MediaType contentType(FileMetadataDTO file) {
+        if (file.getFileType() != null) {
+            try {
+                return MediaType.parseMediaType(file.getFileType());
+            } catch (IllegalArgumentException e) {
+                return MediaType.APPLICATION_OCTET_STREAM;
+            }
+        }
+        return MediaTypeFactory.getMediaType(file.getFileName()).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    /**
+     * Reads the metadata of a content, which may not exist
+     *
+     * @param <E> the exception thrown if the metadata does not exist
+     */
+    @FunctionalInterface
+    public interface MetadataLoader<E extends Exception> {
+
+        /**
+         * Reads the metadata
+         *
+         * @return the metadata of the content
+         * @throws E if the metadata does not exist
+         */
+        FileMetadataDTO load() throws E;
+    }
+}
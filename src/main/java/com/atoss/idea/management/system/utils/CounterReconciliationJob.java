@@ -0,0 +1,65 @@
+package com.atoss.idea.management.system.utils;
+
+import com.atoss.idea.management.system.repository.CommentRepository;
+import com.atoss.idea.management.system.repository.IdeaRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Recomputes the comments, replies, likes and reports counters and the rating totals
+ * stored on the ideas and comments.
+ * <p>
+ * The counters are updated on every write, so this job only corrects the rows which drifted:
+ * rows inserted without going through the services (such as the initial data), or a write
+ * which raced with the previous reconciliation. It runs regularly in the background and can
+ * also be started by an admin.
+ */
+@Log4j2
+@Component
+public class CounterReconciliationJob {
+
+    private final IdeaRepository ideaRepository;
+
+    private final CommentRepository commentRepository;
+
+    /**
+     * Constructor
+     *
+     * @param ideaRepository    for recomputing the comments number and the rating totals of the ideas
+     * @param commentRepository for recomputing the replies, likes and reports numbers of the comments
+     */
+    public CounterReconciliationJob(IdeaRepository ideaRepository, CommentRepository commentRepository) {
+        this.ideaRepository = ideaRepository;
+        this.commentRepository = commentRepository;
+    }
+
+    /**
+     * Recomputes every counter and stores the ones which drifted
+     *
+     * @return the number of corrected ideas and comments
+     */
+    public int reconcile() {
+        int ideas = ideaRepository.reconcileCommentsCount() + ideaRepository.reconcileRatingTotals();
+        int comments = commentRepository.reconcileCounters();
+        if (log.isInfoEnabled()) {
+            log.info("Reconciled the counters of {} ideas and {} comments", ideas, comments);
+        }
+        return ideas + comments;
+    }
+
+    /**
+     * Runs the reconciliation in the background
+     */
+    @Scheduled(initialDelayString = "${aims.app.counters.reconcileInitialDelayMs:60000}",
+            fixedDelayString = "${aims.app.counters.reconcileDelayMs:86400000}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            if (log.isErrorEnabled()) {
+                log.error("Error occurred while reconciling the counters: {}", e.getMessage());
+            }
+        }
+    }
+}
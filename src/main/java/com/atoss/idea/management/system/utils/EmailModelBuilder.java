@@ -0,0 +1,87 @@
+package com.atoss.idea.management.system.utils;
+
+import com.atoss.idea.management.system.repository.entity.User;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the values an email template is rendered with. The values common to all emails are set
+ * by the constructor, and {@link #build()} returns a copy, so the same builder can be reused
+ * for every recipient of an email.
+ */
+public class EmailModelBuilder {
+
+    public static final String USERNAME = "username";
+
+    public static final String EMAIL = "email";
+
+    private static final String IMAGE_URL = "./welcome.jpg";
+
+    private final Map<String, Object> values = new HashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param companyName the name of the company shown in the emails
+     */
+    public EmailModelBuilder(String companyName) {
+        values.put("companyName", companyName);
+        values.put("imageUrl", IMAGE_URL);
+    }
+
+    /**
+     * Returns the values of an email which belong to its recipient
+     *
+     * @param user the recipient
+     * @return the username and email of the recipient
+     */
+    public static Map<String, Object> recipient(User user) {
+        Map<String, Object> recipient = new HashMap<>();
+        recipient.put(USERNAME, user.getUsername());
+        recipient.put(EMAIL, user.getEmail());
+        return recipient;
+    }
+
+    /**
+     * Sets the username and email of the recipient
+     *
+     * @param user the recipient
+     * @return this builder
+     */
+    public EmailModelBuilder withRecipient(User user) {
+        values.putAll(recipient(user));
+        return this;
+    }
+
+    /**
+     * Sets the current date
+     *
+     * @return this builder
+     */
+    public EmailModelBuilder withDate() {
+        return with("date", new Date().toString());
+    }
+
+    /**
+     * Sets a value
+     *
+     * @param key   the name of the value in the template
+     * @param value the value
+     * @return this builder
+     */
+    public EmailModelBuilder with(String key, Object value) {
+        values.put(key, value);
+        return this;
+    }
+
+    /**
+     * Returns a copy of the values set so far
+     *
+     * @return the model of the template
+     */
+    public Map<String, Object> build() {
+        return new HashMap<>(values);
+    }
+}
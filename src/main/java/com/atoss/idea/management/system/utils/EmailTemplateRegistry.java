@@ -0,0 +1,102 @@
+package com.atoss.idea.management.system.utils;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the parsed email templates, so a template is read and parsed once instead of being looked up
+ * in the FreeMarker configuration (and checked for changes) for every email.
+ */
+public class EmailTemplateRegistry {
+
+    public static final String TEMPLATES_LOCATION = "classpath:/templates/*.ftl";
+
+    // the email templates render to a few kilobytes
+    private static final int RENDERED_CAPACITY = 4096;
+
+    private final Configuration configuration;
+
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param configuration the FreeMarker configuration the templates are loaded with
+     */
+    public EmailTemplateRegistry(Configuration configuration) {
+        this.configuration = configuration;
+    }
+
+    /**
+     * Loads and parses every template of the templates folder
+     *
+     * @return the number of loaded templates
+     * @throws IOException if a template can not be read or parsed
+     */
+    public int loadAll() throws IOException {
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(TEMPLATES_LOCATION);
+        for (Resource resource : resources) {
+            String name = resource.getFilename();
+            templates.put(name, configuration.getTemplate(name));
+        }
+        return templates.size();
+    }
+
+    /**
+     * Returns a parsed template, loading it if it was not loaded yet
+     *
+     * @param name the file name of the template
+     * @return the template
+     * @throws IOException if the template can not be read or parsed
+     */
+    public Template getTemplate(String name) throws IOException {
+        Template template = templates.get(name);
+        if (template == null) {
+            template = configuration.getTemplate(name);
+            templates.put(name, template);
+        }
+        return template;
+    }
+
+    /**
+     * Renders a template
+     *
+     * @param name  the file name of the template
+     * @param model the values the template is rendered with
+     * @return the rendered email
+     * @throws IOException       if the template can not be read
+     * @throws TemplateException if the template can not be rendered
+     */
+    public String render(String name, Map<String, ?> model) throws IOException, TemplateException {
+        StringWriter writer = new StringWriter(RENDERED_CAPACITY);
+        getTemplate(name).process(model, writer);
+        return writer.toString();
+    }
+
+    /**
+     * Renders a template once for many recipients, with placeholders for the values of each recipient
+     *
+     * @param name          the file name of the template
+     * @param sharedModel   the values which are the same for every recipient
+     * @param recipientKeys the names of the values which differ between the recipients
+     * @return the rendered email with placeholders for the recipient values
+     * @throws IOException       if the template can not be read
+     * @throws TemplateException if the template can not be rendered
+     */
+    public String renderForRecipients(String name, Map<String, ?> sharedModel, String... recipientKeys) throws IOException, TemplateException {
+        Map<String, Object> model = new HashMap<>(sharedModel);
+        for (String key : recipientKeys) {
+            model.put(key, RecipientTemplate.placeholder(key));
+        }
+        return render(name, model);
+    }
+}
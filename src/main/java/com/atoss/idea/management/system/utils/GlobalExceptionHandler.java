@@ -249,6 +249,35 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(badCredentialsException.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * too many logins are waiting to be authenticated
+     *
+     * @see LoginUnavailableException
+     * @param loginUnavailableException - the login was rejected or timed out
+     * @return ResponseEntity - error SERVICE UNAVAILABLE
+     */
+    @ExceptionHandler(value = LoginUnavailableException.class)
+    public ResponseEntity<String> loginUnavailableException(
+            LoginUnavailableException loginUnavailableException) {
+        return new ResponseEntity<>(loginUnavailableException.getMessage(), HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * the content of a file could not be stored or read
+     *
+     * @see BlobStorageException
+     * @param blobStorageException - the storage failed or the content is missing
+     * @return ResponseEntity - error INTERNAL SERVER ERROR
+     */
+    @ExceptionHandler(value = BlobStorageException.class)
+    public ResponseEntity<String> blobStorageException(
+            BlobStorageException blobStorageException) {
+        if (log.isErrorEnabled()) {
+            log.error("File content error: {}", blobStorageException.getMessage());
+        }
+        return new ResponseEntity<>(blobStorageException.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
     //    /**
     //     * user is already activated
     //     *
@@ -2,6 +2,7 @@ package com.atoss.idea.management.system.utils;
 
 import com.atoss.idea.management.system.repository.*;
 import com.atoss.idea.management.system.repository.entity.*;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.implementation.IdeaServiceImpl;
 import jakarta.transaction.Transactional;
 import lombok.extern.log4j.Log4j2;
@@ -13,6 +14,7 @@ import org.springframework.stereotype.Component;
 import java.io.File;
 import java.security.SecureRandom;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URL;
 import java.net.URLDecoder;
@@ -41,6 +43,8 @@ public class InitialDataLoader implements CommandLineRunner {
     private final CommentRepository commentRepository;
     private final RatingRepository ratingRepository;
     private final IdeaServiceImpl ideaService;
+    private final BlobStorageService blobStorageService;
+    private final CounterReconciliationJob counterReconciliationJob;
 
 
     @Value("${spring.jpa.hibernate.ddl-auto}")
@@ -60,6 +64,8 @@ public class InitialDataLoader implements CommandLineRunner {
      * @param ideaRepository     for saving a new entity of Idea
      * @param ratingRepository   for saving the rating for entity of Idea
      * @param ideaService        for saving a new entity of Idea
+     * @param blobStorageService for storing the images of the avatars and ideas
+     * @param counterReconciliationJob for computing the counters of the saved ideas and comments
      */
 
     public InitialDataLoader(AvatarRepository avatarRepository,
@@ -69,7 +75,9 @@ public class InitialDataLoader implements CommandLineRunner {
                              CommentRepository commentRepository,
                              IdeaRepository ideaRepository,
                              RatingRepository ratingRepository,
-                             IdeaServiceImpl ideaService) {
+                             IdeaServiceImpl ideaService,
+                             BlobStorageService blobStorageService,
+                             CounterReconciliationJob counterReconciliationJob) {
         this.avatarRepository = avatarRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
@@ -78,6 +86,8 @@ public class InitialDataLoader implements CommandLineRunner {
         this.ideaRepository = ideaRepository;
         this.ratingRepository = ratingRepository;
         this.ideaService = ideaService;
+        this.blobStorageService = blobStorageService;
+        this.counterReconciliationJob = counterReconciliationJob;
     }
 
 
@@ -213,7 +223,7 @@ public class InitialDataLoader implements CommandLineRunner {
                 if (resourceUrl != null) {
                     try {
                         String filePath = URLDecoder.decode(resourceUrl.getFile(), "UTF-8");
-                        Image image = imageRepository.save(createImage(filePath, fileName, filePath));
+                        Image image = imageRepository.save(createImage(fileName, Files.probeContentType(new File(filePath).toPath()), filePath));
                         imageList.add(image);
                     } catch (UnsupportedEncodingException e) {
                         e.printStackTrace();
@@ -664,6 +674,8 @@ public class InitialDataLoader implements CommandLineRunner {
                     idea.setRatingAvg(ideaService.getAverage(idea.getId()));
                 }
             }
+            // the counters are only written by the atomic updates, not by saving the ideas and comments above
+            counterReconciliationJob.reconcile();
         }
     }
 
@@ -849,13 +861,16 @@ public class InitialDataLoader implements CommandLineRunner {
      * @throws IOException - can't read input file
      */
 
-    private static Avatar createAvatar(String filePath, String fileName
+    private Avatar createAvatar(String filePath, String fileName
     ) throws IOException {
         Avatar avatar = new Avatar();
         File file = new File(filePath);
-        byte[] imageByte = Files.readAllBytes(file.toPath());
-        avatar.setData(imageByte);
+        try (InputStream content = Files.newInputStream(file.toPath())) {
+            avatar.setContentHash(blobStorageService.store(content));
+        }
+        avatar.setSize(file.length());
         avatar.setFileName(fileName);
+        avatar.setFileType(Files.probeContentType(file.toPath()));
 
         return avatar;
     }
@@ -870,13 +885,15 @@ public class InitialDataLoader implements CommandLineRunner {
      * @return image
      * @throws IOException - can't read input file
      */
-    private static Image createImage(String fileName,
-                                     String fileType, String filePath
+    private Image createImage(String fileName,
+                              String fileType, String filePath
     ) throws IOException {
         Image image = new Image();
         File file = new File(filePath);
-        byte[] imageByte = Files.readAllBytes(file.toPath());
-        image.setImage(imageByte);
+        try (InputStream content = Files.newInputStream(file.toPath())) {
+            image.setContentHash(blobStorageService.store(content));
+        }
+        image.setSize(file.length());
         image.setFileName(fileName);
         image.setFileType(fileType);
         return image;
@@ -962,6 +979,8 @@ public class InitialDataLoader implements CommandLineRunner {
         newRating.setIdea(idea);
         newRating.setUser(user);
         newRating.setRating(rating);
+        idea.setRatingSum(idea.getRatingSum() + rating);
+        idea.setRatingCount(idea.getRatingCount() + 1);
         return newRating;
 
     }
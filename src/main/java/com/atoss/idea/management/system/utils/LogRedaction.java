@@ -0,0 +1,45 @@
+package com.atoss.idea.management.system.utils;
+
+import com.google.common.hash.Hashing;
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Formats the security-sensitive values (tokens, session ids, claims) for the logs, so a log file
+ * never contains a credential. A secret is replaced by a short fingerprint, which is enough for
+ * correlating the lines of the same token without being usable for authenticating.
+ */
+public final class LogRedaction {
+
+    private static final int FINGERPRINT_LENGTH = 8;
+
+    private LogRedaction() {
+    }
+
+    /**
+     * Replaces a secret by its fingerprint
+     *
+     * @param secret a token or a session id
+     * @return the first characters of the SHA-256 of the secret
+     */
+    public static String secret(String secret) {
+        if (secret == null) {
+            return "null";
+        }
+        return "#" + Hashing.sha256().hashString(secret, StandardCharsets.UTF_8).toString().substring(0, FINGERPRINT_LENGTH);
+    }
+
+    /**
+     * Formats the claims of a token without the personal data of the user
+     *
+     * @param claims the claims of a token
+     * @return the subject, the issue date and the expiration date of the token
+     */
+    public static String claims(Claims claims) {
+        if (claims == null) {
+            return "null";
+        }
+        return "{sub=" + claims.getSubject() + ", iat=" + claims.getIssuedAt() + ", exp=" + claims.getExpiration() + "}";
+    }
+}
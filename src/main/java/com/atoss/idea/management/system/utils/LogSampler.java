@@ -0,0 +1,35 @@
+package com.atoss.idea.management.system.utils;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Samples the diagnostics logged for every request, so enabling DEBUG on a loaded server logs about
+ * one request in {@code aims.app.logging.sampleRate} instead of all of them. Sampling draws a
+ * thread-local random number, so the request threads do not share a counter.
+ */
+@Component
+public class LogSampler {
+
+    private final int sampleRate;
+
+    /**
+     * Constructor
+     *
+     * @param sampleRate one request in how many is logged; 1 logs every request
+     */
+    public LogSampler(@Value("${aims.app.logging.sampleRate:100}") int sampleRate) {
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    /**
+     * Decides if the current request is logged
+     *
+     * @return true for about one call in the sample rate
+     */
+    public boolean sample() {
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+}
@@ -1,5 +1,10 @@
 package com.atoss.idea.management.system.utils;
 
+import com.atoss.idea.management.system.repository.dto.AvatarDTO;
+import com.atoss.idea.management.system.repository.dto.ImageDTO;
+import com.atoss.idea.management.system.repository.entity.Avatar;
+import com.atoss.idea.management.system.repository.entity.Image;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Component;
@@ -9,11 +14,28 @@ public class MapperConfig {
 
     /**
      * used for the conversion of entities object to DTO
+     * <p>
+     * The images and avatars are still sent inline, so their small contents are read from the storage
+     * when they are mapped; the documents are only downloaded through their own endpoint.
      *
+     * @param blobStorageService storage of the contents of the images and avatars
      * @return ModelMapper
      */
     @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
+    public ModelMapper modelMapper(BlobStorageService blobStorageService) {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.typeMap(Image.class, ImageDTO.class).setPostConverter(context -> {
+            if (context.getSource().getContentHash() != null) {
+                context.getDestination().setImage(blobStorageService.read(context.getSource().getContentHash()));
+            }
+            return context.getDestination();
+        });
+        modelMapper.typeMap(Avatar.class, AvatarDTO.class).setPostConverter(context -> {
+            if (context.getSource().getContentHash() != null) {
+                context.getDestination().setData(blobStorageService.read(context.getSource().getContentHash()));
+            }
+            return context.getDestination();
+        });
+        return modelMapper;
     }
 }
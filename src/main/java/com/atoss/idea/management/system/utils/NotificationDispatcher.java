@@ -0,0 +1,180 @@
+package com.atoss.idea.management.system.utils;
+
+import com.atoss.idea.management.system.repository.NotificationRepository;
+import com.atoss.idea.management.system.repository.entity.Notification;
+import com.atoss.idea.management.system.repository.entity.NotificationStatus;
+import com.atoss.idea.management.system.service.implementation.SendEmailServiceImpl;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends the emails waiting in the notification outbox.
+ * <p>
+ * The services only save one notification per recipient, so a request does not wait for the mail server,
+ * however many users are subscribed to an idea. This dispatcher polls the due notifications, claims them
+ * so they are sent only once, and hands them to a fixed number of workers. A failed email is retried later,
+ * with a growing delay, and given up after a maximum number of attempts. A notification claimed by a worker
+ * which never finished (for example because the application stopped) is due again when its claim expires.
+ */
+@Log4j2
+@Component
+public class NotificationDispatcher {
+
+    private static final List<NotificationStatus> DUE_STATUSES = List.of(NotificationStatus.PENDING, NotificationStatus.SENDING);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final NotificationRepository notificationRepository;
+
+    private final SendEmailServiceImpl sendEmailService;
+
+    @Value("${aims.app.notifications.workers:4}")
+    private int workers;
+
+    @Value("${aims.app.notifications.queueCapacity:100}")
+    private int queueCapacity;
+
+    @Value("${aims.app.notifications.maxAttempts:5}")
+    private int maxAttempts;
+
+    @Value("${aims.app.notifications.retryDelayMs:60000}")
+    private long retryDelayMs;
+
+    @Value("${aims.app.notifications.claimTimeoutMs:300000}")
+    private long claimTimeoutMs;
+
+    @Value("${aims.app.notifications.keepSentDays:7}")
+    private int keepSentDays;
+
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Constructor
+     *
+     * @param notificationRepository for reading the due notifications and storing the attempts
+     * @param sendEmailService       for rendering and sending the emails
+     */
+    public NotificationDispatcher(NotificationRepository notificationRepository, SendEmailServiceImpl sendEmailService) {
+        this.notificationRepository = notificationRepository;
+        this.sendEmailService = sendEmailService;
+    }
+
+    /**
+     * Starts the workers; the queue is bounded, so at most queueCapacity notifications wait in memory
+     */
+    @PostConstruct
+    public void startWorkers() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "notification-worker-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Lets the workers finish the emails they have already started
+     *
+     * @throws InterruptedException if interrupted while waiting for the workers
+     */
+    @PreDestroy
+    public void stopWorkers() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Claims as many due notifications as the workers' queue can take and submits them
+     */
+    @Scheduled(fixedDelayString = "${aims.app.notifications.pollDelayMs:2000}")
+    public void dispatch() {
+        int capacity = executor.getQueue().remainingCapacity();
+        if (capacity == 0) {
+            return;
+        }
+        Date now = new Date();
+        Date claimUntil = new Date(now.getTime() + claimTimeoutMs);
+        List<Notification> dueNotifications = notificationRepository.findByStatusInAndNextAttemptAtLessThanEqualOrderByIdAsc(
+                DUE_STATUSES, now, PageRequest.of(0, capacity));
+        for (Notification notification : dueNotifications) {
+            if (notificationRepository.claim(notification.getId(), DUE_STATUSES, NotificationStatus.SENDING, now, claimUntil) == 0) {
+                continue;
+            }
+            try {
+                executor.execute(() -> send(notification));
+            } catch (RejectedExecutionException e) {
+                // the claim expires and the notification is picked up by a later poll
+                if (log.isWarnEnabled()) {
+                    log.warn("The notification workers are busy, notification {} is sent later", notification.getId());
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Sends one notification and stores the outcome of the attempt
+     *
+     * @param notification the claimed notification
+     */
+    public void send(Notification notification) {
+        try {
+            sendEmailService.sendNotification(notification);
+            Date now = new Date();
+            notificationRepository.saveAttempt(notification.getId(), NotificationStatus.SENT, now, now, null);
+            if (log.isDebugEnabled()) {
+                log.debug("Notification {} sent", notification.getId());
+            }
+        } catch (Exception e) {
+            int attempts = notification.getAttempts() + 1;
+            String error = e.getMessage() == null ? e.getClass().getName() : e.getMessage();
+            if (error.length() > MAX_ERROR_LENGTH) {
+                error = error.substring(0, MAX_ERROR_LENGTH);
+            }
+            if (attempts >= maxAttempts) {
+                notificationRepository.saveAttempt(notification.getId(), NotificationStatus.FAILED, new Date(), null, error);
+                if (log.isErrorEnabled()) {
+                    log.error("Giving up notification {} after {} attempts: {}", notification.getId(), attempts, error);
+                }
+            } else {
+                long delay = retryDelayMs << Math.min(attempts - 1, MAX_BACKOFF_SHIFT);
+                Date nextAttemptAt = new Date(System.currentTimeMillis() + delay);
+                notificationRepository.saveAttempt(notification.getId(), NotificationStatus.PENDING, nextAttemptAt, null, error);
+                if (log.isWarnEnabled()) {
+                    log.warn("Notification {} failed, retrying at {}: {}", notification.getId(), nextAttemptAt, error);
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the notifications which were sent more than keepSentDays ago; the failed ones are kept
+     */
+    @Scheduled(cron = "${aims.app.notifications.cleanupCron:0 0 3 * * *}")
+    public void deleteSentNotifications() {
+        Date before = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(keepSentDays));
+        int deleted = notificationRepository.deleteByStatusCreatedBefore(NotificationStatus.SENT, before);
+        if (log.isInfoEnabled()) {
+            log.info("Deleted {} sent notifications", deleted);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.atoss.idea.management.system.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Stores the template values of a notification as a JSON text column
+ */
+@Converter
+public class NotificationModelConverter implements AttributeConverter<Map<String, Object>, String> {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final TypeReference<HashMap<String, Object>> MODEL_TYPE = new TypeReference<>() { };
+
+    @Override
+    public String convertToDatabaseColumn(Map<String, Object> model) {
+        if (model == null) {
+            return null;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(model);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The notification model can not be stored", e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> convertToEntityAttribute(String json) {
+        if (json == null) {
+            return new HashMap<>();
+        }
+        try {
+            return OBJECT_MAPPER.readValue(json, MODEL_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("The notification model can not be read", e);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.atoss.idea.management.system.utils;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Masks bad words in ideas and comments.
+ * <p>
+ * The word list is compiled once into an Aho-Corasick automaton, so a text is filtered in a single
+ * pass no matter how many words the list has. Matching is case-insensitive and only whole words
+ * are masked, with the same word boundaries as the regex {@code \b} the filter used to rely on.
+ * The automaton is immutable and replaced in one step by {@link #reload(Collection)}, so a reload
+ * never affects a text that is being filtered at the same time. The list packaged with the application
+ * is used until {@link BadWordsReloadJob} loads the configured word list file.
+ */
+@Log4j2
+@Component
+public class ProfanityFilter {
+
+    public static final String BAD_WORDS_FILE_PATH = "textTerms/badWords.txt";
+
+    private volatile Automaton automaton;
+
+    /**
+     * Constructor - compiles the bad words list found on the classpath
+     */
+    public ProfanityFilter() {
+        this.automaton = new Automaton(readBadWordsFromClasspath(BAD_WORDS_FILE_PATH));
+    }
+
+    /**
+     * Replaces every bad word found in the text with '*' characters, keeping the length of the text
+     *
+     * @param text the text we want to filter
+     * @return the filtered text, or the same text if it contains no bad words
+     */
+    public String filter(String text) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        return automaton.mask(text);
+    }
+
+    /**
+     * Compiles a new list of bad words and swaps it in atomically
+     *
+     * @param words the new list of bad words
+     */
+    public void reload(Collection<String> words) {
+        Automaton newAutomaton = new Automaton(words);
+        this.automaton = newAutomaton;
+        if (log.isInfoEnabled()) {
+            log.info("Bad words filter reloaded with {} words", newAutomaton.wordsCount);
+        }
+    }
+
+    /**
+     * Reads the bad words list from the classpath, one word or expression per line
+     *
+     * @param path the classpath location of the file
+     * @return the list of words, empty if the file can not be read
+     */
+    private static List<String> readBadWordsFromClasspath(String path) {
+        List<String> words = new ArrayList<>();
+        InputStream inputStream = ProfanityFilter.class.getClassLoader().getResourceAsStream(path);
+        if (inputStream == null) {
+            if (log.isWarnEnabled()) {
+                log.warn("Bad words file not found: {}", path);
+            }
+            return words;
+        }
+        try (BufferedReader bufferedReader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = bufferedReader.readLine()) != null) {
+                words.add(line.trim());
+            }
+        } catch (IOException e) {
+            if (log.isErrorEnabled()) {
+                log.error("Error reading bad words from file ERROR: {}", e.getMessage());
+            }
+        }
+        return words;
+    }
+
+    private static boolean isWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
+    }
+
+    private static final class Node {
+
+        private char[] keys = new char[0];
+
+        private Node[] children = new Node[0];
+
+        private Node fail;
+
+        // lengths of the words ending in this node, including the ones reached through fail links
+        private int[] outputs = new int[0];
+
+        private Node next(char c) {
+            int index = Arrays.binarySearch(keys, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    private static final class Automaton {
+
+        private final Node root = new Node();
+
+        private final int wordsCount;
+
+        private Automaton(Collection<String> words) {
+            Map<Node, TreeMap<Character, Node>> edges = new HashMap<>();
+            edges.put(root, new TreeMap<>());
+            int count = 0;
+            for (String word : words) {
+                if (word == null || word.isBlank()) {
+                    continue;
+                }
+                String lowerWord = toLowerCase(word.trim());
+                Node node = root;
+                for (int i = 0; i < lowerWord.length(); i++) {
+                    TreeMap<Character, Node> nodeEdges = edges.get(node);
+                    Node child = nodeEdges.get(lowerWord.charAt(i));
+                    if (child == null) {
+                        child = new Node();
+                        nodeEdges.put(lowerWord.charAt(i), child);
+                        edges.put(child, new TreeMap<>());
+                    }
+                    node = child;
+                }
+                node.outputs = appendOutput(node.outputs, lowerWord.length());
+                count++;
+            }
+            this.wordsCount = count;
+
+            for (Map.Entry<Node, TreeMap<Character, Node>> entry : edges.entrySet()) {
+                Node node = entry.getKey();
+                node.keys = new char[entry.getValue().size()];
+                node.children = new Node[entry.getValue().size()];
+                int i = 0;
+                for (Map.Entry<Character, Node> edge : entry.getValue().entrySet()) {
+                    node.keys[i] = edge.getKey();
+                    node.children[i] = edge.getValue();
+                    i++;
+                }
+            }
+
+            // breadth first, so the fail node of a child is always complete before the child is visited
+            Deque<Node> queue = new ArrayDeque<>();
+            root.fail = root;
+            for (Node child : root.children) {
+                child.fail = root;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                Node node = queue.poll();
+                for (int i = 0; i < node.keys.length; i++) {
+                    Node child = node.children[i];
+                    Node fail = node.fail;
+                    while (fail != root && fail.next(node.keys[i]) == null) {
+                        fail = fail.fail;
+                    }
+                    Node failTarget = fail.next(node.keys[i]);
+                    child.fail = failTarget != null && failTarget != child ? failTarget : root;
+                    for (int length : child.fail.outputs) {
+                        child.outputs = appendOutput(child.outputs, length);
+                    }
+                    queue.add(child);
+                }
+            }
+        }
+
+        private String mask(String text) {
+            char[] masked = null;
+            Node node = root;
+            for (int i = 0; i < text.length(); i++) {
+                char c = toLowerCase(text.charAt(i));
+                while (node != root && node.next(c) == null) {
+                    node = node.fail;
+                }
+                Node next = node.next(c);
+                node = next != null ? next : root;
+                for (int length : node.outputs) {
+                    int start = i - length + 1;
+                    if (isWholeWord(text, start, i + 1)) {
+                        if (masked == null) {
+                            masked = text.toCharArray();
+                        }
+                        Arrays.fill(masked, start, i + 1, '*');
+                    }
+                }
+            }
+            return masked == null ? text : new String(masked);
+        }
+
+        private static boolean isWholeWord(String text, int start, int end) {
+            boolean startBoundary = (start > 0 && isWordChar(text.charAt(start - 1))) != isWordChar(text.charAt(start));
+            boolean endBoundary = isWordChar(text.charAt(end - 1)) != (end < text.length() && isWordChar(text.charAt(end)));
+            return startBoundary && endBoundary;
+        }
+
+        private static int[] appendOutput(int[] outputs, int length) {
+            for (int output : outputs) {
+                if (output == length) {
+                    return outputs;
+                }
+            }
+            int[] newOutputs = Arrays.copyOf(outputs, outputs.length + 1);
+            newOutputs[outputs.length] = length;
+            return newOutputs;
+        }
+
+        private static char toLowerCase(char c) {
+            return c < 128 ? (char) (c >= 'A' && c <= 'Z' ? c + 32 : c) : Character.toLowerCase(c);
+        }
+
+        private static String toLowerCase(String word) {
+            char[] chars = word.toCharArray();
+            for (int i = 0; i < chars.length; i++) {
+                chars[i] = toLowerCase(chars[i]);
+            }
+            return new String(chars);
+        }
+    }
+}
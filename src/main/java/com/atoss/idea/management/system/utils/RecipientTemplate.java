@@ -0,0 +1,107 @@
+package com.atoss.idea.management.system.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An email rendered once for many recipients. The values which differ between the recipients
+ * (such as the username) are rendered as placeholders, and the text between them is kept as
+ * static fragments, so the email of each recipient is only a concatenation.
+ */
+public final class RecipientTemplate {
+
+    private static final String PLACEHOLDER_PREFIX = "@@recipient.";
+
+    private static final String PLACEHOLDER_SUFFIX = "@@";
+
+    // the expected length of a recipient value, used for sizing the output
+    private static final int VALUE_LENGTH = 32;
+
+    private final String[] fragments;
+
+    private final String[] keys;
+
+    private final int staticLength;
+
+    private RecipientTemplate(List<String> fragments, List<String> keys) {
+        this.fragments = fragments.toArray(new String[0]);
+        this.keys = keys.toArray(new String[0]);
+        int length = 0;
+        for (String fragment : this.fragments) {
+            length += fragment.length();
+        }
+        this.staticLength = length;
+    }
+
+    /**
+     * Returns the text a template renders in place of a recipient value
+     *
+     * @param key the name of the value in the template model
+     * @return the placeholder of the value
+     */
+    public static String placeholder(String key) {
+        return PLACEHOLDER_PREFIX + key + PLACEHOLDER_SUFFIX;
+    }
+
+    /**
+     * Splits a rendered email into its static fragments and placeholders
+     *
+     * @param rendered an email rendered with placeholders for the recipient values
+     * @return the parsed email
+     */
+    public static RecipientTemplate parse(String rendered) {
+        List<String> fragments = new ArrayList<>();
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        int index = rendered.indexOf(PLACEHOLDER_PREFIX);
+        while (index >= 0) {
+            int end = rendered.indexOf(PLACEHOLDER_SUFFIX, index + PLACEHOLDER_PREFIX.length());
+            if (end < 0) {
+                break;
+            }
+            String key = rendered.substring(index + PLACEHOLDER_PREFIX.length(), end);
+            if (!isKey(key)) {
+                // text which only looks like a placeholder, such as in a comment written by a user
+                index = rendered.indexOf(PLACEHOLDER_PREFIX, index + 1);
+                continue;
+            }
+            fragments.add(rendered.substring(start, index));
+            keys.add(key);
+            start = end + PLACEHOLDER_SUFFIX.length();
+            index = rendered.indexOf(PLACEHOLDER_PREFIX, start);
+        }
+        fragments.add(rendered.substring(start));
+        return new RecipientTemplate(fragments, keys);
+    }
+
+    private static boolean isKey(String key) {
+        if (key.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (!Character.isLetterOrDigit(key.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Builds the email of one recipient; a placeholder without value is left empty
+     *
+     * @param values the values of the recipient, by their name in the template model
+     * @return the email of the recipient
+     */
+    public String fill(Map<String, ?> values) {
+        StringBuilder email = new StringBuilder(staticLength + keys.length * VALUE_LENGTH);
+        for (int i = 0; i < keys.length; i++) {
+            email.append(fragments[i]);
+            Object value = values.get(keys[i]);
+            if (value != null) {
+                email.append(value);
+            }
+        }
+        return email.append(fragments[keys.length]).toString();
+    }
+}
@@ -0,0 +1,110 @@
+package com.atoss.idea.management.system.utils;
+
+import com.atoss.idea.management.system.repository.CommentRepository;
+import com.atoss.idea.management.system.repository.IdeaRepository;
+import com.atoss.idea.management.system.repository.entity.Comment;
+import com.atoss.idea.management.system.repository.entity.Idea;
+import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Stores the rendered HTML for the ideas and comments which were written without it
+ * (rows saved before the rendered columns existed, or inserted directly in the database
+ * such as the initial data). Runs in small batches in the background, so the read paths
+ * only fall back to rendering the Markdown until the job has reached the row.
+ */
+@Log4j2
+@Component
+public class RenderedHtmlBackfillJob {
+
+    private final IdeaRepository ideaRepository;
+
+    private final CommentRepository commentRepository;
+
+    private final HtmlServiceImpl htmlService;
+
+    @Value("${aims.app.renderedHtml.backfillBatchSize:200}")
+    private int batchSize;
+
+    /**
+     * Constructor
+     *
+     * @param ideaRepository    for finding and updating the ideas without rendered HTML
+     * @param commentRepository for finding and updating the comments without rendered HTML
+     * @param htmlService       for converting the Markdown to HTML
+     */
+    public RenderedHtmlBackfillJob(IdeaRepository ideaRepository,
+                                   CommentRepository commentRepository,
+                                   HtmlServiceImpl htmlService) {
+        this.ideaRepository = ideaRepository;
+        this.commentRepository = commentRepository;
+        this.htmlService = htmlService;
+    }
+
+    /**
+     * Renders every idea and comment which has no stored HTML, one batch at a time
+     */
+    @Scheduled(initialDelayString = "${aims.app.renderedHtml.backfillInitialDelayMs:30000}",
+            fixedDelayString = "${aims.app.renderedHtml.backfillDelayMs:600000}")
+    public void backfill() {
+        try {
+            int ideas = backfillIdeas();
+            int comments = backfillComments();
+            if ((ideas > 0 || comments > 0) && log.isInfoEnabled()) {
+                log.info("Stored the rendered HTML for {} ideas and {} comments", ideas, comments);
+            }
+        } catch (Exception e) {
+            if (log.isErrorEnabled()) {
+                log.error("Error occurred while storing the rendered HTML: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Renders the ideas without stored HTML
+     *
+     * @return the number of updated ideas
+     */
+    int backfillIdeas() {
+        int updated = 0;
+        List<Idea> batch;
+        do {
+            // the updated rows leave the result, so the first page is always the next batch
+            batch = ideaRepository.findByRenderedTextIsNull(PageRequest.of(0, batchSize));
+            for (Idea idea : batch) {
+                ideaRepository.updateRenderedHtml(idea.getId(), render(idea.getTitle()), render(idea.getText()));
+                updated++;
+            }
+        } while (batch.size() == batchSize);
+        return updated;
+    }
+
+    /**
+     * Renders the comments and replies without stored HTML
+     *
+     * @return the number of updated comments
+     */
+    int backfillComments() {
+        int updated = 0;
+        List<Comment> batch;
+        do {
+            batch = commentRepository.findByRenderedCommentTextIsNull(PageRequest.of(0, batchSize));
+            for (Comment comment : batch) {
+                commentRepository.updateRenderedHtml(comment.getId(), render(comment.getCommentText()));
+                updated++;
+            }
+        } while (batch.size() == batchSize);
+        return updated;
+    }
+
+    // a row without Markdown gets an empty HTML, so it is not selected again by the next batch
+    private String render(String markdown) {
+        return markdown == null ? "" : htmlService.markdownToHtml(markdown);
+    }
+}
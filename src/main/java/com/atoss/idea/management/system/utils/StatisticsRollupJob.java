@@ -0,0 +1,177 @@
+package com.atoss.idea.management.system.utils;
+
+import com.atoss.idea.management.system.repository.DailyStatisticsRepository;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps the daily statistics up to date.
+ * <p>
+ * The services mark the day of every idea or comment they change, once the change is committed;
+ * the marked days are computed again from the ideas and comments a few seconds later, one grouped
+ * query per day. Every day is computed again at startup and once a day, which also covers the rows
+ * written without going through the services (such as the initial data) or deleted in cascade.
+ * The computations run one at a time, so a day is never written by two of them at once, and a day
+ * whose computation fails stays marked for the next run.
+ * <p>
+ * The data version changes with every committed change and every computation, so the statistics
+ * computed for a data version can be used again until it changes.
+ */
+@Log4j2
+@Component
+public class StatisticsRollupJob {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(1970, 1, 1);
+
+    private static final LocalDate LAST_DAY = LocalDate.of(9999, 12, 31);
+
+    private final DailyStatisticsRepository dailyStatisticsRepository;
+
+    private final Set<LocalDate> changedDays = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong dataVersion = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param dailyStatisticsRepository for computing and storing the statistics of the days
+     */
+    public StatisticsRollupJob(DailyStatisticsRepository dailyStatisticsRepository) {
+        this.dailyStatisticsRepository = dailyStatisticsRepository;
+    }
+
+    /**
+     * Marks the day of a changed idea or comment, to be computed again after the current transaction
+     * is committed, or right away outside of a transaction
+     *
+     * @param creationDate the creation date of the idea or comment
+     */
+    public void markChanged(Date creationDate) {
+        if (creationDate == null) {
+            return;
+        }
+        LocalDate day = Instant.ofEpochMilli(creationDate.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changed(day);
+                }
+            });
+        } else {
+            changed(day);
+        }
+    }
+
+    private void changed(LocalDate day) {
+        changedDays.add(day);
+        dataVersion.incrementAndGet();
+    }
+
+    /**
+     * Returns the data version of the ideas, comments and daily statistics
+     *
+     * @return a number that changes after every change of the data
+     */
+    public long getDataVersion() {
+        return dataVersion.get();
+    }
+
+    /**
+     * Computes again the days marked since the last run
+     *
+     * @return the number of computed days
+     */
+    public synchronized int rollupChangedDays() {
+        List<LocalDate> days = new ArrayList<>(changedDays);
+        int computedDays = 0;
+        try {
+            for (LocalDate day : days) {
+                // a day marked again while it is computed stays marked for the next run
+                changedDays.remove(day);
+                try {
+                    dailyStatisticsRepository.rebuildBetween(day, day);
+                } catch (RuntimeException e) {
+                    changedDays.add(day);
+                    throw e;
+                }
+                computedDays++;
+            }
+        } finally {
+            if (computedDays > 0) {
+                dataVersion.incrementAndGet();
+            }
+        }
+        if (!days.isEmpty() && log.isDebugEnabled()) {
+            log.debug("Computed the statistics of {} changed days", days.size());
+        }
+        return days.size();
+    }
+
+    /**
+     * Computes again the statistics of every day
+     *
+     * @return the number of days with statistics
+     */
+    public synchronized int rollupAllDays() {
+        int days = dailyStatisticsRepository.rebuildBetween(FIRST_DAY, LAST_DAY);
+        dataVersion.incrementAndGet();
+        if (log.isInfoEnabled()) {
+            log.info("Computed the statistics of {} days", days);
+        }
+        return days;
+    }
+
+    /**
+     * Runs the computation of the changed days in the background
+     */
+    @Scheduled(initialDelayString = "${aims.app.statistics.rollupDelayMs:5000}",
+            fixedDelayString = "${aims.app.statistics.rollupDelayMs:5000}")
+    public void scheduledRollupChangedDays() {
+        try {
+            rollupChangedDays();
+        } catch (Exception e) {
+            if (log.isErrorEnabled()) {
+                log.error("Error occurred while computing the statistics of the changed days: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Computes every day once the application, and its initial data, is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rollupAllDaysAtStartup() {
+        scheduledRollupAllDays();
+    }
+
+    /**
+     * Runs the computation of every day in the background
+     */
+    @Scheduled(initialDelayString = "${aims.app.statistics.reconcileDelayMs:86400000}",
+            fixedDelayString = "${aims.app.statistics.reconcileDelayMs:86400000}")
+    public void scheduledRollupAllDays() {
+        try {
+            rollupAllDays();
+        } catch (Exception e) {
+            if (log.isErrorEnabled()) {
+                log.error("Error occurred while computing the statistics of every day: {}", e.getMessage());
+            }
+        }
+    }
+}
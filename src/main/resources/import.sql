@@ -0,0 +1,3 @@
+-- Run by Hibernate once it has created the schema, for the indexes JPA annotations cannot describe
+-- the moderation queue: only the comments reported more than five times, the most reported first
+CREATE INDEX idx_comment_reported ON comment (reports_count DESC, comment_id DESC) WHERE reports_count > 5;
@@ -0,0 +1,47 @@
+package com.atoss.idea.management.system;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base of the repository tests that need the real database: the native queries, the indexes
+ * of import.sql and the statements issued by Hibernate. The schema is created by Hibernate in a
+ * throwaway PostgreSQL, as in the application; the tests are skipped when docker is not available.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public abstract class PostgresRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Autowired
+    protected TestEntityManager entityManager;
+
+    /**
+     * Writes the pending changes and empties the persistence context, so the next reads go to the database
+     */
+    protected void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /**
+     * Returns the statistics of the statements issued by Hibernate
+     *
+     * @return the Hibernate statistics
+     */
+    protected Statistics statistics() {
+        return entityManager.getEntityManager().getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+    }
+}
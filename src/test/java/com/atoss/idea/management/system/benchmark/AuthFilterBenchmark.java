@@ -0,0 +1,131 @@
+package com.atoss.idea.management.system.benchmark;
+
+import com.atoss.idea.management.system.repository.dto.UserSecurityDTO;
+import com.atoss.idea.management.system.repository.entity.Role;
+import com.atoss.idea.management.system.security.AuthFilter;
+import com.atoss.idea.management.system.security.RouteMatcher;
+import com.atoss.idea.management.system.security.SessionService;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
+import com.atoss.idea.management.system.security.token.AccessTokenConfig;
+import com.atoss.idea.management.system.security.token.AccessTokenRevocationStore;
+import com.atoss.idea.management.system.security.token.JwtService;
+import com.atoss.idea.management.system.service.UserService;
+import com.atoss.idea.management.system.utils.LogSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.core.config.Configurator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Measures the throughput of the authentication filter for an authenticated request, with the logs
+ * of the application off, at INFO and at DEBUG (sampled or for every request). The application's
+ * logging configuration is used, so the events are written by the asynchronous loggers to the log file.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.atoss.idea.management.system.benchmark.AuthFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dlog4j2.configurationFile=log4j2-spring.xml")
+public class AuthFilterBenchmark {
+
+    private static final String SESSION_ID = "benchmark-session";
+
+    @Param({"OFF", "INFO", "DEBUG"})
+    private String level;
+
+    @Param({"1", "100"})
+    private int sampleRate;
+
+    private AuthFilter authFilter;
+
+    private Cookie accessTokenCookie;
+
+    private final FilterChain filterChain = (request, response) -> { };
+
+    /**
+     * Builds the filter with its real collaborators and generates an access token
+     */
+    @Setup
+    public void setUp() {
+        Configurator.setLevel("com.atoss.idea.management.system", Level.valueOf(level));
+
+        UserSecurityDTO user = new UserSecurityDTO();
+        user.setId(1L);
+        user.setUsername("username");
+        user.setEmail("username@atoss.com");
+        user.setRole(Role.STANDARD);
+        user.setIsActive(true);
+        UserService userService = mock(UserService.class);
+        when(userService.getUserByUsername("username", UserSecurityDTO.class)).thenReturn(user);
+
+        AccessTokenConfig tokenConfig = new AccessTokenConfig();
+        ReflectionTestUtils.setField(tokenConfig, "expiryMs", 300000L);
+        LogSampler logSampler = new LogSampler(sampleRate);
+        JwtService jwtService = new JwtService(new ObjectMapper(), userService, new AccessTokenRevocationStore(null),
+                logSampler, tokenConfig);
+        ReflectionTestUtils.setField(jwtService, "secret", "9eadbfa9ea1aa2cfa839853167ed1c9f11fcd0f4977ea84993e7ad2ac338b490");
+        jwtService.init();
+
+        SessionService sessionService = new SessionService(logSampler);
+        ReflectionTestUtils.setField(sessionService, "sessionIDHeader", "Session-ID");
+
+        authFilter = new AuthFilter(jwtService,
+                new UserDetailsServiceImpl(null, 300000L, 30000L),
+                sessionService,
+                new RouteMatcher(new String[]{"/api/v1/auth/**"}, new String[]{"/aims/api/v1/ideas/**"}));
+        accessTokenCookie = new Cookie(tokenConfig.getType() + SESSION_ID, jwtService.generateToken("username"));
+    }
+
+    @Benchmark
+    public Authentication authenticatedRequest() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/aims/api/v1/ideas/1");
+        request.addHeader("Session-ID", SESSION_ID);
+        request.setCookies(accessTokenCookie);
+        authFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    /**
+     * Runs the benchmark outside of the maven build
+     *
+     * @param args not used
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(AuthFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,131 @@
+package com.atoss.idea.management.system.benchmark;
+
+import com.atoss.idea.management.system.utils.EmailModelBuilder;
+import com.atoss.idea.management.system.utils.EmailTemplateRegistry;
+import com.atoss.idea.management.system.utils.RecipientTemplate;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.ui.freemarker.FreeMarkerTemplateUtils;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the rendering cost of every email template: looked up in the FreeMarker configuration
+ * for every email (as before), taken from the template registry, and filled from an email
+ * rendered once for many recipients.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.atoss.idea.management.system.benchmark.EmailTemplateBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    @Param({
+        "account-deactivation-template.ftl",
+        "account-reactivation-template.ftl",
+        "added-documents-subscription-template.ftl",
+        "comment-added-subscription-template.ftl",
+        "comment-delete-subscription-template.ftl",
+        "login-request-admin-template.ftl",
+        "login-request-user-template.ftl",
+        "password-reset-template.ftl",
+        "registration-reject-template.ftl",
+        "star-rating-changes-template.ftl",
+        "text-change-subscription-template.ftl",
+        "welcome-template.ftl"
+    })
+    private String templateName;
+
+    private Configuration configuration;
+
+    private EmailTemplateRegistry templateRegistry;
+
+    private Map<String, Object> model;
+
+    private Map<String, Object> recipient;
+
+    private RecipientTemplate recipientTemplate;
+
+    /**
+     * Loads the templates and builds a model with a value for every template variable
+     *
+     * @throws IOException       if a template can not be read
+     * @throws TemplateException if a template can not be rendered
+     */
+    @Setup
+    public void setUp() throws IOException, TemplateException {
+        configuration = new Configuration(Configuration.VERSION_2_3_21);
+        configuration.setClassForTemplateLoading(getClass(), "/templates");
+        templateRegistry = new EmailTemplateRegistry(configuration);
+        templateRegistry.loadAll();
+
+        EmailModelBuilder modelBuilder = new EmailModelBuilder("Atoss Idea Management System")
+                .withDate()
+                .with("password", "Xk2!pLq9#vTz4Wm")
+                .with("usernameUser", "new.user")
+                .with("emailUser", "new.user@atoss.com")
+                .with("usernameAdmin", "admin")
+                .with("title", "A better coffee machine")
+                .with("fileNames", "offer.pdf\nplan.docx")
+                .with("ideaTitle", "A better coffee machine")
+                .with("newRating", 4.25f)
+                .with("newComment", "<p>We should <strong>really</strong> do this.</p>")
+                .with("oldTitle", "A coffee machine")
+                .with("newTitle", "A better coffee machine")
+                .with("oldText", "<p>The old coffee machine is broken.</p>".repeat(10))
+                .with("newText", "<p>The old coffee machine is broken, let us buy a better one.</p>".repeat(10))
+                .with("oldDocs", "offer.pdf")
+                .with("newDocs", "offer.pdf\nplan.docx");
+        recipient = Map.of(EmailModelBuilder.USERNAME, "username", EmailModelBuilder.EMAIL, "username@atoss.com");
+        recipientTemplate = RecipientTemplate.parse(templateRegistry.renderForRecipients(templateName, modelBuilder.build(),
+                EmailModelBuilder.USERNAME, EmailModelBuilder.EMAIL));
+        model = modelBuilder.with(EmailModelBuilder.USERNAME, "username").with(EmailModelBuilder.EMAIL, "username@atoss.com").build();
+    }
+
+    @Benchmark
+    public String configurationLookup() throws IOException, TemplateException {
+        Template template = configuration.getTemplate(templateName);
+        return FreeMarkerTemplateUtils.processTemplateIntoString(template, model);
+    }
+
+    @Benchmark
+    public String registry() throws IOException, TemplateException {
+        return templateRegistry.render(templateName, model);
+    }
+
+    @Benchmark
+    public String renderedOnce() {
+        return recipientTemplate.fill(recipient);
+    }
+
+    /**
+     * Runs the benchmark outside of the maven build
+     *
+     * @param args not used
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(EmailTemplateBenchmark.class.getSimpleName()).build()).run();
+    }
+}
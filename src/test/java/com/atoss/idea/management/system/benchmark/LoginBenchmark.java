@@ -0,0 +1,91 @@
+package com.atoss.idea.management.system.benchmark;
+
+import com.atoss.idea.management.system.security.LoginConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the logins per second the authentication provider of the application can check, for several
+ * BCrypt costs, with one thread per core, and prints the logins per second per core.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.atoss.idea.management.system.benchmark.LoginBenchmark
+ *
+ * @see LoginLoadTest for measuring the logins of a running server
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "1Adminuser@";
+
+    @Param({"8", "10", "12"})
+    private int strength;
+
+    private DaoAuthenticationProvider authenticationProvider;
+
+    /**
+     * Builds the authentication provider as the application does, with a user whose password is hashed
+     * with the current cost, so no login rehashes it
+     */
+    @Setup
+    public void setUp() {
+        PasswordEncoder passwordEncoder = LoginConfig.createPasswordEncoder(strength);
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsService(username -> User.withUsername(username)
+                .password(passwordHash)
+                .roles("STANDARD")
+                .build());
+    }
+
+    @Benchmark
+    public Authentication login() {
+        return authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken("username", PASSWORD));
+    }
+
+    /**
+     * Runs the benchmark outside of the maven build, with one thread per core
+     *
+     * @param args not used
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(LoginBenchmark.class.getSimpleName())
+                .threads(cores)
+                .build()).run();
+        for (RunResult result : results) {
+            System.out.printf("BCrypt cost %s: %.1f logins/s, %.1f logins/s per core%n",
+                    result.getParams().getParam("strength"),
+                    result.getPrimaryResult().getScore(),
+                    result.getPrimaryResult().getScore() / cores);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.atoss.idea.management.system.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sends logins to a running server from concurrent clients and prints the logins per second, the
+ * logins per second per core of the server and how many logins were rejected because the login
+ * executor was full (503).
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.atoss.idea.management.system.benchmark.LoginLoadTest
+ * -Dexec.args="http://localhost:8080 username password 32 30 8"
+ * where the arguments are the server, the credentials, the number of clients, the duration in seconds
+ * and the number of cores of the server.
+ */
+public class LoginLoadTest {
+
+    private static final int HTTP_OK = 200;
+
+    private static final int HTTP_SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * Runs the load test
+     *
+     * @param args the server, the username, the password, the clients, the duration in seconds and the server cores
+     * @throws InterruptedException if the test is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        String server = args.length > 0 ? args[0] : "http://localhost:8080";
+        String username = args.length > 1 ? args[1] : "admin";
+        String password = args.length > 2 ? args[2] : "AtossAdmin123";
+        int clients = args.length > 3 ? Integer.parseInt(args[3]) : 32;
+        int seconds = args.length > 4 ? Integer.parseInt(args[4]) : 30;
+        int serverCores = args.length > 5 ? Integer.parseInt(args[5]) : Runtime.getRuntime().availableProcessors();
+
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest login = HttpRequest.newBuilder(URI.create(server + "/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"usernameOrEmail\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+
+        LongAdder succeeded = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        LongAdder failed = new LongAdder();
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            tasks.add(() -> {
+                while (System.nanoTime() < end) {
+                    try {
+                        int status = httpClient.send(login, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        if (status == HTTP_OK) {
+                            succeeded.increment();
+                        } else if (status == HTTP_SERVICE_UNAVAILABLE) {
+                            rejected.increment();
+                        } else {
+                            failed.increment();
+                        }
+                    } catch (Exception e) {
+                        failed.increment();
+                    }
+                }
+            });
+        }
+        tasks.forEach(executor::execute);
+        executor.shutdown();
+        executor.awaitTermination(seconds + 60L, TimeUnit.SECONDS);
+
+        double loginsPerSecond = succeeded.sum() / (double) seconds;
+        System.out.printf("%d clients for %d s: %.1f logins/s, %.1f logins/s per core, %d rejected, %d failed%n",
+                clients, seconds, loginsPerSecond, loginsPerSecond / serverCores, rejected.sum(), failed.sum());
+    }
+}
@@ -0,0 +1,104 @@
+package com.atoss.idea.management.system.benchmark;
+
+import com.atoss.idea.management.system.utils.ProfanityFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the bad words filter with the regex loop it replaced, on idea/comment sized texts.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.atoss.idea.management.system.benchmark.ProfanityFilterBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProfanityFilterBenchmark {
+
+    private static final String[] VOCABULARY = {
+        "idea", "coffee", "machine", "office", "meeting", "the", "a", "classic", "improve", "team",
+        "process", "should", "we", "bass", "passage", "parking", "lunch", "Ass", "badass", "Baby Juice"
+    };
+
+    @Param({"2000"})
+    private int textLength;
+
+    private List<String> badWords;
+
+    private ProfanityFilter profanityFilter;
+
+    private String text;
+
+    /**
+     * Loads the bad words list and builds a random text of the requested length
+     *
+     * @throws IOException if the bad words file can not be read
+     */
+    @Setup
+    public void setUp() throws IOException {
+        badWords = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                getClass().getClassLoader().getResourceAsStream(ProfanityFilter.BAD_WORDS_FILE_PATH), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                badWords.add(line.trim());
+            }
+        }
+        profanityFilter = new ProfanityFilter();
+
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(textLength + 16);
+        while (builder.length() < textLength) {
+            builder.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(random.nextInt(10) == 0 ? ". " : " ");
+        }
+        text = builder.substring(0, textLength);
+    }
+
+    @Benchmark
+    public String regexLoop() {
+        String filtered = text;
+        for (String word : badWords) {
+            String pattern = "\\b" + word + "\\b";
+            filtered = filtered.replaceAll("(?i)" + pattern, "*".repeat(word.length()));
+        }
+        return filtered;
+    }
+
+    @Benchmark
+    public String automaton() {
+        return profanityFilter.filter(text);
+    }
+
+    /**
+     * Runs the benchmark outside of the maven build
+     *
+     * @param args not used
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(ProfanityFilterBenchmark.class.getSimpleName()).build()).run();
+    }
+}
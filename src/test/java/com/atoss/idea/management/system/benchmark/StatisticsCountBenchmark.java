@@ -0,0 +1,202 @@
+package com.atoss.idea.management.system.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares counting the comments and replies of a date range by loading them, as the filtered statistics
+ * did, with the grouped count query, on a seeded dataset of 1M comments spread over four years.
+ * The dataset is created once in the statistics_benchmark schema of the given database, with the same
+ * columns and indexes as the application tables.
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.atoss.idea.management.system.benchmark.StatisticsCountBenchmark
+ * -Dexec.args="jdbc:postgresql://localhost:5432/aims username password"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class StatisticsCountBenchmark {
+
+    private static final String URL_PROPERTY = "benchmark.jdbc.url";
+
+    private static final String USER_PROPERTY = "benchmark.jdbc.user";
+
+    private static final String PASSWORD_PROPERTY = "benchmark.jdbc.password";
+
+    private static final int IDEAS = 50_000;
+
+    private static final int COMMENTS = 1_000_000;
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2021, 1, 1);
+
+    private static final int DAYS = 4 * 365;
+
+    private static final String LOAD_COMMENTS = "SELECT c.*, p.* FROM statistics_benchmark.comment c "
+            + "LEFT JOIN statistics_benchmark.comment p ON p.comment_id = c.parent_id "
+            + "WHERE c.creation_date >= ? AND c.creation_date < ? AND c.parent_id IS NULL";
+
+    private static final String LOAD_REPLIES = "SELECT c.*, p.* FROM statistics_benchmark.comment c "
+            + "LEFT JOIN statistics_benchmark.comment p ON p.comment_id = c.parent_id "
+            + "WHERE c.creation_date >= ? AND c.creation_date < ? AND c.parent_id IS NOT NULL";
+
+    private static final String LOAD_IDEAS_BY_STATUS = "SELECT i.* FROM statistics_benchmark.idea i "
+            + "WHERE i.date >= ? AND i.date < ? AND i.status = ?";
+
+    private static final String COUNT = "SELECT ideas.open_ideas, ideas.draft_ideas, ideas.implemented_ideas, "
+            + "comments.comments, comments.replies "
+            + "FROM (SELECT COUNT(*) FILTER (WHERE i.status = 0) AS open_ideas, "
+            + "COUNT(*) FILTER (WHERE i.status = 1) AS draft_ideas, "
+            + "COUNT(*) FILTER (WHERE i.status = 2) AS implemented_ideas "
+            + "FROM statistics_benchmark.idea i WHERE i.date >= ? AND i.date < ?) ideas "
+            + "CROSS JOIN (SELECT COUNT(*) FILTER (WHERE c.parent_id IS NULL) AS comments, "
+            + "COUNT(*) FILTER (WHERE c.parent_id IS NOT NULL) AS replies "
+            + "FROM statistics_benchmark.comment c WHERE c.creation_date >= ? AND c.creation_date < ?) comments";
+
+    @Param({"30", "365"})
+    private int rangeDays;
+
+    private Connection connection;
+
+    private Date from;
+
+    private Date to;
+
+    /**
+     * Connects to the database and seeds the dataset if it is not there yet
+     *
+     * @throws SQLException if the database can not be reached or seeded
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(System.getProperty(URL_PROPERTY),
+                System.getProperty(USER_PROPERTY), System.getProperty(PASSWORD_PROPERTY));
+        seed();
+        LocalDate last = FIRST_DAY.plusDays(DAYS - 1);
+        from = Date.valueOf(last.minusDays(rangeDays - 1));
+        to = Date.valueOf(last.plusDays(1));
+    }
+
+    /**
+     * Closes the connection
+     *
+     * @throws SQLException if the connection can not be closed
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    private void seed() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE SCHEMA IF NOT EXISTS statistics_benchmark");
+            try (ResultSet existing = statement.executeQuery("SELECT COUNT(*) FROM information_schema.tables "
+                    + "WHERE table_schema = 'statistics_benchmark' AND table_name = 'comment'")) {
+                existing.next();
+                if (existing.getLong(1) > 0) {
+                    return;
+                }
+            }
+            statement.execute("CREATE TABLE statistics_benchmark.idea (id BIGINT PRIMARY KEY, title VARCHAR(255), "
+                    + "text TEXT, status SMALLINT, date TIMESTAMP(6))");
+            statement.execute("CREATE TABLE statistics_benchmark.comment (comment_id BIGINT PRIMARY KEY, "
+                    + "comment_text TEXT, creation_date TIMESTAMP(6), idea_id BIGINT, parent_id BIGINT)");
+            statement.execute("INSERT INTO statistics_benchmark.idea "
+                    + "SELECT n, 'Idea ' || n, repeat('An idea to improve the office. ', 8), n % 3, "
+                    + "TIMESTAMP '" + FIRST_DAY + "' + (n % " + DAYS + ") * INTERVAL '1 day' + (n % 86400) * INTERVAL '1 second' "
+                    + "FROM generate_series(1, " + IDEAS + ") n");
+            // one comment in four is a reply to the comment before it
+            statement.execute("INSERT INTO statistics_benchmark.comment "
+                    + "SELECT n, repeat('A comment about the idea. ', 4), "
+                    + "TIMESTAMP '" + FIRST_DAY + "' + (n % " + DAYS + ") * INTERVAL '1 day' + (n % 86400) * INTERVAL '1 second', "
+                    + "CASE WHEN n % 4 = 0 THEN NULL ELSE n % " + IDEAS + " + 1 END, "
+                    + "CASE WHEN n % 4 = 0 THEN n - 1 ELSE NULL END "
+                    + "FROM generate_series(1, " + COMMENTS + ") n");
+            statement.execute("CREATE INDEX idx_idea_date_status ON statistics_benchmark.idea (date, status)");
+            statement.execute("CREATE INDEX idx_comment_creation_date_parent ON statistics_benchmark.comment (creation_date, parent_id)");
+            statement.execute("VACUUM ANALYZE statistics_benchmark.idea");
+            statement.execute("VACUUM ANALYZE statistics_benchmark.comment");
+        }
+    }
+
+    private long countLoadedRows(String sql, Integer status) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setDate(1, from);
+            statement.setDate(2, to);
+            if (status != null) {
+                statement.setInt(3, status);
+            }
+            long rows = 0;
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows++;
+                }
+            }
+            return rows;
+        }
+    }
+
+    @Benchmark
+    public long loadRows() throws SQLException {
+        return countLoadedRows(LOAD_COMMENTS, null) + countLoadedRows(LOAD_REPLIES, null)
+                + countLoadedRows(LOAD_IDEAS_BY_STATUS, 0) + countLoadedRows(LOAD_IDEAS_BY_STATUS, 1)
+                + countLoadedRows(LOAD_IDEAS_BY_STATUS, 2);
+    }
+
+    @Benchmark
+    public long groupedCount() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(COUNT)) {
+            statement.setDate(1, from);
+            statement.setDate(2, to);
+            statement.setDate(3, from);
+            statement.setDate(4, to);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1) + resultSet.getLong(2) + resultSet.getLong(3) + resultSet.getLong(4) + resultSet.getLong(5);
+            }
+        }
+    }
+
+    /**
+     * Runs the benchmark outside of the maven build
+     *
+     * @param args the JDBC url, the username and the password of the database
+     * @throws RunnerException if the benchmark fails
+     */
+    public static void main(String[] args) throws RunnerException {
+        String url = args.length > 0 ? args[0] : "jdbc:postgresql://localhost:5432/postgres";
+        String user = args.length > 1 ? args[1] : "postgres";
+        String password = args.length > 2 ? args[2] : "postgres";
+        new Runner(new OptionsBuilder()
+                .include(StatisticsCountBenchmark.class.getSimpleName())
+                .jvmArgsAppend("-D" + URL_PROPERTY + "=" + url, "-D" + USER_PROPERTY + "=" + user,
+                        "-D" + PASSWORD_PROPERTY + "=" + password)
+                .build()).run();
+    }
+}
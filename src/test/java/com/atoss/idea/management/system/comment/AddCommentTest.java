@@ -16,6 +16,8 @@ import com.atoss.idea.management.system.repository.entity.Idea;
 import com.atoss.idea.management.system.repository.entity.User;
 import com.atoss.idea.management.system.service.implementation.CommentServiceImpl;
 import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
+import com.atoss.idea.management.system.utils.ProfanityFilter;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -42,9 +44,15 @@ public class AddCommentTest {
     @Spy
     private ModelMapper modelMapper;
 
+    @Spy
+    private ProfanityFilter profanityFilter;
+
     @InjectMocks
     private CommentServiceImpl commentService;
 
+    @Mock
+    private StatisticsRollupJob statisticsRollupJob;
+
     @Mock
     private HtmlServiceImpl htmlService;
 
@@ -92,6 +100,7 @@ public class AddCommentTest {
         assertEquals(1L, responseCommentDTO.getIdeaId());
 
         verify(commentRepository, times(1)).save(any(Comment.class));
+        verify(ideaRepository, times(1)).addToCommentsCount(1L, 1);
     }
 
     @Test
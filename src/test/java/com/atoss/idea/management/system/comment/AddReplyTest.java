@@ -9,6 +9,8 @@ import com.atoss.idea.management.system.repository.entity.Comment;
 import com.atoss.idea.management.system.repository.entity.User;
 import com.atoss.idea.management.system.service.implementation.CommentServiceImpl;
 import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
+import com.atoss.idea.management.system.utils.ProfanityFilter;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -34,8 +36,15 @@ public class AddReplyTest {
     @InjectMocks
     private CommentServiceImpl commentService;
 
+    @Mock
+    private StatisticsRollupJob statisticsRollupJob;
+
     @Spy
     private ModelMapper modelMapper;
+
+    @Spy
+    private ProfanityFilter profanityFilter;
+
     private RequestCommentReplyDTO requestCommentReplyDTO;
 
     private User user;
@@ -71,6 +80,7 @@ public class AddReplyTest {
         commentService.addReply(requestCommentReplyDTO);
 
         verify(commentRepository, times(1)).save(any(Comment.class));
+        verify(commentRepository, times(1)).addToRepliesCount(requestCommentReplyDTO.getParentId(), 1);
     }
 
     @Test
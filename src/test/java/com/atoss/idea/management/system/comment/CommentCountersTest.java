@@ -0,0 +1,132 @@
+package com.atoss.idea.management.system.comment;
+
+import com.atoss.idea.management.system.repository.CommentRepository;
+import com.atoss.idea.management.system.repository.IdeaRepository;
+import com.atoss.idea.management.system.repository.SubscriptionRepository;
+import com.atoss.idea.management.system.repository.UserRepository;
+import com.atoss.idea.management.system.repository.entity.Comment;
+import com.atoss.idea.management.system.repository.entity.Idea;
+import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.service.implementation.CommentServiceImpl;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CommentCountersTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private IdeaRepository ideaRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @InjectMocks
+    private CommentServiceImpl commentService;
+
+    @Mock
+    private StatisticsRollupJob statisticsRollupJob;
+
+    private User owner;
+
+    private User user;
+
+    private Comment comment;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        owner = new User();
+        owner.setId(1L);
+        user = new User();
+        user.setId(2L);
+
+        comment = new Comment();
+        comment.setId(10L);
+        comment.setUser(owner);
+
+        when(commentRepository.existsById(10L)).thenReturn(true);
+        when(commentRepository.findById(10L)).thenReturn(Optional.of(comment));
+        when(userRepository.existsById(2L)).thenReturn(true);
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user));
+        when(subscriptionRepository.findSubscribedUsersByIdeaId(anyLong())).thenReturn(new ArrayList<>());
+    }
+
+    @Test
+    public void addLikeIncrementsTheLikesCount() {
+        commentService.addLike(10L, 2L);
+
+        verify(commentRepository).addToLikesCount(10L, 1);
+    }
+
+    @Test
+    public void deleteLikesDecrementsOnlyWhenALikeWasDeleted() {
+        when(commentRepository.deleteLikes(10L, 2L)).thenReturn(1, 0);
+
+        commentService.deleteLikes(10L, 2L);
+        commentService.deleteLikes(10L, 2L);
+
+        verify(commentRepository).addToLikesCount(10L, -1);
+    }
+
+    @Test
+    public void addAndDeleteReportUpdateTheReportsCount() {
+        when(commentRepository.deleteReport(10L, 2L)).thenReturn(1);
+
+        commentService.addReport(10L, 2L);
+        commentService.deleteReport(10L, 2L);
+
+        verify(commentRepository).addToReportsCount(10L, 1);
+        verify(commentRepository).addToReportsCount(10L, -1);
+    }
+
+    @Test
+    public void deleteCommentDecrementsTheCommentsCountOfTheIdea() {
+        Idea idea = new Idea();
+        idea.setId(5L);
+        comment.setIdea(idea);
+
+        commentService.deleteComment(10L);
+
+        verify(ideaRepository).addToCommentsCount(5L, -1);
+        verify(commentRepository, never()).addToRepliesCount(anyLong(), anyInt());
+    }
+
+    @Test
+    public void deleteReplyDecrementsTheRepliesCountOfTheParent() {
+        Comment parent = new Comment();
+        parent.setId(9L);
+        comment.setParent(parent);
+
+        commentService.deleteComment(10L);
+
+        verify(commentRepository).addToRepliesCount(9L, -1);
+        verify(ideaRepository, never()).addToCommentsCount(anyLong(), anyInt());
+    }
+
+    @Test
+    public void reportsCountIsReadFromTheComment() {
+        when(commentRepository.findReportsCountById(10L)).thenReturn(Optional.of(6));
+
+        assertEquals(6, commentService.getReportsCountForComment(10L));
+    }
+}
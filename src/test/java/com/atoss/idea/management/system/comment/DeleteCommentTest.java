@@ -6,6 +6,7 @@ import com.atoss.idea.management.system.repository.SubscriptionRepository;
 import com.atoss.idea.management.system.repository.entity.Comment;
 import com.atoss.idea.management.system.repository.entity.User;
 import com.atoss.idea.management.system.service.implementation.CommentServiceImpl;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -28,6 +29,9 @@ public class DeleteCommentTest {
     @InjectMocks
     private CommentServiceImpl commentService;
 
+    @Mock
+    private StatisticsRollupJob statisticsRollupJob;
+
     @Mock
     private SubscriptionRepository subscriptionRepository;
 
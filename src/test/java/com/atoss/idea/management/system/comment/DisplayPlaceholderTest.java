@@ -0,0 +1,76 @@
+package com.atoss.idea.management.system.comment;
+
+import com.atoss.idea.management.system.repository.CommentRepository;
+import com.atoss.idea.management.system.repository.dto.CommentDashboardResponseDTO;
+import com.atoss.idea.management.system.repository.dto.ReportedCommentDTO;
+import com.atoss.idea.management.system.repository.entity.Comment;
+import com.atoss.idea.management.system.repository.entity.ReviewStatus;
+import com.atoss.idea.management.system.service.implementation.CommentServiceImpl;
+import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DisplayPlaceholderTest {
+
+    private static final String PLACEHOLDER = "This comment was deleted by admin for it's offensive content";
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Spy
+    private HtmlServiceImpl htmlService;
+
+    @InjectMocks
+    private CommentServiceImpl commentService;
+
+    private Comment comment;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        comment = new Comment();
+        comment.setId(10L);
+        comment.setCommentText("an **offensive** comment");
+        comment.setRenderedCommentText("an <strong>offensive</strong> comment");
+        comment.setReportsCount(6);
+        when(commentRepository.findById(10L)).thenReturn(Optional.of(comment));
+    }
+
+    @Test
+    public void placeholderReplacesTheStoredHtml() {
+        commentService.displayPlaceholder(10L);
+
+        ArgumentCaptor<Comment> saved = ArgumentCaptor.forClass(Comment.class);
+        verify(commentRepository).save(saved.capture());
+        assertEquals(PLACEHOLDER, saved.getValue().getCommentText());
+        assertEquals(PLACEHOLDER, saved.getValue().getRenderedCommentText());
+
+        // the moderation queue reads the comment back with its stored HTML
+        ReportedCommentDTO reported = new ReportedCommentDTO(10L, saved.getValue().getCommentText(),
+                saved.getValue().getRenderedCommentText(), saved.getValue().getReportsCount(), ReviewStatus.NOT_REVIEWED, "author");
+        when(commentRepository.findReported(any())).thenReturn(new PageImpl<>(List.of(reported), PageRequest.of(0, 10), 1));
+
+        CommentDashboardResponseDTO shown = commentService.getAllCommentsByReportsNr(PageRequest.of(0, 10))
+                .getPagedComments().getContent().get(0);
+
+        assertEquals(PLACEHOLDER, shown.getContent());
+        assertFalse(shown.getContent().contains("offensive</strong>"));
+    }
+}
@@ -0,0 +1,106 @@
+package com.atoss.idea.management.system.comment;
+
+import com.atoss.idea.management.system.PostgresRepositoryTest;
+import com.atoss.idea.management.system.repository.CommentRepository;
+import com.atoss.idea.management.system.repository.dto.ReportedCommentDTO;
+import com.atoss.idea.management.system.repository.entity.Comment;
+import com.atoss.idea.management.system.repository.entity.Idea;
+import com.atoss.idea.management.system.repository.entity.Status;
+import com.atoss.idea.management.system.repository.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the moderation queue against a real database: the threshold, the order and the pages of findReported,
+ * its count query and the partial index created by import.sql
+ */
+public class ModerationQueueQueryTest extends PostgresRepositoryTest {
+
+    // the comments reported five times or less are not in the queue
+    private static final int[] REPORTS = {3, 5, 6, 9, 9, 12, 7};
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private final List<Long> commentIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        User user = entityManager.persist(new User("user1", "user1@atoss.com"));
+        Idea idea = new Idea();
+        idea.setTitle("title");
+        idea.setText("text");
+        idea.setStatus(Status.OPEN);
+        idea.setCreationDate(new Date());
+        idea.setUser(user);
+        entityManager.persist(idea);
+
+        for (int reports : REPORTS) {
+            Comment comment = new Comment();
+            comment.setCommentText("reported " + reports + " times");
+            comment.setCreationDate(new Date());
+            comment.setIdea(idea);
+            comment.setUser(user);
+            comment.setReportsCount(reports);
+            commentIds.add(entityManager.persist(comment).getId());
+        }
+        flushAndClear();
+    }
+
+    private List<Long> ids(Page<ReportedCommentDTO> page) {
+        return page.getContent().stream().map(ReportedCommentDTO::getId).toList();
+    }
+
+    @Test
+    public void queueIsOrderedByReportsThenByIdAndPaged() {
+        // 12, then the two comments reported 9 times, the higher id first, then 7 and 6
+        List<Long> expected = List.of(commentIds.get(5), commentIds.get(4), commentIds.get(3), commentIds.get(6), commentIds.get(2));
+
+        Page<ReportedCommentDTO> first = commentRepository.findReported(PageRequest.of(0, 2));
+        Page<ReportedCommentDTO> second = commentRepository.findReported(PageRequest.of(1, 2));
+        Page<ReportedCommentDTO> last = commentRepository.findReported(PageRequest.of(2, 2));
+
+        assertEquals(expected.subList(0, 2), ids(first));
+        assertEquals(expected.subList(2, 4), ids(second));
+        assertEquals(expected.subList(4, 5), ids(last));
+        assertEquals(5, first.getTotalElements());
+        assertEquals(3, first.getTotalPages());
+        assertEquals(12, first.getContent().get(0).getReportsCount());
+        assertEquals("user1", first.getContent().get(0).getAuthor());
+    }
+
+    @Test
+    public void commentsReportedFiveTimesOrLessAreNotCounted() {
+        Page<ReportedCommentDTO> page = commentRepository.findReported(PageRequest.of(0, 10));
+
+        assertEquals(5, page.getTotalElements());
+        assertTrue(page.getContent().stream().allMatch(comment -> comment.getReportsCount() > 5));
+    }
+
+    @Test
+    public void queueIsReadThroughThePartialIndex() {
+        String definition = (String) entityManager.getEntityManager()
+                .createNativeQuery("SELECT indexdef FROM pg_indexes WHERE indexname = 'idx_comment_reported'")
+                .getSingleResult();
+        assertTrue(definition.contains("reports_count DESC, comment_id DESC"), definition);
+        assertTrue(definition.contains("WHERE (reports_count > 5)"), definition);
+
+        // the table is too small for the planner to prefer an index on its own
+        entityManager.getEntityManager().createNativeQuery("SET LOCAL enable_seqscan = off").executeUpdate();
+        List<?> plan = entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT comment_id FROM comment WHERE reports_count > 5 "
+                        + "ORDER BY reports_count DESC, comment_id DESC LIMIT 2")
+                .getResultList();
+        assertTrue(plan.stream().anyMatch(line -> line.toString().contains("idx_comment_reported")), plan.toString());
+    }
+}
@@ -0,0 +1,62 @@
+package com.atoss.idea.management.system.comment;
+
+import com.atoss.idea.management.system.repository.CommentRepository;
+import com.atoss.idea.management.system.repository.dto.CommentPageDTO;
+import com.atoss.idea.management.system.repository.dto.ReportedCommentDTO;
+import com.atoss.idea.management.system.repository.entity.ReviewStatus;
+import com.atoss.idea.management.system.service.implementation.CommentServiceImpl;
+import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ModerationQueueTest {
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Mock
+    private HtmlServiceImpl htmlService;
+
+    @InjectMocks
+    private CommentServiceImpl commentService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testQueueIsPagedByTheDatabase() {
+        ReportedCommentDTO reported = new ReportedCommentDTO(7L, "comment-text", "<p>comment-text</p>", 9,
+                ReviewStatus.NOT_REVIEWED, "Irina");
+        when(commentRepository.findReported(PageRequest.of(2, 10)))
+                .thenReturn(new PageImpl<>(List.of(reported), PageRequest.of(2, 10), 21));
+        when(htmlService.storedOrMarkdownToHtml("<p>comment-text</p>", "comment-text")).thenReturn("<p>comment-text</p>");
+
+        CommentPageDTO page = commentService.getAllCommentsByReportsNr(PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "id")));
+
+        assertEquals(21, page.getTotal());
+        assertEquals(3, page.getPagedComments().getTotalPages());
+        assertEquals(1, page.getPagedComments().getContent().size());
+        assertEquals(7L, page.getPagedComments().getContent().get(0).getId());
+        assertEquals("<p>comment-text</p>", page.getPagedComments().getContent().get(0).getContent());
+        assertEquals(9, page.getPagedComments().getContent().get(0).getNrReports());
+        assertEquals(ReviewStatus.NOT_REVIEWED, page.getPagedComments().getContent().get(0).getReviewStatus());
+        assertEquals("Irina", page.getPagedComments().getContent().get(0).getAuthor());
+        verify(commentRepository, never()).findById(anyLong());
+    }
+}
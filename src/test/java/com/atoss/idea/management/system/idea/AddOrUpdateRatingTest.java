@@ -0,0 +1,95 @@
+package com.atoss.idea.management.system.idea;
+
+import com.atoss.idea.management.system.repository.IdeaRepository;
+import com.atoss.idea.management.system.repository.RatingRepository;
+import com.atoss.idea.management.system.repository.SubscriptionRepository;
+import com.atoss.idea.management.system.repository.UserRepository;
+import com.atoss.idea.management.system.repository.entity.Idea;
+import com.atoss.idea.management.system.repository.entity.Rating;
+import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.service.implementation.IdeaServiceImpl;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AddOrUpdateRatingTest {
+
+    @Mock
+    private IdeaRepository ideaRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private RatingRepository ratingRepository;
+
+    @Mock
+    private SubscriptionRepository subscriptionRepository;
+
+    @InjectMocks
+    private IdeaServiceImpl ideaServiceImpl;
+
+    @Mock
+    private StatisticsRollupJob statisticsRollupJob;
+
+    private Idea idea;
+
+    private User user;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        idea = new Idea();
+        idea.setId(1L);
+        user = new User();
+        user.setId(2L);
+
+        when(ideaRepository.findById(1L)).thenReturn(Optional.of(idea));
+        when(userRepository.findById(2L)).thenReturn(Optional.of(user));
+        when(ratingRepository.save(any(Rating.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(subscriptionRepository.findSubscribedUsersByIdeaId(1L)).thenReturn(new ArrayList<>());
+    }
+
+    @Test
+    public void newRatingIsAddedToTheTotals() {
+        when(ratingRepository.findForUpdateByIdeaIdAndUserId(1L, 2L)).thenReturn(Optional.empty());
+
+        Rating rating = ideaServiceImpl.addOrUpdateRating(1L, 2L, 4d);
+
+        assertEquals(4d, rating.getRating());
+        verify(ideaRepository).addToRatingTotals(1L, 4d, 1);
+        verify(ratingRepository, never()).findByIdeaId(1L);
+    }
+
+    @Test
+    public void replacedRatingOnlySwapsTheValue() {
+        Rating existingRating = new Rating();
+        existingRating.setRating(5d);
+        when(ratingRepository.findForUpdateByIdeaIdAndUserId(1L, 2L)).thenReturn(Optional.of(existingRating));
+
+        ideaServiceImpl.addOrUpdateRating(1L, 2L, 2d);
+
+        verify(ideaRepository).addToRatingTotals(1L, -3d, 0);
+    }
+
+    @Test
+    public void averageIsReadFromTheTotals() {
+        idea.setRatingSum(7d);
+        idea.setRatingCount(2);
+
+        assertEquals(3.5d, ideaServiceImpl.getAverage(1L));
+    }
+}
@@ -0,0 +1,171 @@
+package com.atoss.idea.management.system.idea;
+
+import com.atoss.idea.management.system.exception.BlobStorageException;
+import com.atoss.idea.management.system.repository.dto.FileMetadataDTO;
+import com.atoss.idea.management.system.service.implementation.FileSystemBlobStorageService;
+import com.atoss.idea.management.system.utils.ContentResponses;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BlobStorageServiceTest {
+
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    private Path root;
+
+    private FileSystemBlobStorageService blobStorageService;
+
+    private FileMetadataDTO file;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        blobStorageService = new FileSystemBlobStorageService(root.toString(), 1024 * 1024);
+        String contentHash = blobStorageService.store(CONTENT);
+        file = new FileMetadataDTO(1L, "numbers.txt", "text/plain", (long) CONTENT.length, contentHash);
+    }
+
+    @Test
+    public void sameContentIsStoredOnce() {
+        assertEquals(file.getContentHash(), blobStorageService.store(CONTENT.clone()));
+        assertEquals("84d89877f0d4041efb6bf91a16f0248f2fd573e6af05c19f96bedb9f882f7882", file.getContentHash());
+        assertEquals(CONTENT.length, blobStorageService.size(file.getContentHash()));
+        assertArrayEquals(CONTENT, blobStorageService.read(file.getContentHash()));
+    }
+
+    @Test
+    public void contentIsStreamedWhole() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = ContentResponses.byId(blobStorageService, file, true, new HttpHeaders());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(CONTENT.length, response.getHeaders().getContentLength());
+        assertEquals("bytes", response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertEquals("numbers.txt", response.getHeaders().getContentDisposition().getFilename());
+        assertEquals("max-age=3600, private", response.getHeaders().getCacheControl());
+        assertEquals("\"" + file.getContentHash() + "\"", response.getHeaders().getETag());
+        assertEquals("0123456789", body(response));
+    }
+
+    @Test
+    public void imageIsShownInTheSandboxedPage() {
+        FileMetadataDTO image = new FileMetadataDTO(2L, "numbers.png", "image/png", (long) CONTENT.length, file.getContentHash());
+
+        ResponseEntity<StreamingResponseBody> response = ContentResponses.byId(blobStorageService, image, false, new HttpHeaders());
+
+        assertEquals(MediaType.IMAGE_PNG, response.getHeaders().getContentType());
+        assertNull(response.getHeaders().getContentDisposition().getType());
+        assertEquals("sandbox; default-src 'none'", response.getHeaders().getFirst("Content-Security-Policy"));
+    }
+
+    @Test
+    public void contentWhichIsNotAnImageIsAlwaysDownloaded() {
+        FileMetadataDTO page = new FileMetadataDTO(3L, "page.html", "text/html", (long) CONTENT.length, file.getContentHash());
+
+        ResponseEntity<StreamingResponseBody> response = ContentResponses.byId(blobStorageService, page, false, new HttpHeaders());
+
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM, response.getHeaders().getContentType());
+        assertEquals("attachment", response.getHeaders().getContentDisposition().getType());
+        assertEquals("page.html", response.getHeaders().getContentDisposition().getFilename());
+        assertEquals("sandbox; default-src 'none'", response.getHeaders().getFirst("Content-Security-Policy"));
+    }
+
+    @Test
+    public void contentTheClientHasIsNotSentAgain() {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.setIfNoneMatch("W/\"" + file.getContentHash() + "\"");
+
+        ResponseEntity<StreamingResponseBody> response = ContentResponses.byId(blobStorageService, file, false, requestHeaders);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    public void contentByHashIsImmutable() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = ContentResponses.byHash(blobStorageService, file.getContentHash(),
+                () -> file, new HttpHeaders());
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("max-age=31536000, public, immutable", response.getHeaders().getCacheControl());
+        assertEquals("0123456789", body(response));
+
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.setIfNoneMatch(ContentResponses.eTag(file.getContentHash()));
+        ResponseEntity<StreamingResponseBody> notModified = ContentResponses.byHash(blobStorageService, file.getContentHash(),
+                () -> {
+                    throw new IllegalStateException("The metadata of a content the client has is not read");
+                }, requestHeaders);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+    }
+
+    @Test
+    public void readContentIsCached() {
+        byte[] content = blobStorageService.read(file.getContentHash());
+
+        assertSame(content, blobStorageService.read(file.getContentHash()));
+    }
+
+    @Test
+    public void rangeIsStreamed() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = ContentResponses.byId(blobStorageService, file, false, range("bytes=2-5"));
+
+        assertEquals(HttpStatus.PARTIAL_CONTENT, response.getStatusCode());
+        assertEquals("bytes 2-5/10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+        assertEquals(4, response.getHeaders().getContentLength());
+        assertEquals("2345", body(response));
+
+        assertEquals("789", body(ContentResponses.byId(blobStorageService, file, false, range("bytes=-3"))));
+        assertEquals("89", body(ContentResponses.byId(blobStorageService, file, false, range("bytes=8-"))));
+    }
+
+    @Test
+    public void rangeOutsideTheContentIsNotSatisfiable() {
+        ResponseEntity<StreamingResponseBody> response = ContentResponses.byId(blobStorageService, file, false, range("bytes=10-20"));
+
+        assertEquals(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, response.getStatusCode());
+        assertEquals("bytes */10", response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    public void invalidRangeSendsTheWholeContent() throws IOException {
+        ResponseEntity<StreamingResponseBody> response = ContentResponses.byId(blobStorageService, file, false, range("lines=1-2"));
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("0123456789", body(response));
+    }
+
+    @Test
+    public void invalidContentHashIsRejected() {
+        assertThrows(BlobStorageException.class, () -> blobStorageService.read("../../etc/passwd"));
+    }
+
+    private static HttpHeaders range(String range) {
+        HttpHeaders requestHeaders = new HttpHeaders();
+        requestHeaders.set(HttpHeaders.RANGE, range);
+        return requestHeaders;
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+        return outputStream.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -6,6 +6,7 @@ import com.atoss.idea.management.system.repository.IdeaRepository;
 import com.atoss.idea.management.system.repository.UserRepository;
 import com.atoss.idea.management.system.repository.entity.Idea;
 import com.atoss.idea.management.system.service.implementation.IdeaServiceImpl;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -27,6 +28,10 @@ public class DeleteIdeaTest {
 
     @InjectMocks
     public IdeaServiceImpl ideaServiceImpl;
+
+    @Mock
+    public StatisticsRollupJob statisticsRollupJob;
+
     public IdeaController ideaController;
 
     @Mock
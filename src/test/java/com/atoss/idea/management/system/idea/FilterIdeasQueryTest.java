@@ -0,0 +1,129 @@
+package com.atoss.idea.management.system.idea;
+
+import com.atoss.idea.management.system.PostgresRepositoryTest;
+import com.atoss.idea.management.system.repository.CategoryRepository;
+import com.atoss.idea.management.system.repository.IdeaRepository;
+import com.atoss.idea.management.system.repository.UserRepository;
+import com.atoss.idea.management.system.repository.dto.IdeaResponseDTO;
+import com.atoss.idea.management.system.repository.entity.Category;
+import com.atoss.idea.management.system.repository.entity.Idea;
+import com.atoss.idea.management.system.repository.entity.Status;
+import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.service.implementation.CommentServiceImpl;
+import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
+import com.atoss.idea.management.system.service.implementation.IdeaServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the filter of the ideas against a real database: the COUNT(DISTINCT) total and the keyset cursor
+ */
+public class FilterIdeasQueryTest extends PostgresRepositoryTest {
+
+    private static final int IDEAS = 5;
+
+    @Autowired
+    private IdeaRepository ideaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private IdeaServiceImpl ideaServiceImpl;
+
+    private final List<Long> ideaIds = new ArrayList<>();
+
+    @BeforeEach
+    public void setup() {
+        ideaServiceImpl = new IdeaServiceImpl(ideaRepository, null, userRepository, null, categoryRepository,
+                new ModelMapper(), mock(CommentServiceImpl.class), null, null, null, mock(HtmlServiceImpl.class),
+                null, null, null, null);
+        ReflectionTestUtils.setField(ideaServiceImpl, "entityManager", entityManager.getEntityManager());
+
+        Category first = new Category();
+        first.setText("first");
+        entityManager.persist(first);
+        Category second = new Category();
+        second.setText("second");
+        entityManager.persist(second);
+
+        User user = entityManager.persist(new User("user1", "user1@atoss.com"));
+
+        // every idea has the same creation date, so only the id orders them
+        Date sameDate = new Date(1_700_000_000_000L);
+        for (int i = 0; i < IDEAS; i++) {
+            Idea idea = new Idea();
+            idea.setTitle("title " + i);
+            idea.setText("text " + i);
+            idea.setStatus(Status.OPEN);
+            idea.setCreationDate(sameDate);
+            idea.setUser(user);
+            idea.setCategoryList(List.of(first, second));
+            ideaIds.add(entityManager.persist(idea).getId());
+        }
+        flushAndClear();
+    }
+
+    private Page<IdeaResponseDTO> filter(List<String> categories, String sortDirection, int pageSize, IdeaResponseDTO after) {
+        return ideaServiceImpl.filterIdeasByAll(null, null, null, categories, null, null, null, sortDirection, null, null,
+                PageRequest.of(0, pageSize), null, null,
+                after == null ? null : after.getCreationDate(), after == null ? null : after.getId());
+    }
+
+    private List<Long> readAllPages(String sortDirection, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        IdeaResponseDTO last = null;
+        Page<IdeaResponseDTO> page;
+        do {
+            page = filter(null, sortDirection, pageSize, last);
+            page.getContent().forEach(idea -> ids.add(idea.getId()));
+            last = page.getContent().isEmpty() ? null : page.getContent().get(page.getContent().size() - 1);
+        } while (page.getContent().size() == pageSize);
+        return ids;
+    }
+
+    @Test
+    public void testKeysetPagesDescendingWithEqualCreationDates() {
+        List<Long> expected = new ArrayList<>(ideaIds);
+        expected.sort(Comparator.reverseOrder());
+
+        assertEquals(expected, readAllPages("DESC", 2));
+    }
+
+    @Test
+    public void testKeysetPagesAscendingWithEqualCreationDates() {
+        List<Long> expected = new ArrayList<>(ideaIds);
+        expected.sort(Comparator.naturalOrder());
+
+        assertEquals(expected, readAllPages("ASC", 2));
+    }
+
+    @Test
+    public void testTotalCountsEveryIdeaOnceWithSeveralMatchingCategories() {
+        Page<IdeaResponseDTO> page = filter(List.of("first", "second"), "DESC", 3, null);
+
+        assertEquals(IDEAS, page.getTotalElements());
+        assertEquals(3, page.getContent().size());
+        assertEquals(3, page.getContent().stream().map(IdeaResponseDTO::getId).distinct().count());
+
+        Page<IdeaResponseDTO> nextPage = filter(List.of("first", "second"), "DESC", 3, page.getContent().get(2));
+
+        assertEquals(IDEAS, nextPage.getTotalElements());
+        assertEquals(IDEAS - 3, nextPage.getContent().size());
+    }
+}
@@ -75,9 +75,8 @@ public class GetAllIdeasTest {
 
         Page<Idea> ideaPage = new PageImpl<>(Arrays.asList(idea));
         idea.setCommentList(commentList);
-        when(ideaRepository.findAll()).thenReturn(Arrays.asList(idea));
-        when(ideaRepository.findAll(PageRequest.of(0, 10))).thenReturn(ideaPage);
-        when(ideaRepository.findById(any(Long.class))).thenReturn(Optional.of(idea));
+        idea.setCommentsCount(commentList.size());
+        when(ideaRepository.findFeedPage(PageRequest.of(0, 10))).thenReturn(ideaPage);
         when(commentServiceImpl.getElapsedTime(any(Date.class))).thenReturn("1 day elapsed");
 
         Page<IdeaResponseDTO> result = ideaServiceImpl.getAllIdeas(PageRequest.of(0, 10));
@@ -98,7 +97,7 @@ public class GetAllIdeasTest {
 
         Page<Idea> ideaPage = new PageImpl<>(Arrays.asList(idea));
 
-        when(ideaRepository.findAll()).thenReturn(new ArrayList<>());
+        when(ideaRepository.findFeedPage(PageRequest.of(0, 10))).thenReturn(Page.empty());
 
         assertThatThrownBy(() -> ideaServiceImpl.getAllIdeas(PageRequest.of(0, 10)))
                 .isInstanceOf(FieldValidationException.class)
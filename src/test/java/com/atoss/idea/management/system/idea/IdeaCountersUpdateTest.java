@@ -0,0 +1,59 @@
+package com.atoss.idea.management.system.idea;
+
+import com.atoss.idea.management.system.PostgresRepositoryTest;
+import com.atoss.idea.management.system.repository.IdeaRepository;
+import com.atoss.idea.management.system.repository.entity.Idea;
+import com.atoss.idea.management.system.repository.entity.Status;
+import com.atoss.idea.management.system.repository.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Saving an idea loaded before a rating or a comment was added must keep the counters written by the atomic updates
+ */
+public class IdeaCountersUpdateTest extends PostgresRepositoryTest {
+
+    @Autowired
+    private IdeaRepository ideaRepository;
+
+    private Long ideaId;
+
+    @BeforeEach
+    public void setup() {
+        User user = entityManager.persist(new User("user1", "user1@atoss.com"));
+        Idea idea = new Idea();
+        idea.setTitle("title");
+        idea.setText("text");
+        idea.setStatus(Status.OPEN);
+        idea.setCreationDate(new Date());
+        idea.setUser(user);
+        ideaId = entityManager.persist(idea).getId();
+        flushAndClear();
+    }
+
+    @Test
+    public void savingAStaleIdeaKeepsTheCounters() {
+        // loaded by an update of the idea, before the rating and the comment of another request
+        Idea staleIdea = ideaRepository.findById(ideaId).get();
+
+        ideaRepository.addToRatingTotals(ideaId, 4d, 1);
+        ideaRepository.addToCommentsCount(ideaId, 1);
+        flushAndClear();
+
+        staleIdea.setTitle("new title");
+        ideaRepository.save(staleIdea);
+        flushAndClear();
+
+        Idea idea = ideaRepository.findById(ideaId).get();
+        assertEquals("new title", idea.getTitle());
+        assertEquals(4d, idea.getRatingSum());
+        assertEquals(1, idea.getRatingCount());
+        assertEquals(4d, idea.getRatingAvg());
+        assertEquals(1, idea.getCommentsCount());
+    }
+}
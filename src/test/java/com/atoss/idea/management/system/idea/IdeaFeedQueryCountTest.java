@@ -0,0 +1,128 @@
+package com.atoss.idea.management.system.idea;
+
+import com.atoss.idea.management.system.PostgresRepositoryTest;
+import com.atoss.idea.management.system.repository.CategoryRepository;
+import com.atoss.idea.management.system.repository.IdeaRepository;
+import com.atoss.idea.management.system.repository.UserRepository;
+import com.atoss.idea.management.system.repository.dto.IdeaResponseDTO;
+import com.atoss.idea.management.system.repository.entity.Avatar;
+import com.atoss.idea.management.system.repository.entity.Category;
+import com.atoss.idea.management.system.repository.entity.Document;
+import com.atoss.idea.management.system.repository.entity.Idea;
+import com.atoss.idea.management.system.repository.entity.Image;
+import com.atoss.idea.management.system.repository.entity.Status;
+import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.service.implementation.CommentServiceImpl;
+import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
+import com.atoss.idea.management.system.service.implementation.IdeaServiceImpl;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Guards the ideas feed against the N+1 pattern: mapping a page of ideas, with their author, avatar,
+ * image, categories and documents, must cost the same number of statements whatever the size of the page.
+ * The statements are counted by Hibernate against a real database, lazy loads included.
+ */
+public class IdeaFeedQueryCountTest extends PostgresRepositoryTest {
+
+    private static final int IDEAS = 30;
+
+    private static final int USERS = 6;
+
+    // the page and count queries, and one batch for the categories and one for the documents
+    private static final long MAX_STATEMENTS_PER_PAGE = 4;
+
+    @Autowired
+    private IdeaRepository ideaRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private IdeaServiceImpl ideaServiceImpl;
+
+    @BeforeEach
+    public void setup() {
+        ideaServiceImpl = new IdeaServiceImpl(ideaRepository, null, userRepository, null, categoryRepository,
+                new ModelMapper(), mock(CommentServiceImpl.class), null, null, null, mock(HtmlServiceImpl.class),
+                null, null, null, null);
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Category category = new Category();
+            category.setText("category " + i);
+            categories.add(entityManager.persist(category));
+        }
+
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            User user = new User("user" + i, "user" + i + "@atoss.com");
+            user.setAvatar(entityManager.persist(new Avatar("avatar" + i + ".png", "image/png", "hash" + i, 10L)));
+            users.add(entityManager.persist(user));
+        }
+
+        for (int i = 0; i < IDEAS; i++) {
+            Idea idea = new Idea();
+            idea.setTitle("title " + i);
+            idea.setText("text " + i);
+            idea.setStatus(Status.OPEN);
+            idea.setCreationDate(new Date());
+            idea.setUser(users.get(i % USERS));
+            idea.setCategoryList(List.of(categories.get(i % 3), categories.get((i + 1) % 3)));
+            if (i % 2 == 0) {
+                idea.setImage(entityManager.persist(new Image("image" + i + ".png", "image/png", "image-hash" + i, 10L)));
+            }
+            entityManager.persist(idea);
+
+            Document document = new Document("document" + i + ".pdf", "application/pdf", "document-hash" + i, 10L);
+            document.setIdea(idea);
+            entityManager.persist(document);
+        }
+        flushAndClear();
+    }
+
+    private long countStatements(Supplier<Page<IdeaResponseDTO>> feed, int expectedSize) {
+        // nothing is served from the persistence context of a previous page
+        entityManager.clear();
+        Statistics statistics = statistics();
+        statistics.clear();
+        Page<IdeaResponseDTO> page = feed.get();
+        assertEquals(expectedSize, page.getContent().size());
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    public void getAllIdeasCostsTheSameStatementsWhateverThePageSize() {
+        long smallPage = countStatements(() -> ideaServiceImpl.getAllIdeas(PageRequest.of(0, 5)), 5);
+        long largePage = countStatements(() -> ideaServiceImpl.getAllIdeas(PageRequest.of(0, 25)), 25);
+
+        assertEquals(smallPage, largePage);
+        assertTrue(largePage <= MAX_STATEMENTS_PER_PAGE, "statements for a page of 25 ideas: " + largePage);
+    }
+
+    @Test
+    public void getAllIdeasByUserUsernameCostsTheSameStatementsWhateverThePageSize() {
+        // the user lookup and the existence check come on top of the page
+        long smallPage = countStatements(() -> ideaServiceImpl.getAllIdeasByUserUsername("user0", PageRequest.of(0, 2)), 2);
+        long largePage = countStatements(() -> ideaServiceImpl.getAllIdeasByUserUsername("user0", PageRequest.of(0, 4)), 4);
+
+        assertEquals(smallPage, largePage);
+        assertTrue(largePage <= MAX_STATEMENTS_PER_PAGE + 3, "statements for a page of 4 ideas: " + largePage);
+    }
+}
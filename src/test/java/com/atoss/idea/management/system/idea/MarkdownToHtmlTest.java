@@ -0,0 +1,59 @@
+package com.atoss.idea.management.system.idea;
+
+import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MarkdownToHtmlTest {
+
+    private HtmlServiceImpl htmlService;
+
+    @BeforeEach
+    public void setup() {
+        htmlService = new HtmlServiceImpl();
+    }
+
+    @Test
+    public void removesTheWrappingParagraph() {
+        assertEquals("some <strong>bold</strong> text", htmlService.markdownToHtml("some **bold** text"));
+    }
+
+    @Test
+    public void keepsInnerParagraphs() {
+        assertEquals("first</p>\n<p>second", htmlService.markdownToHtml("first\n\nsecond"));
+    }
+
+    @Test
+    public void addsTheStyleToImages() {
+        String html = htmlService.markdownToHtml("![cat](cat.png)");
+
+        assertThat(html).startsWith("<img ");
+        assertThat(html).contains("src=\"cat.png\"");
+        assertThat(html).contains("style=\"width:5vw; height:auto;\"");
+    }
+
+    @Test
+    public void returnsTheCachedHtmlForTheSameContent() {
+        String first = htmlService.markdownToHtml("# title");
+        String second = htmlService.markdownToHtml("# title");
+
+        assertEquals("<h1>title</h1>", first);
+        assertSame(first, second);
+    }
+
+    @Test
+    public void rejectsNullContent() {
+        assertThrows(IllegalArgumentException.class, () -> htmlService.markdownToHtml(null));
+    }
+
+    @Test
+    public void prefersTheStoredHtml() {
+        assertEquals("<em>stored</em>", htmlService.storedOrMarkdownToHtml("<em>stored</em>", "**markdown**"));
+        assertEquals("<strong>markdown</strong>", htmlService.storedOrMarkdownToHtml(null, "**markdown**"));
+    }
+}
@@ -0,0 +1,84 @@
+package com.atoss.idea.management.system.idea;
+
+import com.atoss.idea.management.system.repository.CommentRepository;
+import com.atoss.idea.management.system.repository.IdeaRepository;
+import com.atoss.idea.management.system.repository.entity.Comment;
+import com.atoss.idea.management.system.repository.entity.Idea;
+import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
+import com.atoss.idea.management.system.utils.RenderedHtmlBackfillJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RenderedHtmlBackfillJobTest {
+
+    @Mock
+    private IdeaRepository ideaRepository;
+
+    @Mock
+    private CommentRepository commentRepository;
+
+    @Spy
+    private HtmlServiceImpl htmlService;
+
+    @InjectMocks
+    private RenderedHtmlBackfillJob renderedHtmlBackfillJob;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(renderedHtmlBackfillJob, "batchSize", 2);
+    }
+
+    @Test
+    public void storesTheHtmlOfEveryIdeaInBatches() {
+        List<Idea> firstBatch = List.of(idea(1L, "**first**"), idea(2L, "second"));
+        List<Idea> lastBatch = List.of(idea(3L, "# third"));
+        when(ideaRepository.findByRenderedTextIsNull(any(Pageable.class))).thenReturn(firstBatch, lastBatch);
+        when(commentRepository.findByRenderedCommentTextIsNull(any(Pageable.class))).thenReturn(new ArrayList<>());
+
+        renderedHtmlBackfillJob.backfill();
+
+        verify(ideaRepository, times(2)).findByRenderedTextIsNull(any(Pageable.class));
+        verify(ideaRepository).updateRenderedHtml(1L, "title", "<strong>first</strong>");
+        verify(ideaRepository).updateRenderedHtml(2L, "title", "second");
+        verify(ideaRepository).updateRenderedHtml(3L, "title", "<h1>third</h1>");
+        verify(commentRepository, never()).updateRenderedHtml(anyLong(), anyString());
+    }
+
+    @Test
+    public void storesAnEmptyHtmlForCommentsWithoutText() {
+        Comment comment = new Comment();
+        comment.setId(7L);
+        when(ideaRepository.findByRenderedTextIsNull(any(Pageable.class))).thenReturn(new ArrayList<>());
+        when(commentRepository.findByRenderedCommentTextIsNull(any(Pageable.class))).thenReturn(List.of(comment));
+
+        renderedHtmlBackfillJob.backfill();
+
+        verify(commentRepository).updateRenderedHtml(7L, "");
+    }
+
+    private Idea idea(Long id, String text) {
+        Idea idea = new Idea();
+        idea.setId(id);
+        idea.setTitle("title");
+        idea.setText(text);
+        return idea;
+    }
+}
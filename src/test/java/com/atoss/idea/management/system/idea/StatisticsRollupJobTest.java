@@ -0,0 +1,91 @@
+package com.atoss.idea.management.system.idea;
+
+import com.atoss.idea.management.system.repository.DailyStatisticsRepository;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatisticsRollupJobTest {
+
+    @Mock
+    private DailyStatisticsRepository dailyStatisticsRepository;
+
+    @InjectMocks
+    private StatisticsRollupJob statisticsRollupJob;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testChangedDayIsComputedOnce() {
+        LocalDate day = LocalDate.of(2024, 3, 15);
+        Date morning = Date.from(day.atTime(9, 0).atZone(ZoneId.systemDefault()).toInstant());
+        Date evening = Date.from(day.atTime(21, 0).atZone(ZoneId.systemDefault()).toInstant());
+
+        statisticsRollupJob.markChanged(morning);
+        statisticsRollupJob.markChanged(evening);
+
+        assertEquals(1, statisticsRollupJob.rollupChangedDays());
+        verify(dailyStatisticsRepository, times(1)).rebuildBetween(day, day);
+
+        assertEquals(0, statisticsRollupJob.rollupChangedDays());
+        verify(dailyStatisticsRepository, times(1)).rebuildBetween(any(), any());
+    }
+
+    @Test
+    public void testFailedDayStaysMarked() {
+        LocalDate day = LocalDate.of(2024, 3, 15);
+        Date noon = Date.from(day.atTime(12, 0).atZone(ZoneId.systemDefault()).toInstant());
+        when(dailyStatisticsRepository.rebuildBetween(day, day))
+                .thenThrow(new IllegalStateException("duplicate key"))
+                .thenReturn(1);
+
+        statisticsRollupJob.markChanged(noon);
+
+        assertThrows(IllegalStateException.class, () -> statisticsRollupJob.rollupChangedDays());
+        assertEquals(1, statisticsRollupJob.rollupChangedDays());
+        verify(dailyStatisticsRepository, times(2)).rebuildBetween(day, day);
+        assertEquals(0, statisticsRollupJob.rollupChangedDays());
+    }
+
+    @Test
+    public void testMissingCreationDateIsIgnored() {
+        statisticsRollupJob.markChanged(null);
+
+        assertEquals(0, statisticsRollupJob.rollupChangedDays());
+        verify(dailyStatisticsRepository, never()).rebuildBetween(any(), any());
+    }
+
+    @Test
+    public void testDataVersionChangesWithChangesAndComputations() {
+        long initial = statisticsRollupJob.getDataVersion();
+
+        statisticsRollupJob.markChanged(new Date());
+        long changed = statisticsRollupJob.getDataVersion();
+        statisticsRollupJob.rollupChangedDays();
+        long computed = statisticsRollupJob.getDataVersion();
+        statisticsRollupJob.rollupChangedDays();
+
+        assertTrue(changed > initial);
+        assertTrue(computed > changed);
+        assertEquals(computed, statisticsRollupJob.getDataVersion());
+    }
+}
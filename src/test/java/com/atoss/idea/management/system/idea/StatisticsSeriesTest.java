@@ -0,0 +1,103 @@
+package com.atoss.idea.management.system.idea;
+
+import com.atoss.idea.management.system.exception.FieldValidationException;
+import com.atoss.idea.management.system.repository.DailyStatisticsRepository;
+import com.atoss.idea.management.system.repository.dto.StatisticsBucketView;
+import com.atoss.idea.management.system.repository.dto.StatisticsSeriesDTO;
+import com.atoss.idea.management.system.service.implementation.StatisticsServiceImpl;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StatisticsSeriesTest {
+
+    @Mock
+    private DailyStatisticsRepository dailyStatisticsRepository;
+
+    @Mock
+    private StatisticsRollupJob statisticsRollupJob;
+
+    @InjectMocks
+    private StatisticsServiceImpl statisticsService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    public void testWeeksWithoutStatisticsAreFilledWithZeros() {
+        StatisticsBucketView secondWeek = mock(StatisticsBucketView.class);
+        when(secondWeek.getBucket()).thenReturn(LocalDate.of(2024, 3, 11));
+        when(secondWeek.getOpenIdeas()).thenReturn(2L);
+        when(secondWeek.getDraftIdeas()).thenReturn(1L);
+        when(secondWeek.getImplementedIdeas()).thenReturn(0L);
+        when(secondWeek.getComments()).thenReturn(5L);
+        when(secondWeek.getReplies()).thenReturn(3L);
+        when(secondWeek.getRatings()).thenReturn(4L);
+        when(secondWeek.getLikes()).thenReturn(7L);
+        when(dailyStatisticsRepository.sumByBucket("week", LocalDate.of(2024, 3, 6), LocalDate.of(2024, 3, 20)))
+                .thenReturn(List.of(secondWeek));
+
+        StatisticsSeriesDTO series = statisticsService.getStatisticsSeries("2024-03-6", "2024-03-20", "WEEK");
+
+        assertEquals("week", series.getGranularity());
+        assertEquals(List.of(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 11), LocalDate.of(2024, 3, 18)), series.getBuckets());
+        assertEquals(List.of(0L, 2L, 0L), series.getOpenIdeas());
+        assertEquals(List.of(0L, 5L, 0L), series.getComments());
+        assertEquals(List.of(0L, 7L, 0L), series.getLikes());
+    }
+
+    @Test
+    public void testUnknownGranularityIsRejected() {
+        assertThrows(FieldValidationException.class,
+                () -> statisticsService.getStatisticsSeries("2024-03-01", "2024-03-31", "year"));
+        verify(dailyStatisticsRepository, never()).sumByBucket(anyString(), any(), any());
+    }
+
+    @Test
+    public void testTooManyBucketsAreRejected() {
+        when(dailyStatisticsRepository.sumByBucket(anyString(), any(), any())).thenReturn(List.of());
+
+        assertThrows(FieldValidationException.class,
+                () -> statisticsService.getStatisticsSeries("2000-01-01", "2024-12-31", "day"));
+    }
+
+    @Test
+    public void testSnapshotIsComputedOncePerDataVersion() {
+        when(dailyStatisticsRepository.sumByBucket(anyString(), any(), any())).thenReturn(List.of());
+        when(statisticsRollupJob.getDataVersion()).thenReturn(1L);
+
+        StatisticsSeriesDTO first = statisticsService.getStatisticsSeries("2024-03-01", "2024-03-31", "week");
+        StatisticsSeriesDTO second = statisticsService.getStatisticsSeries("2024-03-01", "2024-03-31", "week");
+        statisticsService.getStatisticsSeries("2024-03-01", "2024-03-31", "month");
+
+        assertSame(first, second);
+        verify(dailyStatisticsRepository, times(2)).sumByBucket(anyString(), any(), any());
+
+        when(statisticsRollupJob.getDataVersion()).thenReturn(2L);
+
+        StatisticsSeriesDTO third = statisticsService.getStatisticsSeries("2024-03-01", "2024-03-31", "week");
+
+        assertNotSame(first, third);
+        verify(dailyStatisticsRepository, times(3)).sumByBucket(anyString(), any(), any());
+    }
+}
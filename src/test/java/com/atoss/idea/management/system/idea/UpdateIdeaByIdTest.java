@@ -10,6 +10,8 @@ import com.atoss.idea.management.system.repository.entity.*;
 import com.atoss.idea.management.system.service.implementation.HtmlServiceImpl;
 import com.atoss.idea.management.system.service.implementation.IdeaServiceImpl;
 import com.atoss.idea.management.system.service.implementation.CommentServiceImpl;
+import com.atoss.idea.management.system.utils.ProfanityFilter;
+import com.atoss.idea.management.system.utils.StatisticsRollupJob;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -28,6 +30,9 @@ public class UpdateIdeaByIdTest {
     public IdeaRepository ideaRepository;
     @InjectMocks
     public IdeaServiceImpl ideaServiceImpl;
+
+    @Mock
+    public StatisticsRollupJob statisticsRollupJob;
     public IdeaController ideaController;
 
     @Mock
@@ -42,6 +47,9 @@ public class UpdateIdeaByIdTest {
     @Spy
     public ModelMapper modelMapper;
 
+    @Spy
+    public ProfanityFilter profanityFilter;
+
     @Mock
     public SubscriptionRepository subscriptionRepository;
 
@@ -109,6 +109,7 @@ public class getAllIdeasByUserUsernameTest {
         responseDTO.setCommentsNumber(0);
 
         when(userRepository.findByUsername(any(String.class))).thenReturn(Optional.of(user));
+        when(ideaRepository.existsByUserUsername(any(String.class))).thenReturn(true);
         when(ideaRepository.findById(any(Long.class))).thenReturn(Optional.of(idea));
         when(ideaRepository.findAllByUserUsername(any(String.class), any(Pageable.class)))
                 .thenReturn(new PageImpl<>(List.of(idea)));
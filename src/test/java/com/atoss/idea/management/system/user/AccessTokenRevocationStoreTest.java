@@ -0,0 +1,94 @@
+package com.atoss.idea.management.system.user;
+
+import com.atoss.idea.management.system.repository.BlacklistedAccessTokenRepository;
+import com.atoss.idea.management.system.repository.entity.BlacklistedAccessToken;
+import com.atoss.idea.management.system.security.token.AccessTokenRevocationStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AccessTokenRevocationStoreTest {
+
+    @Mock
+    private BlacklistedAccessTokenRepository blacklistedAccessTokenRepository;
+
+    @InjectMocks
+    private AccessTokenRevocationStore revocationStore;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(blacklistedAccessTokenRepository.findByExpiryGreaterThan(any(Date.class)))
+                .thenReturn(new ArrayList<>());
+    }
+
+    @Test
+    public void tokensRevokedBeforeTheStartAreLoaded() {
+        BlacklistedAccessToken revoked = revocation(1L, "revoked");
+        when(blacklistedAccessTokenRepository.findByExpiryGreaterThan(any(Date.class)))
+                .thenReturn(List.of(revoked));
+
+        revocationStore.load();
+
+        assertTrue(revocationStore.isRevoked("revoked"));
+        assertFalse(revocationStore.isRevoked("valid"));
+    }
+
+    @Test
+    public void revocationsSavedLaterWithALowerIdAreLoaded() {
+        BlacklistedAccessToken first = revocation(5L, "first");
+        // saved by another instance with an id it took from the sequence earlier, committed after the first load
+        BlacklistedAccessToken second = revocation(3L, "second");
+        when(blacklistedAccessTokenRepository.findByExpiryGreaterThan(any(Date.class)))
+                .thenReturn(List.of(first), List.of(first, second));
+
+        revocationStore.load();
+        assertTrue(revocationStore.isRevoked("first"));
+        assertFalse(revocationStore.isRevoked("second"));
+
+        revocationStore.evictExpired();
+
+        assertTrue(revocationStore.isRevoked("first"));
+        assertTrue(revocationStore.isRevoked("second"));
+    }
+
+    @Test
+    public void revokedTokenIsSavedAndCheckedInMemory() {
+        revocationStore.revoke("revoked", new Date(System.currentTimeMillis() + 60000));
+
+        verify(blacklistedAccessTokenRepository).save(any(BlacklistedAccessToken.class));
+        assertTrue(revocationStore.isRevoked("revoked"));
+    }
+
+    @Test
+    public void expiredRevocationsAreEvicted() {
+        revocationStore.revoke("expired", new Date(System.currentTimeMillis() - 1000));
+        revocationStore.revoke("revoked", new Date(System.currentTimeMillis() + 60000));
+
+        revocationStore.evictExpired();
+
+        assertFalse(revocationStore.isRevoked("expired"));
+        assertTrue(revocationStore.isRevoked("revoked"));
+        verify(blacklistedAccessTokenRepository).deleteExpired(any(Date.class));
+    }
+
+    private BlacklistedAccessToken revocation(Long id, String token) {
+        BlacklistedAccessToken revocation = new BlacklistedAccessToken();
+        revocation.setId(id);
+        revocation.setToken(token);
+        revocation.setExpiry(new Date(System.currentTimeMillis() + 60000));
+        return revocation;
+    }
+}
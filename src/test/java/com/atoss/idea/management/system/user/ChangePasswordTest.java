@@ -6,6 +6,9 @@ import com.atoss.idea.management.system.repository.AvatarRepository;
 import com.atoss.idea.management.system.repository.UserRepository;
 import com.atoss.idea.management.system.repository.dto.ChangePasswordDTO;
 import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.LoginConfig;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.UserService;
 import com.atoss.idea.management.system.service.implementation.UserServiceImpl;
@@ -46,6 +49,12 @@ public class ChangePasswordTest {
     @Mock
     AvatarRepository mockAvatarRepository;
 
+    @Mock
+    BlobStorageService mockBlobStorageService;
+
+    @Mock
+    UserDetailsServiceImpl mockUserDetailsService;
+
 
     String bcryptSalt;
 
@@ -58,7 +67,10 @@ public class ChangePasswordTest {
                         mockUserRepository,
                         spyModelMapper,
                         mockSendEmailService,
-                        mockAvatarRepository
+                        mockAvatarRepository,
+                        mockUserDetailsService,
+                        LoginConfig.createPasswordEncoder(4),
+                        mockBlobStorageService
                 )
         );
         spyUserController = spy(new UserController(spyUserService, mockSendEmailService));
@@ -6,6 +6,7 @@ import com.atoss.idea.management.system.repository.dto.UserResponseDTO;
 import com.atoss.idea.management.system.repository.entity.Avatar;
 import com.atoss.idea.management.system.repository.entity.Role;
 import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.implementation.UserServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +30,9 @@ public class ChangeRoleTest {
     @Mock
     SendEmailService sendEmailServicetest;
 
+    @Mock
+    UserDetailsServiceImpl userDetailsService;
+
     UserController userController;
 
     @BeforeEach
@@ -5,6 +5,9 @@ import com.atoss.idea.management.system.repository.AvatarRepository;
 import com.atoss.idea.management.system.repository.UserRepository;
 import com.atoss.idea.management.system.repository.dto.UserResponseDTO;
 import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.LoginConfig;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.UserService;
 import com.atoss.idea.management.system.service.implementation.UserServiceImpl;
@@ -40,6 +43,12 @@ public class CreateUserTest {
     @Mock
     AvatarRepository mockAvatarRepository;
 
+    @Mock
+    BlobStorageService mockBlobStorageService;
+
+    @Mock
+    UserDetailsServiceImpl mockUserDetailsService;
+
 
     private String username = "username";
     private String email = "email@email.email";
@@ -52,7 +61,10 @@ public class CreateUserTest {
                         mockUserRepository,
                         spyModelMapper,
                         mockSendEmailService,
-                        mockAvatarRepository
+                        mockAvatarRepository,
+                        mockUserDetailsService,
+                        LoginConfig.createPasswordEncoder(4),
+                        mockBlobStorageService
                 )
         );
     }
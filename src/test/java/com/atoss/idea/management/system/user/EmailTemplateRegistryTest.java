@@ -0,0 +1,56 @@
+package com.atoss.idea.management.system.user;
+
+import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.utils.EmailModelBuilder;
+import com.atoss.idea.management.system.utils.EmailTemplateRegistry;
+import com.atoss.idea.management.system.utils.RecipientTemplate;
+import freemarker.template.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+public class EmailTemplateRegistryTest {
+
+    private EmailTemplateRegistry templateRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        Configuration configuration = new Configuration(Configuration.VERSION_2_3_21);
+        configuration.setClassForTemplateLoading(getClass(), "/templates");
+        templateRegistry = new EmailTemplateRegistry(configuration);
+    }
+
+    @Test
+    public void loadsEveryTemplate() throws Exception {
+        assertEquals(12, templateRegistry.loadAll());
+    }
+
+    @Test
+    public void emailRenderedOnceIsTheSameAsTheEmailRenderedForTheRecipient() throws Exception {
+        User user = new User();
+        user.setUsername("username");
+        user.setEmail("username@atoss.com");
+        EmailModelBuilder modelBuilder = new EmailModelBuilder("Atoss Idea Management System")
+                .with("newComment", "A **new** comment");
+
+        String body = templateRegistry.renderForRecipients("comment-added-subscription-template.ftl", modelBuilder.build(),
+                EmailModelBuilder.USERNAME, EmailModelBuilder.EMAIL);
+        String expected = templateRegistry.render("comment-added-subscription-template.ftl", modelBuilder.withRecipient(user).build());
+
+        assertEquals(expected, RecipientTemplate.parse(body).fill(EmailModelBuilder.recipient(user)));
+    }
+
+    @Test
+    public void placeholderWithoutValueIsLeftEmpty() {
+        RecipientTemplate template = RecipientTemplate.parse("Hello " + RecipientTemplate.placeholder("username") + "!");
+
+        String email = template.fill(Map.of());
+
+        assertEquals("Hello !", email);
+        assertFalse(email.contains("@@"));
+    }
+}
@@ -3,6 +3,9 @@ package com.atoss.idea.management.system.user;
 import com.atoss.idea.management.system.exception.UserAlreadyDeactivatedException;
 import com.atoss.idea.management.system.repository.*;
 import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.LoginConfig;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.UserService;
 import com.atoss.idea.management.system.service.implementation.SendEmailServiceImpl;
@@ -43,6 +46,12 @@ public class ForgetPasswordTest {
     @Mock
     AvatarRepository mockAvatarRepository;
 
+    @Mock
+    BlobStorageService mockBlobStorageService;
+
+    @Mock
+    UserDetailsServiceImpl mockUserDetailsService;
+
 
     @Spy
     JavaMailSender mockEmailSender;
@@ -59,6 +68,9 @@ public class ForgetPasswordTest {
     @Mock
     CommentRepository mockCommentRepository;
 
+    @Mock
+    NotificationRepository mockNotificationRepository;
+
 
     String bcryptSalt;
 
@@ -77,7 +89,8 @@ public class ForgetPasswordTest {
                         mockConfiguration,
                         mockSubscriptionRepository,
                         mockIdeaRepository,
-                        mockCommentRepository
+                        mockCommentRepository,
+                        mockNotificationRepository
 
                 )
         );
@@ -87,8 +100,10 @@ public class ForgetPasswordTest {
                         mockUserRepository,
                         spyModelMapper,
                         spySendEmailService,
-                        mockAvatarRepository
-
+                        mockAvatarRepository,
+                        mockUserDetailsService,
+                        LoginConfig.createPasswordEncoder(4),
+                        mockBlobStorageService
                 )
         );
         user = new User();
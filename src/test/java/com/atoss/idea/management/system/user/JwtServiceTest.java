@@ -0,0 +1,95 @@
+package com.atoss.idea.management.system.user;
+
+import com.atoss.idea.management.system.repository.dto.UserSecurityDTO;
+import com.atoss.idea.management.system.repository.entity.Role;
+import com.atoss.idea.management.system.security.token.AccessTokenConfig;
+import com.atoss.idea.management.system.security.token.AccessTokenRevocationStore;
+import com.atoss.idea.management.system.security.token.JwtService;
+import com.atoss.idea.management.system.service.UserService;
+import com.atoss.idea.management.system.utils.LogSampler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+public class JwtServiceTest {
+
+    @Spy
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private UserService userService;
+
+    @Mock
+    private AccessTokenRevocationStore revocationStore;
+
+    @Mock
+    private AccessTokenConfig tokenConfig;
+
+    @Mock
+    private LogSampler logSampler;
+
+    @InjectMocks
+    private JwtService jwtService;
+
+    private UserDetails userDetails;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(jwtService, "secret", "9eadbfa9ea1aa2cfa839853167ed1c9f11fcd0f4977ea84993e7ad2ac338b490");
+        when(tokenConfig.getExpiryMs()).thenReturn(300000L);
+        jwtService.init();
+
+        UserSecurityDTO user = new UserSecurityDTO();
+        user.setUsername("username");
+        user.setId(1L);
+        user.setRole(Role.STANDARD);
+        when(userService.getUserByUsername("username", UserSecurityDTO.class)).thenReturn(user);
+        userDetails = new User("username", "password", List.of());
+    }
+
+    @Test
+    public void verifiedTokenIsNotParsedAgain() {
+        String token = jwtService.generateToken("username");
+
+        Claims claims = jwtService.verifyToken(token);
+
+        assertEquals("username", claims.getSubject());
+        assertSame(claims, jwtService.verifyToken(token));
+        assertTrue(jwtService.validateToken(token, claims, userDetails));
+    }
+
+    @Test
+    public void tamperedTokenIsRejected() {
+        String token = jwtService.generateToken("username");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verifyToken(tampered));
+    }
+
+    @Test
+    public void blacklistedTokenIsNotValid() {
+        String token = jwtService.generateToken("username");
+        when(revocationStore.isRevoked(token)).thenReturn(true);
+
+        assertFalse(jwtService.validateToken(token, userDetails));
+    }
+}
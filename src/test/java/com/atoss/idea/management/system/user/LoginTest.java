@@ -4,12 +4,16 @@ import com.atoss.idea.management.system.repository.AvatarRepository;
 import com.atoss.idea.management.system.repository.UserRepository;
 import com.atoss.idea.management.system.repository.entity.User;
 import com.atoss.idea.management.system.security.AuthController;
+import com.atoss.idea.management.system.security.LoginConfig;
+import com.atoss.idea.management.system.security.LoginExecutor;
+import com.atoss.idea.management.system.security.RouteMatcher;
 import com.atoss.idea.management.system.security.SessionService;
 import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
 import com.atoss.idea.management.system.security.WebSecurityConfig;
 import com.atoss.idea.management.system.security.request.LoginRequest;
 import com.atoss.idea.management.system.security.token.JwtService;
 import com.atoss.idea.management.system.security.token.RefreshTokenService;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.UserService;
 import com.atoss.idea.management.system.service.implementation.UserServiceImpl;
@@ -49,6 +53,9 @@ public class LoginTest {
     @Mock
     AvatarRepository mockAvatarRepository;
 
+    @Mock
+    BlobStorageService mockBlobStorageService;
+
     private String userNameOrEmail;
     String password = "$2a$10$QkRidA35ea0Fzm/ObrOEgOPc.iR5bVFykS69zBoIFU/2DMhsBVf2O";
 
@@ -83,7 +90,9 @@ public class LoginTest {
 
         spyUserDetailsService = spy(
                 new UserDetailsServiceImpl(
-                        mockUserRepository
+                        mockUserRepository,
+                        300000L,
+                        30000L
                 )
         );
 
@@ -92,7 +101,10 @@ public class LoginTest {
                         mockUserRepository,
                         spyModelMapper,
                         mockSendEmailService,
-                        mockAvatarRepository
+                        mockAvatarRepository,
+                        spyUserDetailsService,
+                        LoginConfig.createPasswordEncoder(4),
+                        mockBlobStorageService
                 )
         );
 
@@ -102,8 +114,8 @@ public class LoginTest {
                         null,
                         mockJwtService,
                         mockSessionService,
-                        new String[]{},
-                        new String[]{}
+                        new RouteMatcher(new String[]{}, new String[]{}),
+                        LoginConfig.createPasswordEncoder(10)
                 )
         );
 
@@ -118,7 +130,9 @@ public class LoginTest {
                         spyUserService,
                         mockRefreshTokenService,
                         mockJwtService,
-                        mockSessionService
+                        mockSessionService,
+                        new LoginExecutor(Runnable::run),
+                        10000L
                 )
         );
 
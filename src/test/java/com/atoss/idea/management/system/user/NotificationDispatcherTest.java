@@ -0,0 +1,82 @@
+package com.atoss.idea.management.system.user;
+
+import com.atoss.idea.management.system.repository.NotificationRepository;
+import com.atoss.idea.management.system.repository.entity.Notification;
+import com.atoss.idea.management.system.repository.entity.NotificationStatus;
+import com.atoss.idea.management.system.service.implementation.SendEmailServiceImpl;
+import com.atoss.idea.management.system.utils.NotificationDispatcher;
+import freemarker.template.TemplateNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+public class NotificationDispatcherTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+
+    @Mock
+    private SendEmailServiceImpl sendEmailService;
+
+    @InjectMocks
+    private NotificationDispatcher notificationDispatcher;
+
+    private Notification notification;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(notificationDispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(notificationDispatcher, "retryDelayMs", 1000L);
+
+        notification = new Notification();
+        notification.setId(1L);
+        notification.setTemplateName("comment-added-subscription-template.ftl");
+    }
+
+    @Test
+    public void sentNotificationIsMarkedAsSent() throws Exception {
+        notificationDispatcher.send(notification);
+
+        verify(sendEmailService).sendNotification(notification);
+        verify(notificationRepository).saveAttempt(eq(1L), eq(NotificationStatus.SENT), any(Date.class), any(Date.class), isNull());
+    }
+
+    @Test
+    public void failedNotificationIsRetriedLater() throws Exception {
+        notification.setAttempts(1);
+        doThrow(new TemplateNotFoundException("missing.ftl", null, "Template not found")).when(sendEmailService).sendNotification(notification);
+
+        long before = System.currentTimeMillis();
+        notificationDispatcher.send(notification);
+
+        ArgumentCaptor<Date> nextAttemptAt = ArgumentCaptor.forClass(Date.class);
+        verify(notificationRepository).saveAttempt(eq(1L), eq(NotificationStatus.PENDING), nextAttemptAt.capture(), isNull(), anyString());
+        // the delay doubles after every failed attempt
+        assertTrue(nextAttemptAt.getValue().getTime() >= before + 2000L);
+    }
+
+    @Test
+    public void notificationIsGivenUpAfterTheLastAttempt() throws Exception {
+        notification.setAttempts(2);
+        doThrow(new RuntimeException("Mail server unavailable")).when(sendEmailService).sendNotification(notification);
+
+        notificationDispatcher.send(notification);
+
+        verify(notificationRepository).saveAttempt(eq(1L), eq(NotificationStatus.FAILED), any(Date.class), isNull(), eq("Mail server unavailable"));
+    }
+}
@@ -0,0 +1,40 @@
+package com.atoss.idea.management.system.user;
+
+import com.atoss.idea.management.system.security.LoginConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PasswordEncoderTest {
+
+    private final PasswordEncoder passwordEncoder = LoginConfig.createPasswordEncoder(5);
+
+    @Test
+    public void hashWithoutEncoderIdMatchesAndIsUpgraded() {
+        String storedHash = BCrypt.hashpw("password", "$2a$04$QkRidA35ea0Fzm/ObrOEgO");
+
+        assertTrue(passwordEncoder.matches("password", storedHash));
+        assertFalse(passwordEncoder.matches("other", storedHash));
+        assertTrue(passwordEncoder.upgradeEncoding(storedHash));
+    }
+
+    @Test
+    public void hashWithTheCurrentCostIsKept() {
+        String storedHash = passwordEncoder.encode("password");
+
+        assertTrue(storedHash.startsWith("{" + LoginConfig.BCRYPT + "}$2a$05$"));
+        assertTrue(passwordEncoder.matches("password", storedHash));
+        assertFalse(passwordEncoder.upgradeEncoding(storedHash));
+    }
+
+    @Test
+    public void hashWithAHigherCostIsDowngraded() {
+        String storedHash = LoginConfig.createPasswordEncoder(6).encode("password");
+
+        assertTrue(passwordEncoder.matches("password", storedHash));
+        assertTrue(passwordEncoder.upgradeEncoding(storedHash));
+    }
+}
@@ -0,0 +1,134 @@
+package com.atoss.idea.management.system.user;
+
+import com.atoss.idea.management.system.exception.InvalidRefreshTokenException;
+import com.atoss.idea.management.system.exception.RefreshTokenExpiredException;
+import com.atoss.idea.management.system.repository.RefreshTokenRepository;
+import com.atoss.idea.management.system.repository.dto.UserSecurityDTO;
+import com.atoss.idea.management.system.repository.entity.RefreshToken;
+import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.SessionService;
+import com.atoss.idea.management.system.security.token.AccessTokenConfig;
+import com.atoss.idea.management.system.security.token.JwtService;
+import com.atoss.idea.management.system.security.token.RefreshTokenConfig;
+import com.atoss.idea.management.system.security.token.RefreshTokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.modelmapper.ModelMapper;
+import org.springframework.http.ResponseCookie;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Spy
+    private ModelMapper modelMapper;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private SessionService sessionService;
+
+    @Mock
+    private RefreshTokenConfig tokenConfig;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private RefreshToken refreshToken;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(refreshTokenService, "maxRefreshTokensPerUser", 10);
+        when(tokenConfig.getExpiryMs()).thenReturn(7200000L);
+        when(jwtService.getTokenConfig()).thenReturn(new AccessTokenConfig());
+        when(jwtService.generateToken(any(UserSecurityDTO.class))).thenReturn("accessToken");
+        when(jwtService.extractExpiration("accessToken")).thenReturn(new Date());
+        when(sessionService.createTokenCookie(any(), anyString(), any())).thenReturn(ResponseCookie.from("name", "value").build());
+        when(refreshTokenRepository.save(any(RefreshToken.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("username");
+        refreshToken = RefreshToken.builder()
+                .id(2L)
+                .userId(1L)
+                .user(user)
+                .expiryDate(Instant.now().plusSeconds(60))
+                .build();
+    }
+
+    @Test
+    public void onlyTheHashOfANewTokenIsSavedAndTheSessionsAreCapped() {
+        RefreshToken created = refreshTokenService.createRefreshToken(1L);
+
+        assertNotEquals(created.getToken(), created.getTokenHash());
+        assertEquals(64, created.getTokenHash().length());
+        verify(refreshTokenRepository).deleteOldestOfUser(1L, 10);
+    }
+
+    @Test
+    public void refreshRotatesTheTokenWithOneUpdate() {
+        when(sessionService.extractToken(request, tokenConfig)).thenReturn(Optional.of("token"));
+        when(refreshTokenRepository.findWithUserByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.rotate(eq(2L), anyString(), anyString(), any(Instant.class))).thenReturn(1);
+
+        refreshTokenService.refreshAuthToken(request, response);
+
+        verify(jwtService).generateToken(any(UserSecurityDTO.class));
+        verify(refreshTokenRepository, never()).save(any(RefreshToken.class));
+        verify(refreshTokenRepository, never()).delete(any(RefreshToken.class));
+    }
+
+    @Test
+    public void tokenRotatedConcurrentlyIsRejected() {
+        when(sessionService.extractToken(request, tokenConfig)).thenReturn(Optional.of("token"));
+        when(refreshTokenRepository.findWithUserByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.rotate(eq(2L), anyString(), anyString(), any(Instant.class))).thenReturn(0);
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.refreshAuthToken(request, response));
+        verify(jwtService, never()).generateToken(any(UserSecurityDTO.class));
+    }
+
+    @Test
+    public void expiredTokenIsRejectedAndDeletedOutsideTheRefresh() {
+        refreshToken.setExpiryDate(Instant.now().minusSeconds(60));
+        when(sessionService.extractToken(request, tokenConfig)).thenReturn(Optional.of("token"));
+        when(refreshTokenRepository.findWithUserByTokenHash(anyString())).thenReturn(Optional.of(refreshToken));
+
+        assertThrows(RefreshTokenExpiredException.class, () -> refreshTokenService.refreshAuthToken(request, response));
+        // the refresh is rolled back by the exception, the delete runs in its own transaction
+        verify(refreshTokenRepository).deleteExpiredById(2L);
+        verify(refreshTokenRepository, never()).deleteById(any());
+        verify(refreshTokenRepository, never()).rotate(any(), any(), any(), any());
+    }
+}
@@ -0,0 +1,51 @@
+package com.atoss.idea.management.system.user;
+
+import com.atoss.idea.management.system.security.RouteMatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class RouteMatcherTest {
+
+    private RouteMatcher routeMatcher;
+
+    @BeforeEach
+    public void setUp() {
+        routeMatcher = new RouteMatcher(
+                new String[]{"/api/v1/auth/**", "/users/verify-otp", "/users/*/public"},
+                new String[]{"/users/all", "/aims/api/v1/ideas/**", "/users/verify-otp"});
+    }
+
+    @Test
+    public void routesAreClassifiedBySegments() {
+        assertEquals(RouteMatcher.Access.PUBLIC, routeMatcher.match("/api/v1/auth/login").getAccess());
+        assertEquals(RouteMatcher.Access.PUBLIC, routeMatcher.match("/api/v1/auth").getAccess());
+        assertEquals(RouteMatcher.Access.PUBLIC, routeMatcher.match("/users/john/public").getAccess());
+        assertEquals(RouteMatcher.Access.PRIVATE, routeMatcher.match("/users/all").getAccess());
+        assertEquals(RouteMatcher.Access.PRIVATE, routeMatcher.match("/aims/api/v1/ideas/1/comments").getAccess());
+        assertEquals(RouteMatcher.Access.ADMIN, routeMatcher.match("/users/allx").getAccess());
+        assertEquals(RouteMatcher.Access.ADMIN, routeMatcher.match("/aims/api/v1/admin/api/v1/auth/login").getAccess());
+        assertEquals(RouteMatcher.Access.ADMIN, routeMatcher.match("/").getAccess());
+    }
+
+    @Test
+    public void firstConfiguredRouteWins() {
+        assertEquals("/users/verify-otp", routeMatcher.match("/users/verify-otp").getPattern());
+        assertEquals(RouteMatcher.Access.PUBLIC, routeMatcher.match("/users/verify-otp").getAccess());
+    }
+
+    @Test
+    public void hitsAreCountedByRoute() {
+        routeMatcher.match("/users/all").hit();
+        routeMatcher.match("/users/all").hit();
+        routeMatcher.match("/unknown").hit();
+        // configured as public and as private
+        routeMatcher.match("/users/verify-otp").hit();
+
+        assertEquals(2L, routeMatcher.getHits().get("/users/all"));
+        assertEquals(1L, routeMatcher.getHits().get(RouteMatcher.ANY_ROUTE));
+        assertEquals(1L, routeMatcher.getHits().get("/users/verify-otp"));
+        assertEquals("/users/all", routeMatcher.getHits().keySet().iterator().next());
+    }
+}
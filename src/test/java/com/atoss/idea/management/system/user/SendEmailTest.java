@@ -45,6 +45,9 @@ public class SendEmailTest {
     @Mock
     CommentRepository commentRepository;
 
+    @Mock
+    NotificationRepository notificationRepository;
+
     JavaMailSenderImpl spyJavaMailSender;
 
     Configuration spyConfiguration;
@@ -85,7 +88,8 @@ public class SendEmailTest {
                 spyConfiguration,
                 mockSubscriptionRepository,
                 mockIdeaRepository,
-                commentRepository
+                commentRepository,
+                notificationRepository
         ));
 
         user = new User();
@@ -6,10 +6,14 @@ import com.atoss.idea.management.system.exception.EmailAlreadyExistException;
 import com.atoss.idea.management.system.exception.UsernameAlreadyExistException;
 import com.atoss.idea.management.system.repository.AvatarRepository;
 import com.atoss.idea.management.system.repository.UserRepository;
+import com.atoss.idea.management.system.repository.dto.ImageDTO;
 import com.atoss.idea.management.system.repository.dto.UserResponseDTO;
 import com.atoss.idea.management.system.repository.dto.UserUpdateDTO;
 import com.atoss.idea.management.system.repository.entity.Avatar;
 import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.LoginConfig;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.UserService;
 import com.atoss.idea.management.system.service.implementation.UserServiceImpl;
@@ -22,9 +26,13 @@ import org.mockito.Spy;
 import org.modelmapper.ModelMapper;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.spy;
@@ -46,6 +54,12 @@ public class UpdateUserTest {
     @Mock
     AvatarRepository mockAvatarRepository;
 
+    @Mock
+    BlobStorageService mockBlobStorageService;
+
+    @Mock
+    UserDetailsServiceImpl mockUserDetailsService;
+
     private UserUpdateDTO userUpdateDTO;
     private User user;
     private String username = "username";
@@ -58,7 +72,10 @@ public class UpdateUserTest {
                         mockUserRepository,
                         spyModelMapper,
                         mockSendEmailService,
-                        mockAvatarRepository
+                        mockAvatarRepository,
+                        mockUserDetailsService,
+                        LoginConfig.createPasswordEncoder(4),
+                        mockBlobStorageService
                 )
         );
         spyUserController = spy(new UserController(spyUserService, mockSendEmailService));
@@ -79,6 +96,7 @@ public class UpdateUserTest {
         UserResponseDTO responseDTO = updateUser(user, username, userUpdateDTO);
 
         assertEquals(userUpdateDTO.getUsername(), responseDTO.getUsername());
+        Mockito.verify(mockUserDetailsService).invalidateUser(username);
     }
 
     @Test
@@ -140,8 +158,51 @@ public class UpdateUserTest {
     @Test
     void testAddFullName() {
         userUpdateDTO.setFullName("Full name");
+        user.setUsername(username);
         UserResponseDTO responseDTO = updateUser(user, username, userUpdateDTO);
         assertEquals(userUpdateDTO.getFullName(), responseDTO.getFullName());
+        Mockito.verify(mockUserDetailsService, Mockito.never()).invalidateUser(any());
+    }
+
+    @Test
+    void testAvatarByUsernameIsCached() {
+        ImageDTO image = new ImageDTO();
+        image.setFileName("avatar.png");
+        image.setContentHash("hash");
+        byte[] content = {1, 2, 3};
+        Mockito.when(mockUserRepository.findImageByUsername(username)).thenReturn(List.of(image));
+        Mockito.when(mockBlobStorageService.read("hash")).thenReturn(content);
+
+        assertArrayEquals(content, spyUserService.getAvatarByUsername(username).getImage());
+        assertArrayEquals(content, spyUserService.getAvatarByUsername(username).getImage());
+
+        Mockito.verify(mockUserRepository, Mockito.times(1)).findImageByUsername(username);
+        assertNull(image.getImage());
+    }
+
+    @Test
+    void testUpdateImageStoresItAndInvalidatesTheCachedAvatar() {
+        Mockito.when(mockUserRepository.findImageByUsername(username)).thenReturn(Collections.singletonList(null));
+        assertThrows(AvatarNotFoundException.class, () -> spyUserService.getAvatarByUsername(username));
+
+        ImageDTO image = new ImageDTO();
+        image.setFileName("avatar.png");
+        image.setImage(new byte[]{1, 2, 3});
+        userUpdateDTO.setUpdatedImage(true);
+        userUpdateDTO.setImage(image);
+        Mockito.when(mockBlobStorageService.store(image.getImage())).thenReturn("hash");
+
+        updateUser(user, username, userUpdateDTO);
+
+        assertEquals("hash", user.getImage().getContentHash());
+        assertEquals(3L, user.getImage().getSize());
+        assertNull(user.getImage().getImage());
+
+        Mockito.when(mockUserRepository.findImageByUsername(username)).thenReturn(List.of(user.getImage()));
+        Mockito.when(mockBlobStorageService.read("hash")).thenReturn(new byte[]{1, 2, 3});
+
+        assertEquals("hash", spyUserService.getAvatarByUsername(username).getContentHash());
+        Mockito.verify(mockUserRepository, Mockito.times(2)).findImageByUsername(username);
     }
 
     private UserResponseDTO updateUser(User user, String username, UserUpdateDTO userUpdateDTO) {
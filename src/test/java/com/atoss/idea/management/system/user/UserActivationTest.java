@@ -4,6 +4,9 @@ import com.atoss.idea.management.system.exception.UserAlreadyActivatedException;
 import com.atoss.idea.management.system.exception.UserAlreadyDeactivatedException;
 import com.atoss.idea.management.system.repository.*;
 import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.LoginConfig;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.UserService;
 import com.atoss.idea.management.system.service.implementation.SendEmailServiceImpl;
@@ -44,6 +47,12 @@ public class UserActivationTest {
     @Mock
     AvatarRepository mockAvatarRepository;
 
+    @Mock
+    BlobStorageService mockBlobStorageService;
+
+    @Mock
+    UserDetailsServiceImpl mockUserDetailsService;
+
 
     @Mock
     SubscriptionRepository mockSubscriptionRepository;
@@ -54,6 +63,9 @@ public class UserActivationTest {
     @Mock
     CommentRepository commentRepository;
 
+    @Mock
+    NotificationRepository mockNotificationRepository;
+
     @Spy
     JavaMailSender mockEmailSender;
 
@@ -77,7 +89,8 @@ public class UserActivationTest {
                         mockConfiguration,
                         mockSubscriptionRepository,
                         mockIdeaRepository,
-                        commentRepository
+                        commentRepository,
+                        mockNotificationRepository
                 )
         );
 
@@ -86,7 +99,10 @@ public class UserActivationTest {
                         mockUserRepository,
                         spyModelMapper,
                         spySendEmailService,
-                        mockAvatarRepository
+                        mockAvatarRepository,
+                        mockUserDetailsService,
+                        LoginConfig.createPasswordEncoder(4),
+                        mockBlobStorageService
                 )
         );
         user = new User();
@@ -0,0 +1,90 @@
+package com.atoss.idea.management.system.user;
+
+import com.atoss.idea.management.system.repository.UserRepository;
+import com.atoss.idea.management.system.repository.entity.Role;
+import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
+import com.atoss.idea.management.system.security.response.UserDetailsImpl;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class UserDetailsServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserDetailsServiceImpl userDetailsService;
+
+    @BeforeEach
+    public void setUp() {
+        MockitoAnnotations.openMocks(this);
+        userDetailsService = new UserDetailsServiceImpl(userRepository, 300000L, 30000L);
+    }
+
+    @Test
+    public void principalIsBuiltFromTheClaims() {
+        UserDetailsImpl userDetails = userDetailsService.loadUserByClaims(claims(new Date()));
+
+        assertEquals("username", userDetails.getUsername());
+        assertEquals(1L, userDetails.getId());
+        assertEquals("ROLE_ADMIN", userDetails.getAuthorities().iterator().next().getAuthority());
+        assertTrue(userDetails.isActive());
+        verify(userRepository, never()).findByUsernameOrEmail(anyString(), anyString());
+    }
+
+    @Test
+    public void changedUserIsReadFromTheDatabaseOnce() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("username");
+        user.setEmail("user@email.com");
+        user.setPassword("password");
+        user.setRole(Role.ADMIN);
+        user.setIsActive(false);
+        when(userRepository.findByUsernameOrEmail("username", "username")).thenReturn(Optional.of(user));
+        Claims claims = claims(new Date(System.currentTimeMillis() - 60000));
+
+        userDetailsService.invalidateUser("username");
+
+        assertFalse(userDetailsService.loadUserByClaims(claims).isActive());
+        assertFalse(userDetailsService.loadUserByClaims(claims).isActive());
+        verify(userRepository, times(1)).findByUsernameOrEmail("username", "username");
+    }
+
+    @Test
+    public void rehashedPasswordIsSaved() {
+        UserDetailsImpl userDetails = UserDetailsImpl.fromClaims(claims(new Date()));
+
+        userDetailsService.updatePassword(userDetails, "{bcrypt}hash");
+
+        verify(userRepository).updatePassword("username", "{bcrypt}hash");
+        assertEquals("{bcrypt}hash", userDetails.getPassword());
+    }
+
+    private Claims claims(Date issuedAt) {
+        Claims claims = Jwts.claims();
+        claims.setSubject("username");
+        claims.setIssuedAt(issuedAt);
+        claims.put("id", 1);
+        claims.put("email", "user@email.com");
+        claims.put("role", "ADMIN");
+        claims.put("isActive", true);
+        return claims;
+    }
+}
@@ -6,6 +6,9 @@ import com.atoss.idea.management.system.exception.UserAlreadyActivatedException;
 import com.atoss.idea.management.system.repository.*;
 import com.atoss.idea.management.system.repository.entity.Avatar;
 import com.atoss.idea.management.system.repository.entity.User;
+import com.atoss.idea.management.system.security.LoginConfig;
+import com.atoss.idea.management.system.security.UserDetailsServiceImpl;
+import com.atoss.idea.management.system.service.BlobStorageService;
 import com.atoss.idea.management.system.service.SendEmailService;
 import com.atoss.idea.management.system.service.UserService;
 import com.atoss.idea.management.system.service.implementation.SendEmailServiceImpl;
@@ -46,6 +49,12 @@ public class UserRegisterApprovalTest {
     @Mock
     AvatarRepository mockAvatarRepository;
 
+    @Mock
+    BlobStorageService mockBlobStorageService;
+
+    @Mock
+    UserDetailsServiceImpl mockUserDetailsService;
+
 
     @Mock
     SubscriptionRepository mockSubscriptionRepository;
@@ -56,6 +65,9 @@ public class UserRegisterApprovalTest {
     @Mock
     CommentRepository commentRepository;
 
+    @Mock
+    NotificationRepository mockNotificationRepository;
+
     @Spy
     JavaMailSender mockEmailSender;
 
@@ -79,7 +91,8 @@ public class UserRegisterApprovalTest {
                         mockConfiguration,
                         mockSubscriptionRepository,
                         mockIdeaRepository,
-                        commentRepository
+                        commentRepository,
+                        mockNotificationRepository
                 )
         );
 
@@ -88,7 +101,10 @@ public class UserRegisterApprovalTest {
                         mockUserRepository,
                         spyModelMapper,
                         spySendEmailService,
-                        mockAvatarRepository
+                        mockAvatarRepository,
+                        mockUserDetailsService,
+                        LoginConfig.createPasswordEncoder(4),
+                        mockBlobStorageService
                 )
         );
         user = new User();
@@ -0,0 +1,49 @@
+package com.atoss.idea.management.system.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BadWordsReloadJobTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void changedFileReplacesTheWordList() throws IOException {
+        Path wordsFile = directory.resolve("badWords.txt");
+        Files.write(wordsFile, List.of("foo"));
+        Files.setLastModifiedTime(wordsFile, FileTime.from(Instant.parse("2024-03-15T09:00:00Z")));
+        ProfanityFilter profanityFilter = new ProfanityFilter();
+        BadWordsReloadJob badWordsReloadJob = new BadWordsReloadJob(profanityFilter, wordsFile.toString());
+
+        assertTrue(badWordsReloadJob.reloadIfChanged());
+        assertEquals("*** bar ass", profanityFilter.filter("foo bar ass"));
+        assertFalse(badWordsReloadJob.reloadIfChanged());
+
+        Files.write(wordsFile, List.of("bar"));
+        Files.setLastModifiedTime(wordsFile, FileTime.from(Instant.parse("2024-03-15T10:00:00Z")));
+
+        assertTrue(badWordsReloadJob.reloadIfChanged());
+        assertEquals("foo *** ass", profanityFilter.filter("foo bar ass"));
+    }
+
+    @Test
+    public void packagedListStaysWithoutAFile() throws IOException {
+        ProfanityFilter profanityFilter = new ProfanityFilter();
+
+        assertFalse(new BadWordsReloadJob(profanityFilter, "").reloadIfChanged());
+        assertFalse(new BadWordsReloadJob(profanityFilter, directory.resolve("missing.txt").toString()).reloadIfChanged());
+        assertEquals("foo ***", profanityFilter.filter("foo ass"));
+    }
+}
@@ -0,0 +1,50 @@
+package com.atoss.idea.management.system.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ProfanityFilterTest {
+
+    private ProfanityFilter profanityFilter;
+
+    @BeforeEach
+    public void setUp() {
+        profanityFilter = new ProfanityFilter();
+    }
+
+    @Test
+    public void masksWholeWordsIgnoringCase() {
+        assertEquals("What an *******, you ***!", profanityFilter.filter("What an Asshole, you ASS!"));
+    }
+
+    @Test
+    public void doesNotMaskPartsOfOtherWords() {
+        String text = "A classic bass passage";
+        assertSame(text, profanityFilter.filter(text));
+    }
+
+    @Test
+    public void masksExpressionsWithSpaces() {
+        assertEquals("no ********** here", profanityFilter.filter("no Baby Juice here"));
+    }
+
+    @Test
+    public void reloadReplacesTheWordList() {
+        profanityFilter.reload(List.of("foo", "foo bar"));
+
+        assertEquals("*** FoObar ass", profanityFilter.filter("foo FoObar ass"));
+        assertEquals("******* baz", profanityFilter.filter("foo bar baz"));
+        assertEquals("ass", profanityFilter.filter("ass"));
+    }
+
+    @Test
+    public void handlesEmptyText() {
+        assertEquals("", profanityFilter.filter(""));
+        assertEquals(null, profanityFilter.filter(null));
+    }
+}